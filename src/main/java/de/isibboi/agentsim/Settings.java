@@ -9,6 +9,7 @@ import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Properties;
+import java.util.Random;
 import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
@@ -30,9 +31,14 @@ public class Settings {
 	public static final String UI_FONT_FAMILY = "ui.fontFamily";
 	public static final String UI_SELECTION_MODE = "ui.selectionMode";
 
+	public static final String GAME_SEED = "game.seed";
 	public static final String GAME_INITIAL_GOBLIN_COUNT = "game.initialGoblinCount";
 	public static final String GAME_SPAWN_RADIUS = "game.spawnRadius";
 	public static final String GAME_SCALE = "game.scale";
+	public static final String GAME_MAP_LOADED_CHUNK_LIMIT = "game.map.loadedChunkLimit";
+	public static final String GAME_MAP_CHANGE_JOURNAL_SIZE = "game.map.changeJournalSize";
+	public static final String GAME_MAP_FILE = "game.map.file";
+	public static final String GAME_MAP_SAVE_FILE = "game.map.saveFile";
 
 	public static final String GAME_ENTITIES_GOBLIN_INITIAL_SATURATION = "game.entities.goblin.initialSaturation";
 	public static final String GAME_ENTITIES_GOBLIN_INITIAL_MAX_SATURATION = "game.entities.goblin.initialMaxSaturation";
@@ -46,21 +52,35 @@ public class Settings {
 
 	public static final String CORE_RENDER_TRANSITION_AMOUNT = "core.render.transitionAmount";
 
+	public static final String CORE_UPDATE_ENTITY_THREAD_COUNT = "core.update.entityThreadCount";
 	public static final String CORE_UPDATE_COLLISION_THREAD_COUNT = "core.update.collisionThreadCount";
+	public static final String CORE_UPDATE_COLLISION_STILL_TOGETHER_INTERVAL = "core.update.collisionStillTogetherInterval";
+	public static final String CORE_UPDATE_PATH_PLANNING_THREAD_COUNT = "core.update.pathPlanningThreadCount";
+	public static final String CORE_MAP_GENERATION_THREAD_COUNT = "core.mapGenerationThreadCount";
 
 	public static final String CORE_AI_KNOWLEDGE_REPRESENTATION = "core.ai.knowledgeRepresentation";
 	public static final String CORE_AI_KNOWLEDGE_REPRESENTATION_ARRAY = "core.ai.knowledgeRepresentation.ARRAY";
 	public static final String CORE_AI_KNOWLEDGE_REPRESENTATION_HASHMAP = "core.ai.knowledgeRepresentation.HASHMAP";
 
+	public static final String CORE_AI_PATHFINDING_ALGORITHM = "core.ai.pathfindingAlgorithm";
+	public static final String CORE_AI_PATHFINDING_ALGORITHM_ASTAR = "core.ai.pathfindingAlgorithm.ASTAR";
+	public static final String CORE_AI_PATHFINDING_ALGORITHM_ARRAY_ASTAR = "core.ai.pathfindingAlgorithm.ARRAY_ASTAR";
+	public static final String CORE_AI_PATHFINDING_ALGORITHM_BIDIRECTIONAL_ASTAR = "core.ai.pathfindingAlgorithm.BIDIRECTIONAL_ASTAR";
+	public static final String CORE_AI_PATHFINDING_ALGORITHM_JUMP_POINT_SEARCH = "core.ai.pathfindingAlgorithm.JUMP_POINT_SEARCH";
+	public static final String CORE_AI_PATHFINDING_ALGORITHM_HIERARCHICAL = "core.ai.pathfindingAlgorithm.HIERARCHICAL";
+	public static final String CORE_AI_PATHFINDING_CLUSTER_SIZE = "core.ai.pathfindingClusterSize";
+	public static final String CORE_AI_PATH_CACHE_SIZE = "core.ai.pathCacheSize";
+
 	private static final Set<String> ALL_SETTINGS = new HashSet<>(Arrays.asList(
 			UI_WIDTH, UI_HEIGHT, UI_X_POS, UI_Y_POS, UI_FONT_FAMILY, UI_SELECTION_MODE,
-			GAME_INITIAL_GOBLIN_COUNT, GAME_SPAWN_RADIUS, GAME_SCALE,
+			GAME_SEED, GAME_INITIAL_GOBLIN_COUNT, GAME_SPAWN_RADIUS, GAME_SCALE, GAME_MAP_LOADED_CHUNK_LIMIT, GAME_MAP_CHANGE_JOURNAL_SIZE, GAME_MAP_FILE, GAME_MAP_SAVE_FILE,
 			GAME_ENTITIES_GOBLIN_INITIAL_SATURATION, GAME_ENTITIES_GOBLIN_INITIAL_MAX_SATURATION,
 			GAME_AI_SATURATION_BUFFER_DISTANCE_FACTOR, GAME_AI_SATURATION_BUFFER_MINIMUM,
 			CORE_TARGET_FRAME_RATE, CORE_TARGET_UPDATE_RATE, CORE_MAX_UPDATES_PER_FRAME,
 			CORE_RENDER_TRANSITION_AMOUNT,
-			CORE_UPDATE_COLLISION_THREAD_COUNT,
-			CORE_AI_KNOWLEDGE_REPRESENTATION));
+			CORE_UPDATE_ENTITY_THREAD_COUNT, CORE_UPDATE_COLLISION_THREAD_COUNT, CORE_UPDATE_COLLISION_STILL_TOGETHER_INTERVAL, CORE_UPDATE_PATH_PLANNING_THREAD_COUNT,
+			CORE_MAP_GENERATION_THREAD_COUNT,
+			CORE_AI_KNOWLEDGE_REPRESENTATION, CORE_AI_PATHFINDING_ALGORITHM, CORE_AI_PATHFINDING_CLUSTER_SIZE, CORE_AI_PATH_CACHE_SIZE));
 
 	private final Logger _log = LogManager.getLogger(getClass());
 
@@ -111,9 +131,14 @@ public class Settings {
 		_defaults.setProperty(UI_FONT_FAMILY, Font.MONOSPACED);
 		_defaults.setProperty(UI_SELECTION_MODE, EntitySelectionManager.SelectionMode.TOUCH.toString());
 
+		_defaults.setProperty(GAME_SEED, "");
 		_defaults.setProperty(GAME_INITIAL_GOBLIN_COUNT, "100");
 		_defaults.setProperty(GAME_SPAWN_RADIUS, "10");
 		_defaults.setProperty(GAME_SCALE, "4");
+		_defaults.setProperty(GAME_MAP_LOADED_CHUNK_LIMIT, "1024");
+		_defaults.setProperty(GAME_MAP_CHANGE_JOURNAL_SIZE, "4096");
+		_defaults.setProperty(GAME_MAP_FILE, "");
+		_defaults.setProperty(GAME_MAP_SAVE_FILE, "");
 
 		_defaults.setProperty(GAME_ENTITIES_GOBLIN_INITIAL_SATURATION, "20");
 		_defaults.setProperty(GAME_ENTITIES_GOBLIN_INITIAL_MAX_SATURATION, "100");
@@ -127,9 +152,16 @@ public class Settings {
 
 		_defaults.setProperty(CORE_RENDER_TRANSITION_AMOUNT, "1");
 
+		_defaults.setProperty(CORE_UPDATE_ENTITY_THREAD_COUNT, "2");
 		_defaults.setProperty(CORE_UPDATE_COLLISION_THREAD_COUNT, "2");
+		_defaults.setProperty(CORE_UPDATE_COLLISION_STILL_TOGETHER_INTERVAL, "1");
+		_defaults.setProperty(CORE_UPDATE_PATH_PLANNING_THREAD_COUNT, "2");
+		_defaults.setProperty(CORE_MAP_GENERATION_THREAD_COUNT, "2");
 
 		_defaults.setProperty(CORE_AI_KNOWLEDGE_REPRESENTATION, CORE_AI_KNOWLEDGE_REPRESENTATION_HASHMAP);
+		_defaults.setProperty(CORE_AI_PATHFINDING_ALGORITHM, CORE_AI_PATHFINDING_ALGORITHM_ARRAY_ASTAR);
+		_defaults.setProperty(CORE_AI_PATHFINDING_CLUSTER_SIZE, "16");
+		_defaults.setProperty(CORE_AI_PATH_CACHE_SIZE, "1024");
 	}
 
 	/**
@@ -137,7 +169,10 @@ public class Settings {
 	 */
 	// Should be placed somewhere else later on.
 	public void findBestSettingsForCPU() {
+		set(CORE_UPDATE_ENTITY_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
 		set(CORE_UPDATE_COLLISION_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
+		set(CORE_UPDATE_PATH_PLANNING_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
+		set(CORE_MAP_GENERATION_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
 	}
 
 	/**
@@ -218,6 +253,35 @@ public class Settings {
 		}
 	}
 
+	/**
+	 * Returns the value of a given setting as long.
+	 * @param key The name of the setting.
+	 * @return The value of the setting.
+	 */
+	public long getLong(final String key) {
+		String value = get(key);
+
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			_log.error("Setting is not a long: (" + key + ": " + value + ")", e);
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	/**
+	 * Returns the seed the game is started with. If no seed is set, a new random seed is returned on every call, so that every game is different.
+	 * The seed should therefore be read once when the game starts, and passed to everything that needs it.
+	 * @return The seed.
+	 */
+	public long getSeed() {
+		if (get(GAME_SEED).isEmpty()) {
+			return new Random().nextLong();
+		}
+
+		return getLong(GAME_SEED);
+	}
+
 	/**
 	 * Returns the value of a given setting as float.
 	 * @param key The name of the setting.
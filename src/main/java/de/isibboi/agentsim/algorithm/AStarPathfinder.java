@@ -2,7 +2,6 @@ package de.isibboi.agentsim.algorithm;
 
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.PriorityQueue;
 import java.util.Queue;
 
@@ -76,6 +75,7 @@ public class AStarPathfinder implements PathfindingAlgorithm {
 
 	private GridGraph<AStarNode> _graph;
 	private PriorityQueue<AStarNode> _openList; // Represents a min-heap.
+	private long _expandedVertexCount = 0;
 
 	/**
 	 * Creates a new object.
@@ -109,6 +109,11 @@ public class AStarPathfinder implements PathfindingAlgorithm {
 		}
 	}
 
+	@Override
+	public long getExpandedVertexCount() {
+		return _expandedVertexCount;
+	}
+
 	/**
 	 * Traverses the graph starting with the start vertex following the predecessor-pointers.
 	 * Stores all traversed vertices as movements.
@@ -117,7 +122,7 @@ public class AStarPathfinder implements PathfindingAlgorithm {
 	 * @return The path from start to target.
 	 */
 	private Queue<Movement> getPath(final Point start) {
-		Queue<Movement> path = new LinkedList<>();
+		Queue<Movement> path = new PackedPath();
 
 		AStarNode last = _graph.getData(start);
 
@@ -135,6 +140,7 @@ public class AStarPathfinder implements PathfindingAlgorithm {
 	*/
 	private void updateNode() {
 		AStarNode node = _openList.poll();
+		_expandedVertexCount++;
 		Collection<AStarNode> neighbours = _graph.getNeighbours(node._location);
 
 		for (AStarNode neighbour : neighbours) {
@@ -0,0 +1,55 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * The result of a {@link NearestTargetSearch}: a target, the location next to it that is used to access it, and the path to that location.
+ * 
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class AccessPath {
+	private final Point _target;
+	private final Point _accessPoint;
+	private final Queue<Movement> _path;
+
+	/**
+	 * Creates a new access path.
+	 * 
+	 * @param target The target.
+	 * @param accessPoint The location next to the target.
+	 * @param path The movements leading from the start of the search to the access point.
+	 */
+	public AccessPath(final Point target, final Point accessPoint, final Queue<Movement> path) {
+		_target = target;
+		_accessPoint = accessPoint;
+		_path = path;
+	}
+
+	/**
+	 * Returns the target.
+	 * @return The target.
+	 */
+	public Point getTarget() {
+		return _target;
+	}
+
+	/**
+	 * Returns the location next to the target where the path ends.
+	 * @return The access point.
+	 */
+	public Point getAccessPoint() {
+		return _accessPoint;
+	}
+
+	/**
+	 * Returns the movements leading from the start of the search to the access point.
+	 * @return The path.
+	 */
+	public Queue<Movement> getPath() {
+		return _path;
+	}
+}
@@ -0,0 +1,314 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Calculates a shortest path from start to target using the A* algorithm on a fixed size grid.
+ * In contrast to {@link AStarPathfinder}, every location reached by a search gets a vertex number, and all vertex data is stored in flat arrays
+ * indexed by the vertex number. The open list is an {@link IndexedBinaryHeap} over the vertex numbers, supporting decrease-key.
+ * The vertex numbers of the locations are kept in a {@link ChunkedIntGrid}, so the memory grows with the area the searches reach,
+ * and not with the size of the grid. The arrays are reused for every search, and only the locations reached by a search are reset after it.
+ * Locations outside of the grid are treated as blocked.
+ *
+ * Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class ArrayAStarPathfinder implements PathfindingAlgorithm {
+	/**
+	 * The predecessor of the vertex the search started at.
+	 */
+	protected static final int NO_PREDECESSOR = -1;
+
+	/**
+	 * The vertex number of locations that were not reached by the current search.
+	 */
+	private static final int NO_VERTEX = -1;
+
+	/**
+	 * The vertex arrays start with this many entries, and double whenever they are full.
+	 */
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final int _width;
+	private final int _height;
+
+	/**
+	 * The vertex number of each location reached by the current search.
+	 */
+	private final ChunkedIntGrid _vertices;
+	private int _vertexCount = 0;
+
+	private int[] _x = new int[INITIAL_CAPACITY];
+	private int[] _y = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The distance from the target, which is where the search starts.
+	 */
+	private int[] _distance = new int[INITIAL_CAPACITY];
+	private int[] _predecessor = new int[INITIAL_CAPACITY];
+	private boolean[] _closed = new boolean[INITIAL_CAPACITY];
+	private final IndexedBinaryHeap _openList = new IndexedBinaryHeap(INITIAL_CAPACITY);
+
+	private long _expandedVertexCount = 0;
+
+	/**
+	 * Creates a new pathfinder for grids of the given size.
+	 *
+	 * @param width The width of the grid.
+	 * @param height The height of the grid.
+	 */
+	public ArrayAStarPathfinder(final int width, final int height) {
+		_width = width;
+		_height = height;
+		_vertices = new ChunkedIntGrid(width, height, NO_VERTEX);
+	}
+
+	@Override
+	public Queue<Movement> findPath(final Point start, final Point target, final BlockadeMap map) {
+		if (!isOnGrid(start.getX(), start.getY()) || !isOnGrid(target.getX(), target.getY()) || map.isBlocked(start.getX(), start.getY())) {
+			return null;
+		}
+
+		try {
+			// Search from the target to the start, so that the predecessors point along the path.
+			final int targetVertex = createVertex(target.getX(), target.getY());
+			_distance[targetVertex] = 0;
+			_predecessor[targetVertex] = NO_PREDECESSOR;
+			_openList.insert(targetVertex, priority(0, targetVertex, start.getX(), start.getY()));
+
+			while (!_openList.isEmpty()) {
+				final int current = _openList.poll();
+
+				if (_x[current] == start.getX() && _y[current] == start.getY()) {
+					_openList.clear();
+					return getPath(current);
+				}
+
+				_closed[current] = true;
+				_expandedVertexCount++;
+				expand(current, start.getX(), start.getY(), map);
+			}
+
+			return null;
+		} finally {
+			releaseVertices();
+		}
+	}
+
+	@Override
+	public long getExpandedVertexCount() {
+		return _expandedVertexCount;
+	}
+
+	/**
+	 * Relaxes the edges to all neighbours of the given vertex.
+	 * Subclasses can override this to generate a different set of successors.
+	 *
+	 * @param current The vertex.
+	 * @param goalX The x coordinate of the vertex the search is heading to.
+	 * @param goalY The y coordinate of the vertex the search is heading to.
+	 * @param map The blockade map.
+	 */
+	protected void expand(final int current, final int goalX, final int goalY, final BlockadeMap map) {
+		final int x = _x[current];
+		final int y = _y[current];
+
+		// Same order as Point.getNeighbours().
+		relax(current, x, y + 1, 1, goalX, goalY, map);
+		relax(current, x, y - 1, 1, goalX, goalY, map);
+		relax(current, x + 1, y, 1, goalX, goalY, map);
+		relax(current, x - 1, y, 1, goalX, goalY, map);
+	}
+
+	/**
+	 * Relaxes the edge from {@code current} to the vertex at the given location.
+	 * The edge has to be a straight line, so that the path can be reconstructed from the predecessors.
+	 *
+	 * @param current The vertex the edge starts at.
+	 * @param x The x coordinate of the vertex the edge points to.
+	 * @param y The y coordinate of the vertex the edge points to.
+	 * @param cost The length of the edge.
+	 * @param goalX The x coordinate of the vertex the search is heading to.
+	 * @param goalY The y coordinate of the vertex the search is heading to.
+	 * @param map The blockade map.
+	 */
+	protected void relax(final int current, final int x, final int y, final int cost, final int goalX, final int goalY, final BlockadeMap map) {
+		if (!isOnGrid(x, y)) {
+			return;
+		}
+
+		int neighbour = _vertices.get(x, y);
+
+		if (neighbour == NO_VERTEX) {
+			neighbour = createVertex(x, y);
+
+			if (map.isBlocked(x, y)) {
+				_closed[neighbour] = true;
+				return;
+			}
+
+			_distance[neighbour] = Integer.MAX_VALUE;
+		} else if (_closed[neighbour]) {
+			return;
+		}
+
+		final int distance = _distance[current] + cost;
+
+		if (distance < _distance[neighbour]) {
+			_distance[neighbour] = distance;
+			_predecessor[neighbour] = current;
+			_openList.insertOrDecreaseKey(neighbour, priority(distance, neighbour, goalX, goalY));
+		}
+	}
+
+	/**
+	 * Calculates the heap priority of a vertex.
+	 * Vertices are ordered by their estimated path length.
+	 * Ties are broken in favour of the vertex that is farther from the search origin, as it is most likely closer to the goal.
+	 *
+	 * @param distance The distance from the search origin to the vertex.
+	 * @param vertex The vertex.
+	 * @param goalX The x coordinate of the vertex the search is heading to.
+	 * @param goalY The y coordinate of the vertex the search is heading to.
+	 * @return The priority.
+	 */
+	private long priority(final int distance, final int vertex, final int goalX, final int goalY) {
+		final int estimate = distance + Math.abs(_x[vertex] - goalX) + Math.abs(_y[vertex] - goalY);
+		return ((long) estimate << 32) + (Integer.MAX_VALUE - distance);
+	}
+
+	/**
+	 * Follows the predecessors from the start vertex to the target vertex and stores the traversed edges as movements.
+	 * Edges longer than one are split up into single movements.
+	 *
+	 * @param startVertex The start vertex.
+	 * @return The path from start to target.
+	 */
+	private Queue<Movement> getPath(final int startVertex) {
+		PackedPath path = new PackedPath(_distance[startVertex]);
+		int last = startVertex;
+
+		while (_predecessor[last] != NO_PREDECESSOR) {
+			int current = _predecessor[last];
+			int dx = _x[current] - _x[last];
+			int dy = _y[current] - _y[last];
+			Movement movement = Movement.getMovement(Integer.signum(dx), Integer.signum(dy));
+
+			for (int i = Math.abs(dx) + Math.abs(dy); i > 0; i--) {
+				path.add(movement);
+			}
+
+			last = current;
+		}
+
+		return path;
+	}
+
+	/**
+	 * Gives the given location the next vertex number, growing the vertex arrays if necessary.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The vertex.
+	 */
+	private int createVertex(final int x, final int y) {
+		final int vertex = _vertexCount;
+
+		if (vertex == _x.length) {
+			final int capacity = 2 * vertex;
+			_x = Arrays.copyOf(_x, capacity);
+			_y = Arrays.copyOf(_y, capacity);
+			_distance = Arrays.copyOf(_distance, capacity);
+			_predecessor = Arrays.copyOf(_predecessor, capacity);
+			_closed = Arrays.copyOf(_closed, capacity);
+			_openList.ensureCapacity(capacity);
+		}
+
+		_vertexCount++;
+		_x[vertex] = x;
+		_y[vertex] = y;
+		_closed[vertex] = false;
+		_vertices.set(x, y, vertex);
+		return vertex;
+	}
+
+	/**
+	 * Removes the vertex numbers of all locations reached by the current search.
+	 */
+	private void releaseVertices() {
+		for (int vertex = 0; vertex < _vertexCount; vertex++) {
+			_vertices.set(_x[vertex], _y[vertex], NO_VERTEX);
+		}
+
+		_vertexCount = 0;
+	}
+
+	/**
+	 * Returns the predecessor of the given vertex in the current search.
+	 * @param vertex The vertex. Must have been reached in the current search.
+	 * @return The predecessor, or {@link #NO_PREDECESSOR} if the vertex is where the search started.
+	 */
+	protected int getPredecessor(final int vertex) {
+		return _predecessor[vertex];
+	}
+
+	/**
+	 * Returns the x coordinate of the given vertex of the current search.
+	 * @param vertex The vertex.
+	 * @return The x coordinate.
+	 */
+	protected int getX(final int vertex) {
+		return _x[vertex];
+	}
+
+	/**
+	 * Returns the y coordinate of the given vertex of the current search.
+	 * @param vertex The vertex.
+	 * @return The y coordinate.
+	 */
+	protected int getY(final int vertex) {
+		return _y[vertex];
+	}
+
+	/**
+	 * Returns true if the given location is blocked or outside of the grid.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param map The blockade map.
+	 * @return True if the location cannot be entered.
+	 */
+	protected boolean isBlocked(final int x, final int y, final BlockadeMap map) {
+		return !isOnGrid(x, y) || map.isBlocked(x, y);
+	}
+
+	/**
+	 * Returns true if the given location is on the grid.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return True if the given location is on the grid.
+	 */
+	protected boolean isOnGrid(final int x, final int y) {
+		return x >= 0 && y >= 0 && x < _width && y < _height;
+	}
+
+	/**
+	 * Returns the width of the grid.
+	 * @return The width of the grid.
+	 */
+	public int getWidth() {
+		return _width;
+	}
+
+	/**
+	 * Returns the height of the grid.
+	 * @return The height of the grid.
+	 */
+	public int getHeight() {
+		return _height;
+	}
+}
@@ -0,0 +1,349 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Calculates a shortest path from start to target using two A* searches on a fixed size grid,
+ * one from the start towards the target and one from the target towards the start.
+ * The search with the smaller open list is expanded next, so on long paths both searches explore a ball of about half the radius.
+ *
+ * Whenever an edge connects a vertex reached by one search with a vertex reached by the other, the path through it is remembered if it is shorter.
+ * The searches stop as soon as the shortest remembered path is not longer than the smallest estimate in either open list,
+ * as no path through an unexpanded vertex can be shorter then. The heuristic is consistent, so the result is a shortest path.
+ *
+ * Like {@link ArrayAStarPathfinder}, the vertex data is stored in flat arrays indexed by per-search vertex numbers, which are reused for every search.
+ * Locations outside of the grid are treated as blocked, and the target may be blocked.
+ *
+ * Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class BidirectionalAStarPathfinder implements PathfindingAlgorithm {
+	/**
+	 * The vertex data of one search direction.
+	 */
+	private static final class Search {
+		/**
+		 * The vertex number of each location reached by the search.
+		 */
+		private final ChunkedIntGrid _vertices;
+		private int _vertexCount = 0;
+
+		private int[] _x = new int[INITIAL_CAPACITY];
+		private int[] _y = new int[INITIAL_CAPACITY];
+		private int[] _distance = new int[INITIAL_CAPACITY];
+		private int[] _predecessor = new int[INITIAL_CAPACITY];
+		private boolean[] _closed = new boolean[INITIAL_CAPACITY];
+		private final IndexedBinaryHeap _openList = new IndexedBinaryHeap(INITIAL_CAPACITY);
+
+		private int _goalX;
+		private int _goalY;
+
+		/**
+		 * Creates the vertex data for a grid of the given size.
+		 * @param width The width of the grid.
+		 * @param height The height of the grid.
+		 */
+		Search(final int width, final int height) {
+			_vertices = new ChunkedIntGrid(width, height, NO_VERTEX);
+		}
+
+		/**
+		 * Gives the given location the next vertex number, growing the vertex arrays if necessary.
+		 * @param x The x coordinate.
+		 * @param y The y coordinate.
+		 * @return The vertex.
+		 */
+		int createVertex(final int x, final int y) {
+			final int vertex = _vertexCount;
+
+			if (vertex == _x.length) {
+				final int capacity = 2 * vertex;
+				_x = Arrays.copyOf(_x, capacity);
+				_y = Arrays.copyOf(_y, capacity);
+				_distance = Arrays.copyOf(_distance, capacity);
+				_predecessor = Arrays.copyOf(_predecessor, capacity);
+				_closed = Arrays.copyOf(_closed, capacity);
+				_openList.ensureCapacity(capacity);
+			}
+
+			_vertexCount++;
+			_x[vertex] = x;
+			_y[vertex] = y;
+			_closed[vertex] = false;
+			_vertices.set(x, y, vertex);
+			return vertex;
+		}
+
+		/**
+		 * Removes the vertex numbers of all locations reached by the search, and clears the open list.
+		 */
+		void reset() {
+			for (int vertex = 0; vertex < _vertexCount; vertex++) {
+				_vertices.set(_x[vertex], _y[vertex], NO_VERTEX);
+			}
+
+			_vertexCount = 0;
+			_openList.clear();
+		}
+
+		/**
+		 * Returns the smallest estimated path length of all vertices in the open list.
+		 * @return The smallest estimate. The open list must not be empty.
+		 */
+		int getMinimumEstimate() {
+			return (int) (_openList.peekPriority() >>> 32);
+		}
+	}
+
+	private static final int NO_PREDECESSOR = -1;
+
+	/**
+	 * The vertex number of locations that were not reached by a search.
+	 */
+	private static final int NO_VERTEX = -1;
+
+	/**
+	 * The vertex arrays start with this many entries, and double whenever they are full.
+	 */
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final int _width;
+	private final int _height;
+
+	private final Search _forward;
+	private final Search _backward;
+
+	/**
+	 * Used to reverse the forward half of the path.
+	 */
+	private int[] _chain = new int[INITIAL_CAPACITY];
+
+	private int _targetX;
+	private int _targetY;
+	private int _bestDistance;
+	private boolean _met;
+	private int _meetingX;
+	private int _meetingY;
+	private long _expandedVertexCount = 0;
+
+	/**
+	 * Creates a new pathfinder for grids of the given size.
+	 *
+	 * @param width The width of the grid.
+	 * @param height The height of the grid.
+	 */
+	public BidirectionalAStarPathfinder(final int width, final int height) {
+		_width = width;
+		_height = height;
+		_forward = new Search(width, height);
+		_backward = new Search(width, height);
+	}
+
+	@Override
+	public Queue<Movement> findPath(final Point start, final Point target, final BlockadeMap map) {
+		if (!isOnGrid(start.getX(), start.getY()) || !isOnGrid(target.getX(), target.getY()) || map.isBlocked(start.getX(), start.getY())) {
+			return null;
+		}
+
+		if (start.equals(target)) {
+			return new PackedPath(0);
+		}
+
+		_targetX = target.getX();
+		_targetY = target.getY();
+		_bestDistance = Integer.MAX_VALUE;
+		_met = false;
+
+		try {
+			initialize(_forward, start, target);
+			initialize(_backward, target, start);
+
+			while (!_forward._openList.isEmpty() && !_backward._openList.isEmpty()) {
+				if (_bestDistance <= Math.max(_forward.getMinimumEstimate(), _backward.getMinimumEstimate())) {
+					break;
+				}
+
+				if (_forward._openList.size() <= _backward._openList.size()) {
+					expand(_forward, _backward, map);
+				} else {
+					expand(_backward, _forward, map);
+				}
+			}
+
+			if (!_met) {
+				return null;
+			}
+
+			return getPath();
+		} finally {
+			_forward.reset();
+			_backward.reset();
+		}
+	}
+
+	@Override
+	public long getExpandedVertexCount() {
+		return _expandedVertexCount;
+	}
+
+	/**
+	 * Starts a search at the given location.
+	 * @param search The search.
+	 * @param origin The location the search starts at.
+	 * @param goal The location the search is heading to.
+	 */
+	private void initialize(final Search search, final Point origin, final Point goal) {
+		search._goalX = goal.getX();
+		search._goalY = goal.getY();
+
+		final int vertex = search.createVertex(origin.getX(), origin.getY());
+		search._distance[vertex] = 0;
+		search._predecessor[vertex] = NO_PREDECESSOR;
+		search._openList.insert(vertex, priority(search, 0, vertex));
+	}
+
+	/**
+	 * Closes the best vertex of the given search and relaxes the edges to its neighbours.
+	 * @param search The search to expand.
+	 * @param other The search in the opposite direction.
+	 * @param map The blockade map.
+	 */
+	private void expand(final Search search, final Search other, final BlockadeMap map) {
+		final int current = search._openList.poll();
+		search._closed[current] = true;
+		_expandedVertexCount++;
+
+		final int x = search._x[current];
+		final int y = search._y[current];
+
+		// Same order as Point.getNeighbours().
+		relax(search, other, current, x, y + 1, map);
+		relax(search, other, current, x, y - 1, map);
+		relax(search, other, current, x + 1, y, map);
+		relax(search, other, current, x - 1, y, map);
+	}
+
+	/**
+	 * Relaxes the edge from {@code current} to the vertex at the given location,
+	 * and remembers the path through that vertex if the other search reached it as well.
+	 *
+	 * @param search The search that expands {@code current}.
+	 * @param other The search in the opposite direction.
+	 * @param current The vertex the edge starts at.
+	 * @param x The x coordinate of the vertex the edge points to.
+	 * @param y The y coordinate of the vertex the edge points to.
+	 * @param map The blockade map.
+	 */
+	private void relax(final Search search, final Search other, final int current, final int x, final int y, final BlockadeMap map) {
+		if (!isOnGrid(x, y)) {
+			return;
+		}
+
+		int neighbour = search._vertices.get(x, y);
+
+		if (neighbour == NO_VERTEX) {
+			neighbour = search.createVertex(x, y);
+			search._distance[neighbour] = Integer.MAX_VALUE;
+
+			// The target may be blocked, the start is checked before searching.
+			if ((x != _targetX || y != _targetY) && map.isBlocked(x, y)) {
+				search._closed[neighbour] = true;
+				return;
+			}
+		} else if (search._distance[neighbour] == Integer.MAX_VALUE) {
+			// Blocked.
+			return;
+		}
+
+		if (!search._closed[neighbour]) {
+			final int distance = search._distance[current] + 1;
+
+			if (distance < search._distance[neighbour]) {
+				search._distance[neighbour] = distance;
+				search._predecessor[neighbour] = current;
+				search._openList.insertOrDecreaseKey(neighbour, priority(search, distance, neighbour));
+			}
+		}
+
+		final int otherVertex = other._vertices.get(x, y);
+
+		if (otherVertex != NO_VERTEX && other._distance[otherVertex] != Integer.MAX_VALUE) {
+			final int distance = search._distance[neighbour] + other._distance[otherVertex];
+
+			if (distance < _bestDistance) {
+				_bestDistance = distance;
+				_met = true;
+				_meetingX = x;
+				_meetingY = y;
+			}
+		}
+	}
+
+	/**
+	 * Calculates the heap priority of a vertex like {@link ArrayAStarPathfinder} does.
+	 *
+	 * @param search The search the vertex belongs to.
+	 * @param distance The distance from the search origin to the vertex.
+	 * @param vertex The vertex.
+	 * @return The priority.
+	 */
+	private long priority(final Search search, final int distance, final int vertex) {
+		final int estimate = distance + Math.abs(search._x[vertex] - search._goalX) + Math.abs(search._y[vertex] - search._goalY);
+		return ((long) estimate << 32) + (Integer.MAX_VALUE - distance);
+	}
+
+	/**
+	 * Joins the predecessors of the forward search from the meeting location back to the start
+	 * with the predecessors of the backward search from the meeting location to the target.
+	 *
+	 * @return The path from start to target.
+	 */
+	private Queue<Movement> getPath() {
+		final PackedPath path = new PackedPath(_bestDistance);
+		int length = 0;
+
+		for (int current = _forward._vertices.get(_meetingX, _meetingY); _forward._predecessor[current] != NO_PREDECESSOR;
+				current = _forward._predecessor[current]) {
+			if (length == _chain.length) {
+				_chain = Arrays.copyOf(_chain, 2 * length);
+			}
+
+			_chain[length++] = current;
+		}
+
+		int lastX = _forward._x[0];
+		int lastY = _forward._y[0];
+
+		for (int i = length - 1; i >= 0; i--) {
+			final int nextX = _forward._x[_chain[i]];
+			final int nextY = _forward._y[_chain[i]];
+			path.add(Movement.getMovement(nextX - lastX, nextY - lastY));
+			lastX = nextX;
+			lastY = nextY;
+		}
+
+		for (int current = _backward._vertices.get(_meetingX, _meetingY); _backward._predecessor[current] != NO_PREDECESSOR;
+				current = _backward._predecessor[current]) {
+			final int next = _backward._predecessor[current];
+			path.add(Movement.getMovement(_backward._x[next] - _backward._x[current], _backward._y[next] - _backward._y[current]));
+		}
+
+		return path;
+	}
+
+	/**
+	 * Returns true if the given location is on the grid.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return True if the given location is on the grid.
+	 */
+	private boolean isOnGrid(final int x, final int y) {
+		return x >= 0 && y >= 0 && x < _width && y < _height;
+	}
+}
@@ -17,4 +17,22 @@ public interface BlockadeMap {
 	 * @return True if the given location is blocked.
 	 */
 	boolean isBlocked(Point location);
+
+	/**
+	 * Returns true if the given location is blocked.
+	 * Pathfinders working on primitive coordinates use this to avoid creating {@link Point} objects.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return True if the given location is blocked.
+	 */
+	boolean isBlocked(int x, int y);
+
+	/**
+	 * Returns the version of this blockade map. The version changes whenever the blocked state of any location may have changed.
+	 * Two blockade maps of the same class with the same version must block the same locations.
+	 * 
+	 * @return The version.
+	 */
+	long getVersion();
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Decorates a {@link PathfindingAlgorithm} with a bounded cache of search results.
+ * Results are keyed by start, target and the class and version of the blockade map.
+ * A cached path is only returned as long as the blockade map did not change,
+ * but it is shared between different blockade maps blocking the same locations, like the maps of entities with the same knowledge.
+ * If the decorated algorithm also depends on a structure map, like the {@link HierarchicalPathfinder}, the version of that map is part of the key as well.
+ * If the cache is full, the least recently used result is evicted. Unreachable targets are cached as well.
+ *
+ * Every caller receives its own copy of the cached path. All methods are thread safe.
+ * The cache can be shared by several threads with {@link #createWorker(PathfindingAlgorithm)}: each worker looks paths up in the shared cache,
+ * and searches the misses with its own algorithm, so that searches of different threads run in parallel.
+ * Searches with the same algorithm are serialized, as pathfinding algorithms usually are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class CachingPathfinder implements PathfindingAlgorithm {
+	/**
+	 * The key of a cached search result.
+	 */
+	private static final class PathKey {
+		private final Point _start;
+		private final Point _target;
+		private final Class<?> _mapClass;
+		private final long _version;
+		private final long _structureVersion;
+
+		/**
+		 * Creates a new key.
+		 * @param start The start.
+		 * @param target The target.
+		 * @param mapClass The class of the blockade map.
+		 * @param version The version of the blockade map.
+		 * @param structureVersion The version of the structure map, or zero if there is none.
+		 */
+		PathKey(final Point start, final Point target, final Class<?> mapClass, final long version, final long structureVersion) {
+			_start = start;
+			_target = target;
+			_mapClass = mapClass;
+			_version = version;
+			_structureVersion = structureVersion;
+		}
+
+		@Override
+		public int hashCode() {
+			final long versions = _version * 31 + _structureVersion;
+			return ((_start.hashCode() * 31 + _target.hashCode()) * 31 + _mapClass.hashCode()) * 31 + (int) (versions ^ (versions >>> 32));
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (o instanceof PathKey) {
+				PathKey k = (PathKey) o;
+
+				return k._version == _version && k._structureVersion == _structureVersion && k._start.equals(_start) && k._target.equals(_target) && k._mapClass == _mapClass;
+			} else {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Looks paths up in the shared cache, and searches the misses with its own pathfinding algorithm.
+	 */
+	private final class Worker implements PathfindingAlgorithm {
+		private final PathfindingAlgorithm _engine;
+
+		/**
+		 * Creates a new worker.
+		 * @param engine The pathfinding algorithm that searches the misses of this worker.
+		 */
+		Worker(final PathfindingAlgorithm engine) {
+			_engine = engine;
+		}
+
+		@Override
+		public Queue<Movement> findPath(final Point start, final Point target, final BlockadeMap map) {
+			return CachingPathfinder.this.findPath(start, target, map, _engine);
+		}
+
+		@Override
+		public long getExpandedVertexCount() {
+			return _engine.getExpandedVertexCount();
+		}
+	}
+
+	/**
+	 * Stored for targets that cannot be reached.
+	 */
+	private static final PackedPath NO_PATH = new PackedPath(0);
+
+	private final PathfindingAlgorithm _pathfinder;
+	private final BlockadeMap _structure;
+
+	/**
+	 * The cached paths. All accesses synchronize on the map, but searches run outside of the lock.
+	 */
+	private final Map<PathKey, PackedPath> _cache;
+
+	private final AtomicLong _hits = new AtomicLong();
+	private final AtomicLong _misses = new AtomicLong();
+
+	/**
+	 * Creates a new caching pathfinder.
+	 * @param pathfinder The decorated pathfinding algorithm.
+	 * @param capacity The maximum amount of cached results.
+	 */
+	public CachingPathfinder(final PathfindingAlgorithm pathfinder, final int capacity) {
+		this(pathfinder, capacity, null);
+	}
+
+	/**
+	 * Creates a new caching pathfinder for an algorithm whose results also depend on a structure map.
+	 * @param pathfinder The decorated pathfinding algorithm.
+	 * @param capacity The maximum amount of cached results.
+	 * @param structure The structure map the decorated algorithm depends on, or null if there is none.
+	 */
+	public CachingPathfinder(final PathfindingAlgorithm pathfinder, final int capacity, final BlockadeMap structure) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive!");
+		}
+
+		_pathfinder = pathfinder;
+		_structure = structure;
+		_cache = new LinkedHashMap<PathKey, PackedPath>(capacity * 4 / 3 + 1, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<PathKey, PackedPath> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Returns a pathfinding algorithm that shares the cache of this object, but searches its misses with the given algorithm.
+	 * Give every thread its own worker with its own algorithm, so that the threads do not wait for each other's searches.
+	 * 
+	 * @param engine The pathfinding algorithm that searches the misses of the worker.
+	 * @return The worker.
+	 */
+	public PathfindingAlgorithm createWorker(final PathfindingAlgorithm engine) {
+		return new Worker(engine);
+	}
+
+	@Override
+	public Queue<Movement> findPath(final Point start, final Point target, final BlockadeMap map) {
+		return findPath(start, target, map, _pathfinder);
+	}
+
+	/**
+	 * Looks the path up in the cache, and searches it with the given algorithm on a miss.
+	 * @param start The start point.
+	 * @param target The target point.
+	 * @param map The map.
+	 * @param engine The pathfinding algorithm that searches the path on a miss.
+	 * @return The path, or null if the target cannot be reached.
+	 */
+	private Queue<Movement> findPath(final Point start, final Point target, final BlockadeMap map, final PathfindingAlgorithm engine) {
+		final PathKey key = new PathKey(start, target, map.getClass(), map.getVersion(), _structure == null ? 0 : _structure.getVersion());
+		PackedPath path;
+
+		synchronized (_cache) {
+			path = _cache.get(key);
+		}
+
+		if (path != null) {
+			_hits.incrementAndGet();
+		} else {
+			_misses.incrementAndGet();
+
+			final Queue<Movement> result;
+
+			synchronized (engine) {
+				result = engine.findPath(start, target, map);
+			}
+
+			path = result == null ? NO_PATH : new PackedPath(result);
+
+			synchronized (_cache) {
+				_cache.put(key, path);
+			}
+		}
+
+		if (path == NO_PATH) {
+			return null;
+		}
+
+		return new PackedPath(path);
+	}
+
+	/**
+	 * Returns the vertex expansions of the decorated algorithm. Cache hits do not expand any vertices.
+	 * @return The amount of expanded vertices.
+	 */
+	@Override
+	public long getExpandedVertexCount() {
+		return _pathfinder.getExpandedVertexCount();
+	}
+
+	/**
+	 * Returns the amount of searches that were answered from the cache.
+	 * @return The amount of cache hits.
+	 */
+	public long getHitCount() {
+		return _hits.get();
+	}
+
+	/**
+	 * Returns the amount of searches that were delegated to the decorated algorithm.
+	 * @return The amount of cache misses.
+	 */
+	public long getMissCount() {
+		return _misses.get();
+	}
+
+	/**
+	 * Returns the amount of results currently in the cache.
+	 * @return The size of the cache.
+	 */
+	public int size() {
+		synchronized (_cache) {
+			return _cache.size();
+		}
+	}
+
+	/**
+	 * Returns the decorated pathfinding algorithm.
+	 * @return The pathfinding algorithm.
+	 */
+	public PathfindingAlgorithm getDecoratedPathfindingAlgorithm() {
+		return _pathfinder;
+	}
+}
@@ -0,0 +1,126 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+
+import de.isibboi.agentsim.game.map.MapChunk;
+
+/**
+ * Stores an {@code int} for every location of a grid, in square chunks of the size of a {@link MapChunk}.
+ * A chunk is allocated when the first location inside of it is set, so the memory grows with the area that was written to,
+ * and not with the size of the grid. Only the table of chunk references is allocated for the whole grid, like in {@link de.isibboi.agentsim.game.map.GameMap}.
+ * Locations are addressed by their coordinates, so grids with more locations than an {@code int} can count are supported.
+ *
+ * Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class ChunkedIntGrid {
+	private static final int CHUNK_MASK = MapChunk.SIZE - 1;
+
+	private final int _width;
+	private final int _height;
+	private final int _chunksX;
+	private final int _defaultValue;
+
+	/**
+	 * The allocated chunks, indexed by {@code chunkY * chunksX + chunkX}. Null if no location inside of a chunk was set.
+	 */
+	private final int[][] _chunks;
+
+	/**
+	 * The indices of the allocated chunks, so that they can be reset without scanning the whole chunk table.
+	 */
+	private int[] _allocatedChunks = new int[16];
+	private int _allocatedChunkCount = 0;
+
+	/**
+	 * Creates a new grid where every location has the default value.
+	 * @param width The width of the grid.
+	 * @param height The height of the grid.
+	 * @param defaultValue The value of locations that were not set.
+	 */
+	public ChunkedIntGrid(final int width, final int height, final int defaultValue) {
+		final long chunksX = (width + (long) CHUNK_MASK) >> MapChunk.SIZE_BITS;
+		final long chunksY = (height + (long) CHUNK_MASK) >> MapChunk.SIZE_BITS;
+
+		if (width <= 0 || height <= 0 || chunksX * chunksY > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Unsupported grid size: " + width + "x" + height);
+		}
+
+		_width = width;
+		_height = height;
+		_chunksX = (int) chunksX;
+		_defaultValue = defaultValue;
+		_chunks = new int[(int) (chunksX * chunksY)][];
+	}
+
+	/**
+	 * Returns the value of the given location.
+	 * @param x The x coordinate. Must be on the grid.
+	 * @param y The y coordinate. Must be on the grid.
+	 * @return The value.
+	 */
+	public int get(final int x, final int y) {
+		final int[] chunk = _chunks[(y >> MapChunk.SIZE_BITS) * _chunksX + (x >> MapChunk.SIZE_BITS)];
+		return chunk == null ? _defaultValue : chunk[(y & CHUNK_MASK) << MapChunk.SIZE_BITS | x & CHUNK_MASK];
+	}
+
+	/**
+	 * Sets the value of the given location, allocating its chunk if necessary.
+	 * @param x The x coordinate. Must be on the grid.
+	 * @param y The y coordinate. Must be on the grid.
+	 * @param value The value.
+	 */
+	public void set(final int x, final int y, final int value) {
+		final int index = (y >> MapChunk.SIZE_BITS) * _chunksX + (x >> MapChunk.SIZE_BITS);
+		int[] chunk = _chunks[index];
+
+		if (chunk == null) {
+			chunk = new int[MapChunk.SIZE * MapChunk.SIZE];
+			Arrays.fill(chunk, _defaultValue);
+			_chunks[index] = chunk;
+
+			if (_allocatedChunkCount == _allocatedChunks.length) {
+				_allocatedChunks = Arrays.copyOf(_allocatedChunks, 2 * _allocatedChunkCount);
+			}
+
+			_allocatedChunks[_allocatedChunkCount++] = index;
+		}
+
+		chunk[(y & CHUNK_MASK) << MapChunk.SIZE_BITS | x & CHUNK_MASK] = value;
+	}
+
+	/**
+	 * Resets all locations to the default value. The allocated chunks are kept for reuse.
+	 */
+	public void clear() {
+		for (int i = 0; i < _allocatedChunkCount; i++) {
+			Arrays.fill(_chunks[_allocatedChunks[i]], _defaultValue);
+		}
+	}
+
+	/**
+	 * Returns the amount of allocated chunks.
+	 * @return The amount of allocated chunks.
+	 */
+	public int getAllocatedChunkCount() {
+		return _allocatedChunkCount;
+	}
+
+	/**
+	 * Returns the width of the grid.
+	 * @return The width.
+	 */
+	public int getWidth() {
+		return _width;
+	}
+
+	/**
+	 * Returns the height of the grid.
+	 * @return The height.
+	 */
+	public int getHeight() {
+		return _height;
+	}
+}
@@ -0,0 +1,323 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+
+import de.isibboi.agentsim.game.entities.ai.KnowledgeChangeListener;
+import de.isibboi.agentsim.game.entities.ai.KnowledgeMap;
+import de.isibboi.agentsim.game.map.Material;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Labels the connected components of the known passable locations of a knowledge map, using a union find structure.
+ * Locations are passable if they are known and not solid, just like in {@link KnowledgeBasedBlockadeMap}.
+ *
+ * Knowledge usually only opens up locations, for example when mining is discovered, which merges components in almost constant time.
+ * If a passable location becomes blocked, the components are rebuilt from the knowledge map before the next query.
+ * The index has to be registered as {@link KnowledgeChangeListener} at the knowledge map.
+ *
+ * The union find data is stored in square chunks that are allocated when the first location inside of them becomes passable,
+ * so the memory grows with the known area and not with the size of the map.
+ * The allocated chunks are numbered in the order they are allocated, and found by their coordinates in a {@link LocationIntMap}.
+ * Locations are indexed chunk by chunk, so the chunk number and the position inside of the chunk are taken from the bits of the index.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class ConnectedComponents implements ReachabilityIndex, KnowledgeChangeListener<Material> {
+	/**
+	 * The parent of locations that are not passable.
+	 */
+	private static final int BLOCKED = -1;
+
+	private static final int CHUNK_BITS = 5;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final int CELL_BITS = 2 * CHUNK_BITS;
+	private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+
+	/**
+	 * The index of locations in chunks that are not allocated.
+	 */
+	private static final int NO_INDEX = -1;
+
+	private final KnowledgeMap<Material> _mapKnowledge;
+	private final int _width;
+	private final int _height;
+
+	/**
+	 * The number of each allocated chunk, by chunk coordinates.
+	 */
+	private final LocationIntMap _chunkNumbers = new LocationIntMap(NO_INDEX);
+
+	/**
+	 * The parent of each location in the union find forest, per allocated chunk. Roots are their own parent.
+	 */
+	private int[][] _parent = new int[16][];
+	private byte[][] _rank = new byte[16][];
+
+	/**
+	 * False if the components have to be rebuilt before the next query.
+	 */
+	private boolean _valid;
+
+	/**
+	 * Creates a new index for the given knowledge map. The components are built on the first query.
+	 *
+	 * @param mapKnowledge The map knowledge.
+	 * @param width The width of the map. Locations outside of the map are blocked.
+	 * @param height The height of the map.
+	 */
+	public ConnectedComponents(final KnowledgeMap<Material> mapKnowledge, final int width, final int height) {
+		_mapKnowledge = mapKnowledge;
+		_width = width;
+		_height = height;
+		_valid = false;
+	}
+
+	@Override
+	public void knowledgeChanged(final int x, final int y, final Material oldKnowledge, final Material newKnowledge) {
+		if (!_valid || !isOnGrid(x, y)) {
+			return;
+		}
+
+		final boolean wasPassable = isPassable(oldKnowledge);
+		final boolean passable = isPassable(newKnowledge);
+
+		if (passable && !wasPassable) {
+			open(x, y);
+		} else if (wasPassable && !passable) {
+			_valid = false;
+		}
+	}
+
+	@Override
+	public boolean isReachable(final Point start, final Point target) {
+		if (!isOnGrid(start.getX(), start.getY()) || !isOnGrid(target.getX(), target.getY())) {
+			return false;
+		}
+
+		ensureValid();
+
+		final int startIndex = getIndex(start.getX(), start.getY());
+
+		if (getParent(startIndex) == BLOCKED) {
+			return false;
+		}
+
+		final int root = find(startIndex);
+		final int targetIndex = getIndex(target.getX(), target.getY());
+
+		if (getParent(targetIndex) != BLOCKED) {
+			return find(targetIndex) == root;
+		}
+
+		// A blocked target is entered from one of its neighbours.
+		for (int direction = 0; direction < 4; direction++) {
+			final int x = target.getX() + PackedPath.getDirectionX(direction);
+			final int y = target.getY() + PackedPath.getDirectionY(direction);
+
+			if (isOnGrid(x, y)) {
+				final int index = getIndex(x, y);
+
+				if (getParent(index) != BLOCKED && find(index) == root) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Rebuilds the components from the knowledge map if they are not valid.
+	 */
+	private void ensureValid() {
+		if (_valid) {
+			return;
+		}
+
+		for (int chunk = 0; chunk < _chunkNumbers.size(); chunk++) {
+			Arrays.fill(_parent[chunk], BLOCKED);
+		}
+
+		for (Point location : _mapKnowledge.getKnownLocationSet()) {
+			if (isOnGrid(location.getX(), location.getY()) && isPassable(_mapKnowledge.getLocationKnowledge(location))) {
+				open(location.getX(), location.getY());
+			}
+		}
+
+		_valid = true;
+	}
+
+	/**
+	 * Makes the given location passable and merges it with the components of its passable neighbours.
+	 *
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 */
+	private void open(final int x, final int y) {
+		if (_chunkNumbers.get(x >> CHUNK_BITS, y >> CHUNK_BITS) == NO_INDEX) {
+			allocateChunk(x >> CHUNK_BITS, y >> CHUNK_BITS);
+		}
+
+		final int index = getIndex(x, y);
+		final int chunk = index >>> CELL_BITS;
+		final int cell = index & CELL_MASK;
+
+		if (_parent[chunk][cell] != BLOCKED) {
+			return;
+		}
+
+		_parent[chunk][cell] = index;
+		_rank[chunk][cell] = 0;
+
+		for (int direction = 0; direction < 4; direction++) {
+			final int nx = x + PackedPath.getDirectionX(direction);
+			final int ny = y + PackedPath.getDirectionY(direction);
+
+			if (isOnGrid(nx, ny)) {
+				final int neighbour = getIndex(nx, ny);
+
+				if (getParent(neighbour) != BLOCKED) {
+					union(index, neighbour);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Allocates the chunk with the given chunk coordinates, with all locations blocked.
+	 *
+	 * @param chunkX The x coordinate of the chunk.
+	 * @param chunkY The y coordinate of the chunk.
+	 */
+	private void allocateChunk(final int chunkX, final int chunkY) {
+		final int chunk = _chunkNumbers.size();
+
+		if (chunk == _parent.length) {
+			_parent = Arrays.copyOf(_parent, 2 * chunk);
+			_rank = Arrays.copyOf(_rank, 2 * chunk);
+		}
+
+		_parent[chunk] = new int[CHUNK_SIZE * CHUNK_SIZE];
+		_rank[chunk] = new byte[CHUNK_SIZE * CHUNK_SIZE];
+		Arrays.fill(_parent[chunk], BLOCKED);
+		_chunkNumbers.put(chunkX, chunkY, chunk);
+	}
+
+	/**
+	 * Returns the index of the given location. The upper bits select the chunk, the lower bits the location inside of the chunk.
+	 *
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return The index, or {@link #NO_INDEX} if the chunk of the location is not allocated.
+	 */
+	private int getIndex(final int x, final int y) {
+		final int chunk = _chunkNumbers.get(x >> CHUNK_BITS, y >> CHUNK_BITS);
+
+		if (chunk == NO_INDEX) {
+			return NO_INDEX;
+		}
+
+		return chunk << CELL_BITS | (y & CHUNK_MASK) << CHUNK_BITS | x & CHUNK_MASK;
+	}
+
+	/**
+	 * Returns the parent of the given location, or {@link #BLOCKED} if the location is not passable.
+	 *
+	 * @param index The index of the location, or {@link #NO_INDEX}.
+	 * @return The parent.
+	 */
+	private int getParent(final int index) {
+		return index == NO_INDEX ? BLOCKED : _parent[index >>> CELL_BITS][index & CELL_MASK];
+	}
+
+	/**
+	 * Sets the parent of the given passable location.
+	 *
+	 * @param index The index of the location.
+	 * @param parent The new parent.
+	 */
+	private void setParent(final int index, final int parent) {
+		_parent[index >>> CELL_BITS][index & CELL_MASK] = parent;
+	}
+
+	/**
+	 * Returns the rank of the given passable location.
+	 *
+	 * @param index The index of the location.
+	 * @return The rank.
+	 */
+	private byte getRank(final int index) {
+		return _rank[index >>> CELL_BITS][index & CELL_MASK];
+	}
+
+	/**
+	 * Returns the root of the component of the given passable location, halving the path to it.
+	 *
+	 * @param index The index of the location.
+	 * @return The index of the root.
+	 */
+	private int find(final int index) {
+		int current = index;
+
+		int parent = getParent(current);
+
+		while (parent != current) {
+			final int grandparent = getParent(parent);
+			setParent(current, grandparent);
+			current = grandparent;
+			parent = getParent(current);
+		}
+
+		return current;
+	}
+
+	/**
+	 * Merges the components of the given passable locations.
+	 *
+	 * @param a The index of the first location.
+	 * @param b The index of the second location.
+	 */
+	private void union(final int a, final int b) {
+		final int rootA = find(a);
+		final int rootB = find(b);
+
+		if (rootA == rootB) {
+			return;
+		}
+
+		final byte rankA = getRank(rootA);
+		final byte rankB = getRank(rootB);
+
+		if (rankA < rankB) {
+			setParent(rootA, rootB);
+		} else if (rankA > rankB) {
+			setParent(rootB, rootA);
+		} else {
+			setParent(rootB, rootA);
+			_rank[rootA >>> CELL_BITS][rootA & CELL_MASK]++;
+		}
+	}
+
+	/**
+	 * Returns true if the given location lies on the map.
+	 *
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return True if the location lies on the map.
+	 */
+	private boolean isOnGrid(final int x, final int y) {
+		return x >= 0 && y >= 0 && x < _width && y < _height;
+	}
+
+	/**
+	 * Returns true if entities can walk over a location with the given knowledge.
+	 *
+	 * @param material The known material, or null if the location is unknown.
+	 * @return True if the location is passable.
+	 */
+	private static boolean isPassable(final Material material) {
+		return material != null && !material.isSolid();
+	}
+}
@@ -0,0 +1,320 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Plans paths to a fixed goal with the D* Lite algorithm, so that the plan can be repaired cheaply when the map changes or the start moves.
+ * The search runs from the goal to the start and keeps its state between calls to {@link #findPath(Point)}.
+ * When locations change their blocked state, {@link #locationChanged(Point)} has to be called, and only the affected part of the search is redone.
+ * Blocked locations that were not reported are detected while following the path and reported automatically.
+ *
+ * The goal itself is not checked for being blocked, just like in {@link ArrayAStarPathfinder}.
+ * Every location touched by the search gets a vertex number from a {@link LocationIntMap}, so only those locations use memory.
+ * The vertex data is stored in flat arrays indexed by the vertex number, and the open list is an {@link IndexedBinaryHeap} over the vertex numbers.
+ *
+ * Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class DStarLite {
+	private static final int INFINITY = Integer.MAX_VALUE / 4;
+	private static final int NO_VERTEX = -1;
+
+	/**
+	 * The vertex arrays start with this many entries, and double whenever they are full.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final int _goalX;
+	private final int _goalY;
+	private final BlockadeMap _map;
+	private final int _width;
+	private final int _height;
+
+	/**
+	 * Maps the locations touched by the search to their vertex numbers.
+	 */
+	private final LocationIntMap _vertices = new LocationIntMap(NO_VERTEX);
+	private int _vertexCount = 0;
+	private int[] _x = new int[INITIAL_CAPACITY];
+	private int[] _y = new int[INITIAL_CAPACITY];
+	private int[] _g = new int[INITIAL_CAPACITY];
+	private int[] _rhs = new int[INITIAL_CAPACITY];
+	private final IndexedBinaryHeap _openList = new IndexedBinaryHeap(INITIAL_CAPACITY);
+
+	private Point _start;
+
+	/**
+	 * The sum of the heuristic distances the start has moved. Added to all keys instead of reordering the open list.
+	 */
+	private int _keyModifier = 0;
+	private long _expandedVertexCount = 0;
+
+	/**
+	 * Creates a new planner. No search is done before the first call to {@link #findPath(Point)}.
+	 *
+	 * @param goal The goal.
+	 * @param map The blockade map. It is read during every search, so it may change between searches.
+	 * @param width The width of the grid. Locations outside of the grid are blocked.
+	 * @param height The height of the grid.
+	 */
+	public DStarLite(final Point goal, final BlockadeMap map, final int width, final int height) {
+		_goalX = goal.getX();
+		_goalY = goal.getY();
+		_map = map;
+		_width = width;
+		_height = height;
+
+		final int goalVertex = getVertex(_goalX, _goalY);
+		_rhs[goalVertex] = 0;
+		_openList.insert(goalVertex, calculateKey(goalVertex));
+	}
+
+	/**
+	 * Returns a shortest path from the given start to the goal, reusing the results of earlier searches.
+	 *
+	 * @param start The start. May differ from the start of the last search.
+	 * @return The path, or null if the goal cannot be reached.
+	 */
+	public Queue<Movement> findPath(final Point start) {
+		if (isBlocked(start.getX(), start.getY())) {
+			return null;
+		}
+
+		if (_start != null) {
+			_keyModifier += _start.manhattanDistance(start);
+		}
+
+		_start = start;
+
+		while (true) {
+			computeShortestPath();
+
+			if (getG(start.getX(), start.getY()) >= INFINITY) {
+				return null;
+			}
+
+			final Queue<Movement> path = new PackedPath(getG(start.getX(), start.getY()));
+			int x = start.getX();
+			int y = start.getY();
+			boolean valid = true;
+
+			while (x != _goalX || y != _goalY) {
+				int nextDirection = NO_VERTEX;
+				int nextG = INFINITY;
+
+				// Same order as Point.getNeighbours().
+				for (int direction = 0; direction < 4; direction++) {
+					final int g = getG(x + PackedPath.getDirectionX(direction), y + PackedPath.getDirectionY(direction));
+
+					if (g < nextG) {
+						nextDirection = direction;
+						nextG = g;
+					}
+				}
+
+				if (nextDirection == NO_VERTEX || nextG >= getG(x, y)) {
+					throw new IllegalStateException("D* Lite search is inconsistent at " + new Point(x, y) + "!");
+				}
+
+				final int nextX = x + PackedPath.getDirectionX(nextDirection);
+				final int nextY = y + PackedPath.getDirectionY(nextDirection);
+
+				// The search believes the location is open, so it was blocked after it was searched.
+				if (isBlocked(nextX, nextY)) {
+					locationChanged(nextX, nextY);
+					valid = false;
+					break;
+				}
+
+				path.add(Movement.getMovement(nextX - x, nextY - y));
+				x = nextX;
+				y = nextY;
+			}
+
+			if (valid) {
+				return path;
+			}
+		}
+	}
+
+	/**
+	 * Reports that the blocked state of the given location has changed.
+	 * @param location The location.
+	 */
+	public void locationChanged(final Point location) {
+		locationChanged(location.getX(), location.getY());
+	}
+
+	/**
+	 * Reports that the blocked state of the given location has changed.
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 */
+	public void locationChanged(final int x, final int y) {
+		updateVertex(getVertex(x, y));
+		updateNeighbours(x, y);
+	}
+
+	/**
+	 * Returns the total amount of vertex expansions of all searches so far.
+	 * @return The amount of expanded vertices.
+	 */
+	public long getExpandedVertexCount() {
+		return _expandedVertexCount;
+	}
+
+	/**
+	 * Expands vertices until the start is consistent and no queued vertex can lower its distance.
+	 */
+	private void computeShortestPath() {
+		final int start = getVertex(_start.getX(), _start.getY());
+
+		while (!_openList.isEmpty()) {
+			final long key = _openList.peekPriority();
+
+			if (key >= calculateKey(start) && _rhs[start] == _g[start]) {
+				break;
+			}
+
+			final int vertex = _openList.peek();
+			final long newKey = calculateKey(vertex);
+			_expandedVertexCount++;
+
+			if (key < newKey) {
+				_openList.insertOrChangeKey(vertex, newKey);
+			} else if (_g[vertex] > _rhs[vertex]) {
+				_g[vertex] = _rhs[vertex];
+				_openList.remove(vertex);
+				updateNeighbours(_x[vertex], _y[vertex]);
+			} else {
+				_g[vertex] = INFINITY;
+				updateVertex(vertex);
+				updateNeighbours(_x[vertex], _y[vertex]);
+			}
+		}
+	}
+
+	/**
+	 * Updates the vertices of all neighbours of the given location.
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 */
+	private void updateNeighbours(final int x, final int y) {
+		for (int direction = 0; direction < 4; direction++) {
+			updateVertex(getVertex(x + PackedPath.getDirectionX(direction), y + PackedPath.getDirectionY(direction)));
+		}
+	}
+
+	/**
+	 * Recalculates the right hand side value of the given vertex from its neighbours, and queues it if it is inconsistent.
+	 * @param vertex The vertex.
+	 */
+	private void updateVertex(final int vertex) {
+		final int x = _x[vertex];
+		final int y = _y[vertex];
+
+		if (x != _goalX || y != _goalY) {
+			int rhs = INFINITY;
+
+			if (!isBlocked(x, y)) {
+				for (int direction = 0; direction < 4; direction++) {
+					final int neighbourX = x + PackedPath.getDirectionX(direction);
+					final int neighbourY = y + PackedPath.getDirectionY(direction);
+
+					if (!isBlocked(neighbourX, neighbourY)) {
+						rhs = Math.min(rhs, getG(neighbourX, neighbourY) + 1);
+					}
+				}
+			}
+
+			_rhs[vertex] = rhs;
+		}
+
+		if (_g[vertex] != _rhs[vertex]) {
+			_openList.insertOrChangeKey(vertex, calculateKey(vertex));
+		} else {
+			_openList.remove(vertex);
+		}
+	}
+
+	/**
+	 * Calculates the key of a vertex. Vertices are ordered by their estimated path length, and then by their distance from the goal.
+	 * @param vertex The vertex.
+	 * @return The key.
+	 */
+	private long calculateKey(final int vertex) {
+		final int distance = Math.min(_g[vertex], _rhs[vertex]);
+		final int estimate;
+
+		if (distance >= INFINITY || _start == null) {
+			estimate = INFINITY;
+		} else {
+			estimate = distance + Math.abs(_x[vertex] - _start.getX()) + Math.abs(_y[vertex] - _start.getY()) + _keyModifier;
+		}
+
+		return ((long) estimate << 32) + distance;
+	}
+
+	/**
+	 * Returns the vertex at the given location, creating it if necessary.
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return The vertex.
+	 */
+	private int getVertex(final int x, final int y) {
+		int vertex = _vertices.get(x, y);
+
+		if (vertex == NO_VERTEX) {
+			vertex = _vertexCount;
+			_vertexCount++;
+
+			if (vertex == _x.length) {
+				final int capacity = 2 * vertex;
+				_x = Arrays.copyOf(_x, capacity);
+				_y = Arrays.copyOf(_y, capacity);
+				_g = Arrays.copyOf(_g, capacity);
+				_rhs = Arrays.copyOf(_rhs, capacity);
+				_openList.ensureCapacity(capacity);
+			}
+
+			_x[vertex] = x;
+			_y[vertex] = y;
+			_g[vertex] = INFINITY;
+			_rhs[vertex] = INFINITY;
+			_vertices.put(x, y, vertex);
+		}
+
+		return vertex;
+	}
+
+	/**
+	 * Returns the distance of the given location from the goal, as known to the search.
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return The distance, or {@link #INFINITY}.
+	 */
+	private int getG(final int x, final int y) {
+		final int vertex = _vertices.get(x, y);
+		return vertex == NO_VERTEX ? INFINITY : _g[vertex];
+	}
+
+	/**
+	 * Returns true if the given location cannot be entered. The goal is never blocked.
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return True if the location is blocked.
+	 */
+	private boolean isBlocked(final int x, final int y) {
+		if (x == _goalX && y == _goalY) {
+			return false;
+		}
+
+		return x < 0 || y < 0 || x >= _width || y >= _height || _map.isBlocked(x, y);
+	}
+}
@@ -0,0 +1,313 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.GameMap;
+import de.isibboi.agentsim.game.map.MapChangeJournal;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Stores the distance of every location on a {@link GameMap} to a fixed root location, computed by a breadth first search over the open locations.
+ * Following the locations with decreasing distance leads to the root on a shortest path, so a single field can be shared by all entities heading to the same point.
+ *
+ * The field remembers the age of the map it was computed for, and reads the changes made since then from the {@link MapChangeJournal} of the map.
+ * If locations were only opened, the new shorter distances are propagated from those locations only.
+ * Changes that do not open or block a location are ignored. If a location was blocked, or if the journal dropped changes before the field read them,
+ * the field is recomputed completely.
+ * The distances are stored in a {@link ChunkedIntGrid}, so only the chunks that can reach the root use memory.
+ * The field can be limited to a maximum distance, so that it stays small on large maps. Locations farther away are treated as unreachable.
+ *
+ * Objects of this class are not thread safe. Once {@link #update()} was called, it can be queried from several threads until the map changes.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class FlowField {
+	/**
+	 * The distance of locations from which the root cannot be reached.
+	 */
+	public static final int UNREACHABLE = -1;
+
+	/**
+	 * The breadth first search queue starts with this many entries, and doubles whenever it is full.
+	 */
+	private static final int INITIAL_QUEUE_CAPACITY = 256;
+
+	private final GameMap _map;
+	private final Point _root;
+	private final int _width;
+	private final int _height;
+	private final int _maxDistance;
+
+	private final ChunkedIntGrid _distance;
+	private int[] _queueX = new int[INITIAL_QUEUE_CAPACITY];
+	private int[] _queueY = new int[INITIAL_QUEUE_CAPACITY];
+	private final MapChangeJournal.Cursor _changes;
+
+	/**
+	 * The age of the map the distances are valid for. Zero if the field has never been computed, as map ages start at one.
+	 */
+	private long _age = 0;
+
+	/**
+	 * Creates a new flow field without a maximum distance. The distances are computed lazily.
+	 *
+	 * @param map The map.
+	 * @param root The location all paths lead to.
+	 */
+	public FlowField(final GameMap map, final Point root) {
+		this(map, root, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new flow field. The distances are computed lazily.
+	 *
+	 * @param map The map.
+	 * @param root The location all paths lead to.
+	 * @param maxDistance The maximum distance that is stored. Locations with a longer path to the root are {@link #UNREACHABLE}.
+	 */
+	public FlowField(final GameMap map, final Point root, final int maxDistance) {
+		if (maxDistance < 0) {
+			throw new IllegalArgumentException("Maximum distance must not be negative: " + maxDistance);
+		}
+
+		_map = map;
+		_root = root;
+		_width = map.getWidth();
+		_height = map.getHeight();
+		_maxDistance = maxDistance;
+
+		_distance = new ChunkedIntGrid(_width, _height, UNREACHABLE);
+		_changes = map.getChangeJournal().createCursor();
+	}
+
+	/**
+	 * Returns the length of the shortest path from the given location to the root.
+	 * @param location The location.
+	 * @return The distance, or {@link #UNREACHABLE}.
+	 */
+	public int getDistance(final Point location) {
+		update();
+
+		if (!isOnGrid(location.getX(), location.getY())) {
+			return UNREACHABLE;
+		}
+
+		return _distance.get(location.getX(), location.getY());
+	}
+
+	/**
+	 * Returns the first movement of a shortest path from the given location to the root.
+	 * @param location The location.
+	 * @return The movement, or null if the location is the root or the root cannot be reached.
+	 */
+	public Movement getMovement(final Point location) {
+		update();
+
+		if (!isOnGrid(location.getX(), location.getY())) {
+			return null;
+		}
+
+		return getMovement(location.getX(), location.getY());
+	}
+
+	/**
+	 * Returns a shortest path from the given location to the root.
+	 * @param location The location.
+	 * @return The path, or null if the root cannot be reached.
+	 */
+	public Queue<Movement> getPath(final Point location) {
+		final int distance = getDistance(location);
+
+		if (distance == UNREACHABLE) {
+			return null;
+		}
+
+		final Queue<Movement> path = new PackedPath(distance);
+		int x = location.getX();
+		int y = location.getY();
+
+		for (int i = 0; i < distance; i++) {
+			final Movement movement = getMovement(x, y);
+			path.add(movement);
+			x += movement.getPoint().getX();
+			y += movement.getPoint().getY();
+		}
+
+		return path;
+	}
+
+	/**
+	 * Returns the age of the map the field is currently valid for.
+	 * @return The age, or zero if the field was not computed yet.
+	 */
+	public long getAge() {
+		return _age;
+	}
+
+	/**
+	 * Brings the field up to date with the current age of the map.
+	 * Queries do this on their own, so it only needs to be called before the field is queried from several threads.
+	 */
+	public void update() {
+		if (_age == _map.getAge()) {
+			return;
+		}
+
+		if (_age == 0 || !applyOpenedLocations()) {
+			recompute();
+		}
+
+		_changes.skipToEnd();
+		_age = _map.getAge();
+	}
+
+	/**
+	 * Reads the unread changes of the journal and propagates the distances from every opened location.
+	 * Stops at the first change that blocks a location, as distances cannot be raised incrementally.
+	 * @return False if the field needs to be recomputed completely.
+	 */
+	private boolean applyOpenedLocations() {
+		if (_changes.hasMissedChanges()) {
+			return false;
+		}
+
+		while (_changes.next()) {
+			final boolean wasSolid = _changes.getOldMaterial().isSolid();
+			final boolean isSolid = _changes.getNewMaterial().isSolid();
+
+			if (isSolid && !wasSolid) {
+				return false;
+			} else if (wasSolid && !isSolid && isOnGrid(_changes.getX(), _changes.getY())) {
+				locationOpened(_changes.getX(), _changes.getY());
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Lowers the distance of the given location to one more than its closest neighbour, and propagates the new distance.
+	 * @param x The x coordinate of the opened location.
+	 * @param y The y coordinate of the opened location.
+	 */
+	private void locationOpened(final int x, final int y) {
+		int distance = _distance.get(x, y);
+
+		for (int direction = 0; direction < 4; direction++) {
+			final int neighbourX = x + PackedPath.getDirectionX(direction);
+			final int neighbourY = y + PackedPath.getDirectionY(direction);
+
+			if (isOnGrid(neighbourX, neighbourY)) {
+				final int neighbourDistance = _distance.get(neighbourX, neighbourY);
+
+				if (neighbourDistance != UNREACHABLE && (distance == UNREACHABLE || neighbourDistance + 1 < distance)) {
+					distance = neighbourDistance + 1;
+				}
+			}
+		}
+
+		if (distance != _distance.get(x, y) && distance <= _maxDistance) {
+			_distance.set(x, y, distance);
+			propagate(x, y);
+		}
+	}
+
+	/**
+	 * Recomputes the whole field with a breadth first search from the root.
+	 */
+	private void recompute() {
+		_distance.clear();
+
+		if (isOnGrid(_root.getX(), _root.getY())) {
+			_distance.set(_root.getX(), _root.getY(), 0);
+			propagate(_root.getX(), _root.getY());
+		}
+	}
+
+	/**
+	 * Runs a breadth first search from the given location and lowers the distances of all locations that can be reached on a shorter path through it.
+	 * @param sourceX The x coordinate of the location whose distance was lowered.
+	 * @param sourceY The y coordinate of the location whose distance was lowered.
+	 */
+	private void propagate(final int sourceX, final int sourceY) {
+		_queueX[0] = sourceX;
+		_queueY[0] = sourceY;
+		int head = 0;
+		int tail = 1;
+
+		while (head < tail) {
+			final int currentX = _queueX[head];
+			final int currentY = _queueY[head];
+			head++;
+
+			final int distance = _distance.get(currentX, currentY) + 1;
+
+			if (distance > _maxDistance) {
+				continue;
+			}
+
+			// Same order as Point.getNeighbours().
+			for (int direction = 0; direction < 4; direction++) {
+				final int x = currentX + PackedPath.getDirectionX(direction);
+				final int y = currentY + PackedPath.getDirectionY(direction);
+
+				if (!isOnGrid(x, y)) {
+					continue;
+				}
+
+				final int neighbourDistance = _distance.get(x, y);
+
+				if ((neighbourDistance == UNREACHABLE || neighbourDistance > distance) && !_map.isBlocked(x, y)) {
+					_distance.set(x, y, distance);
+
+					if (tail == _queueX.length) {
+						_queueX = Arrays.copyOf(_queueX, 2 * tail);
+						_queueY = Arrays.copyOf(_queueY, 2 * tail);
+					}
+
+					_queueX[tail] = x;
+					_queueY[tail] = y;
+					tail++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the movement towards the first neighbour of the given location that is closer to the root.
+	 * @param locationX The x coordinate of the location.
+	 * @param locationY The y coordinate of the location.
+	 * @return The movement, or null if the location is the root or the root cannot be reached.
+	 */
+	private Movement getMovement(final int locationX, final int locationY) {
+		final int distance = _distance.get(locationX, locationY);
+
+		if (distance == UNREACHABLE || distance == 0) {
+			return null;
+		}
+
+		for (int direction = 0; direction < 4; direction++) {
+			final int x = locationX + PackedPath.getDirectionX(direction);
+			final int y = locationY + PackedPath.getDirectionY(direction);
+
+			if (isOnGrid(x, y) && _distance.get(x, y) == distance - 1) {
+				return Movement.getMovement(PackedPath.getDirectionX(direction), PackedPath.getDirectionY(direction));
+			}
+		}
+
+		throw new IllegalStateException("Flow field is inconsistent at " + locationX + ", " + locationY + "!");
+	}
+
+	/**
+	 * Returns true if the given location is on the grid.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return True if the given location is on the grid.
+	 */
+	private boolean isOnGrid(final int x, final int y) {
+		return x >= 0 && y >= 0 && x < _width && y < _height;
+	}
+}
@@ -0,0 +1,724 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.MapChangeListener;
+import de.isibboi.agentsim.game.map.Material;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Calculates paths using hierarchical path-finding A* (HPA*).
+ * The grid is divided into square clusters. Wherever two neighbouring clusters have open locations on both sides of their common border,
+ * entrances are placed: one in the middle of short openings, and one at each end of long openings.
+ * For every cluster, the distances between all of its entrances are precomputed.
+ * A query inserts start and target into the resulting abstract graph, searches it with A* and refines every abstract edge
+ * with a breadth first search inside a single cluster.
+ *
+ * The abstract graph is built from a structure map, which is usually the game map itself.
+ * A cluster is built when a query first reaches it, so the memory grows with the area that was searched, and not with the size of the grid.
+ * The built clusters are numbered in the order they were built, and found by their cluster coordinates in a {@link LocationIntMap}.
+ * When the structure changes, only the built clusters around the changed location are marked as dirty, and they are rebuilt before the next query.
+ * Only queries on the structure map itself use the abstract graph. Queries on any other blockade map, like the knowledge of an entity,
+ * are answered by a plain {@link ArrayAStarPathfinder}, as the abstract graph would route them along entrances that map does not know about.
+ * The same happens if start and target are close to each other, or if the abstract path cannot be refined.
+ *
+ * The paths found by this algorithm are not always the shortest ones, but close to them.
+ *
+ * Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class HierarchicalPathfinder implements PathfindingAlgorithm, MapChangeListener {
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+	private static final int NO_NODE = -1;
+
+	/**
+	 * The abstract nodes of start and target. The entrances of the built clusters follow them.
+	 */
+	private static final int START_NODE = 0;
+	private static final int TARGET_NODE = 1;
+	private static final int FIRST_ENTRANCE_NODE = 2;
+
+	/**
+	 * The per cluster arrays start with this many entries, and double whenever they are full.
+	 */
+	private static final int INITIAL_CLUSTER_CAPACITY = 16;
+
+	/**
+	 * Openings of at least this length get an entrance at both ends instead of one in the middle.
+	 */
+	private static final int LONG_OPENING_LENGTH = 6;
+
+	private final BlockadeMap _structure;
+	private final ArrayAStarPathfinder _fallback;
+
+	private final int _width;
+	private final int _height;
+	private final int _clusterSize;
+
+	/**
+	 * The maximum amount of entrances of a single cluster.
+	 * Abstract nodes of entrances are numbered {@code FIRST_ENTRANCE_NODE + cluster * _maxEntrances + slot}.
+	 */
+	private final int _maxEntrances;
+
+	/**
+	 * The number of each built cluster, by cluster coordinates.
+	 */
+	private final LocationIntMap _clusterNumbers = new LocationIntMap(NO_NODE);
+	private int _clusterCount = 0;
+	private int[] _clusterX = new int[INITIAL_CLUSTER_CAPACITY];
+	private int[] _clusterY = new int[INITIAL_CLUSTER_CAPACITY];
+
+	/**
+	 * The locations of the entrances of each cluster, stored as index inside of the cluster.
+	 */
+	private int[][] _entrances = new int[INITIAL_CLUSTER_CAPACITY][];
+
+	/**
+	 * The distances between the entrances of each cluster, stored as a row-major matrix.
+	 */
+	private int[][] _entranceDistances = new int[INITIAL_CLUSTER_CAPACITY][];
+
+	private boolean[] _dirty = new boolean[INITIAL_CLUSTER_CAPACITY];
+	private int[] _dirtyClusters = new int[INITIAL_CLUSTER_CAPACITY];
+	private int _dirtyClusterCount;
+
+	private final int[] _entranceBuffer;
+	private int _entranceBufferSize;
+
+	private final int[] _localDistance;
+	private final int[] _localPredecessor;
+	private final int[] _localQueue;
+	private final int[] _startDistance;
+	private final int[] _targetDistance;
+
+	private int[] _nodeDistance;
+	private int[] _nodePredecessor;
+	private int[] _nodeSeen;
+	private int[] _nodeClosed;
+	private final IndexedBinaryHeap _openList;
+	private int _generation = 0;
+
+	private int _startX;
+	private int _startY;
+	private int _targetX;
+	private int _targetY;
+
+	/**
+	 * Counts the expanded abstract nodes and the expanded locations of cluster searches, including the searches that build clusters.
+	 */
+	private long _expandedVertexCount = 0;
+
+	/**
+	 * Creates a new pathfinder for the given structure map.
+	 * The clusters are built lazily when a query reaches them.
+	 *
+	 * @param structure The map the abstract graph is built from. Changes need to be reported via {@link #materialChanged(Point, Material)}.
+	 * @param width The width of the grid.
+	 * @param height The height of the grid.
+	 * @param clusterSize The side length of the clusters.
+	 */
+	public HierarchicalPathfinder(final BlockadeMap structure, final int width, final int height, final int clusterSize) {
+		if (clusterSize < 2) {
+			throw new IllegalArgumentException("Cluster size needs to be at least two!");
+		}
+
+		_structure = structure;
+		_fallback = new ArrayAStarPathfinder(width, height);
+
+		_width = width;
+		_height = height;
+		_clusterSize = clusterSize;
+
+		// Each border of a cluster has at most one entrance per two locations.
+		_maxEntrances = 4 * ((clusterSize + 1) / 2);
+		_entranceBuffer = new int[_maxEntrances];
+
+		final int clusterArea = clusterSize * clusterSize;
+		_localDistance = new int[clusterArea];
+		_localPredecessor = new int[clusterArea];
+		_localQueue = new int[clusterArea];
+		_startDistance = new int[clusterArea];
+		_targetDistance = new int[clusterArea];
+
+		final int nodeCount = FIRST_ENTRANCE_NODE + INITIAL_CLUSTER_CAPACITY * _maxEntrances;
+		_nodeDistance = new int[nodeCount];
+		_nodePredecessor = new int[nodeCount];
+		_nodeSeen = new int[nodeCount];
+		_nodeClosed = new int[nodeCount];
+		_openList = new IndexedBinaryHeap(nodeCount);
+	}
+
+	@Override
+	public Queue<Movement> findPath(final Point start, final Point target, final BlockadeMap map) {
+		if (!isOnGrid(start.getX(), start.getY()) || !isOnGrid(target.getX(), target.getY()) || map.isBlocked(start.getX(), start.getY())) {
+			return null;
+		}
+
+		if (map != _structure || Math.abs(start.getX() - target.getX()) + Math.abs(start.getY() - target.getY()) <= _clusterSize) {
+			return _fallback.findPath(start, target, map);
+		}
+
+		rebuildDirtyClusters();
+
+		final Queue<Movement> path = findAbstractPath(start, target, map);
+
+		if (path == null) {
+			return _fallback.findPath(start, target, map);
+		}
+
+		return path;
+	}
+
+	@Override
+	public long getExpandedVertexCount() {
+		return _expandedVertexCount;
+	}
+
+	@Override
+	public void materialChanged(final Point location, final Material material) {
+		final int x = location.getX();
+		final int y = location.getY();
+
+		if (!isOnGrid(x, y)) {
+			return;
+		}
+
+		final int clusterX = x / _clusterSize;
+		final int clusterY = y / _clusterSize;
+		markDirty(clusterX, clusterY);
+
+		// Locations on a border also change the entrances of the neighbouring cluster.
+		if (x % _clusterSize == 0) {
+			markDirty(clusterX - 1, clusterY);
+		}
+
+		if (x % _clusterSize == _clusterSize - 1) {
+			markDirty(clusterX + 1, clusterY);
+		}
+
+		if (y % _clusterSize == 0) {
+			markDirty(clusterX, clusterY - 1);
+		}
+
+		if (y % _clusterSize == _clusterSize - 1) {
+			markDirty(clusterX, clusterY + 1);
+		}
+	}
+
+	/**
+	 * Marks the cluster with the given cluster coordinates as dirty, if it was built and is not already dirty.
+	 * Clusters that were not built yet will see the change when they are built.
+	 * @param clusterX The x coordinate of the cluster.
+	 * @param clusterY The y coordinate of the cluster.
+	 */
+	private void markDirty(final int clusterX, final int clusterY) {
+		final int cluster = _clusterNumbers.get(clusterX, clusterY);
+
+		if (cluster != NO_NODE && !_dirty[cluster]) {
+			_dirty[cluster] = true;
+			_dirtyClusters[_dirtyClusterCount] = cluster;
+			_dirtyClusterCount++;
+		}
+	}
+
+	/**
+	 * Rebuilds all dirty clusters.
+	 */
+	private void rebuildDirtyClusters() {
+		while (_dirtyClusterCount > 0) {
+			_dirtyClusterCount--;
+			final int cluster = _dirtyClusters[_dirtyClusterCount];
+			_dirty[cluster] = false;
+			rebuildCluster(cluster);
+		}
+	}
+
+	/**
+	 * Returns the number of the cluster with the given cluster coordinates, and builds the cluster if it was not built yet.
+	 * @param clusterX The x coordinate of the cluster.
+	 * @param clusterY The y coordinate of the cluster.
+	 * @return The cluster.
+	 */
+	private int getCluster(final int clusterX, final int clusterY) {
+		final int existing = _clusterNumbers.get(clusterX, clusterY);
+
+		if (existing != NO_NODE) {
+			return existing;
+		}
+
+		final int cluster = _clusterCount;
+
+		if (cluster == _clusterX.length) {
+			final int capacity = 2 * cluster;
+			_clusterX = Arrays.copyOf(_clusterX, capacity);
+			_clusterY = Arrays.copyOf(_clusterY, capacity);
+			_entrances = Arrays.copyOf(_entrances, capacity);
+			_entranceDistances = Arrays.copyOf(_entranceDistances, capacity);
+			_dirty = Arrays.copyOf(_dirty, capacity);
+			_dirtyClusters = Arrays.copyOf(_dirtyClusters, capacity);
+
+			final int nodeCount = FIRST_ENTRANCE_NODE + capacity * _maxEntrances;
+			_nodeDistance = Arrays.copyOf(_nodeDistance, nodeCount);
+			_nodePredecessor = Arrays.copyOf(_nodePredecessor, nodeCount);
+			_nodeSeen = Arrays.copyOf(_nodeSeen, nodeCount);
+			_nodeClosed = Arrays.copyOf(_nodeClosed, nodeCount);
+			_openList.ensureCapacity(nodeCount);
+		}
+
+		_clusterCount++;
+		_clusterX[cluster] = clusterX;
+		_clusterY[cluster] = clusterY;
+		_clusterNumbers.put(clusterX, clusterY, cluster);
+		rebuildCluster(cluster);
+		return cluster;
+	}
+
+	/**
+	 * Places the entrances of the given cluster and computes the distances between them.
+	 * @param cluster The cluster.
+	 */
+	private void rebuildCluster(final int cluster) {
+		final int minX = _clusterX[cluster] * _clusterSize;
+		final int minY = _clusterY[cluster] * _clusterSize;
+		final int maxX = Math.min(minX + _clusterSize, _width) - 1;
+		final int maxY = Math.min(minY + _clusterSize, _height) - 1;
+
+		_entranceBufferSize = 0;
+
+		if (minY > 0) {
+			addEntrances(minX, minY, 1, 0, maxX - minX + 1, 0, -1);
+		}
+
+		if (maxY < _height - 1) {
+			addEntrances(minX, maxY, 1, 0, maxX - minX + 1, 0, 1);
+		}
+
+		if (minX > 0) {
+			addEntrances(minX, minY, 0, 1, maxY - minY + 1, -1, 0);
+		}
+
+		if (maxX < _width - 1) {
+			addEntrances(maxX, minY, 0, 1, maxY - minY + 1, 1, 0);
+		}
+
+		final int entranceCount = _entranceBufferSize;
+		final int[] entrances = Arrays.copyOf(_entranceBuffer, entranceCount);
+		final int[] distances = new int[entranceCount * entranceCount];
+
+		for (int i = 0; i < entranceCount; i++) {
+			searchCluster(cluster, minX + entrances[i] % _clusterSize, minY + entrances[i] / _clusterSize, _structure, _localDistance);
+
+			for (int j = 0; j < entranceCount; j++) {
+				distances[i * entranceCount + j] = _localDistance[entrances[j]];
+			}
+		}
+
+		_entrances[cluster] = entrances;
+		_entranceDistances[cluster] = distances;
+	}
+
+	/**
+	 * Scans a border of a cluster for openings and adds entrances for them.
+	 * Both clusters sharing the border scan it in the same direction, so their entrances face each other.
+	 *
+	 * @param x The x coordinate of the first location of the border inside the cluster.
+	 * @param y The y coordinate of the first location of the border inside the cluster.
+	 * @param stepX The x direction of the border.
+	 * @param stepY The y direction of the border.
+	 * @param length The length of the border.
+	 * @param outsideX The x offset from a border location to its neighbour in the other cluster.
+	 * @param outsideY The y offset from a border location to its neighbour in the other cluster.
+	 */
+	private void addEntrances(final int x, final int y, final int stepX, final int stepY, final int length, final int outsideX, final int outsideY) {
+		int openingStart = -1;
+
+		for (int i = 0; i <= length; i++) {
+			final int currentX = x + i * stepX;
+			final int currentY = y + i * stepY;
+			final boolean open = i < length && !_structure.isBlocked(currentX, currentY) && !_structure.isBlocked(currentX + outsideX, currentY + outsideY);
+
+			if (open && openingStart == -1) {
+				openingStart = i;
+			} else if (!open && openingStart != -1) {
+				final int openingEnd = i - 1;
+
+				if (openingEnd - openingStart + 1 >= LONG_OPENING_LENGTH) {
+					addEntrance(x + openingStart * stepX, y + openingStart * stepY);
+					addEntrance(x + openingEnd * stepX, y + openingEnd * stepY);
+				} else {
+					final int middle = (openingStart + openingEnd) / 2;
+					addEntrance(x + middle * stepX, y + middle * stepY);
+				}
+
+				openingStart = -1;
+			}
+		}
+	}
+
+	/**
+	 * Adds an entrance to the cluster that is currently being rebuilt. Corner locations may be added twice, but are stored only once.
+	 * @param x The x coordinate of the entrance.
+	 * @param y The y coordinate of the entrance.
+	 */
+	private void addEntrance(final int x, final int y) {
+		final int location = getLocalIndex(x, y);
+
+		for (int i = 0; i < _entranceBufferSize; i++) {
+			if (_entranceBuffer[i] == location) {
+				return;
+			}
+		}
+
+		_entranceBuffer[_entranceBufferSize] = location;
+		_entranceBufferSize++;
+	}
+
+	/**
+	 * Runs a breadth first search inside a single cluster.
+	 * The source location itself is not checked for being blocked.
+	 * The predecessors are stored in {@link #_localPredecessor}.
+	 *
+	 * @param cluster The cluster.
+	 * @param sourceX The x coordinate of the source.
+	 * @param sourceY The y coordinate of the source.
+	 * @param map The blockade map.
+	 * @param distance Receives the distance of each cluster location from the source, or {@link #UNREACHABLE}.
+	 */
+	private void searchCluster(final int cluster, final int sourceX, final int sourceY, final BlockadeMap map, final int[] distance) {
+		final int minX = _clusterX[cluster] * _clusterSize;
+		final int minY = _clusterY[cluster] * _clusterSize;
+		final int maxX = Math.min(minX + _clusterSize, _width) - 1;
+		final int maxY = Math.min(minY + _clusterSize, _height) - 1;
+
+		Arrays.fill(distance, UNREACHABLE);
+
+		final int source = getLocalIndex(sourceX, sourceY);
+		distance[source] = 0;
+		_localPredecessor[source] = NO_NODE;
+		_localQueue[0] = source;
+		int head = 0;
+		int tail = 1;
+
+		while (head < tail) {
+			final int current = _localQueue[head];
+			head++;
+			_expandedVertexCount++;
+
+			final int x = current % _clusterSize + minX;
+			final int y = current / _clusterSize + minY;
+
+			// Same order as Point.getNeighbours().
+			for (int direction = 0; direction < 4; direction++) {
+				final int neighbourX = x + PackedPath.getDirectionX(direction);
+				final int neighbourY = y + PackedPath.getDirectionY(direction);
+
+				if (neighbourX < minX || neighbourY < minY || neighbourX > maxX || neighbourY > maxY) {
+					continue;
+				}
+
+				final int neighbour = (neighbourY - minY) * _clusterSize + neighbourX - minX;
+
+				if (distance[neighbour] == UNREACHABLE && !map.isBlocked(neighbourX, neighbourY)) {
+					distance[neighbour] = distance[current] + 1;
+					_localPredecessor[neighbour] = current;
+					_localQueue[tail] = neighbour;
+					tail++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Searches the abstract graph and refines the result.
+	 * Clusters reached by the search are built on the fly.
+	 *
+	 * @param start The start.
+	 * @param target The target.
+	 * @param map The blockade map used for refinement.
+	 * @return The path, or null if no path was found or the refinement failed.
+	 */
+	private Queue<Movement> findAbstractPath(final Point start, final Point target, final BlockadeMap map) {
+		_startX = start.getX();
+		_startY = start.getY();
+		_targetX = target.getX();
+		_targetY = target.getY();
+		final int startCluster = getCluster(_startX / _clusterSize, _startY / _clusterSize);
+		final int targetCluster = getCluster(_targetX / _clusterSize, _targetY / _clusterSize);
+
+		searchCluster(startCluster, _startX, _startY, _structure, _startDistance);
+		searchCluster(targetCluster, _targetX, _targetY, _structure, _targetDistance);
+
+		nextGeneration();
+		_nodeSeen[START_NODE] = _generation;
+		_nodeDistance[START_NODE] = 0;
+		_nodePredecessor[START_NODE] = NO_NODE;
+		_openList.insert(START_NODE, priority(0, _startX, _startY));
+
+		while (!_openList.isEmpty()) {
+			final int current = _openList.poll();
+
+			if (current == TARGET_NODE) {
+				_openList.clear();
+				return refinePath(map);
+			}
+
+			_nodeClosed[current] = _generation;
+			_expandedVertexCount++;
+
+			final int x = getNodeX(current);
+			final int y = getNodeY(current);
+			final int cluster = current == START_NODE ? startCluster : (current - FIRST_ENTRANCE_NODE) / _maxEntrances;
+			final int[] entrances = _entrances[cluster];
+			final int minX = _clusterX[cluster] * _clusterSize;
+			final int minY = _clusterY[cluster] * _clusterSize;
+
+			// Edges inside the cluster.
+			for (int i = 0; i < entrances.length; i++) {
+				final int distance;
+
+				if (current == START_NODE) {
+					distance = _startDistance[entrances[i]];
+				} else {
+					distance = _entranceDistances[cluster][((current - FIRST_ENTRANCE_NODE) % _maxEntrances) * entrances.length + i];
+				}
+
+				relax(current, getEntranceNode(cluster, i), minX + entrances[i] % _clusterSize, minY + entrances[i] / _clusterSize, distance);
+			}
+
+			if (cluster == targetCluster) {
+				relax(current, TARGET_NODE, _targetX, _targetY, _targetDistance[getLocalIndex(x, y)]);
+			}
+
+			// Edges crossing the border to a neighbouring cluster.
+			for (int direction = 0; direction < 4; direction++) {
+				final int neighbourX = x + PackedPath.getDirectionX(direction);
+				final int neighbourY = y + PackedPath.getDirectionY(direction);
+
+				if (!isOnGrid(neighbourX, neighbourY)) {
+					continue;
+				}
+
+				final int neighbourClusterX = neighbourX / _clusterSize;
+				final int neighbourClusterY = neighbourY / _clusterSize;
+
+				if (neighbourClusterX != _clusterX[cluster] || neighbourClusterY != _clusterY[cluster]) {
+					final int neighbourCluster = getCluster(neighbourClusterX, neighbourClusterY);
+					final int slot = getEntranceSlot(neighbourCluster, getLocalIndex(neighbourX, neighbourY));
+
+					if (slot != NO_NODE) {
+						relax(current, getEntranceNode(neighbourCluster, slot), neighbourX, neighbourY, 1);
+					}
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Relaxes the abstract edge from {@code current} to {@code node}.
+	 *
+	 * @param current The node the edge starts at.
+	 * @param node The node the edge points to.
+	 * @param x The x coordinate of {@code node}.
+	 * @param y The y coordinate of {@code node}.
+	 * @param cost The length of the edge, or {@link #UNREACHABLE}.
+	 */
+	private void relax(final int current, final int node, final int x, final int y, final int cost) {
+		if (cost == UNREACHABLE || _nodeClosed[node] == _generation) {
+			return;
+		}
+
+		if (_nodeSeen[node] != _generation) {
+			_nodeSeen[node] = _generation;
+			_nodeDistance[node] = UNREACHABLE;
+		}
+
+		final int distance = _nodeDistance[current] + cost;
+
+		if (distance < _nodeDistance[node]) {
+			_nodeDistance[node] = distance;
+			_nodePredecessor[node] = current;
+			_openList.insertOrDecreaseKey(node, priority(distance, x, y));
+		}
+	}
+
+	/**
+	 * Turns the abstract path found by the last search into movements.
+	 * Edges inside a cluster are refined with a breadth first search on the given blockade map.
+	 *
+	 * @param map The blockade map.
+	 * @return The path, or null if the blockade map does not allow to follow the abstract path.
+	 */
+	private Queue<Movement> refinePath(final BlockadeMap map) {
+		int nodeCount = 0;
+
+		for (int node = TARGET_NODE; node != NO_NODE; node = _nodePredecessor[node]) {
+			nodeCount++;
+		}
+
+		final int[] locationsX = new int[nodeCount];
+		final int[] locationsY = new int[nodeCount];
+		int index = nodeCount;
+
+		for (int node = TARGET_NODE; node != NO_NODE; node = _nodePredecessor[node]) {
+			index--;
+			locationsX[index] = getNodeX(node);
+			locationsY[index] = getNodeY(node);
+		}
+
+		final Queue<Movement> path = new PackedPath(_nodeDistance[TARGET_NODE]);
+
+		for (int i = 1; i < nodeCount; i++) {
+			final int fromX = locationsX[i - 1];
+			final int fromY = locationsY[i - 1];
+			final int toX = locationsX[i];
+			final int toY = locationsY[i];
+
+			if (fromX == toX && fromY == toY) {
+				continue;
+			}
+
+			if (fromX / _clusterSize != toX / _clusterSize || fromY / _clusterSize != toY / _clusterSize) {
+				if (map.isBlocked(toX, toY)) {
+					return null;
+				}
+
+				path.add(Movement.getMovement(toX - fromX, toY - fromY));
+				continue;
+			}
+
+			// Search backwards, so that the predecessors point along the path.
+			searchCluster(_clusterNumbers.get(toX / _clusterSize, toY / _clusterSize), toX, toY, map, _localDistance);
+			int current = getLocalIndex(fromX, fromY);
+
+			if (_localDistance[current] == UNREACHABLE) {
+				return null;
+			}
+
+			while (_localPredecessor[current] != NO_NODE) {
+				final int next = _localPredecessor[current];
+				path.add(Movement.getMovement(next % _clusterSize - current % _clusterSize, next / _clusterSize - current / _clusterSize));
+				current = next;
+			}
+		}
+
+		return path;
+	}
+
+	/**
+	 * Calculates the heap priority of an abstract node. Ties are broken in favour of the node that is farther from the start.
+	 *
+	 * @param distance The distance from the start to the node.
+	 * @param x The x coordinate of the node.
+	 * @param y The y coordinate of the node.
+	 * @return The priority.
+	 */
+	private long priority(final int distance, final int x, final int y) {
+		final int estimate = distance + Math.abs(x - _targetX) + Math.abs(y - _targetY);
+		return ((long) estimate << 32) + (Integer.MAX_VALUE - distance);
+	}
+
+	/**
+	 * Returns the abstract node of an entrance.
+	 *
+	 * @param cluster The cluster of the entrance.
+	 * @param slot The slot of the entrance in its cluster.
+	 * @return The node.
+	 */
+	private int getEntranceNode(final int cluster, final int slot) {
+		return FIRST_ENTRANCE_NODE + cluster * _maxEntrances + slot;
+	}
+
+	/**
+	 * Returns the x coordinate of an abstract node of the current search.
+	 *
+	 * @param node The node.
+	 * @return The x coordinate.
+	 */
+	private int getNodeX(final int node) {
+		if (node == START_NODE) {
+			return _startX;
+		} else if (node == TARGET_NODE) {
+			return _targetX;
+		} else {
+			final int cluster = (node - FIRST_ENTRANCE_NODE) / _maxEntrances;
+			return _clusterX[cluster] * _clusterSize + _entrances[cluster][(node - FIRST_ENTRANCE_NODE) % _maxEntrances] % _clusterSize;
+		}
+	}
+
+	/**
+	 * Returns the y coordinate of an abstract node of the current search.
+	 *
+	 * @param node The node.
+	 * @return The y coordinate.
+	 */
+	private int getNodeY(final int node) {
+		if (node == START_NODE) {
+			return _startY;
+		} else if (node == TARGET_NODE) {
+			return _targetY;
+		} else {
+			final int cluster = (node - FIRST_ENTRANCE_NODE) / _maxEntrances;
+			return _clusterY[cluster] * _clusterSize + _entrances[cluster][(node - FIRST_ENTRANCE_NODE) % _maxEntrances] / _clusterSize;
+		}
+	}
+
+	/**
+	 * Returns the slot of the entrance at the given location.
+	 *
+	 * @param cluster The cluster containing the location.
+	 * @param location The index of the location inside of the cluster.
+	 * @return The slot of the entrance, or {@link #NO_NODE} if there is no entrance at the location.
+	 */
+	private int getEntranceSlot(final int cluster, final int location) {
+		final int[] entrances = _entrances[cluster];
+
+		for (int i = 0; i < entrances.length; i++) {
+			if (entrances[i] == location) {
+				return i;
+			}
+		}
+
+		return NO_NODE;
+	}
+
+	/**
+	 * Returns the index of the given location inside its cluster.
+	 * Clusters start at multiples of the cluster size, so the index only depends on the location.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The index inside the cluster.
+	 */
+	private int getLocalIndex(final int x, final int y) {
+		return (y % _clusterSize) * _clusterSize + x % _clusterSize;
+	}
+
+	/**
+	 * Starts a new search generation. Resets the stamp arrays if the generation counter overflows.
+	 */
+	private void nextGeneration() {
+		if (_generation == Integer.MAX_VALUE) {
+			Arrays.fill(_nodeSeen, 0);
+			Arrays.fill(_nodeClosed, 0);
+			_generation = 0;
+		}
+
+		_generation++;
+	}
+
+	/**
+	 * Returns true if the given location is on the grid.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return True if the given location is on the grid.
+	 */
+	private boolean isOnGrid(final int x, final int y) {
+		return x >= 0 && y >= 0 && x < _width && y < _height;
+	}
+}
@@ -0,0 +1,303 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap over the integers {@code [0, capacity)} with {@code long} priorities.
+ * Every element knows its position in the heap, so {@link #decreaseKey(int, long)} and {@link #contains(int)} run in O(log n) and O(1).
+ * The heap does not allocate after construction, unless it is grown with {@link #ensureCapacity(int)}, and can be reused by calling {@link #clear()}.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class IndexedBinaryHeap {
+	private static final int NOT_CONTAINED = -1;
+
+	private int[] _elements;
+	private long[] _priorities;
+
+	/**
+	 * Maps an element to its position in {@link #_elements}, or {@link #NOT_CONTAINED}.
+	 */
+	private int[] _positions;
+	private int _size;
+
+	/**
+	 * Creates a new empty heap that can hold the elements {@code [0, capacity)}.
+	 * @param capacity The amount of distinct elements.
+	 */
+	public IndexedBinaryHeap(final int capacity) {
+		_elements = new int[capacity];
+		_priorities = new long[capacity];
+		_positions = new int[capacity];
+		Arrays.fill(_positions, NOT_CONTAINED);
+	}
+
+	/**
+	 * Grows the heap, so that it can hold the elements {@code [0, capacity)}. Does nothing if it can already hold them.
+	 * @param capacity The amount of distinct elements.
+	 */
+	public void ensureCapacity(final int capacity) {
+		final int oldCapacity = _positions.length;
+
+		if (capacity <= oldCapacity) {
+			return;
+		}
+
+		_elements = Arrays.copyOf(_elements, capacity);
+		_priorities = Arrays.copyOf(_priorities, capacity);
+		_positions = Arrays.copyOf(_positions, capacity);
+		Arrays.fill(_positions, oldCapacity, capacity, NOT_CONTAINED);
+	}
+
+	/**
+	 * Returns true if the heap is empty.
+	 * @return True if the heap is empty.
+	 */
+	public boolean isEmpty() {
+		return _size == 0;
+	}
+
+	/**
+	 * Returns the amount of elements in the heap.
+	 * @return The amount of elements.
+	 */
+	public int size() {
+		return _size;
+	}
+
+	/**
+	 * Returns true if the given element is in the heap.
+	 * @param element The element.
+	 * @return True if {@code element} is in the heap.
+	 */
+	public boolean contains(final int element) {
+		return _positions[element] != NOT_CONTAINED;
+	}
+
+	/**
+	 * Returns the priority of the given element. The element has to be in the heap.
+	 * @param element The element.
+	 * @return The priority of {@code element}.
+	 */
+	public long getPriority(final int element) {
+		return _priorities[_positions[element]];
+	}
+
+	/**
+	 * Inserts the given element. The element must not be in the heap.
+	 * @param element The element.
+	 * @param priority The priority of the element. Lower priorities are polled first.
+	 */
+	public void insert(final int element, final long priority) {
+		if (contains(element)) {
+			throw new IllegalArgumentException("Element is already in the heap: " + element);
+		}
+
+		_elements[_size] = element;
+		_priorities[_size] = priority;
+		_positions[element] = _size;
+		_size++;
+
+		siftUp(_size - 1);
+	}
+
+	/**
+	 * Lowers the priority of an element that is in the heap.
+	 * @param element The element.
+	 * @param priority The new priority. Must not be higher than the old one.
+	 */
+	public void decreaseKey(final int element, final long priority) {
+		int position = _positions[element];
+
+		if (priority > _priorities[position]) {
+			throw new IllegalArgumentException("Priority cannot be increased!");
+		}
+
+		_priorities[position] = priority;
+		siftUp(position);
+	}
+
+	/**
+	 * Inserts the given element or lowers its priority, if it is already in the heap.
+	 * @param element The element.
+	 * @param priority The priority.
+	 */
+	public void insertOrDecreaseKey(final int element, final long priority) {
+		if (contains(element)) {
+			decreaseKey(element, priority);
+		} else {
+			insert(element, priority);
+		}
+	}
+
+	/**
+	 * Inserts the given element or changes its priority, if it is already in the heap. The priority may be higher than the old one.
+	 * @param element The element.
+	 * @param priority The priority.
+	 */
+	public void insertOrChangeKey(final int element, final long priority) {
+		if (!contains(element)) {
+			insert(element, priority);
+			return;
+		}
+
+		final int position = _positions[element];
+		final long oldPriority = _priorities[position];
+		_priorities[position] = priority;
+
+		if (priority < oldPriority) {
+			siftUp(position);
+		} else {
+			siftDown(position);
+		}
+	}
+
+	/**
+	 * Removes the given element, if it is in the heap.
+	 * @param element The element.
+	 */
+	public void remove(final int element) {
+		final int position = _positions[element];
+
+		if (position == NOT_CONTAINED) {
+			return;
+		}
+
+		_size--;
+		_positions[element] = NOT_CONTAINED;
+
+		if (position < _size) {
+			final long priority = _priorities[_size];
+			move(_size, position);
+
+			if (position > 0 && priority < _priorities[(position - 1) >>> 1]) {
+				siftUp(position);
+			} else {
+				siftDown(position);
+			}
+		}
+	}
+
+	/**
+	 * Returns the element with the lowest priority without removing it.
+	 * @return The element with the lowest priority.
+	 */
+	public int peek() {
+		if (_size == 0) {
+			throw new IllegalStateException("Heap is empty!");
+		}
+
+		return _elements[0];
+	}
+
+	/**
+	 * Returns the lowest priority in the heap.
+	 * @return The lowest priority.
+	 */
+	public long peekPriority() {
+		if (_size == 0) {
+			throw new IllegalStateException("Heap is empty!");
+		}
+
+		return _priorities[0];
+	}
+
+	/**
+	 * Removes and returns the element with the lowest priority.
+	 * @return The element with the lowest priority.
+	 */
+	public int poll() {
+		int result = peek();
+
+		_size--;
+		_positions[result] = NOT_CONTAINED;
+
+		if (_size > 0) {
+			move(_size, 0);
+			siftDown(0);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Removes all elements. Runs in O(n) of the current size, not of the capacity.
+	 */
+	public void clear() {
+		for (int i = 0; i < _size; i++) {
+			_positions[_elements[i]] = NOT_CONTAINED;
+		}
+
+		_size = 0;
+	}
+
+	/**
+	 * Moves the entry at {@code from} to {@code to}, overwriting the entry at {@code to}.
+	 * @param from The source position.
+	 * @param to The target position.
+	 */
+	private void move(final int from, final int to) {
+		_elements[to] = _elements[from];
+		_priorities[to] = _priorities[from];
+		_positions[_elements[to]] = to;
+	}
+
+	/**
+	 * Moves the entry at the given position up until the heap property is restored.
+	 * @param start The position.
+	 */
+	private void siftUp(final int start) {
+		final int element = _elements[start];
+		final long priority = _priorities[start];
+		int position = start;
+
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+
+			if (_priorities[parent] <= priority) {
+				break;
+			}
+
+			move(parent, position);
+			position = parent;
+		}
+
+		_elements[position] = element;
+		_priorities[position] = priority;
+		_positions[element] = position;
+	}
+
+	/**
+	 * Moves the entry at the given position down until the heap property is restored.
+	 * @param start The position.
+	 */
+	private void siftDown(final int start) {
+		final int element = _elements[start];
+		final long priority = _priorities[start];
+		int position = start;
+
+		while (true) {
+			int child = (position << 1) + 1;
+
+			if (child >= _size) {
+				break;
+			}
+
+			if (child + 1 < _size && _priorities[child + 1] < _priorities[child]) {
+				child++;
+			}
+
+			if (_priorities[child] >= priority) {
+				break;
+			}
+
+			move(child, position);
+			position = child;
+		}
+
+		_elements[position] = element;
+		_priorities[position] = priority;
+		_positions[element] = position;
+	}
+}
@@ -0,0 +1,221 @@
+package de.isibboi.agentsim.algorithm;
+
+/**
+ * Calculates a shortest path from start to target using Jump Point Search for four-connected grids.
+ * Instead of adding every neighbour to the open list, the search jumps along straight lines and only stops at jump points,
+ * that is locations where an optimal path might have to turn. In open areas, this expands far fewer vertices than plain A*.
+ *
+ * Horizontal jumps stop at a location if one of its vertical neighbours is open while the location behind it is blocked.
+ * Vertical jumps additionally stop at every location from which a horizontal jump would find a jump point.
+ * From a jump point that was reached horizontally, the search continues straight on and in both vertical directions,
+ * and vice versa.
+ *
+ * On a {@link RowBlockadeMap} of the same size as the grid, horizontal jumps scan 64 locations of a row at once.
+ *
+ * Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class JumpPointSearchPathfinder extends ArrayAStarPathfinder {
+	private static final int NO_JUMP_POINT = -1;
+
+	/**
+	 * Creates a new pathfinder for grids of the given size.
+	 *
+	 * @param width The width of the grid.
+	 * @param height The height of the grid.
+	 */
+	public JumpPointSearchPathfinder(final int width, final int height) {
+		super(width, height);
+	}
+
+	@Override
+	protected void expand(final int current, final int goalX, final int goalY, final BlockadeMap map) {
+		final int x = getX(current);
+		final int y = getY(current);
+		final int predecessor = getPredecessor(current);
+
+		if (predecessor == NO_PREDECESSOR) {
+			jumpAndRelax(current, x, y, 0, 1, goalX, goalY, map);
+			jumpAndRelax(current, x, y, 0, -1, goalX, goalY, map);
+			jumpAndRelax(current, x, y, 1, 0, goalX, goalY, map);
+			jumpAndRelax(current, x, y, -1, 0, goalX, goalY, map);
+		} else {
+			final int dx = Integer.signum(x - getX(predecessor));
+			final int dy = Integer.signum(y - getY(predecessor));
+
+			if (dx != 0) {
+				jumpAndRelax(current, x, y, 0, 1, goalX, goalY, map);
+				jumpAndRelax(current, x, y, 0, -1, goalX, goalY, map);
+				jumpAndRelax(current, x, y, dx, 0, goalX, goalY, map);
+			} else {
+				jumpAndRelax(current, x, y, 1, 0, goalX, goalY, map);
+				jumpAndRelax(current, x, y, -1, 0, goalX, goalY, map);
+				jumpAndRelax(current, x, y, 0, dy, goalX, goalY, map);
+			}
+		}
+	}
+
+	/**
+	 * Jumps from the given vertex into the given direction and relaxes the edge to the jump point, if one is found.
+	 *
+	 * @param current The vertex to jump from.
+	 * @param x The x coordinate of {@code current}.
+	 * @param y The y coordinate of {@code current}.
+	 * @param dx The x direction of the jump.
+	 * @param dy The y direction of the jump.
+	 * @param goalX The x coordinate of the vertex the search is heading to.
+	 * @param goalY The y coordinate of the vertex the search is heading to.
+	 * @param map The blockade map.
+	 */
+	private void jumpAndRelax(final int current, final int x, final int y, final int dx, final int dy, final int goalX, final int goalY, final BlockadeMap map) {
+		if (dy == 0) {
+			final int jumpX = jumpHorizontally(x, y, dx, goalX, goalY, map);
+
+			if (jumpX != NO_JUMP_POINT) {
+				relax(current, jumpX, y, Math.abs(jumpX - x), goalX, goalY, map);
+			}
+		} else {
+			final int jumpY = jumpVertically(x, y, dy, goalX, goalY, map);
+
+			if (jumpY != NO_JUMP_POINT) {
+				relax(current, x, jumpY, Math.abs(jumpY - y), goalX, goalY, map);
+			}
+		}
+	}
+
+	/**
+	 * Jumps horizontally from the given location.
+	 *
+	 * @param startX The x coordinate to jump from.
+	 * @param y The y coordinate of the row.
+	 * @param dx The direction of the jump, either 1 or -1.
+	 * @param goalX The x coordinate of the vertex the search is heading to.
+	 * @param goalY The y coordinate of the vertex the search is heading to.
+	 * @param map The blockade map.
+	 * @return The x coordinate of the jump point, or {@link #NO_JUMP_POINT}.
+	 */
+	private int jumpHorizontally(final int startX, final int y, final int dx, final int goalX, final int goalY, final BlockadeMap map) {
+		if (map instanceof RowBlockadeMap) {
+			final RowBlockadeMap rowMap = (RowBlockadeMap) map;
+
+			if (rowMap.getWidth() == getWidth() && rowMap.getHeight() == getHeight()) {
+				return jumpHorizontally(startX, y, dx, goalX, goalY, rowMap);
+			}
+		}
+
+		int x = startX + dx;
+
+		while (!isBlocked(x, y, map)) {
+			if (x == goalX && y == goalY) {
+				return x;
+			}
+
+			if (!isBlocked(x, y - 1, map) && isBlocked(x - dx, y - 1, map) || !isBlocked(x, y + 1, map) && isBlocked(x - dx, y + 1, map)) {
+				return x;
+			}
+
+			x += dx;
+		}
+
+		return NO_JUMP_POINT;
+	}
+
+	/**
+	 * Jumps horizontally from the given location, scanning 64 locations at once.
+	 * Stops at the first location that is blocked, the goal or a jump point, in the same order as the scan of single locations.
+	 *
+	 * @param startX The x coordinate to jump from.
+	 * @param y The y coordinate of the row.
+	 * @param dx The direction of the jump, either 1 or -1.
+	 * @param goalX The x coordinate of the vertex the search is heading to.
+	 * @param goalY The y coordinate of the vertex the search is heading to.
+	 * @param map The blockade map. Must have the size of the grid.
+	 * @return The x coordinate of the jump point, or {@link #NO_JUMP_POINT}.
+	 */
+	private int jumpHorizontally(final int startX, final int y, final int dx, final int goalX, final int goalY, final RowBlockadeMap map) {
+		int x = dx > 0 ? startX + 1 : startX - Long.SIZE;
+
+		while (true) {
+			// Each location of the window is compared with the location behind it in jump direction.
+			final long blocked = map.getRowBits(x, y);
+			final long stops = blocked | getForcedBits(x, y - 1, x - dx, map) | getForcedBits(x, y + 1, x - dx, map) | getGoalBit(x, y, goalX, goalY);
+
+			if (stops != 0) {
+				final int offset = dx > 0 ? Long.numberOfTrailingZeros(stops) : Long.SIZE - 1 - Long.numberOfLeadingZeros(stops);
+
+				if ((blocked & 1L << offset) != 0) {
+					return NO_JUMP_POINT;
+				}
+
+				return x + offset;
+			}
+
+			x += dx * Long.SIZE;
+		}
+	}
+
+	/**
+	 * Returns the locations of a window whose neighbour in the given row is open, while the neighbour of the location behind it is blocked.
+	 *
+	 * @param x The x coordinate of the first location of the window.
+	 * @param neighbourY The y coordinate of the neighbouring row.
+	 * @param behindX The x coordinate of the location behind the first location of the window.
+	 * @param map The blockade map.
+	 * @return The bits of the locations that would be jump points.
+	 */
+	private static long getForcedBits(final int x, final int neighbourY, final int behindX, final RowBlockadeMap map) {
+		return ~map.getRowBits(x, neighbourY) & map.getRowBits(behindX, neighbourY);
+	}
+
+	/**
+	 * Returns the bit of the goal in a window.
+	 *
+	 * @param x The x coordinate of the first location of the window.
+	 * @param y The y coordinate of the row of the window.
+	 * @param goalX The x coordinate of the goal.
+	 * @param goalY The y coordinate of the goal.
+	 * @return The bit of the goal, or zero if the goal is not in the window.
+	 */
+	private static long getGoalBit(final int x, final int y, final int goalX, final int goalY) {
+		if (goalY != y || goalX < x || goalX >= x + Long.SIZE) {
+			return 0;
+		}
+
+		return 1L << (goalX - x);
+	}
+
+	/**
+	 * Jumps vertically from the given location.
+	 *
+	 * @param x The x coordinate of the column.
+	 * @param startY The y coordinate to jump from.
+	 * @param dy The direction of the jump, either 1 or -1.
+	 * @param goalX The x coordinate of the vertex the search is heading to.
+	 * @param goalY The y coordinate of the vertex the search is heading to.
+	 * @param map The blockade map.
+	 * @return The y coordinate of the jump point, or {@link #NO_JUMP_POINT}.
+	 */
+	private int jumpVertically(final int x, final int startY, final int dy, final int goalX, final int goalY, final BlockadeMap map) {
+		int y = startY + dy;
+
+		while (!isBlocked(x, y, map)) {
+			if (x == goalX && y == goalY) {
+				return y;
+			}
+
+			if (!isBlocked(x - 1, y, map) && isBlocked(x - 1, y - dy, map) || !isBlocked(x + 1, y, map) && isBlocked(x + 1, y - dy, map)) {
+				return y;
+			}
+
+			if (jumpHorizontally(x, y, 1, goalX, goalY, map) != NO_JUMP_POINT || jumpHorizontally(x, y, -1, goalX, goalY, map) != NO_JUMP_POINT) {
+				return y;
+			}
+
+			y += dy;
+		}
+
+		return NO_JUMP_POINT;
+	}
+}
@@ -7,13 +7,15 @@ import de.isibboi.agentsim.game.map.Point;
 /**
  * Translates from a knowledge map to a blockade map.
  * Unknown locations are known as blocking.
+ * Reachability queries are answered by an optional {@link ReachabilityIndex} of the same knowledge.
  * 
  * @author Sebastian Schmidt
  * @since 0.3.0
  *
  */
-public class KnowledgeBasedBlockadeMap implements BlockadeMap {
+public class KnowledgeBasedBlockadeMap implements BlockadeMap, ReachabilityIndex {
 	private final KnowledgeMap<Material> _mapKnowledge;
+	private final ReachabilityIndex _reachabilityIndex;
 
 	/**
 	 * Creates a new blockade map based on the given map knowledge.
@@ -21,12 +23,28 @@ public class KnowledgeBasedBlockadeMap implements BlockadeMap {
 	 * @param mapKnowledge The map knowledge.
 	 */
 	public KnowledgeBasedBlockadeMap(final KnowledgeMap<Material> mapKnowledge) {
+		this(mapKnowledge, null);
+	}
+
+	/**
+	 * Creates a new blockade map based on the given map knowledge.
+	 * 
+	 * @param mapKnowledge The map knowledge.
+	 * @param reachabilityIndex The reachability index of the map knowledge, or null if there is none.
+	 */
+	public KnowledgeBasedBlockadeMap(final KnowledgeMap<Material> mapKnowledge, final ReachabilityIndex reachabilityIndex) {
 		_mapKnowledge = mapKnowledge;
+		_reachabilityIndex = reachabilityIndex;
 	}
 
 	@Override
 	public boolean isBlocked(final Point location) {
-		Material material = _mapKnowledge.getLocationKnowledge(location);
+		return isBlocked(location.getX(), location.getY());
+	}
+
+	@Override
+	public boolean isBlocked(final int x, final int y) {
+		Material material = _mapKnowledge.getLocationKnowledge(x, y);
 
 		if (material == null) {
 			return true;
@@ -35,4 +53,17 @@ public class KnowledgeBasedBlockadeMap implements BlockadeMap {
 		}
 	}
 
+	@Override
+	public long getVersion() {
+		return _mapKnowledge.getVersion();
+	}
+
+	@Override
+	public boolean isReachable(final Point start, final Point target) {
+		if (_reachabilityIndex == null) {
+			return true;
+		}
+
+		return _reachabilityIndex.isReachable(start, target);
+	}
 }
@@ -0,0 +1,183 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Maps locations to {@code int} values with a hash table that is keyed by the packed coordinates of the locations.
+ * Neither lookups nor insertions create {@link de.isibboi.agentsim.game.map.Point} objects or boxed values,
+ * and the memory used only depends on the amount of mapped locations, not on the size of the map.
+ * The table uses open addressing with linear probing, and doubles whenever it becomes half full.
+ * Removed entries are not marked as deleted, instead the following entries of the probe sequence are shifted back, so lookups never slow down.
+ *
+ * Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class LocationIntMap {
+	/**
+	 * The table starts with this many slots.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final int _missingValue;
+
+	/**
+	 * The locations, packed by {@link #pack(int, int)}.
+	 */
+	private long[] _keys = new long[INITIAL_CAPACITY];
+	private int[] _values = new int[INITIAL_CAPACITY];
+	private boolean[] _used = new boolean[INITIAL_CAPACITY];
+	private int _size = 0;
+
+	/**
+	 * Creates a new empty map.
+	 * @param missingValue The value returned for locations that are not mapped.
+	 */
+	public LocationIntMap(final int missingValue) {
+		_missingValue = missingValue;
+	}
+
+	/**
+	 * Returns the value of the given location.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The value, or the missing value if the location is not mapped.
+	 */
+	public int get(final int x, final int y) {
+		final int slot = findSlot(x, y);
+		return slot < 0 ? _missingValue : _values[slot];
+	}
+
+	/**
+	 * Maps the given location to the given value, replacing the old value.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param value The value.
+	 */
+	public void put(final int x, final int y, final int value) {
+		int slot = findSlot(x, y);
+
+		if (slot < 0) {
+			if (2 * (_size + 1) > _keys.length) {
+				grow();
+			}
+
+			slot = ~findSlot(x, y);
+			_keys[slot] = pack(x, y);
+			_used[slot] = true;
+			_size++;
+		}
+
+		_values[slot] = value;
+	}
+
+	/**
+	 * Removes the mapping of the given location, if it is mapped.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 */
+	public void remove(final int x, final int y) {
+		int gap = findSlot(x, y);
+
+		if (gap < 0) {
+			return;
+		}
+
+		final int mask = _keys.length - 1;
+		_used[gap] = false;
+		_size--;
+
+		// Moves every following entry of the probe sequence into the gap, unless its home slot lies between the gap and the entry.
+		for (int slot = (gap + 1) & mask; _used[slot]; slot = (slot + 1) & mask) {
+			final int home = getHomeSlot(_keys[slot]);
+
+			if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+				_keys[gap] = _keys[slot];
+				_values[gap] = _values[slot];
+				_used[gap] = true;
+				_used[slot] = false;
+				gap = slot;
+			}
+		}
+	}
+
+	/**
+	 * Returns the amount of mapped locations.
+	 * @return The amount of mapped locations.
+	 */
+	public int size() {
+		return _size;
+	}
+
+	/**
+	 * Removes all mappings. The table keeps its capacity.
+	 */
+	public void clear() {
+		Arrays.fill(_used, false);
+		_size = 0;
+	}
+
+	/**
+	 * Packs the coordinates of a location into one key.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The key.
+	 */
+	private static long pack(final int x, final int y) {
+		return (long) x << 32 | y & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Returns the slot of the given location.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The slot, or the one's complement of the empty slot the location would be inserted into.
+	 */
+	private int findSlot(final int x, final int y) {
+		final long key = pack(x, y);
+		final int mask = _keys.length - 1;
+		int slot = getHomeSlot(key);
+
+		while (_used[slot]) {
+			if (_keys[slot] == key) {
+				return slot;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		return ~slot;
+	}
+
+	/**
+	 * Returns the slot the probe sequence of the given key starts at.
+	 * @param key The packed location.
+	 * @return The slot.
+	 */
+	private int getHomeSlot(final long key) {
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ hash >>> 32) & (_keys.length - 1);
+	}
+
+	/**
+	 * Doubles the amount of slots and reinserts all entries.
+	 */
+	private void grow() {
+		final long[] keys = _keys;
+		final int[] values = _values;
+		final boolean[] used = _used;
+		_keys = new long[keys.length * 2];
+		_values = new int[keys.length * 2];
+		_used = new boolean[keys.length * 2];
+
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (used[slot]) {
+				final int newSlot = ~findSlot((int) (keys[slot] >> 32), (int) keys[slot]);
+				_keys[newSlot] = keys[slot];
+				_values[newSlot] = values[slot];
+				_used[newSlot] = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Arrays;
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Searches the nearest reachable target from a start location with a breadth first search on a fixed size grid.
+ * A target is reached when the search expands a location next to it, so targets are usually blocked locations, like material that should be mined.
+ * The search returns the target together with the path to the location next to it, so no further pathfinding is necessary.
+ *
+ * Every location the search reaches gets a vertex number, and the vertex data is stored in arrays indexed by the vertex number.
+ * The vertex numbers of the locations are kept in a {@link ChunkedIntGrid}, so the memory grows with the area the searches reach,
+ * and not with the size of the grid. The arrays are reused for all searches, and only the locations reached by a search are reset after it.
+ * Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class NearestTargetSearch {
+	/**
+	 * The vertex number of locations that were not reached by the current search.
+	 */
+	private static final int NO_VERTEX = -1;
+
+	/**
+	 * The vertex arrays start with this many entries, and double whenever they are full.
+	 */
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final int _width;
+	private final int _height;
+
+	/**
+	 * The vertex number of each location reached by the current search.
+	 */
+	private final ChunkedIntGrid _vertices;
+	private int _vertexCount = 0;
+
+	private int[] _x = new int[INITIAL_CAPACITY];
+	private int[] _y = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The vertex each visited vertex was reached from.
+	 */
+	private int[] _predecessor = new int[INITIAL_CAPACITY];
+	private boolean[] _visited = new boolean[INITIAL_CAPACITY];
+
+	/**
+	 * Whether each vertex was tested against the target predicate, so every location is tested only once.
+	 */
+	private boolean[] _tested = new boolean[INITIAL_CAPACITY];
+	private int[] _queue = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Creates a new search for a grid with the given size.
+	 *
+	 * @param width The width of the grid. Locations outside of the grid are blocked.
+	 * @param height The height of the grid.
+	 */
+	public NearestTargetSearch(final int width, final int height) {
+		_width = width;
+		_height = height;
+		_vertices = new ChunkedIntGrid(width, height, NO_VERTEX);
+	}
+
+	/**
+	 * Searches the target with the shortest path to a location next to it.
+	 * The locations next to the start are checked first, so the path may be empty.
+	 *
+	 * @param start The start. Must not be blocked.
+	 * @param map The blockade map.
+	 * @param predicate Decides which locations are targets.
+	 * @return The nearest target and the path to it, or null if no target can be reached.
+	 */
+	public AccessPath findNearestAccessPath(final Point start, final BlockadeMap map, final TargetPredicate predicate) {
+		if (!isOnGrid(start.getX(), start.getY()) || map.isBlocked(start.getX(), start.getY())) {
+			return null;
+		}
+
+		try {
+			final int startVertex = createVertex(start.getX(), start.getY());
+			_visited[startVertex] = true;
+			_queue[0] = startVertex;
+			int head = 0;
+			int tail = 1;
+
+			while (head < tail) {
+				final int current = _queue[head++];
+				final int x = _x[current];
+				final int y = _y[current];
+
+				for (int direction = 0; direction < 4; direction++) {
+					final int nx = x + PackedPath.getDirectionX(direction);
+					final int ny = y + PackedPath.getDirectionY(direction);
+
+					if (!isOnGrid(nx, ny)) {
+						continue;
+					}
+
+					int vertex = _vertices.get(nx, ny);
+
+					if (vertex == NO_VERTEX) {
+						vertex = createVertex(nx, ny);
+					}
+
+					if (!_tested[vertex]) {
+						_tested[vertex] = true;
+
+						if (predicate.isTarget(nx, ny)) {
+							return new AccessPath(new Point(nx, ny), new Point(x, y), getPath(current));
+						}
+					}
+
+					if (!_visited[vertex] && !map.isBlocked(nx, ny)) {
+						_visited[vertex] = true;
+						_predecessor[vertex] = current;
+
+						if (tail == _queue.length) {
+							_queue = Arrays.copyOf(_queue, 2 * tail);
+						}
+
+						_queue[tail++] = vertex;
+					}
+				}
+			}
+
+			return null;
+		} finally {
+			releaseVertices();
+		}
+	}
+
+	/**
+	 * Follows the predecessors from the given vertex back to the start vertex, which is vertex 0, and stores the traversed edges as movements.
+	 * The search is finished at this point, so the queue is reused to reverse the predecessor chain.
+	 *
+	 * @param endVertex The end of the path.
+	 * @return The path from start to end.
+	 */
+	private Queue<Movement> getPath(final int endVertex) {
+		int length = 0;
+
+		for (int current = endVertex; current != 0; current = _predecessor[current]) {
+			_queue[length++] = current;
+		}
+
+		final PackedPath path = new PackedPath(length);
+		int previous = 0;
+
+		for (int i = length - 1; i >= 0; i--) {
+			final int current = _queue[i];
+			path.offer(Movement.getMovement(_x[current] - _x[previous], _y[current] - _y[previous]));
+			previous = current;
+		}
+
+		return path;
+	}
+
+	/**
+	 * Gives the given location the next vertex number, growing the vertex arrays if necessary.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The vertex.
+	 */
+	private int createVertex(final int x, final int y) {
+		final int vertex = _vertexCount;
+
+		if (vertex == _x.length) {
+			final int capacity = 2 * vertex;
+			_x = Arrays.copyOf(_x, capacity);
+			_y = Arrays.copyOf(_y, capacity);
+			_predecessor = Arrays.copyOf(_predecessor, capacity);
+			_visited = Arrays.copyOf(_visited, capacity);
+			_tested = Arrays.copyOf(_tested, capacity);
+		}
+
+		_vertexCount++;
+		_x[vertex] = x;
+		_y[vertex] = y;
+		_visited[vertex] = false;
+		_tested[vertex] = false;
+		_vertices.set(x, y, vertex);
+		return vertex;
+	}
+
+	/**
+	 * Removes the vertex numbers of all locations reached by the current search.
+	 */
+	private void releaseVertices() {
+		for (int vertex = 0; vertex < _vertexCount; vertex++) {
+			_vertices.set(_x[vertex], _y[vertex], NO_VERTEX);
+		}
+
+		_vertexCount = 0;
+	}
+
+	/**
+	 * Returns true if the given location lies on the grid.
+	 *
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return True if the location lies on the grid.
+	 */
+	private boolean isOnGrid(final int x, final int y) {
+		return x >= 0 && y >= 0 && x < _width && y < _height;
+	}
+}
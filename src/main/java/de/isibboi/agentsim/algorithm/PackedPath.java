@@ -0,0 +1,204 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+
+/**
+ * A path that stores each movement as a direction in two bits, 32 movements per {@code long}.
+ * Movements are consumed by moving a cursor, so polling neither shifts nor frees the storage.
+ * Only {@link Movement#UP}, {@link Movement#DOWN}, {@link Movement#LEFT} and {@link Movement#RIGHT} can be stored.
+ *
+ * Directions are numbered like in the array based pathfinders: 0 is down, 1 is up, 2 is right and 3 is left.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class PackedPath extends AbstractQueue<Movement> {
+	private static final int MOVEMENTS_PER_WORD = 32;
+	private static final Movement[] MOVEMENTS = { Movement.DOWN, Movement.UP, Movement.RIGHT, Movement.LEFT };
+
+	private long[] _words;
+
+	/**
+	 * The index of the next movement to poll.
+	 */
+	private int _cursor = 0;
+	private int _length = 0;
+
+	/**
+	 * Creates a new empty path.
+	 */
+	public PackedPath() {
+		this(MOVEMENTS_PER_WORD);
+	}
+
+	/**
+	 * Creates a new empty path that can hold the given amount of movements without growing.
+	 * @param capacity The initial capacity.
+	 */
+	public PackedPath(final int capacity) {
+		_words = new long[Math.max(1, (capacity + MOVEMENTS_PER_WORD - 1) / MOVEMENTS_PER_WORD)];
+	}
+
+	/**
+	 * Creates a new path containing the given movements.
+	 * If a packed path is given, its remaining movements are copied without unpacking them.
+	 * @param movements The movements.
+	 */
+	public PackedPath(final Queue<Movement> movements) {
+		if (movements instanceof PackedPath) {
+			final PackedPath other = (PackedPath) movements;
+			_words = new long[Math.max(1, (other.size() + MOVEMENTS_PER_WORD - 1) / MOVEMENTS_PER_WORD)];
+
+			for (int i = other._cursor; i < other._length; i++) {
+				addDirection(other.getDirectionAt(i));
+			}
+		} else {
+			_words = new long[Math.max(1, (movements.size() + MOVEMENTS_PER_WORD - 1) / MOVEMENTS_PER_WORD)];
+			addAll(movements);
+		}
+	}
+
+	/**
+	 * Appends a movement given as direction.
+	 * @param direction The direction, from 0 to 3.
+	 */
+	public void addDirection(final int direction) {
+		if (direction < 0 || direction > 3) {
+			throw new IllegalArgumentException("Not a direction: " + direction);
+		}
+
+		if (_length == _words.length * MOVEMENTS_PER_WORD) {
+			_words = Arrays.copyOf(_words, _words.length * 2);
+		}
+
+		_words[_length / MOVEMENTS_PER_WORD] |= (long) direction << (2 * (_length % MOVEMENTS_PER_WORD));
+		_length++;
+	}
+
+	/**
+	 * Returns the direction of the movement with the given index, counted from the cursor.
+	 * @param index The index. 0 is the movement that is polled next.
+	 * @return The direction, from 0 to 3.
+	 */
+	public int getDirection(final int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+		}
+
+		return getDirectionAt(_cursor + index);
+	}
+
+	/**
+	 * Returns the direction stored at the given absolute position.
+	 * @param position The position.
+	 * @return The direction.
+	 */
+	private int getDirectionAt(final int position) {
+		return (int) (_words[position / MOVEMENTS_PER_WORD] >>> (2 * (position % MOVEMENTS_PER_WORD))) & 3;
+	}
+
+	/**
+	 * Returns the x offset of the given direction. The directions are ordered like {@link de.isibboi.agentsim.game.map.Point#getNeighbours()}.
+	 * @param direction The direction, from 0 to 3.
+	 * @return The x offset.
+	 */
+	public static int getDirectionX(final int direction) {
+		return direction < 2 ? 0 : 5 - 2 * direction;
+	}
+
+	/**
+	 * Returns the y offset of the given direction.
+	 * @param direction The direction, from 0 to 3.
+	 * @return The y offset.
+	 */
+	public static int getDirectionY(final int direction) {
+		return direction < 2 ? 1 - 2 * direction : 0;
+	}
+
+	/**
+	 * Returns the direction of the given movement.
+	 * @param movement The movement.
+	 * @return The direction, from 0 to 3.
+	 */
+	public static int getDirection(final Movement movement) {
+		for (int direction = 0; direction < MOVEMENTS.length; direction++) {
+			if (MOVEMENTS[direction] == movement) {
+				return direction;
+			}
+		}
+
+		throw new IllegalArgumentException("Movement cannot be packed: " + movement);
+	}
+
+	@Override
+	public boolean offer(final Movement movement) {
+		addDirection(getDirection(movement));
+		return true;
+	}
+
+	@Override
+	public Movement poll() {
+		if (_cursor == _length) {
+			return null;
+		}
+
+		return MOVEMENTS[getDirectionAt(_cursor++)];
+	}
+
+	@Override
+	public Movement peek() {
+		if (_cursor == _length) {
+			return null;
+		}
+
+		return MOVEMENTS[getDirectionAt(_cursor)];
+	}
+
+	@Override
+	public int size() {
+		return _length - _cursor;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(_words, 0);
+		_cursor = 0;
+		_length = 0;
+	}
+
+	/**
+	 * Returns an iterator over the remaining movements. The iterator does not support removal.
+	 * @return The iterator.
+	 */
+	@Override
+	public Iterator<Movement> iterator() {
+		return new Iterator<Movement>() {
+			private int _position = _cursor;
+
+			@Override
+			public boolean hasNext() {
+				return _position < _length;
+			}
+
+			@Override
+			public Movement next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				return MOVEMENTS[getDirectionAt(_position++)];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("Packed paths can only be consumed by polling.");
+			}
+		};
+	}
+}
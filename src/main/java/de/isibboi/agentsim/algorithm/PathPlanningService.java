@@ -0,0 +1,150 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Collects path requests and solves them in batches on a {@link ForkJoinPool}.
+ * Each worker searches with its own pathfinding algorithm, so the search data is never shared between threads.
+ * The batch is split into one contiguous chunk per pathfinding algorithm, and each request is solved independently,
+ * so the results do not depend on the amount of threads or on their timing.
+ *
+ * Requests may be submitted from any thread, but the blockade maps of the pending requests must not change while a batch is solved.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class PathPlanningService {
+	/**
+	 * Solves a contiguous chunk of a batch with a single pathfinding algorithm.
+	 */
+	private static class ChunkSolver extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final List<PathRequest> _requests;
+		private final PathfindingAlgorithm _pathfinder;
+
+		/**
+		 * Creates a new chunk solver.
+		 * @param requests The requests of the chunk.
+		 * @param pathfinder The pathfinding algorithm used for this chunk only.
+		 */
+		ChunkSolver(final List<PathRequest> requests, final PathfindingAlgorithm pathfinder) {
+			_requests = requests;
+			_pathfinder = pathfinder;
+		}
+
+		@Override
+		protected void compute() {
+			for (PathRequest request : _requests) {
+				request.solve(_pathfinder);
+			}
+		}
+	}
+
+	private static final Logger LOG = LogManager.getLogger(PathPlanningService.class);
+
+	/**
+	 * Batches smaller than this are solved on the calling thread.
+	 */
+	private static final int MINIMUM_PARALLEL_BATCH_SIZE = 8;
+
+	private final PathfindingAlgorithm[] _pathfinders;
+	private final ForkJoinPool _pool;
+
+	private List<PathRequest> _pendingRequests = new ArrayList<>();
+
+	/**
+	 * Creates a new path planning service with one worker thread per given pathfinding algorithm.
+	 *
+	 * @param pathfinders The pathfinding algorithms. They must be different objects, and should find the same paths.
+	 */
+	public PathPlanningService(final PathfindingAlgorithm[] pathfinders) {
+		if (pathfinders.length == 0) {
+			throw new IllegalArgumentException("At least one pathfinding algorithm is required!");
+		}
+
+		_pathfinders = pathfinders.clone();
+
+		if (_pathfinders.length > 1) {
+			_pool = new ForkJoinPool(_pathfinders.length);
+			LOG.info("Path planning threads started");
+		} else {
+			_pool = null;
+		}
+	}
+
+	/**
+	 * Submits a path search. The search is executed with the next batch.
+	 *
+	 * @param start The start point.
+	 * @param target The target point.
+	 * @param map The map.
+	 * @return The request, which provides the path once it is solved.
+	 */
+	public synchronized PathRequest submit(final Point start, final Point target, final BlockadeMap map) {
+		final PathRequest request = new PathRequest(this, start, target, map);
+		_pendingRequests.add(request);
+		return request;
+	}
+
+	/**
+	 * Solves all pending requests.
+	 */
+	public synchronized void solve() {
+		if (_pendingRequests.isEmpty()) {
+			return;
+		}
+
+		final List<PathRequest> batch = _pendingRequests;
+		_pendingRequests = new ArrayList<>();
+
+		if (_pool == null || _pool.isShutdown() || batch.size() < MINIMUM_PARALLEL_BATCH_SIZE) {
+			new ChunkSolver(batch, _pathfinders[0]).compute();
+			return;
+		}
+
+		final List<ChunkSolver> chunks = new ArrayList<>(_pathfinders.length);
+
+		for (int i = 0; i < _pathfinders.length; i++) {
+			final int from = batch.size() * i / _pathfinders.length;
+			final int to = batch.size() * (i + 1) / _pathfinders.length;
+
+			chunks.add(new ChunkSolver(batch.subList(from, to), _pathfinders[i]));
+		}
+
+		_pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				invokeAll(chunks);
+			}
+		});
+	}
+
+	/**
+	 * Returns the amount of requests that were submitted, but not solved yet.
+	 * @return The amount of pending requests.
+	 */
+	public synchronized int getPendingRequestCount() {
+		return _pendingRequests.size();
+	}
+
+	/**
+	 * Shuts the worker threads down. Pending requests are still solved on the calling thread when their paths are needed.
+	 */
+	public synchronized void shutdown() {
+		if (_pool != null) {
+			_pool.shutdown();
+			LOG.info("Path planning thread pool is shutting down");
+		}
+	}
+}
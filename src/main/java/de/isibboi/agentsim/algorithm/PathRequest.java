@@ -0,0 +1,84 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.Queue;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * A path search that was submitted to a {@link PathPlanningService}.
+ * The search is executed together with all other pending requests when the service solves its batch,
+ * or as soon as the path is needed, whatever happens first.
+ * 
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class PathRequest {
+	private final PathPlanningService _service;
+	private final Point _start;
+	private final Point _target;
+	private final BlockadeMap _map;
+
+	private Queue<Movement> _path;
+	private volatile boolean _solved;
+
+	/**
+	 * Creates a new request. Requests are created by {@link PathPlanningService#submit(Point, Point, BlockadeMap)}.
+	 * 
+	 * @param service The service that solves the request.
+	 * @param start The start point.
+	 * @param target The target point.
+	 * @param map The map.
+	 */
+	PathRequest(final PathPlanningService service, final Point start, final Point target, final BlockadeMap map) {
+		_service = service;
+		_start = start;
+		_target = target;
+		_map = map;
+	}
+
+	/**
+	 * Searches the path with the given pathfinding algorithm.
+	 * @param pathfinder The pathfinding algorithm.
+	 */
+	void solve(final PathfindingAlgorithm pathfinder) {
+		_path = pathfinder.findPath(_start, _target, _map);
+		_solved = true;
+	}
+
+	/**
+	 * Returns true if the path was already searched.
+	 * @return True if the request is solved.
+	 */
+	public boolean isSolved() {
+		return _solved;
+	}
+
+	/**
+	 * Returns the shortest path from start to target. If the request is not solved yet, the service solves all pending requests first.
+	 * @return The path, or null if the target is not reachable from the start.
+	 */
+	public Queue<Movement> getPath() {
+		if (!_solved) {
+			_service.solve();
+		}
+
+		return _path;
+	}
+
+	/**
+	 * Returns the start of the path.
+	 * @return The start.
+	 */
+	public Point getStart() {
+		return _start;
+	}
+
+	/**
+	 * Returns the target of the path.
+	 * @return The target.
+	 */
+	public Point getTarget() {
+		return _target;
+	}
+}
@@ -20,4 +20,11 @@ public interface PathfindingAlgorithm {
 	 * @return The shortest path from start to target, or null, if target is not reachable from start.
 	 */
 	Queue<Movement> findPath(Point start, Point target, BlockadeMap map);
+
+	/**
+	 * Returns the total amount of vertex expansions of all searches so far.
+	 * Used to compare the search effort of different algorithms.
+	 * @return The amount of expanded vertices.
+	 */
+	long getExpandedVertexCount();
 }
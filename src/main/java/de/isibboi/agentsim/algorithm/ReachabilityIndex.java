@@ -0,0 +1,23 @@
+package de.isibboi.agentsim.algorithm;
+
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Answers whether a path between two locations exists, without searching for it.
+ * This is a companion of {@link BlockadeMap}, used to reject impossible path queries before running a pathfinding algorithm.
+ * 
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public interface ReachabilityIndex {
+	/**
+	 * Returns false if there is no path from start to target.
+	 * Like with {@link PathfindingAlgorithm#findPath(Point, Point, BlockadeMap)}, the start must not be blocked, while the target may be blocked.
+	 * Implementations that cannot tell return true, so only a result of false is guaranteed to be correct.
+	 * 
+	 * @param start The start.
+	 * @param target The target.
+	 * @return False if the target cannot be reached from the start.
+	 */
+	boolean isReachable(Point start, Point target);
+}
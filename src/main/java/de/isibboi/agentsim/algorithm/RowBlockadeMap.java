@@ -0,0 +1,32 @@
+package de.isibboi.agentsim.algorithm;
+
+/**
+ * A blockade map that provides 64 consecutive locations of a row at once, so that pathfinders can scan rows word by word.
+ * Locations outside of the map are blocked, also when they are read as part of a row.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public interface RowBlockadeMap extends BlockadeMap {
+	/**
+	 * Returns the blocked state of the 64 locations of a row starting at the given location.
+	 * Bit {@code i} of the result is set if location {@code (x + i, y)} is blocked.
+	 *
+	 * @param x The x coordinate of the first location. May be outside of the map.
+	 * @param y The y coordinate of the row. May be outside of the map.
+	 * @return The blocked bits.
+	 */
+	long getRowBits(int x, int y);
+
+	/**
+	 * Returns the width of the map.
+	 * @return The width of the map.
+	 */
+	int getWidth();
+
+	/**
+	 * Returns the height of the map.
+	 * @return The height of the map.
+	 */
+	int getHeight();
+}
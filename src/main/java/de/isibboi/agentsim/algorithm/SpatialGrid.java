@@ -0,0 +1,436 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Stores the locations of values on a grid, indexed both by value and by location.
+ * Each value gets a dense id when it is added, and all further operations address the value by its id.
+ * The location of a value is an array load, and the values at a location form an intrusive doubly linked list through the ids,
+ * so moving a value is constant time and does not allocate.
+ * The grid also records the cells whose values changed since {@link #clearDirtyCells()} was called,
+ * so that consumers can visit only those cells.
+ *
+ * Only occupied locations have a cell. Cells get dense numbers from a {@link LocationIntMap}, so the memory does not depend on the size of the grid.
+ * A cell that became empty keeps its number until {@link #clearDirtyCells()} is called, and the number is reused afterwards.
+ *
+ * Ids of removed values are reused. Objects of this class are not thread safe.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ *
+ * @param <T> The type of the values.
+ */
+public class SpatialGrid<T> {
+	/**
+	 * Marks the end of a list, or a value that has no location.
+	 */
+	public static final int NONE = -1;
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int _width;
+	private final int _height;
+
+	/**
+	 * The cell of each occupied location.
+	 */
+	private final LocationIntMap _cellsByLocation = new LocationIntMap(NONE);
+
+	/**
+	 * The first id in the list of each cell, and the location of each cell.
+	 */
+	private int[] _cellHeads = new int[INITIAL_CAPACITY];
+	private int[] _cellX = new int[INITIAL_CAPACITY];
+	private int[] _cellY = new int[INITIAL_CAPACITY];
+	private boolean[] _cellDirty = new boolean[INITIAL_CAPACITY];
+
+	/**
+	 * The cells below this bound have been handed out at least once.
+	 */
+	private int _cellBound = 0;
+	private int[] _freeCells = new int[INITIAL_CAPACITY];
+	private int _freeCellCount = 0;
+
+	/**
+	 * The cells whose values changed, in the order they first changed.
+	 */
+	private int[] _dirtyCells = new int[INITIAL_CAPACITY];
+	private int _dirtyCellCount = 0;
+
+	private Object[] _values;
+	private Point[] _locations;
+	private int[] _cells;
+	private int[] _next;
+	private int[] _previous;
+
+	/**
+	 * The ids below this bound have been handed out at least once.
+	 */
+	private int _idBound = 0;
+	private int[] _freeIds;
+	private int _freeIdCount = 0;
+	private int _size = 0;
+
+	/**
+	 * Creates a new, empty grid.
+	 * @param width The width of the grid.
+	 * @param height The height of the grid.
+	 */
+	public SpatialGrid(final int width, final int height) {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("Width and height must be positive: " + width + "x" + height);
+		}
+
+		_width = width;
+		_height = height;
+
+		_values = new Object[INITIAL_CAPACITY];
+		_locations = new Point[INITIAL_CAPACITY];
+		_cells = new int[INITIAL_CAPACITY];
+		_next = new int[INITIAL_CAPACITY];
+		_previous = new int[INITIAL_CAPACITY];
+		_freeIds = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Adds a value without a location.
+	 * @param value The value.
+	 * @return The id of the value.
+	 */
+	public int add(final T value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Value must not be null!");
+		}
+
+		final int id;
+
+		if (_freeIdCount > 0) {
+			id = _freeIds[--_freeIdCount];
+		} else {
+			if (_idBound == _values.length) {
+				grow();
+			}
+
+			id = _idBound++;
+		}
+
+		_values[id] = value;
+		_locations[id] = null;
+		_cells[id] = NONE;
+		_size++;
+		return id;
+	}
+
+	/**
+	 * Removes the value with the given id. The id may be handed out again afterwards.
+	 * @param id The id.
+	 */
+	public void remove(final int id) {
+		checkId(id);
+		unlink(id);
+
+		_values[id] = null;
+		_locations[id] = null;
+		_cells[id] = NONE;
+		_freeIds[_freeIdCount++] = id;
+		_size--;
+	}
+
+	/**
+	 * Returns the value with the given id.
+	 * @param id The id.
+	 * @return The value, or null if there is no value with the id.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(final int id) {
+		if (id < 0 || id >= _idBound) {
+			return null;
+		}
+
+		return (T) _values[id];
+	}
+
+	/**
+	 * Returns the location of the value with the given id.
+	 * @param id The id.
+	 * @return The location, or null if the value has no location.
+	 */
+	public Point getLocation(final int id) {
+		checkId(id);
+		return _locations[id];
+	}
+
+	/**
+	 * Moves the value with the given id to the given location.
+	 * @param id The id.
+	 * @param location The location. Must be inside of the grid.
+	 */
+	public void setLocation(final int id, final Point location) {
+		checkId(id);
+		final int x = location.getX();
+		final int y = location.getY();
+
+		if (x < 0 || y < 0 || x >= _width || y >= _height) {
+			throw new IllegalArgumentException("Location is outside of the grid: " + location);
+		}
+
+		_locations[id] = location;
+		final int oldCell = _cells[id];
+
+		if (oldCell != NONE && _cellX[oldCell] == x && _cellY[oldCell] == y) {
+			return;
+		}
+
+		unlink(id);
+		final int cell = getOrCreateCell(x, y);
+		markDirty(cell);
+
+		final int head = _cellHeads[cell];
+		_cells[id] = cell;
+		_previous[id] = NONE;
+		_next[id] = head;
+
+		if (head != NONE) {
+			_previous[head] = id;
+		}
+
+		_cellHeads[cell] = id;
+	}
+
+	/**
+	 * Returns the first id in the list of values at the given location.
+	 * The remaining ids are returned by {@link #getNext(int)}.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The first id, or {@link #NONE} if there is no value at the location or the location is outside of the grid.
+	 */
+	public int getFirst(final int x, final int y) {
+		if (x < 0 || y < 0 || x >= _width || y >= _height) {
+			return NONE;
+		}
+
+		final int cell = _cellsByLocation.get(x, y);
+		return cell == NONE ? NONE : _cellHeads[cell];
+	}
+
+	/**
+	 * Returns the id that follows the given id in the list of values at its location.
+	 * @param id The id.
+	 * @return The next id, or {@link #NONE} if the given id is the last one.
+	 */
+	public int getNext(final int id) {
+		return _next[id];
+	}
+
+	/**
+	 * Returns true if the value with the given id is the first value in the list of its location.
+	 * Iterating all ids and checking this visits every occupied location once.
+	 * @param id The id.
+	 * @return True if the value has a location and is the first value there.
+	 */
+	public boolean isFirst(final int id) {
+		return get(id) != null && _cells[id] != NONE && _previous[id] == NONE;
+	}
+
+	/**
+	 * Returns the first id in the list of values in the given cell.
+	 * @param cell The cell, as returned by {@link #getCell(int)} or {@link #getDirtyCell(int)}.
+	 * @return The first id, or {@link #NONE} if there is no value in the cell.
+	 */
+	public int getFirstInCell(final int cell) {
+		return _cellHeads[cell];
+	}
+
+	/**
+	 * Returns the cell of the value with the given id. All values at the same location share a cell.
+	 * @param id The id.
+	 * @return The cell, or {@link #NONE} if the value has no location.
+	 */
+	public int getCell(final int id) {
+		return _cells[id];
+	}
+
+	/**
+	 * Returns the amount of cells whose values changed since the last call of {@link #clearDirtyCells()}.
+	 * @return The amount of dirty cells.
+	 */
+	public int getDirtyCellCount() {
+		return _dirtyCellCount;
+	}
+
+	/**
+	 * Returns a cell whose values changed since the last call of {@link #clearDirtyCells()}.
+	 * The cells are ordered by their first change.
+	 * @param index The index of the dirty cell, smaller than {@link #getDirtyCellCount()}.
+	 * @return The cell.
+	 */
+	public int getDirtyCell(final int index) {
+		return _dirtyCells[index];
+	}
+
+	/**
+	 * Returns true if the values of the given cell changed since the last call of {@link #clearDirtyCells()}.
+	 * @param cell The cell.
+	 * @return True if the cell is dirty.
+	 */
+	public boolean isDirty(final int cell) {
+		return _cellDirty[cell];
+	}
+
+	/**
+	 * Marks all cells as unchanged, and releases the cells that became empty.
+	 */
+	public void clearDirtyCells() {
+		for (int i = 0; i < _dirtyCellCount; i++) {
+			final int cell = _dirtyCells[i];
+			_cellDirty[cell] = false;
+
+			// Only dirty cells can have become empty.
+			if (_cellHeads[cell] == NONE) {
+				_cellsByLocation.remove(_cellX[cell], _cellY[cell]);
+				_freeCells[_freeCellCount++] = cell;
+			}
+		}
+
+		_dirtyCellCount = 0;
+	}
+
+	/**
+	 * Returns the values at the given location in a new collection.
+	 * @param location The location.
+	 * @return The values at the location.
+	 */
+	public Collection<T> get(final Point location) {
+		final Collection<T> result = new ArrayList<>(2);
+
+		for (int id = getFirst(location.getX(), location.getY()); id != NONE; id = _next[id]) {
+			result.add(get(id));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns an upper bound for the ids that are in use, to iterate over all ids.
+	 * @return The id bound.
+	 */
+	public int getIdBound() {
+		return _idBound;
+	}
+
+	/**
+	 * Returns the amount of values in this grid.
+	 * @return The amount of values.
+	 */
+	public int size() {
+		return _size;
+	}
+
+	/**
+	 * Removes the given id from the list of its cell, if it has a cell.
+	 * @param id The id.
+	 */
+	private void unlink(final int id) {
+		final int cell = _cells[id];
+
+		if (cell == NONE) {
+			return;
+		}
+
+		final int previous = _previous[id];
+		final int next = _next[id];
+		markDirty(cell);
+
+		if (previous == NONE) {
+			_cellHeads[cell] = next;
+		} else {
+			_next[previous] = next;
+		}
+
+		if (next != NONE) {
+			_previous[next] = previous;
+		}
+
+		_cells[id] = NONE;
+	}
+
+	/**
+	 * Records that the values of the given cell changed.
+	 * @param cell The cell.
+	 */
+	private void markDirty(final int cell) {
+		if (_cellDirty[cell]) {
+			return;
+		}
+
+		_cellDirty[cell] = true;
+
+		if (_dirtyCellCount == _dirtyCells.length) {
+			_dirtyCells = Arrays.copyOf(_dirtyCells, _dirtyCellCount * 2);
+		}
+
+		_dirtyCells[_dirtyCellCount++] = cell;
+	}
+
+	/**
+	 * Returns the cell of the given location, and creates an empty one if the location has none.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The cell.
+	 */
+	private int getOrCreateCell(final int x, final int y) {
+		int cell = _cellsByLocation.get(x, y);
+
+		if (cell != NONE) {
+			return cell;
+		}
+
+		if (_freeCellCount > 0) {
+			cell = _freeCells[--_freeCellCount];
+		} else {
+			if (_cellBound == _cellHeads.length) {
+				final int capacity = _cellBound * 2;
+				_cellHeads = Arrays.copyOf(_cellHeads, capacity);
+				_cellX = Arrays.copyOf(_cellX, capacity);
+				_cellY = Arrays.copyOf(_cellY, capacity);
+				_cellDirty = Arrays.copyOf(_cellDirty, capacity);
+				_freeCells = Arrays.copyOf(_freeCells, capacity);
+			}
+
+			cell = _cellBound++;
+		}
+
+		_cellsByLocation.put(x, y, cell);
+		_cellHeads[cell] = NONE;
+		_cellX[cell] = x;
+		_cellY[cell] = y;
+		return cell;
+	}
+
+	/**
+	 * Throws an exception if the given id does not belong to a value.
+	 * @param id The id.
+	 */
+	private void checkId(final int id) {
+		if (get(id) == null) {
+			throw new IllegalArgumentException("Unknown id: " + id);
+		}
+	}
+
+	/**
+	 * Doubles the capacity of the per id arrays.
+	 */
+	private void grow() {
+		final int capacity = _values.length * 2;
+		_values = Arrays.copyOf(_values, capacity);
+		_locations = Arrays.copyOf(_locations, capacity);
+		_cells = Arrays.copyOf(_cells, capacity);
+		_next = Arrays.copyOf(_next, capacity);
+		_previous = Arrays.copyOf(_previous, capacity);
+		_freeIds = Arrays.copyOf(_freeIds, capacity);
+	}
+}
@@ -0,0 +1,18 @@
+package de.isibboi.agentsim.algorithm;
+
+/**
+ * Decides which locations are targets of a {@link NearestTargetSearch}.
+ * 
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public interface TargetPredicate {
+	/**
+	 * Returns true if the given location is a target.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return True if the location is a target.
+	 */
+	boolean isTarget(int x, int y);
+}
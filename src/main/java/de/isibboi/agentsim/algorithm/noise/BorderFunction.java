@@ -46,4 +46,15 @@ public class BorderFunction implements Noise {
 
 		return result;
 	}
+
+	@Override
+	public void fillRow(final double x, final double y, final double step, final int count, final double[] out) {
+		final double ySquareDistance = Math.abs((y - _centerY) * (y - _centerY) / _height * _width);
+
+		for (int i = 0; i < count; i++) {
+			final double dx = x + i * step - _centerX;
+			final double distance = Math.sqrt(Math.abs(dx * dx / _width * _height) + ySquareDistance);
+			out[i] = Math.max(0, _start + distance * _gradient);
+		}
+	}
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package de.isibboi.agentsim.algorithm.noise;
 
+import java.util.Arrays;
+
 /**
  * A noise function that just adds up the values of some other noise functions.
  * @author Sebastian Schmidt
@@ -26,4 +28,28 @@ public class CombinedNoise implements Noise {
 
 		return result;
 	}
+
+	@Override
+	public void fillRow(final double x, final double y, final double step, final int count, final double[] out) {
+		if (_noises.length == 0) {
+			Arrays.fill(out, 0, count, 0);
+			return;
+		}
+
+		_noises[0].fillRow(x, y, step, count, out);
+
+		if (_noises.length == 1) {
+			return;
+		}
+
+		final double[] summand = new double[count];
+
+		for (int n = 1; n < _noises.length; n++) {
+			_noises[n].fillRow(x, y, step, count, summand);
+
+			for (int i = 0; i < count; i++) {
+				out[i] += summand[i];
+			}
+		}
+	}
 }
\ No newline at end of file
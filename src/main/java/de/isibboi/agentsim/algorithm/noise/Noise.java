@@ -13,4 +13,17 @@ public interface Noise {
 	 * @return The value of the noise function at the given location.
 	 */
 	double noise(double x, double y);
+
+	/**
+	 * Samples the noise function at consecutive locations of a row.
+	 * Sample {@code i} equals {@code noise(x + i * step, y)}, up to rounding errors.
+	 * Implementations sample whole rows without a call per sample, which is faster than calling {@link #noise(double, double)} for each location.
+	 *
+	 * @param x The x coordinate of the first location.
+	 * @param y The y coordinate of the row.
+	 * @param step The distance between two locations.
+	 * @param count The amount of locations.
+	 * @param out The array the samples are written to, starting at index zero.
+	 */
+	void fillRow(double x, double y, double step, int count, double[] out);
 }
@@ -56,4 +56,16 @@ public class ScaledNoise implements Noise {
 
 		return result;
 	}
+
+	@Override
+	public void fillRow(final double x, final double y, final double step, final int count, final double[] out) {
+		_decoratee.fillRow(x / _cellWidth, y / _cellHeight, step / _cellWidth, count, out);
+
+		final double halfTargetIntervalSize = (_max - _min) / 2;
+		final double offset = halfTargetIntervalSize + _min;
+
+		for (int i = 0; i < count; i++) {
+			out[i] = out[i] * halfTargetIntervalSize + offset;
+		}
+	}
 }
\ No newline at end of file
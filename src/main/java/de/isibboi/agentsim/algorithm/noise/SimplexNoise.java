@@ -26,15 +26,18 @@ import java.util.Random;
  * @since 0.0.0
  */
 public class SimplexNoise implements Noise { // Simplex noise in 2D, 3D and 4D
-	private static Grad[] grad3 = { new Grad(1, 1), new Grad(-1, 1), new Grad(1, -1), new Grad(-1, -1),
-			new Grad(1, 0), new Grad(-1, 0), new Grad(1, 0), new Grad(-1, 0), new Grad(0, 1),
-			new Grad(0, -1), new Grad(0, 1), new Grad(0, -1) };
+	// The gradients are stored in primitive arrays instead of gradient objects, so they are read without dereferencing an object per corner.
+	private static final double[] GRAD3_X = { 1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0 };
+	private static final double[] GRAD3_Y = { 1, 1, -1, -1, 0, 0, 0, 0, 1, -1, 1, -1 };
 
 	private final short[] _p;
 	// To remove the need for index wrapping, double the permutation table
 	// length
-	private short[] _perm = new short[512];
-	private short[] _permMod12 = new short[512];
+	private final short[] _perm = new short[512];
+
+	// The gradient of each permutation table entry, which replaces the lookup of the gradient index.
+	private final double[] _permGradX = new double[512];
+	private final double[] _permGradY = new double[512];
 
 	/**
 	 * Creates a new simplex noise function with the given seed.
@@ -57,7 +60,8 @@ public class SimplexNoise implements Noise { // Simplex noise in 2D, 3D and 4D
 
 		for (int i = 0; i < 512; i++) {
 			_perm[i] = _p[i & 255];
-			_permMod12[i] = (short) (_perm[i] % 12);
+			_permGradX[i] = GRAD3_X[_perm[i] % 12];
+			_permGradY[i] = GRAD3_Y[_perm[i] % 12];
 		}
 	}
 
@@ -83,17 +87,6 @@ public class SimplexNoise implements Noise { // Simplex noise in 2D, 3D and 4D
 		return x < xi ? xi - 1 : xi;
 	}
 
-	/**
-	 * Calculates the dot product.
-	 * @param g Vector A.
-	 * @param x Vector B.x.
-	 * @param y Vector B.y.
-	 * @return A dot B.
-	 */
-	private double dot(final Grad g, final double x, final double y) {
-		return g._x * x + g._y * y;
-	}
-
 	@Override
 	public double noise(final double xin, final double yin) {
 		double n0, n1, n2; // Noise contributions from the three corners
@@ -130,51 +123,84 @@ public class SimplexNoise implements Noise { // Simplex noise in 2D, 3D and 4D
 		// Work out the hashed gradient indices of the three simplex corners
 		int ii = i & 255;
 		int jj = j & 255;
-		int gi0 = _permMod12[ii + _perm[jj]];
-		int gi1 = _permMod12[ii + i1 + _perm[jj + j1]];
-		int gi2 = _permMod12[ii + 1 + _perm[jj + 1]];
+		int gi0 = ii + _perm[jj];
+		int gi1 = ii + i1 + _perm[jj + j1];
+		int gi2 = ii + 1 + _perm[jj + 1];
 		// Calculate the contribution from the three corners
 		double t0 = 0.5 - x0 * x0 - y0 * y0;
 		if (t0 < 0) {
 			n0 = 0.0;
 		} else {
 			t0 *= t0;
-			n0 = t0 * t0 * dot(grad3[gi0], x0, y0); // (x,y) of grad3 used for
-													// 2D gradient
+			n0 = t0 * t0 * (_permGradX[gi0] * x0 + _permGradY[gi0] * y0); // (x,y) of grad3 used for 2D gradient
 		}
 		double t1 = 0.5 - x1 * x1 - y1 * y1;
 		if (t1 < 0) {
 			n1 = 0.0;
 		} else {
 			t1 *= t1;
-			n1 = t1 * t1 * dot(grad3[gi1], x1, y1);
+			n1 = t1 * t1 * (_permGradX[gi1] * x1 + _permGradY[gi1] * y1);
 		}
 		double t2 = 0.5 - x2 * x2 - y2 * y2;
 		if (t2 < 0) {
 			n2 = 0.0;
 		} else {
 			t2 *= t2;
-			n2 = t2 * t2 * dot(grad3[gi2], x2, y2);
+			n2 = t2 * t2 * (_permGradX[gi2] * x2 + _permGradY[gi2] * y2);
 		}
 		// Add contributions from each corner to get the final noise value.
 		// The result is scaled to return values in the interval [-1,1].
 		return 70.0 * (n0 + n1 + n2);
 	}
 
-	// Inner class to speed upp gradient computations
-	// (array access is a lot slower than member access)
-	private static class Grad {
-		double _x;
-		double _y;
-
-		/**
-		 * Creates a new gradient with the given values.
-		 * @param x The x value.
-		 * @param y The y value.
-		 */
-		Grad(final double x, final double y) {
-			this._x = x;
-			this._y = y;
+	/**
+	 * Samples a row with the same calculation as {@link #noise(double, double)}, so the samples are exactly equal.
+	 */
+	@Override
+	public void fillRow(final double x, final double y, final double step, final int count, final double[] out) {
+		for (int k = 0; k < count; k++) {
+			final double xin = x + k * step;
+			final double s = (xin + y) * F2;
+			final int i = fastfloor(xin + s);
+			final int j = fastfloor(y + s);
+			final double t = (i + j) * G2;
+			final double x0 = xin - (i - t);
+			final double y0 = y - (j - t);
+			final int i1 = x0 > y0 ? 1 : 0;
+			final int j1 = 1 - i1;
+			final double x1 = x0 - i1 + G2;
+			final double y1 = y0 - j1 + G2;
+			final double x2 = x0 - 1.0 + 2.0 * G2;
+			final double y2 = y0 - 1.0 + 2.0 * G2;
+			final int ii = i & 255;
+			final int jj = j & 255;
+			final int gi0 = ii + _perm[jj];
+			final int gi1 = ii + i1 + _perm[jj + j1];
+			final int gi2 = ii + 1 + _perm[jj + 1];
+
+			double sum = 0;
+			double t0 = 0.5 - x0 * x0 - y0 * y0;
+
+			if (t0 > 0) {
+				t0 *= t0;
+				sum += t0 * t0 * (_permGradX[gi0] * x0 + _permGradY[gi0] * y0);
+			}
+
+			double t1 = 0.5 - x1 * x1 - y1 * y1;
+
+			if (t1 > 0) {
+				t1 *= t1;
+				sum += t1 * t1 * (_permGradX[gi1] * x1 + _permGradY[gi1] * y1);
+			}
+
+			double t2 = 0.5 - x2 * x2 - y2 * y2;
+
+			if (t2 > 0) {
+				t2 *= t2;
+				sum += t2 * t2 * (_permGradX[gi2] * x2 + _permGradY[gi2] * y2);
+			}
+
+			out[k] = 70.0 * sum;
 		}
 	}
 }
@@ -2,7 +2,7 @@ package de.isibboi.agentsim.algorithm.randomized;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Random;
@@ -16,17 +16,33 @@ import de.isibboi.agentsim.game.entities.ai.knowledge.Prioritized;
  * Elements with higher priority have a higher chance of being returned.
  * If the sum of all priorities of the elements in the set is {@code N} and the priority of one element is {@code n},
  * the probability of returning this element is {@code n/N}.
+ * The elements are kept in insertion order, so the selection only depends on the random number generator.
  * 
  * @author Sebastian Schmidt
  * @since 0.3.0
  * @param <T> The element type.
  */
 public class PrioritizedRandomSelector<T extends Prioritized & TemporalVariant> implements Selector<T> {
-	private final Map<T, T> _data = new HashMap<>();
-	private final Random _random = new Random();
+	private final Map<T, T> _data = new LinkedHashMap<>();
+	private final Random _random;
 
 	private int _prioritySum;
 
+	/**
+	 * Creates a new selector with an unseeded random number generator.
+	 */
+	public PrioritizedRandomSelector() {
+		this(new Random());
+	}
+
+	/**
+	 * Creates a new selector that draws from the given random number generator.
+	 * @param random The random number generator.
+	 */
+	public PrioritizedRandomSelector(final Random random) {
+		_random = random;
+	}
+
 	@Override
 	public void add(final T element) {
 		Objects.requireNonNull(element);
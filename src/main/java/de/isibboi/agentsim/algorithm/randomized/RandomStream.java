@@ -0,0 +1,72 @@
+package de.isibboi.agentsim.algorithm.randomized;
+
+import java.util.Random;
+
+/**
+ * A random number generator that belongs to a single owner, created by {@link RandomStreams}.
+ * The numbers are generated with the SplitMix64 algorithm, whose state is a plain field,
+ * so unlike {@link Random} it does not synchronize and is not thread safe.
+ *
+ * The stream can be restarted for every tick, so that the numbers of a tick only depend on the root seed, the stream and the tick,
+ * and not on how many numbers were drawn in earlier ticks or by other streams.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class RandomStream extends Random {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The increment of the SplitMix64 state, the odd integer closest to {@code 2^64 / phi}.
+	 */
+	static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final long _streamSeed;
+	private long _state;
+
+	/**
+	 * Creates a new stream.
+	 * @param streamSeed The seed of the stream.
+	 */
+	RandomStream(final long streamSeed) {
+		_streamSeed = streamSeed;
+		_state = streamSeed;
+	}
+
+	/**
+	 * Restarts the stream for the given tick.
+	 * @param tick The tick.
+	 */
+	public void startTick(final long tick) {
+		_state = mix(_streamSeed + tick * GOLDEN_GAMMA);
+	}
+
+	@Override
+	public void setSeed(final long seed) {
+		// Called by the constructor of Random, before the stream seed is set.
+		_state = seed;
+	}
+
+	@Override
+	protected int next(final int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public long nextLong() {
+		_state += GOLDEN_GAMMA;
+		return mix(_state);
+	}
+
+	/**
+	 * Scrambles the bits of the given value, so that close values give unrelated results.
+	 * @param value The value.
+	 * @return The scrambled value.
+	 */
+	static long mix(final long value) {
+		long z = value;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,40 @@
+package de.isibboi.agentsim.algorithm.randomized;
+
+/**
+ * Derives independent {@link RandomStream random streams} from a single root seed.
+ * Each stream is identified by the id of its owner and a channel, so that an owner can use several streams for different purposes.
+ * The numbers of a stream only depend on the root seed, the id and the channel, and not on the order in which the streams are created or used,
+ * so simulations with the same root seed are reproducible, regardless of how many threads draw numbers.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public final class RandomStreams {
+	private final long _rootSeed;
+
+	/**
+	 * Creates new streams.
+	 * @param rootSeed The root seed.
+	 */
+	public RandomStreams(final long rootSeed) {
+		_rootSeed = rootSeed;
+	}
+
+	/**
+	 * Creates the stream with the given id and channel. Streams with the same id and channel generate the same numbers.
+	 * @param id The id of the owner of the stream. Entities use their id, other owners use negative ids.
+	 * @param channel The channel.
+	 * @return The stream.
+	 */
+	public RandomStream createStream(final long id, final int channel) {
+		return new RandomStream(RandomStream.mix(RandomStream.mix(_rootSeed + id * RandomStream.GOLDEN_GAMMA) + channel));
+	}
+
+	/**
+	 * Returns the root seed.
+	 * @return The root seed.
+	 */
+	public long getRootSeed() {
+		return _rootSeed;
+	}
+}
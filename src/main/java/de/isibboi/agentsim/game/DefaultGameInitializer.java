@@ -1,11 +1,18 @@
 package de.isibboi.agentsim.game;
 
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import de.isibboi.agentsim.Settings;
 import de.isibboi.agentsim.game.entities.Entities;
 import de.isibboi.agentsim.game.entities.GoblinSpawner;
 import de.isibboi.agentsim.game.entities.buildings.Building;
 import de.isibboi.agentsim.game.entities.buildings.SwarmMainBuilding;
 import de.isibboi.agentsim.game.map.GameMap;
+import de.isibboi.agentsim.game.map.MapFile;
 import de.isibboi.agentsim.game.map.MapGenerator;
 
 /**
@@ -14,16 +21,27 @@ import de.isibboi.agentsim.game.map.MapGenerator;
  * @since 0.3.0
  */
 public class DefaultGameInitializer implements GameInitializer {
+	private final Logger _log = LogManager.getLogger(getClass());
+
 	private GameMap _map;
 	private Entities _entities;
 	private EntityLocationManager _entityLocationManager;
 
 	@Override
 	public void initialize(final Settings settings) {
-		MapGenerator mapGenerator = new MapGenerator(settings);
-		_map = mapGenerator.generateMap();
-		_entities = new Entities();
-		_entityLocationManager = new EntityLocationManager(_map, _entities, settings);
+		// A random seed is different on every call, so it is read only once.
+		final long seed = settings.getSeed();
+		_log.info("Game seed is " + seed + ". Set " + Settings.GAME_SEED + " to this value to play the same game again.");
+
+		_map = loadMap(settings);
+
+		if (_map == null) {
+			MapGenerator mapGenerator = new MapGenerator(settings, seed);
+			_map = mapGenerator.generateMap();
+		}
+
+		_entities = new Entities(settings);
+		_entityLocationManager = new EntityLocationManager(_map, _entities, settings, seed);
 		_entityLocationManager.setGoblinSpawner(new GoblinSpawner(_entityLocationManager, settings));
 
 		Building swarmMainBuilding = new SwarmMainBuilding(_entityLocationManager);
@@ -33,6 +51,35 @@ public class DefaultGameInitializer implements GameInitializer {
 		_entityLocationManager.getGoblinSpawner().spawnGoblins(settings.getInt(Settings.GAME_INITIAL_GOBLIN_COUNT));
 	}
 
+	/**
+	 * Loads the map file given by the settings, if there is one.
+	 * @param settings The settings.
+	 * @return The loaded map, or null if no map file is given or it cannot be loaded.
+	 */
+	private GameMap loadMap(final Settings settings) {
+		final String fileName = settings.get(Settings.GAME_MAP_FILE);
+
+		if (fileName.isEmpty()) {
+			return null;
+		}
+
+		final File file = new File(fileName);
+
+		if (!file.isFile()) {
+			_log.warn("Map file not found, generating a new map: " + fileName);
+			return null;
+		}
+
+		try {
+			final GameMap map = MapFile.load(file, settings);
+			_log.info("Map loaded: " + fileName);
+			return map;
+		} catch (IOException e) {
+			_log.error("Error loading map, generating a new map!", e);
+			return null;
+		}
+	}
+
 	@Override
 	public GameMap getMap() {
 		return _map;
@@ -1,19 +1,32 @@
 package de.isibboi.agentsim.game;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.Random;
-import java.util.Set;
 
 import de.isibboi.agentsim.Settings;
-import de.isibboi.agentsim.algorithm.BidirectionalHashMultimap;
+import de.isibboi.agentsim.algorithm.AStarPathfinder;
+import de.isibboi.agentsim.algorithm.ArrayAStarPathfinder;
+import de.isibboi.agentsim.algorithm.BidirectionalAStarPathfinder;
+import de.isibboi.agentsim.algorithm.CachingPathfinder;
+import de.isibboi.agentsim.algorithm.FlowField;
+import de.isibboi.agentsim.algorithm.HierarchicalPathfinder;
+import de.isibboi.agentsim.algorithm.JumpPointSearchPathfinder;
+import de.isibboi.agentsim.algorithm.NearestTargetSearch;
+import de.isibboi.agentsim.algorithm.PathPlanningService;
+import de.isibboi.agentsim.algorithm.PathfindingAlgorithm;
+import de.isibboi.agentsim.algorithm.SpatialGrid;
+import de.isibboi.agentsim.algorithm.randomized.RandomStreams;
 import de.isibboi.agentsim.game.entities.Entities;
 import de.isibboi.agentsim.game.entities.Entity;
 import de.isibboi.agentsim.game.entities.GoblinSpawner;
+import de.isibboi.agentsim.game.entities.MapEntity;
 import de.isibboi.agentsim.game.entities.Updateable;
 import de.isibboi.agentsim.game.entities.buildings.Building;
 import de.isibboi.agentsim.game.map.GameMap;
+import de.isibboi.agentsim.game.map.MapChunk;
 import de.isibboi.agentsim.game.map.Point;
 
 /**
@@ -27,18 +40,35 @@ public class EntityLocationManager implements Updateable {
 	private final Entities _entities;
 	private final Settings _settings;
 	private final EntityCollider _entityCollider;
+	private final PathPlanningService _pathPlanningService;
+	private final FlowField _spawnFlowField;
+
+	/**
+	 * Every thread that updates entities gets its own search, like every path planning thread gets its own pathfinding algorithm,
+	 * as the search is not thread safe.
+	 */
+	private final ThreadLocal<NearestTargetSearch> _nearestTargetSearch;
+	private final RandomStreams _randomStreams;
+	private long _nextEntityId = 0;
 
 	private GoblinSpawner _goblinSpawner;
 
-	private final BidirectionalHashMultimap<Point, Entity> _entityLocations = new BidirectionalHashMultimap<>();
+	private final SpatialGrid<MapEntity> _entityLocations;
+
+	/**
+	 * Holds the entities of a location while their collisions are calculated.
+	 */
+	private Entity[] _collisionBuffer = new Entity[2];
+	private final int _stillTogetherInterval;
 
 	/**
 	 * Creates a new entity location manager.
 	 * @param map The map the entities operate on.
 	 * @param entities The entities to manage.
 	 * @param settings The settings.
+	 * @param seed The seed of the game, from which the random streams of the entities are derived.
 	 */
-	public EntityLocationManager(final GameMap map, final Entities entities, final Settings settings) {
+	public EntityLocationManager(final GameMap map, final Entities entities, final Settings settings, final long seed) {
 		Objects.requireNonNull(map);
 		Objects.requireNonNull(entities);
 		Objects.requireNonNull(settings);
@@ -46,12 +76,81 @@ public class EntityLocationManager implements Updateable {
 		_map = map;
 		_entities = entities;
 		_settings = settings;
+		_entityLocations = new SpatialGrid<>(map.getWidth(), map.getHeight());
+		_stillTogetherInterval = settings.getInt(Settings.CORE_UPDATE_COLLISION_STILL_TOGETHER_INTERVAL);
+		_randomStreams = new RandomStreams(seed);
 
 		if (settings.getInt(Settings.CORE_UPDATE_COLLISION_THREAD_COUNT) > 1) {
 			_entityCollider = new MultiThreadedEntityCollider(settings);
 		} else {
 			_entityCollider = new SimpleEntityCollider(settings);
 		}
+
+		// Every path planning thread gets its own pathfinding algorithm, as they are not thread safe.
+		// The path cache is shared by all of them, so that the same search of two entities hits the cache, whichever thread solves it.
+		final PathfindingAlgorithm[] pathPlanningAlgorithms = new PathfindingAlgorithm[Math.max(1,
+				settings.getInt(Settings.CORE_UPDATE_PATH_PLANNING_THREAD_COUNT))];
+
+		for (int i = 0; i < pathPlanningAlgorithms.length; i++) {
+			pathPlanningAlgorithms[i] = createPathfindingAlgorithm(map, settings);
+		}
+
+		final int pathCacheSize = settings.getInt(Settings.CORE_AI_PATH_CACHE_SIZE);
+
+		if (pathCacheSize > 0) {
+			// The hierarchical pathfinder keeps its abstract graph of the game map, so its paths are only valid for one version of the game map.
+			final boolean hierarchical = Settings.CORE_AI_PATHFINDING_ALGORITHM_HIERARCHICAL.equals(settings.get(Settings.CORE_AI_PATHFINDING_ALGORITHM));
+			final CachingPathfinder pathCache = new CachingPathfinder(pathPlanningAlgorithms[0], pathCacheSize, hierarchical ? map : null);
+
+			for (int i = 0; i < pathPlanningAlgorithms.length; i++) {
+				pathPlanningAlgorithms[i] = pathCache.createWorker(pathPlanningAlgorithms[i]);
+			}
+		}
+
+		_pathPlanningService = new PathPlanningService(pathPlanningAlgorithms);
+
+		// The field stays inside the square of chunks that can be loaded at once, so large maps are not flooded completely.
+		final int chunkLimit = settings.getInt(Settings.GAME_MAP_LOADED_CHUNK_LIMIT);
+		_spawnFlowField = new FlowField(map, map.getSpawnPoint(), Math.max(1, (int) Math.sqrt(chunkLimit) - 1) * MapChunk.SIZE / 2);
+
+		_nearestTargetSearch = new ThreadLocal<NearestTargetSearch>() {
+			@Override
+			protected NearestTargetSearch initialValue() {
+				return new NearestTargetSearch(map.getWidth(), map.getHeight());
+			}
+		};
+	}
+
+	/**
+	 * Creates the pathfinding algorithm selected in the settings.
+	 * @param map The map.
+	 * @param settings The settings.
+	 * @return The pathfinding algorithm.
+	 */
+	private static PathfindingAlgorithm createPathfindingAlgorithm(final GameMap map, final Settings settings) {
+		switch (settings.get(Settings.CORE_AI_PATHFINDING_ALGORITHM)) {
+		case Settings.CORE_AI_PATHFINDING_ALGORITHM_ASTAR:
+			return new AStarPathfinder();
+
+		case Settings.CORE_AI_PATHFINDING_ALGORITHM_ARRAY_ASTAR:
+			return new ArrayAStarPathfinder(map.getWidth(), map.getHeight());
+
+		case Settings.CORE_AI_PATHFINDING_ALGORITHM_BIDIRECTIONAL_ASTAR:
+			return new BidirectionalAStarPathfinder(map.getWidth(), map.getHeight());
+
+		case Settings.CORE_AI_PATHFINDING_ALGORITHM_JUMP_POINT_SEARCH:
+			return new JumpPointSearchPathfinder(map.getWidth(), map.getHeight());
+
+		case Settings.CORE_AI_PATHFINDING_ALGORITHM_HIERARCHICAL:
+			HierarchicalPathfinder hierarchicalPathfinder = new HierarchicalPathfinder(map, map.getWidth(), map.getHeight(),
+					settings.getInt(Settings.CORE_AI_PATHFINDING_CLUSTER_SIZE));
+			map.addMapChangeListener(hierarchicalPathfinder);
+			return hierarchicalPathfinder;
+
+		default:
+			settings.throwIllegalSettingValue(Settings.CORE_AI_PATHFINDING_ALGORITHM);
+			return null;
+		}
 	}
 
 	/**
@@ -60,7 +159,7 @@ public class EntityLocationManager implements Updateable {
 	 * @return A collection containing all entities at the given point.
 	 */
 	public Collection<Entity> getEntitiesAt(final Point location) {
-		return _entityLocations.get(location);
+		return new ArrayList<Entity>(_entityLocations.get(location));
 	}
 
 	/**
@@ -71,18 +170,56 @@ public class EntityLocationManager implements Updateable {
 	 */
 	public Collection<Entity> getEntitiesAt(final Point location, final Entity self) {
 		Collection<Entity> result = new ArrayList<>();
-		result.addAll(_entityLocations.get(location));
-		result.remove(self);
+
+		for (int id = _entityLocations.getFirst(location.getX(), location.getY()); id != SpatialGrid.NONE; id = _entityLocations.getNext(id)) {
+			if (_entityLocations.get(id) != self) {
+				result.add(_entityLocations.get(id));
+			}
+		}
+
 		return result;
 	}
 
+	/**
+	 * Returns a new entity id. Entity ids are never reused, and are handed out in the order the entities are created,
+	 * so that they identify the entities across runs of the same game.
+	 * @return The entity id.
+	 */
+	public long createEntityId() {
+		return _nextEntityId++;
+	}
+
+	/**
+	 * Returns the random streams of the entities, derived from the seed of the game.
+	 * @return The random streams.
+	 */
+	public RandomStreams getRandomStreams() {
+		return _randomStreams;
+	}
+
+	/**
+	 * Registers the given entity and returns its location id, under which its location is stored.
+	 * The entity has no location until {@link #setLocation(MapEntity, Point)} is called.
+	 * @param entity The entity.
+	 * @return The location id.
+	 */
+	public int registerEntity(final MapEntity entity) {
+		return _entityLocations.add(entity);
+	}
+
 	/**
 	 * Returns the location of the given entity.
 	 * @param e The entity.
-	 * @return The location of {@code e}.
+	 * @return The location of {@code e}, or null if it has no location or was removed.
 	 */
-	public Point getLocation(final Entity e) {
-		return _entityLocations.getKey(e);
+	public Point getLocation(final MapEntity e) {
+		final int id = e.getLocationId();
+
+		if (_entityLocations.get(id) != e) {
+			return null;
+		}
+
+		return _entityLocations.getLocation(id);
 	}
 
 	/**
@@ -106,8 +243,14 @@ public class EntityLocationManager implements Updateable {
 	 * @param entity The entity.
 	 * @param location The location of the entity.
 	 */
-	public void setLocation(final Entity entity, final Point location) {
-		_entityLocations.update(location, entity);
+	public void setLocation(final MapEntity entity, final Point location) {
+		final int id = entity.getLocationId();
+
+		if (_entityLocations.get(id) != entity) {
+			throw new IllegalArgumentException("Entity was removed: " + entity);
+		}
+
+		_entityLocations.setLocation(id, location);
 	}
 
 	@Override
@@ -117,40 +260,73 @@ public class EntityLocationManager implements Updateable {
 
 	/**
 	 * Checks if any entities collide and fires the appropriate collision events.
+	 * Only the locations whose entities changed since the last check are visited.
+	 * Entities that stay together are collided again every {@link Settings#CORE_UPDATE_COLLISION_STILL_TOGETHER_INTERVAL} ticks,
+	 * staggered over the locations so that each tick handles an even share of them.
 	 * @param tick The current tick.
 	 */
 	private void checkForEntityCollisions(final int tick) {
 		_entityCollider.startCollision(tick);
-		Set<Point> locations = _entityLocations.keySet();
-
-		for (Point location : locations) {
-			Collection<Entity> tmpEntities = getEntitiesAt(location);
 
-			if (tmpEntities.size() > 1) {
-				Entity[] entities = new Entity[tmpEntities.size()];
-				entities = tmpEntities.toArray(entities);
+		for (int i = 0; i < _entityLocations.getDirtyCellCount(); i++) {
+			collideCell(_entityLocations.getDirtyCell(i));
+		}
 
-				// Let all entities collide just one time.
-				// Do not implement asymmetric collisions!
-				for (int i = 0; i < entities.length; i++) {
-					for (int j = i + 1; j < entities.length; j++) {
-						_entityCollider.collide(entities[i], entities[j]);
-					}
+		if (_stillTogetherInterval > 0) {
+			// Every occupied location has exactly one entity that comes first in its list.
+			for (int first = (tick % _stillTogetherInterval + _stillTogetherInterval) % _stillTogetherInterval;
+					first < _entityLocations.getIdBound(); first += _stillTogetherInterval) {
+				if (_entityLocations.isFirst(first) && !_entityLocations.isDirty(_entityLocations.getCell(first))) {
+					collideCell(_entityLocations.getCell(first));
 				}
-
-				_entityCollider.finishBlock();
 			}
 		}
 
+		_entityLocations.clearDirtyCells();
 		_entityCollider.finishCollision();
 	}
 
+	/**
+	 * Lets all entities in the given cell of the location grid collide with each other.
+	 * @param cell The cell.
+	 */
+	private void collideCell(final int cell) {
+		final int first = _entityLocations.getFirstInCell(cell);
+
+		if (first == SpatialGrid.NONE || _entityLocations.getNext(first) == SpatialGrid.NONE) {
+			return;
+		}
+
+		int count = 0;
+
+		for (int id = first; id != SpatialGrid.NONE; id = _entityLocations.getNext(id)) {
+			if (count == _collisionBuffer.length) {
+				_collisionBuffer = Arrays.copyOf(_collisionBuffer, count * 2);
+			}
+
+			_collisionBuffer[count++] = _entityLocations.get(id);
+		}
+
+		// Let all entities collide just one time.
+		// Do not implement asymmetric collisions!
+		for (int i = 0; i < count; i++) {
+			for (int j = i + 1; j < count; j++) {
+				_entityCollider.collide(_collisionBuffer[i], _collisionBuffer[j]);
+			}
+		}
+
+		_entityCollider.finishBlock();
+	}
+
 	/**
 	 * Removes the given entity.
 	 * @param entity The entity to remove.
 	 */
-	public void removeEntity(final Entity entity) {
-		_entityLocations.removeValue(entity);
+	public void removeEntity(final MapEntity entity) {
+		if (_entityLocations.get(entity.getLocationId()) == entity) {
+			_entityLocations.remove(entity.getLocationId());
+		}
+
 		_entities.remove(entity);
 		_map.unlockAllLocations(entity);
 	}
@@ -180,10 +356,37 @@ public class EntityLocationManager implements Updateable {
 	}
 
 	/**
-	 * Shuts the underlying {@link EntityCollider} down.
+	 * Returns the flow field leading to the spawn point, shared by all entities on the map.
+	 * It is brought up to date before the entities are updated, so they can query it in parallel. It must not be updated by them.
+	 * @return The flow field.
+	 */
+	public FlowField getSpawnFlowField() {
+		return _spawnFlowField;
+	}
+
+	/**
+	 * Returns the service that solves the path requests of all entities in parallel batches.
+	 * @return The path planning service.
+	 */
+	public PathPlanningService getPathPlanningService() {
+		return _pathPlanningService;
+	}
+
+	/**
+	 * Returns the search for the nearest target of the calling thread.
+	 * It is not thread safe and must not be passed to other threads.
+	 * @return The nearest target search.
+	 */
+	public NearestTargetSearch getNearestTargetSearch() {
+		return _nearestTargetSearch.get();
+	}
+
+	/**
+	 * Shuts the underlying {@link EntityCollider} and {@link PathPlanningService} down.
 	 */
 	public void shutdown() {
 		_entityCollider.shutdown();
+		_pathPlanningService.shutdown();
 	}
 
 	/**
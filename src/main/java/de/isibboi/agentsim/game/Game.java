@@ -1,5 +1,7 @@
 package de.isibboi.agentsim.game;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Random;
 
 import org.apache.logging.log4j.LogManager;
@@ -9,6 +11,7 @@ import de.isibboi.agentsim.Settings;
 import de.isibboi.agentsim.game.entities.Entities;
 import de.isibboi.agentsim.game.entities.Updateable;
 import de.isibboi.agentsim.game.map.GameMap;
+import de.isibboi.agentsim.game.map.MapFile;
 import de.isibboi.agentsim.ui.GameStatusMessageListener;
 
 /**
@@ -47,7 +50,12 @@ public class Game implements Updateable {
 			return;
 		}
 
+		// Entities decide in parallel and only read the world, so the lazily computed flow field is brought up to date first.
+		// Then the paths they requested are searched in parallel, and their proposals and moves are committed one after another.
+		_entityLocationManager.getSpawnFlowField().update();
 		_entities.update(random, tick);
+		_entityLocationManager.getPathPlanningService().solve();
+		_entities.commit(tick);
 		_entityLocationManager.update(random, tick);
 
 		checkGameOver();
@@ -147,9 +155,21 @@ public class Game implements Updateable {
 	}
 
 	/**
-	 * Stops the game.
+	 * Stops the game. Saves the map if a file to save it to is given by the settings.
 	 */
 	public void stop() {
 		_entityLocationManager.shutdown();
+		_entities.shutdown();
+
+		final String saveFile = _settings.get(Settings.GAME_MAP_SAVE_FILE);
+
+		if (!saveFile.isEmpty()) {
+			try {
+				MapFile.save(_map, new File(saveFile));
+				_log.info("Map saved: " + saveFile);
+			} catch (IOException e) {
+				_log.error("Error saving map!", e);
+			}
+		}
 	}
 }
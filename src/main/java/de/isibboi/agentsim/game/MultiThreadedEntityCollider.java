@@ -1,12 +1,8 @@
 package de.isibboi.agentsim.game;
 
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -15,59 +11,82 @@ import de.isibboi.agentsim.Settings;
 import de.isibboi.agentsim.game.entities.Entity;
 
 /**
- * @author Sebastian Schmidt
- * @since 
+ * An {@link EntityCollider} that evaluates the collisions of a tick in parallel.
+ * The collisions are collected until {@link #finishCollision()} is called. The blocks separated by {@link #finishBlock()}
+ * share no entities, so batches of consecutive blocks are evaluated as independent fork join tasks without any locking.
+ * The collisions of one block are evaluated in the order they were passed, by one thread.
  *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
  */
 public class MultiThreadedEntityCollider implements EntityCollider {
-	private static class CollisionExecutor implements Runnable {
-		private final Entity _a;
-		private final Entity _b;
-		private final int _currentTick;
+	/**
+	 * Evaluates the collisions of a range of blocks, splitting it until the batches are small enough.
+	 */
+	private final class BatchCollision extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int _firstBlock;
+		private final int _endBlock;
 
 		/**
-		 * Creates a new {@link CollisionExecutor} to evaluate the collision between the given entities.
-		 * 
-		 * @param a The first entity.
-		 * @param b The second entity.
-		 * @param currentTick The current tick.
+		 * Creates a new batch.
+		 * @param firstBlock The first block of the batch.
+		 * @param endBlock The block after the last block of the batch.
 		 */
-		CollisionExecutor(final Entity a, final Entity b, final int currentTick) {
-			_a = a;
-			_b = b;
-			_currentTick = currentTick;
+		BatchCollision(final int firstBlock, final int endBlock) {
+			_firstBlock = firstBlock;
+			_endBlock = endBlock;
 		}
 
 		@Override
-		public void run() {
-			synchronized (_a) {
-				synchronized (_b) {
-					_a.collideWith(_b, _currentTick);
-				}
+		protected void compute() {
+			if (_endBlock - _firstBlock <= 1 || getPairCount(_firstBlock, _endBlock) <= PAIRS_PER_BATCH) {
+				collideBlocks(_firstBlock, _endBlock);
+			} else {
+				final int middle = (_firstBlock + _endBlock) >>> 1;
+				invokeAll(new BatchCollision(_firstBlock, middle), new BatchCollision(middle, _endBlock));
 			}
 		}
 	}
 
 	private static final Logger LOG = LogManager.getLogger(MultiThreadedEntityCollider.class);
 
-	private final ThreadPoolExecutor _executor;
-	private final Collection<Future<?>> _futures;
+	/**
+	 * The amount of collisions below which a batch is not split further.
+	 * Smaller ticks are evaluated directly by the calling thread.
+	 */
+	private static final int PAIRS_PER_BATCH = 64;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final ForkJoinPool _pool;
+
+	/**
+	 * The collisions of the current tick, as pairs of entities.
+	 */
+	private Entity[] _firstEntities = new Entity[INITIAL_CAPACITY];
+	private Entity[] _secondEntities = new Entity[INITIAL_CAPACITY];
+	private int _pairCount = 0;
+
+	/**
+	 * The index of the pair after the last pair of each block.
+	 */
+	private int[] _blockEnds = new int[INITIAL_CAPACITY];
+	private int _blockCount = 0;
 
 	private volatile boolean _shutdown = false;
 	private volatile boolean _isColliding = false;
-	private volatile int _currentTick;
+	private int _currentTick;
 
 	/**
 	 * Creates a new {@link MultiThreadedEntityCollider}.
 	 * The amount of threads is read from the settings.
-	 * 
+	 *
 	 * @param settings The settings.
 	 */
 	public MultiThreadedEntityCollider(final Settings settings) {
-		final int threadAmount = settings.getInt(Settings.CORE_UPDATE_COLLISION_THREAD_COUNT);
-		_executor = new ThreadPoolExecutor(threadAmount, threadAmount, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
-		_executor.prestartAllCoreThreads();
-		_futures = new LinkedList<>();
+		_pool = new ForkJoinPool(Math.max(1, settings.getInt(Settings.CORE_UPDATE_COLLISION_THREAD_COUNT)));
 
 		LOG.info("Entity collider threads started");
 	}
@@ -76,40 +95,93 @@ public class MultiThreadedEntityCollider implements EntityCollider {
 	public synchronized void startCollision(final int tick) {
 		_isColliding = true;
 		_currentTick = tick;
+		_pairCount = 0;
+		_blockCount = 0;
 	}
 
 	@Override
 	public void collide(final Entity a, final Entity b) {
-		_futures.add(_executor.submit(new CollisionExecutor(a, b, _currentTick)));
+		if (_pairCount == _firstEntities.length) {
+			_firstEntities = Arrays.copyOf(_firstEntities, _pairCount * 2);
+			_secondEntities = Arrays.copyOf(_secondEntities, _pairCount * 2);
+		}
+
+		_firstEntities[_pairCount] = a;
+		_secondEntities[_pairCount] = b;
+		_pairCount++;
 	}
 
 	@Override
 	public void finishBlock() {
-		// Do nothing.
+		if (_pairCount == getBlockStart(_blockCount)) {
+			return;
+		}
+
+		if (_blockCount == _blockEnds.length) {
+			_blockEnds = Arrays.copyOf(_blockEnds, _blockCount * 2);
+		}
+
+		_blockEnds[_blockCount++] = _pairCount;
 	}
 
 	@Override
 	public synchronized void finishCollision() {
-		try {
-			for (Future<?> future : _futures) {
-				future.get();
-			}
-		} catch (InterruptedException | ExecutionException e) {
-			LOG.error("Could not finish collision evaluation", e);
+		finishBlock();
+
+		if (_pairCount <= PAIRS_PER_BATCH || _pool.isShutdown()) {
+			collideBlocks(0, _blockCount);
+		} else {
+			_pool.invoke(new BatchCollision(0, _blockCount));
 		}
 
+		// Do not keep removed entities alive.
+		Arrays.fill(_firstEntities, 0, _pairCount, null);
+		Arrays.fill(_secondEntities, 0, _pairCount, null);
+		_pairCount = 0;
+		_blockCount = 0;
+
 		if (_shutdown) {
-			shutdownExecutor();
+			shutdownPool();
 		}
 
 		_isColliding = false;
 	}
 
 	/**
-	 * Shuts the pooled executor down.
+	 * Evaluates the collisions of the given blocks in order.
+	 * @param firstBlock The first block.
+	 * @param endBlock The block after the last block.
+	 */
+	private void collideBlocks(final int firstBlock, final int endBlock) {
+		for (int i = getBlockStart(firstBlock); i < getBlockStart(endBlock); i++) {
+			_firstEntities[i].collideWith(_secondEntities[i], _currentTick);
+		}
+	}
+
+	/**
+	 * Returns the amount of collisions in the given blocks.
+	 * @param firstBlock The first block.
+	 * @param endBlock The block after the last block.
+	 * @return The amount of collisions.
+	 */
+	private int getPairCount(final int firstBlock, final int endBlock) {
+		return getBlockStart(endBlock) - getBlockStart(firstBlock);
+	}
+
+	/**
+	 * Returns the index of the first pair of the given block.
+	 * @param block The block.
+	 * @return The index of the first pair.
+	 */
+	private int getBlockStart(final int block) {
+		return block == 0 ? 0 : _blockEnds[block - 1];
+	}
+
+	/**
+	 * Shuts the fork join pool down.
 	 */
-	private void shutdownExecutor() {
-		_executor.shutdown();
+	private void shutdownPool() {
+		_pool.shutdown();
 		LOG.info("Entity collider thread pool is shutting down");
 	}
 
@@ -119,7 +191,7 @@ public class MultiThreadedEntityCollider implements EntityCollider {
 		LOG.info("Entity collider received shutdown request");
 
 		if (!_isColliding) {
-			shutdownExecutor();
+			shutdownPool();
 		}
 	}
 }
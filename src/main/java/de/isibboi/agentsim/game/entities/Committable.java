@@ -0,0 +1,23 @@
+package de.isibboi.agentsim.game.entities;
+
+/**
+ * An entity that proposes the changes of the world it wants to make while it is updated, instead of applying them.
+ * After all entities were updated, the proposals are committed one entity after another, in the order of the entity ids.
+ * So the outcome of conflicting proposals does not depend on the amount of threads that updated the entities.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public interface Committable extends Entity {
+	/**
+	 * Returns the id of this entity. Proposals are committed in the order of the ids.
+	 * @return The id.
+	 */
+	long getId();
+
+	/**
+	 * Applies the changes proposed during the last update.
+	 * @param tick The current tick.
+	 */
+	void commit(int tick);
+}
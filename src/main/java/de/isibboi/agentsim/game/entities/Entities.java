@@ -3,25 +3,203 @@ package de.isibboi.agentsim.game.entities;
 import java.awt.Graphics2D;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import de.isibboi.agentsim.Settings;
 import de.isibboi.agentsim.game.GameUpdateException;
 
 /**
  * Contains all the entities that are alive. Entities can be added or removed, but the operations are only applied when update is called.
+ *
+ * A tick is split into phases, so that the result does not depend on the amount of threads.
+ * First, all entities are updated in parallel. They decide what to do, but only change themselves and read the world.
+ * The changes of the world they want to make are proposed instead, see {@link Committable}.
+ * Then the proposals are committed one entity after another in the order of the entity ids,
+ * and all {@link Movable} entities apply their moves in the same order. These are the only phases that change the world.
+ * At last, the moved entities observe their new surroundings in parallel, which again only changes the entities themselves.
  * @author Sebastian Schmidt
  * @since 0.3.0
  */
 public class Entities implements Collection<Entity>, Updateable, Drawable {
+	/**
+	 * Handles a contiguous range of entities, splitting it until the ranges are small enough.
+	 */
+	private abstract static class RangeAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int _from;
+		private final int _to;
+
+		/**
+		 * Creates a new action.
+		 * @param from The index of the first entity.
+		 * @param to The index after the last entity.
+		 */
+		RangeAction(final int from, final int to) {
+			_from = from;
+			_to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (_to - _from <= ENTITIES_PER_TASK) {
+				handleAll();
+			} else {
+				final int middle = (_from + _to) >>> 1;
+				invokeAll(createPart(_from, middle), createPart(middle, _to));
+			}
+		}
+
+		/**
+		 * Handles all entities of the range on the calling thread.
+		 */
+		void handleAll() {
+			for (int i = _from; i < _to; i++) {
+				handle(i);
+			}
+		}
+
+		/**
+		 * Creates an action of the same kind for a part of the range.
+		 * @param from The index of the first entity.
+		 * @param to The index after the last entity.
+		 * @return The action.
+		 */
+		protected abstract RangeAction createPart(int from, int to);
+
+		/**
+		 * Handles a single entity.
+		 * @param index The index of the entity.
+		 */
+		protected abstract void handle(int index);
+	}
+
+	/**
+	 * Updates a contiguous range of the entities.
+	 */
+	private final class Decision extends RangeAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Random _random;
+		private final int _tick;
+
+		/**
+		 * Creates a new decision.
+		 * @param random The pseudo random number generator passed to the entities.
+		 * @param tick The current tick.
+		 * @param from The index of the first entity.
+		 * @param to The index after the last entity.
+		 */
+		Decision(final Random random, final int tick, final int from, final int to) {
+			super(from, to);
+
+			_random = random;
+			_tick = tick;
+		}
+
+		@Override
+		protected RangeAction createPart(final int from, final int to) {
+			return new Decision(_random, _tick, from, to);
+		}
+
+		@Override
+		protected void handle(final int index) {
+			try {
+				_entities.get(index).update(_random, _tick);
+			} catch (GameUpdateException e) {
+				_log.error("Error updating entity!", e);
+			}
+		}
+	}
+
+	/**
+	 * Lets a contiguous range of the moved entities observe.
+	 */
+	private final class Observation extends RangeAction {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Creates a new observation.
+		 * @param from The index of the first entity.
+		 * @param to The index after the last entity.
+		 */
+		Observation(final int from, final int to) {
+			super(from, to);
+		}
+
+		@Override
+		protected RangeAction createPart(final int from, final int to) {
+			return new Observation(from, to);
+		}
+
+		@Override
+		protected void handle(final int index) {
+			_movedEntities.get(index).observe();
+		}
+	}
+
+	/**
+	 * The amount of entities below which a range is not split further.
+	 * Smaller ticks are updated and observed on the calling thread.
+	 */
+	private static final int ENTITIES_PER_TASK = 16;
+
+	/**
+	 * Orders the entities by their ids, which is the order their proposals are committed in.
+	 * Entities without an id come first.
+	 */
+	private static final Comparator<Entity> ID_ORDER = new Comparator<Entity>() {
+		@Override
+		public int compare(final Entity a, final Entity b) {
+			return Long.compare(getId(a), getId(b));
+		}
+
+		/**
+		 * Returns the id of the given entity.
+		 * @param entity The entity.
+		 * @return The id, or {@link Long#MIN_VALUE} if the entity has none.
+		 */
+		private long getId(final Entity entity) {
+			return entity instanceof Committable ? ((Committable) entity).getId() : Long.MIN_VALUE;
+		}
+	};
+
 	private final Logger _log = LogManager.getLogger(getClass());
 
-	private final Collection<Entity> _entities = new ArrayList<>();
+	/**
+	 * The entities, ordered by {@link #ID_ORDER}.
+	 */
+	private final List<Entity> _entities = new ArrayList<>();
 	private final Collection<Entity> _newEntities = new ArrayList<>();
 	private final Collection<Entity> _removedEntities = new ArrayList<>();
+	private final List<Movable> _movedEntities = new ArrayList<>();
+
+	private final ForkJoinPool _pool;
+
+	/**
+	 * Creates a new, empty entity collection.
+	 * The amount of threads used to update the entities is read from the settings.
+	 * @param settings The settings.
+	 */
+	public Entities(final Settings settings) {
+		final int threadCount = settings.getInt(Settings.CORE_UPDATE_ENTITY_THREAD_COUNT);
+
+		if (threadCount > 1) {
+			_pool = new ForkJoinPool(threadCount);
+			_log.info("Entity update threads started");
+		} else {
+			_pool = null;
+		}
+	}
 
 	@Override
 	public int size() {
@@ -106,22 +284,67 @@ public class Entities implements Collection<Entity>, Updateable, Drawable {
 		_removedEntities.addAll(_entities);
 	}
 
+	/**
+	 * Adds and removes the entities, and updates all of them in parallel.
+	 * The entities must not change the world, but only propose changes, which are applied by {@link #commit(int)}.
+	 * Entities do not use the given random number generator, as the order in which they would draw from it depends on the threads.
+	 */
 	@Override
 	public void update(final Random random, final int tick) throws GameUpdateException {
 		if (_newEntities.size() > 0) {
 			_entities.addAll(_newEntities);
+			Collections.sort(_entities, ID_ORDER);
 			_log.debug("Added " + _newEntities.size() + " entities");
 			_newEntities.clear();
 		}
 
+		removeEntities();
+		invoke(new Decision(random, tick, 0, _entities.size()), _entities.size());
+	}
+
+	/**
+	 * Commits the proposals of all {@link Committable} entities and moves all {@link Movable} entities, both in the order of the entity ids.
+	 * Then the moved entities observe their new surroundings in parallel.
+	 * Called after {@link #update(Random, int)}, once the paths requested during the update are solved.
+	 * 
+	 * @param tick The current tick.
+	 */
+	public void commit(final int tick) {
 		for (Entity entity : _entities) {
-			try {
-				entity.update(random, tick);
-			} catch (GameUpdateException e) {
-				_log.error("Error updating entity!", e);
+			if (entity instanceof Committable) {
+				((Committable) entity).commit(tick);
 			}
 		}
 
+		for (Entity entity : _entities) {
+			if (entity instanceof Movable) {
+				((Movable) entity).updateLocation();
+				_movedEntities.add((Movable) entity);
+			}
+		}
+
+		invoke(new Observation(0, _movedEntities.size()), _movedEntities.size());
+		_movedEntities.clear();
+		removeEntities();
+	}
+
+	/**
+	 * Runs the given action on the update threads, or on the calling thread if there are only few entities or no threads.
+	 * @param action The action.
+	 * @param size The amount of entities the action handles.
+	 */
+	private void invoke(final RangeAction action, final int size) {
+		if (_pool == null || _pool.isShutdown() || size <= ENTITIES_PER_TASK) {
+			action.handleAll();
+		} else {
+			_pool.invoke(action);
+		}
+	}
+
+	/**
+	 * Removes the entities that were removed since the last call.
+	 */
+	private void removeEntities() {
 		if (_removedEntities.size() > 0) {
 			_entities.removeAll(_removedEntities);
 			_log.debug("Removed " + _removedEntities.size() + " entities");
@@ -129,6 +352,16 @@ public class Entities implements Collection<Entity>, Updateable, Drawable {
 		}
 	}
 
+	/**
+	 * Shuts the update threads down. Later updates are executed on the calling thread.
+	 */
+	public void shutdown() {
+		if (_pool != null) {
+			_pool.shutdown();
+			_log.info("Entity update thread pool is shutting down");
+		}
+	}
+
 	@Override
 	public void draw(final Graphics2D g, final double transition) {
 		for (Entity entity : _entities) {
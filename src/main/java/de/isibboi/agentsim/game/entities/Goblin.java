@@ -17,7 +17,7 @@ import de.isibboi.agentsim.game.map.Point;
  * @author Sebastian Schmidt
  * @since 0.1.0
  */
-public class Goblin extends MapEntity {
+public class Goblin extends MapEntity implements Movable {
 	private static final Logger LOG = LogManager.getLogger(Goblin.class);
 
 	private final Color _color = new Color(0x55bb55);
@@ -26,6 +26,11 @@ public class Goblin extends MapEntity {
 	private GoblinAttributes _attributes;
 	private final GoblinSwarmAI _ai;
 
+	/**
+	 * The location this goblin moved to in the current tick, or null if it did not move.
+	 */
+	private Point _movedTo;
+
 	/**
 	 * Creates a new goblin at the specified location.
 	 * 
@@ -76,13 +81,39 @@ public class Goblin extends MapEntity {
 		updateAttributes();
 
 		if (!_attributes.isAlive()) {
-			getEntityLocationManager().removeEntity(this);
+			propose(new Proposal() {
+				@Override
+				public boolean commit(final int tick) {
+					getEntityLocationManager().removeEntity(Goblin.this);
+					return true;
+				}
+			});
 		} else {
-			_ai.update(_attributes, random, tick);
+			_ai.update(_attributes, getRandom(), tick);
+		}
+	}
+
+	@Override
+	protected void eventProposalRejected(final Proposal proposal) {
+		_ai.eventProposalRejected();
+	}
+
+	@Override
+	public void updateLocation() {
+		if (_attributes.isAlive()) {
+			_ai.eventPathsSolved();
 			calculateNewLocation(_ai.getMovement());
 		}
 	}
 
+	@Override
+	public void observe() {
+		if (_movedTo != null) {
+			_ai.eventMoveTo(_movedTo);
+			_movedTo = null;
+		}
+	}
+
 	/**
 	 * Updates the attributes of the goblin.
 	 */
@@ -113,7 +144,7 @@ public class Goblin extends MapEntity {
 
 		if (getMap().isValidEntityLocation(newLocation)) {
 			setLocation(newLocation);
-			_ai.eventMoveTo(newLocation);
+			_movedTo = newLocation;
 		} else if (getMap().isLocationOnMap(newLocation)) {
 			_ai.eventCollideWithWall(newLocation);
 		} else {
@@ -15,7 +15,12 @@ public class GoblinSpawner {
 	private final EntityLocationManager _entityLocationManager;
 	private final Settings _settings;
 
-	private final Random _random = new Random();
+	/**
+	 * The id of the random stream of the spawner. Negative, so that it differs from all entity ids.
+	 */
+	private static final long RANDOM_STREAM_ID = -1;
+
+	private final Random _random;
 
 	/**
 	 * Creates a new goblin spawner.
@@ -25,6 +30,7 @@ public class GoblinSpawner {
 	public GoblinSpawner(final EntityLocationManager entityLocationManager, final Settings settings) {
 		_entityLocationManager = entityLocationManager;
 		_settings = settings;
+		_random = entityLocationManager.getRandomStreams().createStream(RANDOM_STREAM_ID, 0);
 	}
 
 	/**
@@ -4,8 +4,11 @@ import java.awt.Graphics2D;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
+import de.isibboi.agentsim.algorithm.randomized.RandomStream;
 import de.isibboi.agentsim.game.EntityLocationManager;
 import de.isibboi.agentsim.game.GameUpdateException;
 import de.isibboi.agentsim.game.map.GameMap;
@@ -14,12 +17,21 @@ import de.isibboi.agentsim.util.Util;
 
 /**
  * An entity that has a location known by the game map.
+ * While it is updated, it must not change the world, but propose the changes with {@link #propose(Proposal)}.
  * 
  * @author Sebastian Schmidt
  * @since 0.2.0
  */
-public abstract class MapEntity implements Entity {
+public abstract class MapEntity implements Committable {
 	private final EntityLocationManager _entityLocationManager;
+	private final int _locationId;
+	private final long _id;
+	private final RandomStream _random;
+
+	/**
+	 * The changes proposed during the current update, in the order they were proposed.
+	 */
+	private final List<Proposal> _proposals = new ArrayList<>();
 	private Point _oldLocation;
 	private Rectangle2D.Double _bounds;
 	private boolean _isSelected;
@@ -30,6 +42,35 @@ public abstract class MapEntity implements Entity {
 	 */
 	public MapEntity(final EntityLocationManager entityLocationManager) {
 		_entityLocationManager = entityLocationManager;
+		_locationId = entityLocationManager.registerEntity(this);
+		_id = entityLocationManager.createEntityId();
+		_random = entityLocationManager.getRandomStreams().createStream(_id, 0);
+	}
+
+	/**
+	 * Returns the id of this entity, which identifies it across runs of the same game.
+	 * @return The id.
+	 */
+	@Override
+	public long getId() {
+		return _id;
+	}
+
+	/**
+	 * Returns the random number generator of this entity. It is restarted for every tick by {@link #update(Random, int)},
+	 * so that the numbers drawn in a tick only depend on the seed of the game, the id of this entity and the tick.
+	 * @return The random number generator.
+	 */
+	protected Random getRandom() {
+		return _random;
+	}
+
+	/**
+	 * Returns the id under which the entity location manager stores the location of this entity.
+	 * @return The location id.
+	 */
+	public int getLocationId() {
+		return _locationId;
 	}
 
 	/**
@@ -66,9 +107,43 @@ public abstract class MapEntity implements Entity {
 
 	@Override
 	public void update(final Random random, final int tick) throws GameUpdateException {
+		_random.startTick(tick);
 		_oldLocation = getLocation();
 	}
 
+	/**
+	 * Proposes a change of the world. It is applied when the proposals of this entity are committed.
+	 * @param proposal The proposal.
+	 */
+	public void propose(final Proposal proposal) {
+		_proposals.add(proposal);
+	}
+
+	/**
+	 * Applies the proposals of the last update in the order they were made.
+	 * If one is rejected, the later ones are dropped, as they were made assuming it succeeds.
+	 */
+	@Override
+	public void commit(final int tick) {
+		for (Proposal proposal : _proposals) {
+			if (!proposal.commit(tick)) {
+				eventProposalRejected(proposal);
+				break;
+			}
+		}
+
+		_proposals.clear();
+	}
+
+	/**
+	 * Fired when a proposal of this entity conflicts with a change committed before.
+	 * The later proposals of the same update are dropped.
+	 * @param proposal The rejected proposal.
+	 */
+	protected void eventProposalRejected(final Proposal proposal) {
+		// Ignore.
+	}
+
 	/**
 	 * Returns the location of the entity from the last update.
 	 * @return The old location.
@@ -0,0 +1,23 @@
+package de.isibboi.agentsim.game.entities;
+
+/**
+ * An entity that moves in a separate phase after all entities were updated.
+ * Between the phases, the path requests of all entities are solved together.
+ * The entities move one after another in the order of their ids, after the proposals of all entities were committed.
+ * After all entities moved, they observe their new surroundings in parallel.
+ * 
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public interface Movable extends Entity {
+	/**
+	 * Executes the movement that was decided during the last update.
+	 */
+	void updateLocation();
+
+	/**
+	 * Observes the surroundings after all entities moved.
+	 * This is called in parallel for different entities, so it must only change this entity, and only read the map and other entities.
+	 */
+	void observe();
+}
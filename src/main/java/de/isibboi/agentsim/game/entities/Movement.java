@@ -130,4 +130,39 @@ public abstract class Movement {
 
 		throw new IllegalArgumentException("Given point is not a movement: " + p);
 	}
+
+	/**
+	 * Returns the movement that is represented by the given offset.
+	 * The offset has to be a valid movement.
+	 * Unlike {@link #getMovement(Point)}, this does not create any objects.
+	 *
+	 * @param dx The x offset.
+	 * @param dy The y offset.
+	 * @return The movement.
+	 */
+	public static Movement getMovement(final int dx, final int dy) {
+		if (dx == 0) {
+			switch (dy) {
+			case -1:
+				return UP;
+			case 1:
+				return DOWN;
+			case 0:
+				return NONE;
+			default:
+				break;
+			}
+		} else if (dy == 0) {
+			switch (dx) {
+			case -1:
+				return LEFT;
+			case 1:
+				return RIGHT;
+			default:
+				break;
+			}
+		}
+
+		throw new IllegalArgumentException("Given offset is not a movement: [" + dx + ", " + dy + "]");
+	}
 }
@@ -0,0 +1,18 @@
+package de.isibboi.agentsim.game.entities;
+
+/**
+ * A change of the world that an entity proposes while it is updated.
+ * Entities are updated in parallel and only read the world, so they cannot change it directly.
+ * The proposals are committed one entity after another, so committing a proposal may change the world.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public interface Proposal {
+	/**
+	 * Applies the proposed change to the world.
+	 * @param tick The current tick.
+	 * @return True if the change was applied, false if it conflicts with a change that was committed before.
+	 */
+	boolean commit(int tick);
+}
@@ -44,6 +44,17 @@ public interface AI extends Drawable {
 	 */
 	void eventMoveTo(Point location);
 
+	/**
+	 * After all entities were updated, the paths they requested are solved. Then this event is fired, before the movement is retrieved.
+	 */
+	void eventPathsSolved();
+
+	/**
+	 * If a change proposed during the last update conflicts with the change of another entity, this event is fired while the proposals are committed.
+	 * The later proposals of the same update were dropped, so the plans that relied on the change need to be given up.
+	 */
+	void eventProposalRejected();
+
 	/**
 	 * Updates the AI.
 	 * @param attributes The current attributes of the controlled entity.
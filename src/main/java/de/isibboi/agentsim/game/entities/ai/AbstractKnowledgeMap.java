@@ -1,6 +1,9 @@
 package de.isibboi.agentsim.game.entities.ai;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 
 import de.isibboi.agentsim.game.map.Point;
@@ -14,6 +17,13 @@ import de.isibboi.agentsim.game.map.Point;
  * @param <Knowledge> The type of knowledge.
  */
 public abstract class AbstractKnowledgeMap<Knowledge> implements KnowledgeMap<Knowledge> {
+	/**
+	 * The XOR of the fingerprints of all known locations.
+	 */
+	private long _version = 0;
+
+	private final List<KnowledgeChangeListener<Knowledge>> _knowledgeChangeListeners = new ArrayList<>();
+
 	@Override
 	public void exchangeInformation(final KnowledgeMap<Knowledge> other) {
 		Set<Point> knownLocations = new HashSet<>();
@@ -45,9 +55,10 @@ public abstract class AbstractKnowledgeMap<Knowledge> implements KnowledgeMap<Kn
 		final long otherAge = other.getLocationKnowledgeAge(location);
 		final long thisAge = getLocationKnowledgeAge(location);
 
+		// Equal ages mean equal knowledge, so nothing needs to be copied.
 		if (otherAge > thisAge) {
 			updateLocation(location, other.getLocationKnowledge(location), otherAge);
-		} else {
+		} else if (otherAge < thisAge) {
 			other.updateLocation(location, getLocationKnowledge(location), thisAge);
 		}
 	}
@@ -67,4 +78,52 @@ public abstract class AbstractKnowledgeMap<Knowledge> implements KnowledgeMap<Kn
 
 		return result;
 	}
-}
\ No newline at end of file
+
+	@Override
+	public long getVersion() {
+		return _version;
+	}
+
+	@Override
+	public void addKnowledgeChangeListener(final KnowledgeChangeListener<Knowledge> listener) {
+		_knowledgeChangeListeners.add(listener);
+	}
+
+	/**
+	 * Updates the version and notifies the listeners after the knowledge about a location was replaced.
+	 * Implementations must call this whenever they replace knowledge.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @param oldKnowledge The replaced knowledge, or null if the location was unknown.
+	 * @param newKnowledge The new knowledge.
+	 */
+	protected void knowledgeReplaced(final int x, final int y, final Knowledge oldKnowledge, final Knowledge newKnowledge) {
+		if (!Objects.equals(oldKnowledge, newKnowledge)) {
+			_version ^= fingerprint(x, y, oldKnowledge) ^ fingerprint(x, y, newKnowledge);
+
+			for (KnowledgeChangeListener<Knowledge> listener : _knowledgeChangeListeners) {
+				listener.knowledgeChanged(x, y, oldKnowledge, newKnowledge);
+			}
+		}
+	}
+
+	/**
+	 * Hashes a single piece of knowledge together with its location.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @param knowledge The knowledge, or null.
+	 * @return The hash, or zero if {@code knowledge} is null.
+	 */
+	private static long fingerprint(final int x, final int y, final Object knowledge) {
+		if (knowledge == null) {
+			return 0;
+		}
+
+		long hash = (((long) x << 32) | (y & 0xFFFFFFFFL)) * 0x9E3779B97F4A7C15L + knowledge.hashCode();
+		hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+		return hash ^ (hash >>> 31);
+	}
+}
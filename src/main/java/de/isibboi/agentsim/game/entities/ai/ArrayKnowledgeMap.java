@@ -47,6 +47,7 @@ public class ArrayKnowledgeMap<Knowledge> extends AbstractKnowledgeMap<Knowledge
 
 		if (knownTick < tick) {
 			_lastUpdate[location.getX()][location.getY()] = tick;
+			knowledgeReplaced(location.getX(), location.getY(), _knowledge[location.getX()][location.getY()], knowledge);
 			_knowledge[location.getX()][location.getY()] = knowledge;
 		}
 
@@ -79,9 +80,11 @@ public class ArrayKnowledgeMap<Knowledge> extends AbstractKnowledgeMap<Knowledge
 			for (int j = 0; j < _height; j++) {
 				if (_lastUpdate[i][j] > other._lastUpdate[i][j]) {
 					other._lastUpdate[i][j] = _lastUpdate[i][j];
+					other.knowledgeReplaced(i, j, other._knowledge[i][j], _knowledge[i][j]);
 					other._knowledge[i][j] = _knowledge[i][j];
-				} else {
+				} else if (_lastUpdate[i][j] < other._lastUpdate[i][j]) {
 					_lastUpdate[i][j] = other._lastUpdate[i][j];
+					knowledgeReplaced(i, j, _knowledge[i][j], other._knowledge[i][j]);
 					_knowledge[i][j] = other._knowledge[i][j];
 				}
 			}
@@ -98,6 +101,11 @@ public class ArrayKnowledgeMap<Knowledge> extends AbstractKnowledgeMap<Knowledge
 		return _knowledge[location.getX()][location.getY()];
 	}
 
+	@Override
+	public Knowledge getLocationKnowledge(final int x, final int y) {
+		return _knowledge[x][y];
+	}
+
 	@Override
 	public Set<Point> getKnownLocationSet() {
 		return Collections.unmodifiableSet(_knownLocations);
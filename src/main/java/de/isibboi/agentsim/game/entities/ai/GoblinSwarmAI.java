@@ -3,17 +3,21 @@ package de.isibboi.agentsim.game.entities.ai;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import de.isibboi.agentsim.Settings;
 import de.isibboi.agentsim.algorithm.BlockadeMap;
+import de.isibboi.agentsim.algorithm.ConnectedComponents;
+import de.isibboi.agentsim.algorithm.FlowField;
 import de.isibboi.agentsim.algorithm.KnowledgeBasedBlockadeMap;
 import de.isibboi.agentsim.algorithm.randomized.PrioritizedRandomSelector;
 import de.isibboi.agentsim.game.EntityLocationManager;
 import de.isibboi.agentsim.game.entities.Entity;
 import de.isibboi.agentsim.game.entities.Goblin;
+import de.isibboi.agentsim.game.entities.Movement;
 import de.isibboi.agentsim.game.entities.ai.intends.CompositeTask;
 import de.isibboi.agentsim.game.entities.ai.intends.Intend;
 import de.isibboi.agentsim.game.entities.ai.tasks.MoveToTask;
@@ -41,12 +45,19 @@ public class GoblinSwarmAI extends TaskExecutingAI {
 	private final EntityLocationManager _entityLocationManager;
 	private final Goblin _goblin;
 	private final ProviderBackedKnowledgeMap<Material> _mapKnowledge;
+	private final ConnectedComponents _reachabilityIndex;
 
 	private final float _saturationBufferDistanceFactor;
 	private final int _saturationBufferMinimum;
 	private final List<Point> _viewingPattern;
 
-	private final PrioritizedRandomSelector<Intend> _intendSelector = new PrioritizedRandomSelector<>();
+	/**
+	 * The channel of the random stream of the intend selector. Intends are also selected during collisions,
+	 * so the selector draws from its own stream, which is not restarted every tick.
+	 */
+	private static final int INTEND_SELECTION_RANDOM_CHANNEL = 1;
+
+	private final PrioritizedRandomSelector<Intend> _intendSelector;
 	private Intend _currentIntend;
 
 	/**
@@ -57,6 +68,7 @@ public class GoblinSwarmAI extends TaskExecutingAI {
 	public GoblinSwarmAI(final EntityLocationManager entityLocationManager, final Goblin goblin) {
 		_entityLocationManager = entityLocationManager;
 		_goblin = goblin;
+		_intendSelector = new PrioritizedRandomSelector<>(entityLocationManager.getRandomStreams().createStream(goblin.getId(), INTEND_SELECTION_RANDOM_CHANNEL));
 
 		Settings settings = entityLocationManager.getSettings();
 
@@ -92,6 +104,15 @@ public class GoblinSwarmAI extends TaskExecutingAI {
 		_mapKnowledge.updateLocation(entityLocationManager.getMap().getSpawnPoint(), spawnPattern);
 		// ---- Learned path to spawn
 
+		_reachabilityIndex = new ConnectedComponents(_mapKnowledge, entityLocationManager.getMap().getWidth(), entityLocationManager.getMap().getHeight());
+		_mapKnowledge.addKnowledgeChangeListener(_reachabilityIndex);
+		_mapKnowledge.addKnowledgeChangeListener(new KnowledgeChangeListener<Material>() {
+			@Override
+			public void knowledgeChanged(final int x, final int y, final Material oldKnowledge, final Material newKnowledge) {
+				locationChanged(x, y);
+			}
+		});
+
 		// ---- Create viewing pattern
 		_viewingPattern = new ArrayList<>();
 		_viewingPattern.add(new Point(0, 0));
@@ -112,9 +133,7 @@ public class GoblinSwarmAI extends TaskExecutingAI {
 		LOG.trace("Collided with wall");
 
 		explorePoint(location);
-
-		// TODO Try restarting the current intend?
-		abort();
+		informationUpdated();
 	}
 
 	@Override
@@ -124,6 +143,7 @@ public class GoblinSwarmAI extends TaskExecutingAI {
 			Goblin g = (Goblin) entity;
 			GoblinSwarmAI ai = g.getAI();
 			exchangeInformation(ai);
+			informationUpdated();
 		} else if (entity instanceof SwarmMainBuilding) {
 			int feedAmount = _goblin.getAttributes().feedCompletely();
 			_intendSelector.update(((SwarmMainBuilding) entity).getIntends(tick));
@@ -169,8 +189,11 @@ public class GoblinSwarmAI extends TaskExecutingAI {
 	protected void eventExecutionAborted() {
 		LOG.trace("Execution aborted");
 
-		_intendSelector.add(_currentIntend);
-		_currentIntend = null;
+		// Tasks that were not planned for an intend, like moving back to spawn, can be aborted as well.
+		if (_currentIntend != null) {
+			_intendSelector.add(_currentIntend);
+			_currentIntend = null;
+		}
 
 		selectNextTask();
 	}
@@ -226,15 +249,31 @@ public class GoblinSwarmAI extends TaskExecutingAI {
 	 * @return True if the goblin is moving to spawn as a result of calling this method, false otherwise.
 	 */
 	protected boolean moveToSpawnIfNecessary(final int nextTaskDuration, final Point nextTaskFinishingPoint) {
-		int distanceToHome = nextTaskFinishingPoint.manhattanDistance(_entityLocationManager.getMap().getSpawnPoint());
+		final FlowField spawnFlowField = _entityLocationManager.getSpawnFlowField();
+		int distanceToHome = spawnFlowField.getDistance(nextTaskFinishingPoint);
+
+		if (distanceToHome == FlowField.UNREACHABLE) {
+			distanceToHome = nextTaskFinishingPoint.manhattanDistance(_entityLocationManager.getMap().getSpawnPoint());
+		}
+
 		int saturation = _goblin.getAttributes().getSaturation();
 		saturation /= _saturationBufferDistanceFactor;
 		saturation -= _saturationBufferMinimum;
 
 		if (saturation <= distanceToHome + nextTaskDuration) {
-			MoveToTask moveToSpawnTask = new MoveToTask(_goblin.getLocation(), _entityLocationManager.getMap().getSpawnPoint(), _goblin, getBlockadeMap());
+			final Point spawnPoint = _entityLocationManager.getMap().getSpawnPoint();
+			final Queue<Movement> pathToSpawn = spawnFlowField.getPath(_goblin.getLocation());
+			MoveToTask moveToSpawnTask;
+
+			if (pathToSpawn != null) {
+				// The flow field is computed on the map, so the path is checked and repaired against the map as well.
+				// The knowledge of the goblin would report the unknown locations of the path as blocked.
+				moveToSpawnTask = new MoveToTask(_goblin.getLocation(), spawnPoint, _goblin, _entityLocationManager.getMap(), pathToSpawn);
+			} else {
+				moveToSpawnTask = new MoveToTask(_goblin.getLocation(), spawnPoint, _goblin, getBlockadeMap());
+			}
 
-			if (!moveToSpawnTask.hasPath()) {
+			if (!moveToSpawnTask.mayHavePath()) {
 				LOG.trace("Goblin cannot find path back to spawn.");
 				return false;
 			}
@@ -256,7 +295,7 @@ public class GoblinSwarmAI extends TaskExecutingAI {
 	 * @return The blockade map for this AI.
 	 */
 	public BlockadeMap getBlockadeMap() {
-		return new KnowledgeBasedBlockadeMap(_mapKnowledge);
+		return new KnowledgeBasedBlockadeMap(_mapKnowledge, _reachabilityIndex);
 	}
 
 	/**
@@ -1,13 +1,15 @@
 package de.isibboi.agentsim.game.entities.ai;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import de.isibboi.agentsim.game.map.Point;
 
 /**
  * A {@link KnowledgeMap} representation that is backed by a hash table.
+ * The table is keyed by the packed coordinates of the locations, so looking up knowledge does not allocate.
  * 
  * @author Sebastian Schmidt
  * @since 0.3.0
@@ -47,25 +49,195 @@ public class HashKnowledgeMap<Knowledge> extends AbstractKnowledgeMap<Knowledge>
 		}
 	}
 
+	/**
+	 * The table starts with this many slots, and doubles whenever it becomes half full.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
 	private final KnowledgeBucket<Knowledge> _emptyBucket = new KnowledgeBucket<>(null, 0);
 
-	private final HashMap<Point, KnowledgeBucket<Knowledge>> _map = new HashMap<>();
+	/**
+	 * The locations of the buckets, packed by {@link #pack(int, int)}. The table uses open addressing with linear probing,
+	 * so that locations can be looked up by their coordinates without creating a {@link Point}.
+	 */
+	private long[] _keys = new long[INITIAL_CAPACITY];
+
+	/**
+	 * The buckets in the same slots as their locations. Empty slots are null. Knowledge is never removed.
+	 */
+	private KnowledgeBucket<Knowledge>[] _buckets = createBuckets(INITIAL_CAPACITY);
+	private int _size = 0;
+
+	private final Set<Point> _knownLocationSet = new AbstractSet<Point>() {
+		@Override
+		public Iterator<Point> iterator() {
+			return new Iterator<Point>() {
+				private int _slot = findUsedSlot(0);
+
+				@Override
+				public boolean hasNext() {
+					return _slot < _keys.length;
+				}
+
+				@Override
+				public Point next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+
+					final Point result = new Point(unpackX(_keys[_slot]), unpackY(_keys[_slot]));
+					_slot = findUsedSlot(_slot + 1);
+					return result;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException("Knowledge cannot be removed.");
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return _size;
+		}
+
+		@Override
+		public boolean contains(final Object o) {
+			return o instanceof Point && findSlot(((Point) o).getX(), ((Point) o).getY()) >= 0;
+		}
+	};
+
+	/**
+	 * Creates an array of buckets.
+	 * @param capacity The length of the array.
+	 * @return The array.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <Knowledge> KnowledgeBucket<Knowledge>[] createBuckets(final int capacity) {
+		return new KnowledgeBucket[capacity];
+	}
+
+	/**
+	 * Packs the coordinates of a location into one key.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The key.
+	 */
+	private static long pack(final int x, final int y) {
+		return (long) x << 32 | y & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Returns the x coordinate of a key.
+	 * @param key The key.
+	 * @return The x coordinate.
+	 */
+	private static int unpackX(final long key) {
+		return (int) (key >> 32);
+	}
+
+	/**
+	 * Returns the y coordinate of a key.
+	 * @param key The key.
+	 * @return The y coordinate.
+	 */
+	private static int unpackY(final long key) {
+		return (int) key;
+	}
+
+	/**
+	 * Returns the slot a key is searched in first.
+	 * @param key The key.
+	 * @param capacity The amount of slots, a power of two.
+	 * @return The slot.
+	 */
+	private static int getHomeSlot(final long key, final int capacity) {
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ hash >>> 32) & (capacity - 1);
+	}
+
+	/**
+	 * Returns the slot of the given location.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The slot, or the one's complement of the empty slot the location would be inserted into.
+	 */
+	private int findSlot(final int x, final int y) {
+		final long key = pack(x, y);
+		final int mask = _keys.length - 1;
+		int slot = getHomeSlot(key, _keys.length);
+
+		while (_buckets[slot] != null) {
+			if (_keys[slot] == key) {
+				return slot;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		return ~slot;
+	}
+
+	/**
+	 * Returns the first used slot at or after the given one.
+	 * @param start The first slot to check.
+	 * @return The slot, or the amount of slots if there is none.
+	 */
+	private int findUsedSlot(final int start) {
+		int slot = start;
+
+		while (slot < _buckets.length && _buckets[slot] == null) {
+			slot++;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Stores the bucket of a location that is not known yet, growing the table if needed.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param bucket The bucket.
+	 */
+	private void insert(final int x, final int y, final KnowledgeBucket<Knowledge> bucket) {
+		if (2 * (_size + 1) > _keys.length) {
+			final long[] keys = _keys;
+			final KnowledgeBucket<Knowledge>[] buckets = _buckets;
+			_keys = new long[keys.length * 2];
+			_buckets = createBuckets(keys.length * 2);
+
+			for (int slot = 0; slot < keys.length; slot++) {
+				if (buckets[slot] != null) {
+					final int newSlot = ~findSlot(unpackX(keys[slot]), unpackY(keys[slot]));
+					_keys[newSlot] = keys[slot];
+					_buckets[newSlot] = buckets[slot];
+				}
+			}
+		}
+
+		final int slot = ~findSlot(x, y);
+		_keys[slot] = pack(x, y);
+		_buckets[slot] = bucket;
+		_size++;
+	}
 
 	/**
 	 * Returns the KnowledgeBucket at the specified location,
 	 * or the empty bucket, if there is no knowledge about the specified location.
 	 * 
-	 * @param location The location.
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
 	 * @return The knowledge bucket for the given location.
 	 */
-	private KnowledgeBucket<Knowledge> getKnowledgeBucket(final Point location) {
-		KnowledgeBucket<Knowledge> result = _map.get(location);
+	private KnowledgeBucket<Knowledge> getKnowledgeBucket(final int x, final int y) {
+		final int slot = findSlot(x, y);
 
-		if (result == null) {
-			result = _emptyBucket;
+		if (slot < 0) {
+			return _emptyBucket;
 		}
 
-		return result;
+		return _buckets[slot];
 	}
 
 	@Override
@@ -74,26 +246,40 @@ public class HashKnowledgeMap<Knowledge> extends AbstractKnowledgeMap<Knowledge>
 			throw new IllegalArgumentException("Tick must be greater than zero!");
 		}
 
-		KnowledgeBucket<Knowledge> oldKnowledge = getKnowledgeBucket(location);
+		final int slot = findSlot(location.getX(), location.getY());
+		final KnowledgeBucket<Knowledge> newKnowledge = new KnowledgeBucket<Knowledge>(knowledge, tick);
 
-		if (oldKnowledge.getLastUpdate() < tick) {
-			_map.put(location, new KnowledgeBucket<Knowledge>(knowledge, tick));
+		if (slot < 0) {
+			insert(location.getX(), location.getY(), newKnowledge);
+			knowledgeReplaced(location.getX(), location.getY(), null, knowledge);
+		} else if (_buckets[slot].getLastUpdate() < tick) {
+			final KnowledgeBucket<Knowledge> oldKnowledge = _buckets[slot];
+			_buckets[slot] = newKnowledge;
+			knowledgeReplaced(location.getX(), location.getY(), oldKnowledge.getKnowledge(), knowledge);
 		}
 	}
 
 	@Override
 	public long getLocationKnowledgeAge(final Point location) {
-		return getKnowledgeBucket(location).getLastUpdate();
+		return getKnowledgeBucket(location.getX(), location.getY()).getLastUpdate();
 	}
 
 	@Override
 	public Knowledge getLocationKnowledge(final Point location) {
-		return getKnowledgeBucket(location).getKnowledge();
+		return getKnowledgeBucket(location.getX(), location.getY()).getKnowledge();
+	}
+
+	@Override
+	public Knowledge getLocationKnowledge(final int x, final int y) {
+		return getKnowledgeBucket(x, y).getKnowledge();
 	}
 
+	/**
+	 * Returns a view of the known locations. Iterating it creates the points on the fly.
+	 */
 	@Override
 	public Set<Point> getKnownLocationSet() {
-		return _map.keySet();
+		return _knownLocationSet;
 	}
 
 	@Override
@@ -112,18 +298,26 @@ public class HashKnowledgeMap<Knowledge> extends AbstractKnowledgeMap<Knowledge>
 	 * @param other The other map.
 	 */
 	public void exchangeInformation(final HashKnowledgeMap<Knowledge> other) {
-		final HashMap<Point, KnowledgeBucket<Knowledge>> toPutIntoOther = new HashMap<>();
+		for (int otherSlot = other.findUsedSlot(0); otherSlot < other._buckets.length; otherSlot = other.findUsedSlot(otherSlot + 1)) {
+			final int x = unpackX(other._keys[otherSlot]);
+			final int y = unpackY(other._keys[otherSlot]);
+			final KnowledgeBucket<Knowledge> otherKnowledge = other._buckets[otherSlot];
+			final int slot = findSlot(x, y);
+			final KnowledgeBucket<Knowledge> ownKnowledge = slot < 0 ? _emptyBucket : _buckets[slot];
 
-		for (Map.Entry<Point, KnowledgeBucket<Knowledge>> mapping : other._map.entrySet()) {
-			KnowledgeBucket<Knowledge> ownKnowledge = getKnowledgeBucket(mapping.getKey());
+			if (ownKnowledge._lastUpdate < otherKnowledge.getLastUpdate()) {
+				if (slot < 0) {
+					insert(x, y, otherKnowledge);
+				} else {
+					_buckets[slot] = otherKnowledge;
+				}
 
-			if (ownKnowledge._lastUpdate < mapping.getValue().getLastUpdate()) {
-				_map.put(mapping.getKey(), mapping.getValue());
-			} else {
-				toPutIntoOther.put(mapping.getKey(), ownKnowledge);
+				knowledgeReplaced(x, y, ownKnowledge.getKnowledge(), otherKnowledge.getKnowledge());
+			} else if (ownKnowledge._lastUpdate > otherKnowledge.getLastUpdate()) {
+				// The location is already in the other table, so replacing its bucket does not move any slots.
+				other._buckets[otherSlot] = ownKnowledge;
+				other.knowledgeReplaced(x, y, otherKnowledge.getKnowledge(), ownKnowledge.getKnowledge());
 			}
 		}
-
-		other._map.putAll(toPutIntoOther);
 	}
 }
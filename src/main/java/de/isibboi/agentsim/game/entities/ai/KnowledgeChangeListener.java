@@ -0,0 +1,22 @@
+package de.isibboi.agentsim.game.entities.ai;
+
+/**
+ * Is notified when the knowledge about a location of a {@link KnowledgeMap} changes.
+ * 
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ *
+ * @param <Knowledge> The type of knowledge.
+ */
+public interface KnowledgeChangeListener<Knowledge> {
+	/**
+	 * Called when the knowledge about the given location is replaced by different knowledge.
+	 * The knowledge map may not have stored the new knowledge yet, so only the parameters should be used.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @param oldKnowledge The replaced knowledge, or null if the location was unknown.
+	 * @param newKnowledge The new knowledge.
+	 */
+	void knowledgeChanged(int x, int y, Knowledge oldKnowledge, Knowledge newKnowledge);
+}
@@ -51,6 +51,16 @@ public interface KnowledgeMap<Knowledge> {
 	 */
 	Knowledge getLocationKnowledge(Point location);
 
+	/**
+	 * Returns the knowledge about the specified location.
+	 * If there is no knowledge about the location, null is returned.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return The knowledge about the specified location.
+	 */
+	Knowledge getLocationKnowledge(int x, int y);
+
 	/**
 	 * Returns a set that contains all locations this object has knowledge about. 
 	 * @return A set containing all known locations.
@@ -64,4 +74,19 @@ public interface KnowledgeMap<Knowledge> {
 	 * @return The location of the nearest knowledge.
 	 */
 	Point searchNearestEqualKnowledge(Point location, Knowledge knowledge);
+
+	/**
+	 * Returns the version of this knowledge map. The version is a fingerprint of the knowledge about all locations, ignoring the ages.
+	 * Knowledge maps with the same knowledge have the same version, even if they are different objects.
+	 * 
+	 * @return The version.
+	 */
+	long getVersion();
+
+	/**
+	 * Adds a listener that is notified whenever the knowledge about a location changes.
+	 * 
+	 * @param listener The listener.
+	 */
+	void addKnowledgeChangeListener(KnowledgeChangeListener<Knowledge> listener);
 }
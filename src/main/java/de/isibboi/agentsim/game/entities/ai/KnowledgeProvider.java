@@ -17,6 +17,15 @@ public interface KnowledgeProvider<Knowledge> {
 	 */
 	long getAge();
 
+	/**
+	 * Returns the version of the knowledge about the specified location.
+	 * It is not larger than {@link #getAge()}, and only changes when the knowledge about the location may have changed,
+	 * so equal versions of a location mean equal knowledge.
+	 * @param location The location.
+	 * @return The version of the knowledge about {@code location}.
+	 */
+	long getAge(Point location);
+
 	/**
 	 * Returns the knowledge about the specified location.
 	 * @param location The location.
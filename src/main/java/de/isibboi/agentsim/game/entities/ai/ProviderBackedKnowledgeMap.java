@@ -52,7 +52,7 @@ public class ProviderBackedKnowledgeMap<Knowledge> implements KnowledgeMap<Knowl
 	 * @param location The location.
 	 */
 	public void updateLocation(final Point location) {
-		_knowledgeMap.updateLocation(location, _knowledgeProvider.getKnowledge(location), _knowledgeProvider.getAge());
+		_knowledgeMap.updateLocation(location, _knowledgeProvider.getKnowledge(location), _knowledgeProvider.getAge(location));
 	}
 
 	@Override
@@ -70,6 +70,11 @@ public class ProviderBackedKnowledgeMap<Knowledge> implements KnowledgeMap<Knowl
 		return _knowledgeMap.getLocationKnowledge(location);
 	}
 
+	@Override
+	public Knowledge getLocationKnowledge(final int x, final int y) {
+		return _knowledgeMap.getLocationKnowledge(x, y);
+	}
+
 	@Override
 	public Set<Point> getKnownLocationSet() {
 		return _knowledgeMap.getKnownLocationSet();
@@ -87,4 +92,14 @@ public class ProviderBackedKnowledgeMap<Knowledge> implements KnowledgeMap<Knowl
 	public Point searchNearestEqualKnowledge(final Point location, final Knowledge knowledge) {
 		return _knowledgeMap.searchNearestEqualKnowledge(location, knowledge);
 	}
+
+	@Override
+	public long getVersion() {
+		return _knowledgeMap.getVersion();
+	}
+
+	@Override
+	public void addKnowledgeChangeListener(final KnowledgeChangeListener<Knowledge> listener) {
+		_knowledgeMap.addKnowledgeChangeListener(listener);
+	}
 }
\ No newline at end of file
@@ -35,6 +35,11 @@ public abstract class TaskExecutingAI implements AI {
 	private Task _idleTask;
 	private boolean _firedExecutionFinished;
 
+	/**
+	 * True if a proposal of the tasks was rejected, so that they are aborted on the next update.
+	 */
+	private boolean _proposalRejected;
+
 	/**
 	 * Creates a new object.
 	 */
@@ -48,6 +53,7 @@ public abstract class TaskExecutingAI implements AI {
 	 * If a task finishes during one update cycle, the next is started.
 	 * At most one task is updated during one cycle.
 	 * If a task is finished immediately, it will not use up an update cycle.
+	 * If a proposal of the tasks was rejected since the last update, they are aborted first.
 	 * 
 	 * @param attributes The current attributes of the controlled entity.
 	 * @param random The pseudo random number generator used for randomness.
@@ -56,6 +62,11 @@ public abstract class TaskExecutingAI implements AI {
 	 */
 	@Override
 	public void update(final Attributes attributes, final Random random, final int tick) throws GameUpdateException {
+		if (_proposalRejected) {
+			_proposalRejected = false;
+			abort();
+		}
+
 		if (_currentTask != null) {
 			if (_currentTask.isFinished()) {
 				finishTask(attributes, random, tick);
@@ -138,6 +149,21 @@ public abstract class TaskExecutingAI implements AI {
 		}
 	}
 
+	/**
+	 * The tasks are aborted on the next update instead of now, as new tasks are selected while the entities are updated, not while the proposals are committed.
+	 */
+	@Override
+	public void eventProposalRejected() {
+		_proposalRejected = true;
+	}
+
+	@Override
+	public void eventPathsSolved() {
+		if (_currentTask != null) {
+			_currentTask.eventPathsSolved();
+		}
+	}
+
 	@Override
 	public Movement getMovement() {
 		if (_currentTask == null && _idleTask != null) {
@@ -191,6 +217,14 @@ public abstract class TaskExecutingAI implements AI {
 		return _currentTask != null;
 	}
 
+	/**
+	 * Returns the task that is currently executed, not counting the idle task.
+	 * @return The current task, or null if no task is executed.
+	 */
+	public Task getCurrentTask() {
+		return _currentTask;
+	}
+
 	/**
 	 * Sets the task that should be executed when idling.
 	 * @param task The idle task.
@@ -241,6 +275,32 @@ public abstract class TaskExecutingAI implements AI {
 		return duration;
 	}
 
+	/**
+	 * Informs the currently executing task that new information is available.
+	 * Queued tasks are not informed, as they have not started yet.
+	 */
+	public void informationUpdated() {
+		if (_currentTask != null) {
+			_currentTask.eventInformationUpdated();
+		}
+	}
+
+	/**
+	 * Informs the currently executing task and the queued tasks that the knowledge about the given location changed.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 */
+	public void locationChanged(final int x, final int y) {
+		if (_currentTask != null) {
+			_currentTask.eventLocationChanged(x, y);
+		}
+
+		for (Task task : _taskQueue) {
+			task.eventLocationChanged(x, y);
+		}
+	}
+
 	/**
 	 * Aborts the execution of all tasks.
 	 */
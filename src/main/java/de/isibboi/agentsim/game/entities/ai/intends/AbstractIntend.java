@@ -1,11 +1,5 @@
 package de.isibboi.agentsim.game.entities.ai.intends;
 
-import java.util.Objects;
-
-import de.isibboi.agentsim.game.entities.Goblin;
-import de.isibboi.agentsim.game.entities.ai.tasks.MoveToTask;
-import de.isibboi.agentsim.game.map.Point;
-
 /**
  * Handles priorities and the age of an intend.
  * 
@@ -35,32 +29,4 @@ public abstract class AbstractIntend implements Intend {
 	public int getInformationRecordTime() {
 		return _creationTime;
 	}
-
-	/**
-	 * Returns the path to a point that can be reached from start and that is right next to target.
-	 * 
-	 * @param start The point to start walking from.
-	 * @param target The point to access.
-	 * @param goblin The goblin to move.
-	 * @return The path to a point that can be reached from start and is right next to target, or null, if no such point exists.
-	 */
-	protected MoveToTask searchAccessPoint(final Point start, final Point target, final Goblin goblin) {
-		Objects.requireNonNull(start, "start must not be null!");
-		Objects.requireNonNull(target, "target must not be null!");
-		Objects.requireNonNull(goblin, "goblin must not be null!");
-
-		for (Point neighbour : target.getNeighbours()) {
-			if (goblin.getAI().getBlockadeMap().isBlocked(neighbour)) {
-				continue;
-			}
-
-			MoveToTask path = new MoveToTask(start, neighbour, goblin, goblin.getAI().getBlockadeMap());
-
-			if (path.hasPath()) {
-				return path;
-			}
-		}
-
-		return null;
-	}
-}
\ No newline at end of file
+}
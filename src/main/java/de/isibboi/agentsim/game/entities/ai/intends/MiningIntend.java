@@ -3,7 +3,10 @@ package de.isibboi.agentsim.game.entities.ai.intends;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import de.isibboi.agentsim.algorithm.AccessPath;
+import de.isibboi.agentsim.algorithm.TargetPredicate;
 import de.isibboi.agentsim.game.entities.Goblin;
+import de.isibboi.agentsim.game.entities.ai.KnowledgeMap;
 import de.isibboi.agentsim.game.entities.ai.tasks.LockLocationTask;
 import de.isibboi.agentsim.game.entities.ai.tasks.MiningTask;
 import de.isibboi.agentsim.game.entities.ai.tasks.MoveToTask;
@@ -37,19 +40,25 @@ public class MiningIntend extends AbstractIntend {
 	@Override
 	public CompositeTask execute(final Goblin goblin) {
 		final Point currentPoint = goblin.getLocation();
-		final Point miningPoint = goblin.getAI().getMapKnowledge().searchNearestEqualKnowledge(currentPoint, _material);
-
-		if (miningPoint == null) {
+		final KnowledgeMap<Material> mapKnowledge = goblin.getAI().getMapKnowledge();
+
+		// Locked mining points are skipped. If the goblin was already standing next to one, the lock task would fail without using up a tick,
+		// and the intend would be retried immediately.
+		final AccessPath accessPath = goblin.getEntityLocationManager().getNearestTargetSearch().findNearestAccessPath(currentPoint,
+				goblin.getAI().getBlockadeMap(), new TargetPredicate() {
+					@Override
+					public boolean isTarget(final int x, final int y) {
+						return _material.equals(mapKnowledge.getLocationKnowledge(x, y)) && !goblin.getMap().isLocationLocked(new Point(x, y));
+					}
+				});
+
+		if (accessPath == null) {
 			return null;
 		}
 
+		final Point miningPoint = accessPath.getTarget();
 		final CompositeTask.Builder taskBuilder = new CompositeTask.Builder();
-
-		final MoveToTask movement = searchAccessPoint(currentPoint, miningPoint, goblin);
-
-		if (movement == null) {
-			return null;
-		}
+		final MoveToTask movement = new MoveToTask(currentPoint, accessPath.getAccessPoint(), goblin, goblin.getAI().getBlockadeMap(), accessPath.getPath());
 
 		final LockLocationTask lock = new LockLocationTask(goblin.getMap(), miningPoint, goblin);
 
@@ -16,6 +16,16 @@ public abstract class AbstractTask implements Task {
 		// Ignore.
 	}
 
+	@Override
+	public void eventLocationChanged(final int x, final int y) {
+		// Ignore.
+	}
+
+	@Override
+	public void eventPathsSolved() {
+		// Ignore.
+	}
+
 	@Override
 	public Movement getMovement() {
 		return _movement;
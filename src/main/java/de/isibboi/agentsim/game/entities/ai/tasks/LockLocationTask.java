@@ -1,12 +1,15 @@
 package de.isibboi.agentsim.game.entities.ai.tasks;
 
-import de.isibboi.agentsim.game.entities.Entity;
+import de.isibboi.agentsim.game.entities.MapEntity;
+import de.isibboi.agentsim.game.entities.Proposal;
 import de.isibboi.agentsim.game.map.GameMap;
 import de.isibboi.agentsim.game.map.Point;
 import de.isibboi.agentsim.ui.drawers.TaskDrawingVisitor;
 
 /**
  * A task that locks a location on the map.
+ * The lock is proposed and only taken when the proposals of the entity are committed.
+ * If another entity takes it first in the same tick, the proposal is rejected and the entity gives up its tasks.
  * 
  * @author Sebastian Schmidt
  * @since 0.3.0
@@ -14,7 +17,7 @@ import de.isibboi.agentsim.ui.drawers.TaskDrawingVisitor;
 public class LockLocationTask extends ZeroTimeTask {
 	private final GameMap _map;
 	private final Point _location;
-	private final Entity _entity;
+	private final MapEntity _entity;
 
 	/**
 	 * Locks the given location.
@@ -23,7 +26,7 @@ public class LockLocationTask extends ZeroTimeTask {
 	 * @param location The location to lock.
 	 * @param entity The entity that locks the location.
 	 */
-	public LockLocationTask(final GameMap map, final Point location, final Entity entity) {
+	public LockLocationTask(final GameMap map, final Point location, final MapEntity entity) {
 		_map = map;
 		_location = location;
 		_entity = entity;
@@ -31,7 +34,19 @@ public class LockLocationTask extends ZeroTimeTask {
 
 	@Override
 	public void zeroTimeAction() {
-		setSuccessful(_map.tryLockLocation(_location, _entity));
+		if (_map.isLocationLocked(_location)) {
+			setSuccessful(false);
+			return;
+		}
+
+		_entity.propose(new Proposal() {
+			@Override
+			public boolean commit(final int tick) {
+				return _map.tryLockLocation(_location, _entity);
+			}
+		});
+
+		setSuccessful(true);
 	}
 
 	/**
@@ -54,7 +69,7 @@ public class LockLocationTask extends ZeroTimeTask {
 	 * Returns the entity that locks the location.
 	 * @return The entity that locks the location.
 	 */
-	public Entity getEntity() {
+	public MapEntity getEntity() {
 		return _entity;
 	}
 
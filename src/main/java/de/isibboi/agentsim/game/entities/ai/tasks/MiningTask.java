@@ -6,6 +6,8 @@ import org.apache.logging.log4j.Logger;
 import de.isibboi.agentsim.Environment;
 import de.isibboi.agentsim.game.EntityLocationManager;
 import de.isibboi.agentsim.game.entities.Goblin;
+import de.isibboi.agentsim.game.entities.Proposal;
+import de.isibboi.agentsim.game.map.GameMap;
 import de.isibboi.agentsim.game.map.Material;
 import de.isibboi.agentsim.game.map.Point;
 import de.isibboi.agentsim.ui.drawers.TaskDrawingVisitor;
@@ -28,6 +30,7 @@ public class MiningTask extends MotionlessTimedTask {
 	/**
 	 * Creates a new mining task.
 	 * The mined material is set on creation, and the task is aborted if the material at the mining location changes.
+	 * When the task finishes, the goblin proposes to replace the mined block with air.
 	 * 
 	 * @param miningLocation The location that should be mined.
 	 * @param goblin The goblin that performs the task.
@@ -49,8 +52,17 @@ public class MiningTask extends MotionlessTimedTask {
 
 	@Override
 	protected void eventFinished(final int tick) {
-		_entityLocationManager.getMap().setMaterial(_miningLocation, Environment.MATERIAL_AIR);
-		_goblin.getAI().getMapKnowledge().updateLocation(_miningLocation, Environment.MATERIAL_AIR, tick);
+		_goblin.propose(new Proposal() {
+			@Override
+			public boolean commit(final int tick) {
+				final GameMap map = _entityLocationManager.getMap();
+				map.setMaterial(_miningLocation, Environment.MATERIAL_AIR);
+
+				// Knowledge is stamped with the map ages of the chunks, which are not comparable to ticks.
+				_goblin.getAI().getMapKnowledge().updateLocation(_miningLocation, Environment.MATERIAL_AIR, map.getAge(_miningLocation));
+				return true;
+			}
+		});
 
 		LOG.trace("MiningTask finished: " + _goblin + " mined a " + _minedMaterial + " at " + _miningLocation);
 	}
@@ -1,14 +1,18 @@
 package de.isibboi.agentsim.game.entities.ai.tasks;
 
+import java.util.Arrays;
 import java.util.Queue;
 import java.util.Random;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import de.isibboi.agentsim.algorithm.AStarPathfinder;
 import de.isibboi.agentsim.algorithm.BlockadeMap;
-import de.isibboi.agentsim.algorithm.PathfindingAlgorithm;
+import de.isibboi.agentsim.algorithm.DStarLite;
+import de.isibboi.agentsim.algorithm.LocationIntMap;
+import de.isibboi.agentsim.algorithm.PackedPath;
+import de.isibboi.agentsim.algorithm.PathRequest;
+import de.isibboi.agentsim.algorithm.ReachabilityIndex;
 import de.isibboi.agentsim.game.GameUpdateException;
 import de.isibboi.agentsim.game.entities.MapEntity;
 import de.isibboi.agentsim.game.entities.Movement;
@@ -17,6 +21,12 @@ import de.isibboi.agentsim.ui.drawers.TaskDrawingVisitor;
 
 /**
  * A task that makes an entity move to a specific point.
+ * If the path is not given, it is requested from the {@link de.isibboi.agentsim.algorithm.PathPlanningService} and solved with the next batch.
+ * Until then, the duration is estimated, so the task can be planned without forcing the search.
+ * A task started during the AI phase decides its first movement in {@link #eventPathsSolved()}, after the batch was solved.
+ * If the entity leaves the path or the path turns out to be blocked, the remaining path is repaired with {@link DStarLite}.
+ * Only the locations whose knowledge changed are checked for blockades, so the remaining path is not scanned on every update.
+ * The planner is created on the first repair and reused for all further repairs.
  * 
  * @author Sebastian Schmidt
  * @since 0.3.0
@@ -27,9 +37,47 @@ public class MoveToTask extends AbstractTask {
 	private final Point _start;
 	private final Point _target;
 	private final MapEntity _entity;
+	private final BlockadeMap _blockadeMap;
 
-	private final Queue<Movement> _movementQueue;
-	private final double _totalDuration;
+	private PackedPath _movementQueue;
+	private double _totalDuration;
+
+	/**
+	 * The request for the path, or null if the path is known.
+	 */
+	private PathRequest _pathRequest;
+
+	/**
+	 * True if the task was updated while the path was still requested, so the movement has to be polled once the path is solved.
+	 */
+	private boolean _movementPending;
+
+	/**
+	 * The location the entity is at if all movements so far were executed.
+	 */
+	private Point _expectedLocation;
+	private boolean _started;
+	private boolean _failed;
+	private DStarLite _replanner;
+
+	/**
+	 * The coordinates of the locations whose knowledge changed since the last check. Only the first {@link #_changedLocationCount} entries are used.
+	 */
+	private int[] _changedX = new int[4];
+	private int[] _changedY = new int[4];
+	private int _changedLocationCount;
+
+	/**
+	 * Maps the locations of the path to the amount of movements that lead there.
+	 * It is built when it is first needed and cleared when the path is replaced.
+	 */
+	private final LocationIntMap _pathSteps = new LocationIntMap(0);
+	private boolean _pathStepsBuilt;
+
+	/**
+	 * The amount of movements that were taken since the path steps were built.
+	 */
+	private int _stepsTaken;
 
 	/**
 	 * Creates an new task that moves the given Entity to the given target.
@@ -40,18 +88,107 @@ public class MoveToTask extends AbstractTask {
 	 * @param blockadeMap The map of obstacles as seen by the entity.
 	 */
 	public MoveToTask(final Point start, final Point target, final MapEntity entity, final BlockadeMap blockadeMap) {
+		this(start, target, entity, blockadeMap, null, requestPath(start, target, entity, blockadeMap));
+	}
+
+	/**
+	 * Creates an new task that moves the given Entity along a path that was computed beforehand.
+	 * 
+	 * @param start The starting point on the map.
+	 * @param target The target point on the map.
+	 * @param entity The entity to move.
+	 * @param blockadeMap The map of obstacles as seen by the entity. Used to repair the path.
+	 * @param path The movements leading from start to target, or null if there is no path.
+	 */
+	public MoveToTask(final Point start, final Point target, final MapEntity entity, final BlockadeMap blockadeMap, final Queue<Movement> path) {
+		this(start, target, entity, blockadeMap, path, null);
+	}
+
+	/**
+	 * Creates an new task that moves the given Entity along a given or requested path.
+	 * 
+	 * @param start The starting point on the map.
+	 * @param target The target point on the map.
+	 * @param entity The entity to move.
+	 * @param blockadeMap The map of obstacles as seen by the entity. Used to repair the path.
+	 * @param path The movements leading from start to target, or null if there is no path or it was requested.
+	 * @param pathRequest The request for the path, or null if the path is given.
+	 */
+	private MoveToTask(final Point start, final Point target, final MapEntity entity, final BlockadeMap blockadeMap, final Queue<Movement> path,
+			final PathRequest pathRequest) {
 		_start = start;
 		_target = target;
 		_entity = entity;
+		_blockadeMap = blockadeMap;
+		_movementQueue = toPackedPath(path);
+		_pathRequest = pathRequest;
+		_expectedLocation = start;
 
-		PathfindingAlgorithm pathfinder = new AStarPathfinder();
-		_movementQueue = pathfinder.findPath(_start, _target, blockadeMap);
+		if (_movementQueue != null) {
+			_totalDuration = _movementQueue.size();
+		} else if (_pathRequest == null) {
+			LOG.trace("Could not find a valid path.");
+			_totalDuration = 0;
+		}
+	}
+
+	/**
+	 * Requests a path from the path planning service of the entity location manager.
+	 * If the blockade map is a {@link ReachabilityIndex}, unreachable targets are rejected without requesting a path.
+	 * 
+	 * @param start The starting point on the map.
+	 * @param target The target point on the map.
+	 * @param entity The entity to move.
+	 * @param blockadeMap The map of obstacles as seen by the entity.
+	 * @return The request, or null if there is no path.
+	 */
+	private static PathRequest requestPath(final Point start, final Point target, final MapEntity entity, final BlockadeMap blockadeMap) {
+		if (blockadeMap instanceof ReachabilityIndex && !((ReachabilityIndex) blockadeMap).isReachable(start, target)) {
+			return null;
+		}
+
+		return entity.getEntityLocationManager().getPathPlanningService().submit(start, target, blockadeMap);
+	}
+
+	/**
+	 * Converts the given path to a packed path. Packed paths are taken over without copying.
+	 * @param path The path, or null.
+	 * @return The packed path, or null if the path is null.
+	 */
+	private static PackedPath toPackedPath(final Queue<Movement> path) {
+		if (path == null || path instanceof PackedPath) {
+			return (PackedPath) path;
+		}
+
+		return new PackedPath(path);
+	}
+
+	/**
+	 * Takes the path from the path request, if the request is solved. Does nothing if the path is known.
+	 */
+	private void takeSolvedPath() {
+		if (_pathRequest != null && _pathRequest.isSolved()) {
+			resolvePath();
+		}
+	}
+
+	/**
+	 * Takes the path from the path request, solving it if necessary. Does nothing if the path is known.
+	 */
+	private void resolvePath() {
+		if (_pathRequest == null) {
+			return;
+		}
+
+		_movementQueue = toPackedPath(_pathRequest.getPath());
+		_pathRequest = null;
 
 		if (_movementQueue != null) {
 			_totalDuration = _movementQueue.size();
 		} else {
 			LOG.trace("Could not find a valid path.");
 			_totalDuration = 0;
+			_failed = true;
 		}
 	}
 
@@ -61,20 +198,79 @@ public class MoveToTask extends AbstractTask {
 			throw new IllegalStateException("Cannot update finished task!");
 		}
 
-		if (_movementQueue.size() == _totalDuration && !_entity.getLocation().equals(_start)) {
-			throw new IllegalStateException("MoveToTask started, but entity is not at starting position!");
+		if (!_started) {
+			if (!_entity.getLocation().equals(_start)) {
+				throw new IllegalStateException("MoveToTask started, but entity is not at starting position!");
+			}
+
+			_started = true;
 		}
 
-		setMovement(_movementQueue.poll());
+		if (_pathRequest != null) {
+			_movementPending = true;
+			return;
+		}
+
+		pollMovement();
+	}
+
+	/**
+	 * Takes the next movement from the path. If there is none because the requested path turned out to be empty or missing, the entity stays.
+	 */
+	private void pollMovement() {
+		_movementPending = false;
+		resolvePath();
+
+		final Movement movement;
+
+		if (_failed || _movementQueue.isEmpty()) {
+			movement = Movement.NONE;
+		} else {
+			movement = _movementQueue.poll();
+			_stepsTaken++;
+		}
+
+		_expectedLocation = movement.move(_entity.getLocation());
+		setMovement(movement);
+	}
+
+	/**
+	 * Polls the first movement if the task was updated while the path was still requested.
+	 * If the request was submitted after the last batch, it is solved now.
+	 */
+	@Override
+	public void eventPathsSolved() {
+		if (_movementPending) {
+			pollMovement();
+		}
 	}
 
 	@Override
 	public boolean isFinished() {
-		return _movementQueue.isEmpty();
+		if (_pathRequest != null) {
+			return false;
+		}
+
+		return _failed || _movementQueue.isEmpty();
 	}
 
+	/**
+	 * Returns the length of the remaining path.
+	 * While the requested path is not solved, the Manhattan distance from start to target is returned instead,
+	 * which the path only exceeds by its detours.
+	 */
 	@Override
 	public int guessDuration() {
+		takeSolvedPath();
+
+		if (_pathRequest != null) {
+			return _start.manhattanDistance(_target);
+		}
+
+		if (_failed || _movementQueue == null) {
+			return 0;
+		}
+
 		return _movementQueue.size();
 	}
 
@@ -83,13 +279,133 @@ public class MoveToTask extends AbstractTask {
 		// Ignore.
 	}
 
+	/**
+	 * Remembers the location, if it might lie on the remaining path.
+	 */
+	@Override
+	public void eventLocationChanged(final int x, final int y) {
+		if (_failed) {
+			return;
+		}
+
+		// While the path is requested, it is unknown which locations are on it.
+		if (_movementQueue == null || isOnRemainingPath(x, y)) {
+			if (_changedLocationCount == _changedX.length) {
+				_changedX = Arrays.copyOf(_changedX, 2 * _changedLocationCount);
+				_changedY = Arrays.copyOf(_changedY, 2 * _changedLocationCount);
+			}
+
+			_changedX[_changedLocationCount] = x;
+			_changedY[_changedLocationCount] = y;
+			_changedLocationCount++;
+		}
+	}
+
+	/**
+	 * Repairs the remaining path if the entity is not where it should be, or if the remaining path is blocked according to the blockade map.
+	 * If there is no path anymore, the task fails.
+	 */
 	@Override
 	public void eventInformationUpdated() {
-		// Ignore.
+		if (!_started || _failed || _pathRequest != null || _movementQueue == null) {
+			return;
+		}
+
+		final Point location = _entity.getLocation();
+		final int blockedLocationCount = collectBlockedPathLocations();
+
+		if (location.equals(_expectedLocation) && blockedLocationCount == 0) {
+			return;
+		}
+
+		if (_replanner == null) {
+			_replanner = new DStarLite(_target, _blockadeMap, _entity.getMap().getWidth(), _entity.getMap().getHeight());
+		} else {
+			for (int i = 0; i < blockedLocationCount; i++) {
+				_replanner.locationChanged(_changedX[i], _changedY[i]);
+			}
+		}
+
+		final Queue<Movement> path = _replanner.findPath(location);
+
+		if (path == null) {
+			LOG.trace("Could not repair path from " + location + " to " + _target + ".");
+			_failed = true;
+			return;
+		}
+
+		_movementQueue = toPackedPath(path);
+		_pathSteps.clear();
+		_pathStepsBuilt = false;
+		_totalDuration = path.size();
+		_expectedLocation = location;
+	}
+
+	/**
+	 * Moves the changed locations of the remaining path that are blocked, excluding the target, to the front of the changed locations,
+	 * and forgets the changed locations.
+	 * @return The amount of blocked locations, which are kept at the front of the changed locations until the next check.
+	 */
+	private int collectBlockedPathLocations() {
+		int result = 0;
+
+		for (int i = 0; i < _changedLocationCount; i++) {
+			final int x = _changedX[i];
+			final int y = _changedY[i];
+
+			if (isOnRemainingPath(x, y) && _blockadeMap.isBlocked(x, y)) {
+				_changedX[result] = x;
+				_changedY[result] = y;
+				result++;
+			}
+		}
+
+		_changedLocationCount = 0;
+		return result;
+	}
+
+	/**
+	 * Returns true if the given location lies on the remaining path, excluding the location the entity is expected at and the target,
+	 * which is allowed to be blocked.
+	 * The path must be known.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @return True if the location lies on the remaining path.
+	 */
+	private boolean isOnRemainingPath(final int x, final int y) {
+		if (!_pathStepsBuilt) {
+			buildPathSteps();
+		}
+
+		// Unmapped locations get step zero, which is never on the remaining path.
+		final int step = _pathSteps.get(x, y);
+		return step > _stepsTaken && step < _stepsTaken + _movementQueue.size();
+	}
+
+	/**
+	 * Maps the locations of the remaining path to the amount of movements that lead there from the expected location.
+	 */
+	private void buildPathSteps() {
+		_pathStepsBuilt = true;
+		_stepsTaken = 0;
+		int x = _expectedLocation.getX();
+		int y = _expectedLocation.getY();
+
+		for (int i = 0; i < _movementQueue.size(); i++) {
+			final int direction = _movementQueue.getDirection(i);
+			x += PackedPath.getDirectionX(direction);
+			y += PackedPath.getDirectionY(direction);
+			_pathSteps.put(x, y, i + 1);
+		}
 	}
 
 	@Override
 	public boolean wasSuccessful() {
+		if (_failed) {
+			return false;
+		}
+
 		boolean result = _entity.getLocation().equals(_target);
 
 		if (!result) {
@@ -102,6 +418,13 @@ public class MoveToTask extends AbstractTask {
 
 	@Override
 	public double getProgress() {
+		takeSolvedPath();
+
+		// No movement was taken while the path is requested.
+		if (_pathRequest != null) {
+			return 1;
+		}
+
 		if (_totalDuration == 0) {
 			return 1;
 		}
@@ -110,13 +433,15 @@ public class MoveToTask extends AbstractTask {
 	}
 
 	/**
-	 * Returns true if a path from start to target was found.
+	 * Returns false if it is known that there is no path from start to target.
 	 * If this method returns false, the {@code MoveToTask} has no use.
+	 * A requested path is not solved by this method, so the request is still solved in parallel with others.
 	 * 
-	 * @return True if a path from start to target was found, false otherwise.
+	 * @return False if there is no path, true if there is or might be a path.
 	 */
-	public boolean hasPath() {
-		return _movementQueue != null;
+	public boolean mayHavePath() {
+		takeSolvedPath();
+		return _pathRequest != null || _movementQueue != null;
 	}
 
 	/**
@@ -137,9 +462,9 @@ public class MoveToTask extends AbstractTask {
 
 	/**
 	 * Returns the movement queue. Do not change!
-	 * @return The movement queue.
+	 * @return The movement queue, or null while the requested path is not solved.
 	 */
-	public Queue<Movement> getMovementQueue() {
+	public PackedPath getMovementQueue() {
 		return _movementQueue;
 	}
 
@@ -49,10 +49,26 @@ public interface Task extends Updateable, Visitable<Task, TaskDrawingVisitor> {
 
 	/**
 	 * Called when there is new information available that could make the task impossible.
-	 * No task optimizations should happen here, the task is static after creation.
+	 * Tasks may repair the way they reach their result here, but the result itself is static after creation.
 	 */
 	void eventInformationUpdated();
 
+	/**
+	 * Called when the knowledge about the given location changed.
+	 * Tasks can collect these locations to check only them when {@link #eventInformationUpdated()} is called.
+	 * The knowledge may not be stored yet, so it should not be evaluated here.
+	 * 
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 */
+	void eventLocationChanged(int x, int y);
+
+	/**
+	 * Called after the paths requested during the update were solved, before the movement is retrieved.
+	 * Tasks whose movement depends on a requested path decide it here.
+	 */
+	void eventPathsSolved();
+
 	/**
 	 * Only to be used by {@link ZeroTimeTask}s.
 	 * Must define if the task was completed successful.
@@ -1,12 +1,14 @@
 package de.isibboi.agentsim.game.entities.ai.tasks;
 
-import de.isibboi.agentsim.game.entities.Entity;
+import de.isibboi.agentsim.game.entities.MapEntity;
+import de.isibboi.agentsim.game.entities.Proposal;
 import de.isibboi.agentsim.game.map.GameMap;
 import de.isibboi.agentsim.game.map.Point;
 import de.isibboi.agentsim.ui.drawers.TaskDrawingVisitor;
 
 /**
  * A task that unlocks a location on the map.
+ * The unlock is proposed and applied when the proposals of the entity are committed.
  * 
  * @author Sebastian Schmidt
  * @since 0.3.0
@@ -15,7 +17,7 @@ import de.isibboi.agentsim.ui.drawers.TaskDrawingVisitor;
 public class UnlockLocationTask extends ZeroTimeTask {
 	private final GameMap _map;
 	private final Point _location;
-	private final Entity _entity;
+	private final MapEntity _entity;
 
 	/**
 	 * Creates a task that unlocks the location locked by the given {@code LockLocationTask}.
@@ -29,7 +31,14 @@ public class UnlockLocationTask extends ZeroTimeTask {
 
 	@Override
 	public void zeroTimeAction() {
-		_map.unlockLocation(_location, _entity);
+		_entity.propose(new Proposal() {
+			@Override
+			public boolean commit(final int tick) {
+				_map.unlockLocation(_location, _entity);
+				return true;
+			}
+		});
+
 		setSuccessful(true);
 	}
 
@@ -0,0 +1,23 @@
+package de.isibboi.agentsim.game.map;
+
+/**
+ * Provides the initial materials of the chunks of a {@link GameMap}.
+ * Unmodified chunks are discarded when too many chunks are loaded and requested again when they are needed,
+ * so a chunk source has to provide the same materials every time the same chunk is requested.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public interface ChunkSource {
+	/**
+	 * Writes the material ids of the given area into the given array.
+	 * The id of location {@code (minX + i, minY + j)} is written to index {@code j * MapChunk.SIZE + i}.
+	 *
+	 * @param minX The x coordinate of the first location of the area.
+	 * @param minY The y coordinate of the first location of the area.
+	 * @param width The width of the area, at most {@link MapChunk#SIZE}.
+	 * @param height The height of the area, at most {@link MapChunk#SIZE}.
+	 * @param materialIds Receives the material ids.
+	 */
+	void generateChunk(int minX, int minY, int width, int height, byte[] materialIds);
+}
@@ -1,7 +1,11 @@
 package de.isibboi.agentsim.game.map;
 
 import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -9,24 +13,83 @@ import org.apache.logging.log4j.Logger;
 import de.isibboi.agentsim.Environment;
 import de.isibboi.agentsim.Settings;
 import de.isibboi.agentsim.algorithm.LockManager;
+import de.isibboi.agentsim.algorithm.RowBlockadeMap;
 import de.isibboi.agentsim.game.entities.Drawable;
 import de.isibboi.agentsim.game.entities.Entity;
 import de.isibboi.agentsim.game.entities.ai.KnowledgeProvider;
 
 /**
  * Represents the game map.
+ * The map is divided into {@link MapChunk}s, which are created from a {@link ChunkSource} when they are first accessed.
+ * Each chunk stores the palette ids of its materials, a row of solid bits per row of locations, and its image, which is only a render target.
+ * If more chunks are loaded than allowed by the settings, unmodified chunks that were not used recently are discarded,
+ * as the chunk source can provide them again. Modified chunks are kept.
+ * So the memory usage is proportional to the area that is accessed, and not to the size of the map.
+ * Each chunk remembers the age of the map at its last modification, which is the version of the knowledge about its locations.
+ *
+ * Chunks may be loaded by any thread. Modifying the map is not thread safe.
  * @author Sebastian Schmidt
  * @since 0.0.0
  */
-public class GameMap implements Drawable, KnowledgeProvider<Material> {
+public class GameMap implements Drawable, KnowledgeProvider<Material>, RowBlockadeMap {
+	/**
+	 * Loads chunks, splitting the work in halves until a single chunk is left.
+	 */
+	private class ChunkLoader extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final List<Integer> _indices;
+
+		/**
+		 * Creates a new chunk loader.
+		 * @param indices The indices of the chunks to load.
+		 */
+		ChunkLoader(final List<Integer> indices) {
+			_indices = indices;
+		}
+
+		@Override
+		protected void compute() {
+			if (_indices.size() <= 1) {
+				for (int index : _indices) {
+					if (_chunks[index] == null) {
+						loadChunk(index);
+					}
+				}
+
+				return;
+			}
+
+			final int middle = _indices.size() / 2;
+			invokeAll(new ChunkLoader(_indices.subList(0, middle)), new ChunkLoader(_indices.subList(middle, _indices.size())));
+		}
+	}
+
 	@SuppressWarnings("unused")
 	private static final Logger LOG = LogManager.getLogger(GameMap.class);
 
-	private final BufferedImage _map;
+	private final int _width;
+	private final int _height;
+	private final int _chunksX;
+	private final ChunkSource _chunkSource;
 	private final MaterialFactory _materialFactory = Environment.MATERIAL_FACTORY;
 
+	/**
+	 * The loaded chunks, indexed by {@code chunkY * chunksX + chunkX}. Null if a chunk is not loaded.
+	 */
+	private final MapChunk[] _chunks;
+	private final List<MapChunk> _loadedChunks = new ArrayList<>();
+	private final int _loadedChunkLimit;
+
+	/**
+	 * The position of the eviction in {@link #_loadedChunks}.
+	 */
+	private int _evictionHand = 0;
+
 	private final Point _spawnPoint;
 	private final LockManager<Point, Entity> _lockManager = new LockManager<>();
+	private final List<MapChangeListener> _mapChangeListeners = new ArrayList<>();
+	private final MapChangeJournal _changeJournal;
 
 	/**
 	 * The age of the map. That is the total amount of modifications made to the map.
@@ -34,20 +97,163 @@ public class GameMap implements Drawable, KnowledgeProvider<Material> {
 	private long _age = 1; // Needs to be one for knowledge maps to work.
 
 	/**
-	 * Creates the map from the given image.
+	 * Creates a map whose chunks are provided by the given chunk source.
 	 * 
-	 * @param image The map image.
+	 * @param width The width of the map.
+	 * @param height The height of the map.
+	 * @param chunkSource The chunk source.
 	 * @param spawnPoint The spawn point.
 	 * @param settings The settings.
 	 */
-	public GameMap(final BufferedImage image, final Point spawnPoint, final Settings settings) {
-		_map = image;
+	public GameMap(final int width, final int height, final ChunkSource chunkSource, final Point spawnPoint, final Settings settings) {
+		_width = width;
+		_height = height;
+		_chunksX = (width + MapChunk.SIZE - 1) >> MapChunk.SIZE_BITS;
+		_chunks = new MapChunk[_chunksX * ((height + MapChunk.SIZE - 1) >> MapChunk.SIZE_BITS)];
+		_chunkSource = chunkSource;
+		_loadedChunkLimit = settings.getInt(Settings.GAME_MAP_LOADED_CHUNK_LIMIT);
+		_changeJournal = new MapChangeJournal(settings.getInt(Settings.GAME_MAP_CHANGE_JOURNAL_SIZE), _materialFactory);
 		_spawnPoint = spawnPoint;
 	}
 
+	/**
+	 * Draws all chunks that intersect the clip of the graphics object. Chunks that are not loaded are loaded first.
+	 */
 	@Override
 	public void draw(final Graphics2D g, final double transition) {
-		g.drawImage(_map, 0, 0, null);
+		final Rectangle clip = g.getClipBounds();
+		int minX = 0;
+		int minY = 0;
+		int maxX = _width - 1;
+		int maxY = _height - 1;
+
+		if (clip != null) {
+			minX = Math.max(minX, clip.x);
+			minY = Math.max(minY, clip.y);
+			maxX = Math.min(maxX, clip.x + clip.width - 1);
+			maxY = Math.min(maxY, clip.y + clip.height - 1);
+		}
+
+		for (int chunkY = minY >> MapChunk.SIZE_BITS; chunkY <= maxY >> MapChunk.SIZE_BITS; chunkY++) {
+			for (int chunkX = minX >> MapChunk.SIZE_BITS; chunkX <= maxX >> MapChunk.SIZE_BITS; chunkX++) {
+				final MapChunk chunk = getChunk(chunkX << MapChunk.SIZE_BITS, chunkY << MapChunk.SIZE_BITS);
+				g.drawImage(chunk.getImage(), chunk.getMinX(), chunk.getMinY(), null);
+			}
+		}
+	}
+
+	/**
+	 * Returns the chunk containing the given location, and loads it if necessary.
+	 * @param x The x coordinate. Must be on the map.
+	 * @param y The y coordinate. Must be on the map.
+	 * @return The chunk.
+	 */
+	private MapChunk getChunk(final int x, final int y) {
+		final int index = (y >> MapChunk.SIZE_BITS) * _chunksX + (x >> MapChunk.SIZE_BITS);
+		MapChunk chunk = _chunks[index];
+
+		if (chunk == null) {
+			chunk = loadChunk(index);
+		}
+
+		chunk.markReferenced();
+		return chunk;
+	}
+
+	/**
+	 * Loads the chunk with the given index, if no other thread did so in the meantime.
+	 * The chunk is generated outside of the lock, so that several threads can generate chunks at once.
+	 * @param index The index of the chunk.
+	 * @return The chunk.
+	 */
+	private MapChunk loadChunk(final int index) {
+		final int minX = (index % _chunksX) << MapChunk.SIZE_BITS;
+		final int minY = (index / _chunksX) << MapChunk.SIZE_BITS;
+		final MapChunk generated = new MapChunk(index, minX, minY, Math.min(MapChunk.SIZE, _width - minX), Math.min(MapChunk.SIZE, _height - minY), _chunkSource,
+				_materialFactory);
+
+		synchronized (this) {
+			final MapChunk chunk = _chunks[index];
+
+			if (chunk != null) {
+				return chunk;
+			}
+
+			evictChunks();
+			_chunks[index] = generated;
+			_loadedChunks.add(generated);
+			return generated;
+		}
+	}
+
+	/**
+	 * Loads all chunks that intersect the given area, using the given pool to generate them in parallel.
+	 * The area should not contain more chunks than may be loaded at once.
+	 *
+	 * @param area The area.
+	 * @param pool The pool, or null to load the chunks on the calling thread.
+	 */
+	public void loadChunks(final Rectangle area, final ForkJoinPool pool) {
+		final Rectangle clipped = area.intersection(new Rectangle(0, 0, _width, _height));
+
+		if (clipped.isEmpty()) {
+			return;
+		}
+
+		final List<Integer> indices = new ArrayList<>();
+
+		for (int chunkY = clipped.y >> MapChunk.SIZE_BITS; chunkY <= (clipped.y + clipped.height - 1) >> MapChunk.SIZE_BITS; chunkY++) {
+			for (int chunkX = clipped.x >> MapChunk.SIZE_BITS; chunkX <= (clipped.x + clipped.width - 1) >> MapChunk.SIZE_BITS; chunkX++) {
+				final int index = chunkY * _chunksX + chunkX;
+
+				if (_chunks[index] == null) {
+					indices.add(index);
+				}
+			}
+		}
+
+		if (pool == null) {
+			for (int index : indices) {
+				loadChunk(index);
+			}
+		} else {
+			pool.invoke(new ChunkLoader(indices));
+		}
+	}
+
+	/**
+	 * Discards unmodified chunks until a chunk can be loaded without exceeding the limit.
+	 * Chunks that were used since the last pass are skipped once, like in a clock page replacement.
+	 * If all chunks are modified, the limit is exceeded.
+	 */
+	private void evictChunks() {
+		int remainingSteps = 2 * _loadedChunks.size();
+
+		while (_loadedChunks.size() >= _loadedChunkLimit && remainingSteps > 0) {
+			remainingSteps--;
+
+			if (_evictionHand >= _loadedChunks.size()) {
+				_evictionHand = 0;
+			}
+
+			final MapChunk chunk = _loadedChunks.get(_evictionHand);
+
+			if (chunk.isModified() || chunk.clearReferenced()) {
+				_evictionHand++;
+			} else {
+				_chunks[chunk.getIndex()] = null;
+				_loadedChunks.set(_evictionHand, _loadedChunks.get(_loadedChunks.size() - 1));
+				_loadedChunks.remove(_loadedChunks.size() - 1);
+			}
+		}
+	}
+
+	/**
+	 * Returns the amount of chunks that are currently loaded.
+	 * @return The amount of loaded chunks.
+	 */
+	public synchronized int getLoadedChunkCount() {
+		return _loadedChunks.size();
 	}
 
 	/**
@@ -57,11 +263,11 @@ public class GameMap implements Drawable, KnowledgeProvider<Material> {
 	 * @return True if the given location is valid for an entity.
 	 */
 	public boolean isValidEntityLocation(final int x, final int y) {
-		if (x < 0 || y < 0 || x >= _map.getWidth() || y >= _map.getHeight()) {
+		if (x < 0 || y < 0 || x >= _width || y >= _height) {
 			return false;
 		}
 
-		return !_materialFactory.getMaterial(_map.getRGB(x, y)).isSolid();
+		return (getChunk(x, y).getSolidRow(y & (MapChunk.SIZE - 1)) & 1L << (x & (MapChunk.SIZE - 1))) == 0;
 	}
 
 	/**
@@ -80,7 +286,18 @@ public class GameMap implements Drawable, KnowledgeProvider<Material> {
 	 * @return The material
 	 */
 	public Material getMaterialAt(final Point location) {
-		return _materialFactory.getMaterial(_map.getRGB(location.getX(), location.getY()));
+		return getMaterialAt(location.getX(), location.getY());
+	}
+
+	/**
+	 * Returns the material at the given location.
+	 * 
+	 * @param x The x coordinate. Must be on the map.
+	 * @param y The y coordinate. Must be on the map.
+	 * @return The material
+	 */
+	public Material getMaterialAt(final int x, final int y) {
+		return getChunk(x, y).getMaterial(x & (MapChunk.SIZE - 1), y & (MapChunk.SIZE - 1));
 	}
 
 	/**
@@ -126,8 +343,35 @@ public class GameMap implements Drawable, KnowledgeProvider<Material> {
 	 * @param material The material.
 	 */
 	public void setMaterial(final Point location, final Material material) {
-		_map.setRGB(location.getX(), location.getY(), material.getColor());
+		final int x = location.getX() & (MapChunk.SIZE - 1);
+		final int y = location.getY() & (MapChunk.SIZE - 1);
+		final MapChunk chunk = getChunk(location.getX(), location.getY());
+		final Material oldMaterial = chunk.getMaterial(x, y);
+
 		_age++;
+		chunk.setMaterial(x, y, material, _age);
+		_changeJournal.record(location.getX(), location.getY(), oldMaterial, material, _age);
+
+		for (MapChangeListener listener : _mapChangeListeners) {
+			listener.materialChanged(location, material);
+		}
+	}
+
+	/**
+	 * Returns the journal of the recent changes made by {@link #setMaterial(Point, Material)}.
+	 * Consumers that check for changes from time to time should read it with their own cursor.
+	 * @return The change journal.
+	 */
+	public MapChangeJournal getChangeJournal() {
+		return _changeJournal;
+	}
+
+	/**
+	 * Adds a listener that is notified whenever {@link #setMaterial(Point, Material)} is called.
+	 * @param listener The listener.
+	 */
+	public void addMapChangeListener(final MapChangeListener listener) {
+		_mapChangeListeners.add(listener);
 	}
 
 	/**
@@ -136,7 +380,7 @@ public class GameMap implements Drawable, KnowledgeProvider<Material> {
 	 * @return True if {@code location} is on the map.
 	 */
 	public boolean isLocationOnMap(final Point location) {
-		return location.getX() >= 0 && location.getY() >= 0 && location.getX() < _map.getWidth() && location.getY() < _map.getHeight();
+		return location.getX() >= 0 && location.getY() >= 0 && location.getX() < _width && location.getY() < _height;
 	}
 
 	/**
@@ -159,16 +403,27 @@ public class GameMap implements Drawable, KnowledgeProvider<Material> {
 	 * Returns the width of the map.
 	 * @return The width of the map.
 	 */
+	@Override
 	public int getWidth() {
-		return _map.getWidth();
+		return _width;
 	}
 
 	/**
 	 * Returns the height of the map.
 	 * @return The height of the map.
 	 */
+	@Override
 	public int getHeight() {
-		return _map.getHeight();
+		return _height;
+	}
+
+	/**
+	 * Returns the age of the map after the last modification of the chunk containing the given location.
+	 * Knowledge about locations of chunks that were not modified never gets older.
+	 */
+	@Override
+	public long getAge(final Point location) {
+		return getChunk(location.getX(), location.getY()).getModificationAge();
 	}
 
 	@Override
@@ -176,6 +431,60 @@ public class GameMap implements Drawable, KnowledgeProvider<Material> {
 		return getMaterialAt(location);
 	}
 
+	@Override
+	public boolean isBlocked(final Point location) {
+		return !isValidEntityLocation(location);
+	}
+
+	@Override
+	public boolean isBlocked(final int x, final int y) {
+		return !isValidEntityLocation(x, y);
+	}
+
+	@Override
+	public long getRowBits(final int x, final int y) {
+		if (y < 0 || y >= _height) {
+			return -1L;
+		}
+
+		final int chunkX = x >> MapChunk.SIZE_BITS;
+		final int offset = x & (MapChunk.SIZE - 1);
+		final long first = getSolidRow(chunkX, y);
+
+		if (offset == 0) {
+			return first;
+		}
+
+		return first >>> offset | getSolidRow(chunkX + 1, y) << (MapChunk.SIZE - offset);
+	}
+
+	/**
+	 * Returns the solid bits of a row of a chunk.
+	 * @param chunkX The x coordinate of the chunk. May be outside of the map.
+	 * @param y The y coordinate of the row. Must be on the map.
+	 * @return The solid bits, or all bits set if the chunk is outside of the map.
+	 */
+	private long getSolidRow(final int chunkX, final int y) {
+		if (chunkX < 0 || chunkX >= _chunksX) {
+			return -1L;
+		}
+
+		final int index = (y >> MapChunk.SIZE_BITS) * _chunksX + chunkX;
+		MapChunk chunk = _chunks[index];
+
+		if (chunk == null) {
+			chunk = loadChunk(index);
+		}
+
+		chunk.markReferenced();
+		return chunk.getSolidRow(y & (MapChunk.SIZE - 1));
+	}
+
+	@Override
+	public long getVersion() {
+		return _age;
+	}
+
 	@Override
 	public int getDrawPriority() {
 		return -10;
@@ -0,0 +1,196 @@
+package de.isibboi.agentsim.game.map;
+
+/**
+ * Records the material changes of a {@link GameMap} in a ring buffer, so that consumers can read exactly the changes since they last looked,
+ * instead of scanning the map or being called for every change.
+ * Each consumer reads the journal with its own {@link Cursor}. The journal keeps only the most recent changes,
+ * and a cursor that falls behind by more than the capacity of the journal reports that it missed changes.
+ *
+ * The entries are stored in primitive arrays. Objects of this class are not thread safe, like modifications of the map.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public final class MapChangeJournal {
+	/**
+	 * Reads the changes of a journal in the order they were made.
+	 * Each call of {@link #next()} moves to the next change, whose values are then returned by the getters.
+	 */
+	public final class Cursor {
+		private long _position;
+		private int _current = -1;
+
+		/**
+		 * Creates a cursor that starts behind the last recorded change.
+		 */
+		private Cursor() {
+			_position = _size;
+		}
+
+		/**
+		 * Returns true if changes were overwritten before this cursor read them.
+		 * The consumer then needs to rescan the map and call {@link #skipToEnd()}.
+		 * @return True if changes were missed.
+		 */
+		public boolean hasMissedChanges() {
+			return _size - _position > _capacity;
+		}
+
+		/**
+		 * Returns the amount of changes that this cursor has not read yet.
+		 * @return The amount of unread changes.
+		 */
+		public long getUnreadCount() {
+			return _size - _position;
+		}
+
+		/**
+		 * Moves to the next change.
+		 * @return True if there is a next change, false if all changes were read.
+		 * @throws IllegalStateException If the next change was already overwritten.
+		 */
+		public boolean next() {
+			if (hasMissedChanges()) {
+				throw new IllegalStateException("Changes were overwritten before they were read!");
+			}
+
+			if (_position == _size) {
+				_current = -1;
+				return false;
+			}
+
+			_current = (int) (_position & _mask);
+			_position++;
+			return true;
+		}
+
+		/**
+		 * Skips all changes recorded so far, so that the next call of {@link #next()} returns the first later change.
+		 */
+		public void skipToEnd() {
+			_position = _size;
+			_current = -1;
+		}
+
+		/**
+		 * Returns the x coordinate of the changed location.
+		 * @return The x coordinate.
+		 */
+		public int getX() {
+			return _xs[getCurrent()];
+		}
+
+		/**
+		 * Returns the y coordinate of the changed location.
+		 * @return The y coordinate.
+		 */
+		public int getY() {
+			return _ys[getCurrent()];
+		}
+
+		/**
+		 * Returns the material of the location before the change.
+		 * @return The old material.
+		 */
+		public Material getOldMaterial() {
+			return _materialFactory.getMaterialById(_oldMaterialIds[getCurrent()] & 0xff);
+		}
+
+		/**
+		 * Returns the material of the location after the change.
+		 * @return The new material.
+		 */
+		public Material getNewMaterial() {
+			return _materialFactory.getMaterialById(_newMaterialIds[getCurrent()] & 0xff);
+		}
+
+		/**
+		 * Returns the age of the map right after the change.
+		 * @return The age.
+		 */
+		public long getAge() {
+			return _ages[getCurrent()];
+		}
+
+		/**
+		 * Returns the index of the current change in the ring buffer.
+		 * @return The index.
+		 */
+		private int getCurrent() {
+			if (_current == -1) {
+				throw new IllegalStateException("The cursor is not at a change!");
+			}
+
+			return _current;
+		}
+	}
+
+	private final MaterialFactory _materialFactory;
+	private final int _capacity;
+	private final long _mask;
+
+	private final int[] _xs;
+	private final int[] _ys;
+	private final byte[] _oldMaterialIds;
+	private final byte[] _newMaterialIds;
+	private final long[] _ages;
+
+	/**
+	 * The total amount of changes that were recorded.
+	 */
+	private long _size = 0;
+
+	/**
+	 * Creates a new journal.
+	 * @param capacity The amount of changes that are kept. Is rounded up to a power of two.
+	 * @param materialFactory The material factory the material ids belong to.
+	 */
+	public MapChangeJournal(final int capacity, final MaterialFactory materialFactory) {
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+		}
+
+		_materialFactory = materialFactory;
+		_capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		_mask = _capacity - 1;
+		_xs = new int[_capacity];
+		_ys = new int[_capacity];
+		_oldMaterialIds = new byte[_capacity];
+		_newMaterialIds = new byte[_capacity];
+		_ages = new long[_capacity];
+	}
+
+	/**
+	 * Records a change, overwriting the oldest change if the journal is full.
+	 * @param x The x coordinate of the location.
+	 * @param y The y coordinate of the location.
+	 * @param oldMaterial The material before the change.
+	 * @param newMaterial The material after the change.
+	 * @param age The age of the map after the change.
+	 */
+	public void record(final int x, final int y, final Material oldMaterial, final Material newMaterial, final long age) {
+		final int index = (int) (_size & _mask);
+		_xs[index] = x;
+		_ys[index] = y;
+		_oldMaterialIds[index] = (byte) oldMaterial.getId();
+		_newMaterialIds[index] = (byte) newMaterial.getId();
+		_ages[index] = age;
+		_size++;
+	}
+
+	/**
+	 * Creates a cursor that reads the changes recorded from now on.
+	 * @return The cursor.
+	 */
+	public Cursor createCursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Returns the amount of changes that are kept.
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		return _capacity;
+	}
+}
@@ -0,0 +1,16 @@
+package de.isibboi.agentsim.game.map;
+
+/**
+ * Is notified when the material of a location of a {@link GameMap} changes.
+ * 
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public interface MapChangeListener {
+	/**
+	 * Called after the material at the given location was changed.
+	 * @param location The location.
+	 * @param material The new material.
+	 */
+	void materialChanged(Point location, Material material);
+}
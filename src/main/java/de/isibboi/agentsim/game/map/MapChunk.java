@@ -0,0 +1,196 @@
+package de.isibboi.agentsim.game.map;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A square area of a {@link GameMap}. Stores the material ids, one row of solid bits per row of locations, and the image of the area.
+ * Locations of a chunk that lie outside of the map are solid.
+ *
+ * The arrays are filled in the constructor and only referenced by final fields,
+ * so a chunk can be read by other threads without synchronization once it is published.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public final class MapChunk {
+	/**
+	 * The binary logarithm of the width and height of a chunk.
+	 */
+	public static final int SIZE_BITS = 6;
+
+	/**
+	 * The width and height of a chunk. Equals the amount of bits of a {@code long}, so that each row of solid bits is one word.
+	 */
+	public static final int SIZE = 1 << SIZE_BITS;
+
+	private final int _index;
+	private final int _minX;
+	private final int _minY;
+	private final byte[] _materialIds = new byte[SIZE * SIZE];
+	private final long[] _solidRows = new long[SIZE];
+	private final BufferedImage _image;
+	private final MaterialFactory _materialFactory;
+
+	private volatile boolean _modified = false;
+
+	/**
+	 * The age of the map after the last modification of this chunk, or one if it was not modified.
+	 */
+	private volatile long _modificationAge = 1;
+
+	/**
+	 * Set on every access and cleared by the eviction, so that recently used chunks are not evicted.
+	 */
+	private boolean _referenced = true;
+
+	/**
+	 * Creates a chunk and requests its materials from the chunk source.
+	 *
+	 * @param index The index of the chunk in the chunk table of the map.
+	 * @param minX The x coordinate of the first location of the chunk.
+	 * @param minY The y coordinate of the first location of the chunk.
+	 * @param width The amount of columns of the chunk that lie on the map.
+	 * @param height The amount of rows of the chunk that lie on the map.
+	 * @param source The chunk source.
+	 * @param materialFactory The material factory the ids belong to.
+	 */
+	MapChunk(final int index, final int minX, final int minY, final int width, final int height, final ChunkSource source, final MaterialFactory materialFactory) {
+		_index = index;
+		_minX = minX;
+		_minY = minY;
+		_materialFactory = materialFactory;
+		_image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+		source.generateChunk(minX, minY, width, height, _materialIds);
+
+		final long outside = width == SIZE ? 0 : -1L << width;
+
+		for (int y = 0; y < SIZE; y++) {
+			if (y >= height) {
+				_solidRows[y] = -1L;
+				continue;
+			}
+
+			long solid = outside;
+
+			for (int x = 0; x < width; x++) {
+				final Material material = getMaterial(x, y);
+				_image.setRGB(x, y, material.getColor());
+
+				if (material.isSolid()) {
+					solid |= 1L << x;
+				}
+			}
+
+			_solidRows[y] = solid;
+		}
+	}
+
+	/**
+	 * Returns the material at the given location of the chunk.
+	 * @param x The x coordinate, relative to the chunk.
+	 * @param y The y coordinate, relative to the chunk.
+	 * @return The material.
+	 */
+	Material getMaterial(final int x, final int y) {
+		return _materialFactory.getMaterialById(_materialIds[y << SIZE_BITS | x] & 0xff);
+	}
+
+	/**
+	 * Sets the material at the given location of the chunk and marks the chunk as modified.
+	 * @param x The x coordinate, relative to the chunk.
+	 * @param y The y coordinate, relative to the chunk.
+	 * @param material The material.
+	 * @param age The age of the map after the modification.
+	 */
+	void setMaterial(final int x, final int y, final Material material, final long age) {
+		_materialIds[y << SIZE_BITS | x] = (byte) material.getId();
+		_image.setRGB(x, y, material.getColor());
+
+		if (material.isSolid()) {
+			_solidRows[y] |= 1L << x;
+		} else {
+			_solidRows[y] &= ~(1L << x);
+		}
+
+		_modificationAge = age;
+		_modified = true;
+	}
+
+	/**
+	 * Returns the age of the map after the last modification of this chunk.
+	 * @return The modification age, or one if the chunk was not modified.
+	 */
+	long getModificationAge() {
+		return _modificationAge;
+	}
+
+	/**
+	 * Returns the solid bits of a row of the chunk. Bit {@code i} is set if the location in column {@code i} is solid.
+	 * @param y The y coordinate of the row, relative to the chunk.
+	 * @return The solid bits.
+	 */
+	long getSolidRow(final int y) {
+		return _solidRows[y];
+	}
+
+	/**
+	 * Returns the image of the chunk.
+	 * @return The image.
+	 */
+	BufferedImage getImage() {
+		return _image;
+	}
+
+	/**
+	 * Returns the index of the chunk in the chunk table of the map.
+	 * @return The index.
+	 */
+	int getIndex() {
+		return _index;
+	}
+
+	/**
+	 * Returns the x coordinate of the first location of the chunk.
+	 * @return The x coordinate.
+	 */
+	int getMinX() {
+		return _minX;
+	}
+
+	/**
+	 * Returns the y coordinate of the first location of the chunk.
+	 * @return The y coordinate.
+	 */
+	int getMinY() {
+		return _minY;
+	}
+
+	/**
+	 * Returns true if a material of the chunk was changed. Modified chunks cannot be provided by the chunk source again.
+	 * @return True if the chunk was modified.
+	 */
+	boolean isModified() {
+		return _modified;
+	}
+
+	/**
+	 * Marks the chunk as recently used.
+	 */
+	void markReferenced() {
+		// Only written if necessary, as chunks are read far more often than they are evicted.
+		if (!_referenced) {
+			_referenced = true;
+		}
+	}
+
+	/**
+	 * Clears the recently used mark.
+	 * @return True if the chunk was marked as recently used.
+	 */
+	boolean clearReferenced() {
+		final boolean referenced = _referenced;
+		_referenced = false;
+		return referenced;
+	}
+}
@@ -0,0 +1,195 @@
+package de.isibboi.agentsim.game.map;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import de.isibboi.agentsim.Environment;
+import de.isibboi.agentsim.Settings;
+
+/**
+ * Saves game maps to and loads them from binary files.
+ * A map file consists of a header with the size and the spawn point, the material palette as colors, and one palette index per location, row by row.
+ *
+ * Files are read and written through memory mappings. Loading a map only reads the header and the palette,
+ * and the chunks of the loaded map read their locations from the mapping when they are accessed,
+ * so large maps open right away and only the accessed part is read from disk. The file is only mapped for reading,
+ * so several processes can share it.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public final class MapFile {
+	/**
+	 * Provides the chunks of a map from a mapped map file.
+	 */
+	private static final class MappedChunkSource implements ChunkSource {
+		private final ByteBuffer _buffer;
+		private final int _width;
+		private final int _cellOffset;
+
+		/**
+		 * Translates the palette indices of the file to material ids.
+		 */
+		private final byte[] _materialIds;
+
+		/**
+		 * Creates a new chunk source.
+		 * @param buffer The mapped file.
+		 * @param width The width of the map.
+		 * @param cellOffset The offset of the first location in the file.
+		 * @param materialIds The material ids of the palette entries of the file.
+		 */
+		MappedChunkSource(final ByteBuffer buffer, final int width, final int cellOffset, final byte[] materialIds) {
+			_buffer = buffer;
+			_width = width;
+			_cellOffset = cellOffset;
+			_materialIds = materialIds;
+		}
+
+		@Override
+		public void generateChunk(final int minX, final int minY, final int width, final int height, final byte[] materialIds) {
+			for (int y = 0; y < height; y++) {
+				final int row = _cellOffset + (minY + y) * _width + minX;
+
+				for (int x = 0; x < width; x++) {
+					// Only absolute reads, so the buffer can be shared between threads.
+					materialIds[y * MapChunk.SIZE + x] = _materialIds[_buffer.get(row + x) & 0xff];
+				}
+			}
+		}
+	}
+
+	/**
+	 * The first four bytes of a map file, "AGSM".
+	 */
+	private static final int MAGIC = 0x4147534d;
+	private static final int VERSION = 1;
+
+	/**
+	 * The size of the header in bytes: magic, version, width, height and the spawn point.
+	 */
+	private static final int HEADER_SIZE = 6 * 4;
+
+	/**
+	 * Unused.
+	 */
+	private MapFile() {
+	}
+
+	/**
+	 * Saves the given map. The file is written next to the target and then moved over it,
+	 * so a map that is loaded from the target file can be saved to it.
+	 *
+	 * @param map The map.
+	 * @param file The file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void save(final GameMap map, final File file) throws IOException {
+		final Material[] palette = Environment.MATERIAL_FACTORY.getAllMaterials().toArray(new Material[0]);
+		final int cellOffset = HEADER_SIZE + 4 + palette.length * 4;
+		final long size = cellOffset + (long) map.getWidth() * map.getHeight();
+
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("Map is too large to be saved: " + map.getWidth() + "x" + map.getHeight());
+		}
+
+		final File temporaryFile = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+
+		try (RandomAccessFile out = new RandomAccessFile(temporaryFile, "rw"); FileChannel channel = out.getChannel()) {
+			out.setLength(size);
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+			buffer.putInt(map.getWidth());
+			buffer.putInt(map.getHeight());
+			buffer.putInt(map.getSpawnPoint().getX());
+			buffer.putInt(map.getSpawnPoint().getY());
+			buffer.putInt(palette.length);
+
+			for (Material material : palette) {
+				buffer.putInt(material.getColor());
+			}
+
+			// Chunk by chunk, so that every chunk is loaded at most once.
+			for (int minY = 0; minY < map.getHeight(); minY += MapChunk.SIZE) {
+				for (int minX = 0; minX < map.getWidth(); minX += MapChunk.SIZE) {
+					for (int y = minY; y < Math.min(minY + MapChunk.SIZE, map.getHeight()); y++) {
+						for (int x = minX; x < Math.min(minX + MapChunk.SIZE, map.getWidth()); x++) {
+							buffer.put(cellOffset + y * map.getWidth() + x, (byte) map.getMaterialAt(x, y).getId());
+						}
+					}
+				}
+			}
+
+			buffer.force();
+		}
+
+		Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Loads a map. The locations are read from the file when their chunks are accessed, so the file must not be changed while the map is used.
+	 *
+	 * @param file The file.
+	 * @param settings The settings.
+	 * @return The map.
+	 * @throws IOException If the file cannot be read or is not a valid map file.
+	 */
+	public static GameMap load(final File file, final Settings settings) throws IOException {
+		final MappedByteBuffer buffer;
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Map file is too large: " + file);
+			}
+
+			// The mapping stays valid after the channel is closed.
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.remaining() < HEADER_SIZE + 4 || buffer.getInt() != MAGIC) {
+			throw new IOException("Not a map file: " + file);
+		}
+
+		final int version = buffer.getInt();
+
+		if (version != VERSION) {
+			throw new IOException("Unsupported map file version " + version + ": " + file);
+		}
+
+		final int width = buffer.getInt();
+		final int height = buffer.getInt();
+		final Point spawnPoint = new Point(buffer.getInt(), buffer.getInt());
+		final int paletteSize = buffer.getInt();
+
+		if (width <= 0 || height <= 0 || paletteSize < 0 || paletteSize > MaterialFactory.MAX_MATERIAL_COUNT || buffer.remaining() < paletteSize * 4) {
+			throw new IOException("Corrupt map file header: " + file);
+		}
+
+		final byte[] materialIds = new byte[MaterialFactory.MAX_MATERIAL_COUNT];
+
+		for (int i = 0; i < paletteSize; i++) {
+			final int color = buffer.getInt();
+
+			try {
+				materialIds[i] = (byte) Environment.MATERIAL_FACTORY.getMaterial(color).getId();
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Unknown material color " + Integer.toHexString(color) + ": " + file, e);
+			}
+		}
+
+		if (buffer.remaining() != (long) width * height) {
+			throw new IOException("Map file has the wrong size: " + file);
+		}
+
+		return new GameMap(width, height, new MappedChunkSource(buffer, width, buffer.position(), materialIds), spawnPoint, settings);
+	}
+}
@@ -1,8 +1,11 @@
 package de.isibboi.agentsim.game.map;
 
-import java.awt.image.BufferedImage;
+import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,44 +21,142 @@ import de.isibboi.agentsim.game.map.GenerationParameters.GenerationType;
 
 /**
  * Generates the game map.
+ * The materials are derived from a density noise, so they can be generated chunk by chunk in any order,
+ * and chunks that are generated again are equal to the first generation.
+ *
+ * The noise is sampled row by row. The spawn point search and the chunks that are loaded initially are computed in parallel.
+ * The spawn point is the result of a reduction that breaks ties in scan order, so the map only depends on the seed and the size, and not on the amount of threads.
  * @author Sebastian Schmidt
  * @since 0.0.0
  */
-public class MapGenerator {
+public class MapGenerator implements ChunkSource {
+	/**
+	 * The location with the lowest density in a band of rows.
+	 */
+	private static final class DensityMinimum {
+		private final double _density;
+		private final int _x;
+		private final int _y;
+
+		/**
+		 * Creates a new density minimum.
+		 * @param density The density.
+		 * @param x The x coordinate.
+		 * @param y The y coordinate.
+		 */
+		DensityMinimum(final double density, final int x, final int y) {
+			_density = density;
+			_x = x;
+			_y = y;
+		}
+
+		/**
+		 * Returns if this minimum is preferred over the given one. Ties are broken by the column-major order the spawn point was always searched in,
+		 * so the leftmost location wins, and the topmost of a column.
+		 * @param other The other minimum.
+		 * @return True if this minimum has a lower density, or the same density and comes first in column-major order.
+		 */
+		boolean isBefore(final DensityMinimum other) {
+			if (_density != other._density) {
+				return _density < other._density;
+			}
+
+			return _x < other._x || _x == other._x && _y < other._y;
+		}
+	}
+
+	/**
+	 * Searches the location with the lowest density in a band of rows, splitting the band in halves until it is small enough.
+	 */
+	private final class DensityMinimumSearch extends RecursiveTask<DensityMinimum> {
+		private static final long serialVersionUID = 1L;
+
+		private final int _minX;
+		private final int _maxX;
+		private final int _minY;
+		private final int _maxY;
+
+		/**
+		 * Creates a new search.
+		 * @param minX The first column.
+		 * @param maxX The column after the last column.
+		 * @param minY The first row.
+		 * @param maxY The row after the last row.
+		 */
+		DensityMinimumSearch(final int minX, final int maxX, final int minY, final int maxY) {
+			_minX = minX;
+			_maxX = maxX;
+			_minY = minY;
+			_maxY = maxY;
+		}
+
+		@Override
+		protected DensityMinimum compute() {
+			if (_maxY - _minY <= SPAWN_SEARCH_ROWS_PER_TASK) {
+				return searchRows(_minX, _maxX, _minY, _maxY);
+			}
+
+			final int middle = (_minY + _maxY) >>> 1;
+			final DensityMinimumSearch bottom = new DensityMinimumSearch(_minX, _maxX, middle, _maxY);
+			bottom.fork();
+			final DensityMinimum top = new DensityMinimumSearch(_minX, _maxX, _minY, middle).compute();
+			final DensityMinimum bottomResult = bottom.join();
+
+			return bottomResult.isBefore(top) ? bottomResult : top;
+		}
+	}
+
+	/**
+	 * The spawn point is searched in a square of at most this size in the center of the map, so that large maps need not be sampled completely.
+	 */
+	private static final int SPAWN_SEARCH_SIZE = 2048;
+
+	/**
+	 * The amount of rows that the spawn point search scans without splitting further.
+	 */
+	private static final int SPAWN_SEARCH_ROWS_PER_TASK = 64;
+
 	private final Logger _log = LogManager.getLogger(getClass());
 
 	private final int _width;
 	private final int _height;
+	private final Noise _noise;
+	private final MaterialRangeTable _materialRangeTable;
 	
 	private final Settings _settings;
 
 	/**
-	 * Creates a new map generator, generating a map with the given settings.
+	 * Creates a new map generator, generating a map with the size given by the settings.
 	 * 
 	 * @param settings The settings
+	 * @param seed The seed of the game.
 	 */
-	public MapGenerator(final Settings settings) {
-		_width = settings.getInt(Settings.UI_WIDTH) / settings.getInt(Settings.GAME_SCALE);
-		_height = settings.getInt(Settings.UI_HEIGHT) / settings.getInt(Settings.GAME_SCALE);
-		_settings = settings;
+	public MapGenerator(final Settings settings, final long seed) {
+		this(settings.getInt(Settings.UI_WIDTH) / settings.getInt(Settings.GAME_SCALE), settings.getInt(Settings.UI_HEIGHT) / settings.getInt(Settings.GAME_SCALE),
+				seed, settings);
 	}
 
 	/**
-	 * Generates the density map. That is the map that decides, which stone type to use. Lower density means air, higher density means various types of dense stone.
-	 * The point with the lowest density will be the spawn point.
+	 * Creates a new map generator, generating a map of the given size.
+	 * Generators with the same size and seed generate the same map.
 	 * 
-	 * @param image The image to draw on.
-	 * @return The spawn point.
+	 * @param width The width of the map.
+	 * @param height The height of the map.
+	 * @param seed The seed of the noise functions.
+	 * @param settings The settings
 	 */
-	private Point generateDensityMap(final BufferedImage image) {
-		CombinedNoise noise = new CombinedNoise(new Noise[] {
-				new ScaledNoise(new SimplexNoise(), 200 * _width / 1920, 200 * _height / 1080, 20, 256),
-				new ScaledNoise(new SimplexNoise(), 110 * _width / 1920, 110 * _height / 1080, 110, 190),
+	public MapGenerator(final int width, final int height, final long seed, final Settings settings) {
+		_width = width;
+		_height = height;
+		_settings = settings;
+
+		Random random = new Random(seed);
+		_noise = new CombinedNoise(new Noise[] {
+				new ScaledNoise(new SimplexNoise(random.nextLong()), 200 * _width / 1920, 200 * _height / 1080, 20, 256),
+				new ScaledNoise(new SimplexNoise(random.nextLong()), 110 * _width / 1920, 110 * _height / 1080, 110, 190),
 				new BorderFunction(_width, _height, -1500 * (_width + _height) / 4000, 3) });
 
-		Collection<Material> materials = new ArrayList<>();
-		Point.Builder spawnPoint = new Point.Builder();
-		double minimalDensity = 1e100;
+		final Collection<Material> materials = new ArrayList<>();
 
 		for (Material material : Environment.MATERIAL_FACTORY.getAllMaterials()) {
 			if (material.getGenerationParameters().getGenerationType() == GenerationType.DENSITY_MAP) {
@@ -63,44 +164,121 @@ public class MapGenerator {
 			}
 		}
 
-		for (int x = 0; x < image.getWidth(); x++) {
-			for (int y = 0; y < image.getHeight(); y++) {
-				final double sample = noise.noise(x, y);
+		_materialRangeTable = new MaterialRangeTable(materials);
+	}
 
-				// Search lowest density for the spawn point.
-				if (sample < minimalDensity) {
-					minimalDensity = sample;
-					spawnPoint.setX(x);
-					spawnPoint.setY(y);
-				}
+	/**
+	 * Searches the location with the lowest density. Lower density means air, higher density means various types of dense stone.
+	 * 
+	 * @param pool The pool to search with, or null to search on the calling thread.
+	 * @return The spawn point.
+	 */
+	private Point findSpawnPoint(final ForkJoinPool pool) {
+		final int minX = Math.max(0, (_width - SPAWN_SEARCH_SIZE) / 2);
+		final int minY = Math.max(0, (_height - SPAWN_SEARCH_SIZE) / 2);
+		final int maxX = Math.min(_width, minX + SPAWN_SEARCH_SIZE);
+		final int maxY = Math.min(_height, minY + SPAWN_SEARCH_SIZE);
 
-				boolean foundMaterial = false;
+		final DensityMinimum minimum;
 
-				for (Material material : materials) {
-					if (material.inRange(sample)) {
-						image.setRGB(x, y, material.getColor());
-						foundMaterial = true;
-						break;
-					}
-				}
+		if (pool == null) {
+			minimum = searchRows(minX, maxX, minY, maxY);
+		} else {
+			minimum = pool.invoke(new DensityMinimumSearch(minX, maxX, minY, maxY));
+		}
 
-				if (!foundMaterial) {
-					_log.error("Missing material for density sample value: " + sample);
+		return new Point(minimum._x, minimum._y);
+	}
+
+	/**
+	 * Searches the location with the lowest density in the given rows. The rows are sampled one after another,
+	 * but ties are broken in column-major order, see {@link DensityMinimum#isBefore(DensityMinimum)}.
+	 * @param minX The first column.
+	 * @param maxX The column after the last column.
+	 * @param minY The first row.
+	 * @param maxY The row after the last row.
+	 * @return The first location with the lowest density in column-major order.
+	 */
+	private DensityMinimum searchRows(final int minX, final int maxX, final int minY, final int maxY) {
+		final double[] samples = new double[maxX - minX];
+		double minimalDensity = 1e100;
+		int spawnX = 0;
+		int spawnY = 0;
+
+		for (int y = minY; y < maxY; y++) {
+			_noise.fillRow(minX, y, 1, samples.length, samples);
+
+			for (int x = 0; x < samples.length; x++) {
+				// Earlier rows of the same column were visited already, so on a tie only a column further left wins.
+				if (samples[x] < minimalDensity || samples[x] == minimalDensity && minX + x < spawnX) {
+					minimalDensity = samples[x];
+					spawnX = minX + x;
+					spawnY = y;
 				}
 			}
 		}
 
-		return spawnPoint.build();
+		return new DensityMinimum(minimalDensity, spawnX, spawnY);
+	}
+
+	/**
+	 * Generates the density map of a chunk. That is the map that decides, which stone type to use.
+	 */
+	@Override
+	public void generateChunk(final int minX, final int minY, final int width, final int height, final byte[] materialIds) {
+		final double[] samples = new double[width];
+
+		for (int y = 0; y < height; y++) {
+			_noise.fillRow(minX, minY + y, 1, width, samples);
+
+			for (int x = 0; x < width; x++) {
+				final int materialId = _materialRangeTable.getMaterialId(samples[x]);
+
+				if (materialId == MaterialRangeTable.NO_MATERIAL) {
+					_log.error("Missing material for density sample value: " + samples[x]);
+				} else {
+					materialIds[y * MapChunk.SIZE + x] = (byte) materialId;
+				}
+			}
+		}
 	}
 
 	/**
-	 * Generates a new map.
+	 * Generates a new map. Its chunks are generated when they are accessed,
+	 * except for the chunks around the spawn point, which are generated in parallel right away.
 	 * @return A newly generated map.
 	 */
 	public GameMap generateMap() {
-		BufferedImage map = new BufferedImage(_width, _height, BufferedImage.TYPE_INT_RGB);
-		Point spawnPoint = generateDensityMap(map);
+		final int threadCount = _settings.getInt(Settings.CORE_MAP_GENERATION_THREAD_COUNT);
+		final ForkJoinPool pool = threadCount > 1 ? new ForkJoinPool(threadCount) : null;
+
+		try {
+			final Point spawnPoint = findSpawnPoint(pool);
+			final GameMap map = new GameMap(_width, _height, this, spawnPoint, _settings);
+			map.loadChunks(getInitialArea(spawnPoint), pool);
+			return map;
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Returns the area around the spawn point that is loaded right away. It contains at most as many chunks as may be loaded at once.
+	 * @param spawnPoint The spawn point.
+	 * @return The area.
+	 */
+	private Rectangle getInitialArea(final Point spawnPoint) {
+		final int chunkLimit = _settings.getInt(Settings.GAME_MAP_LOADED_CHUNK_LIMIT);
+		final long chunkCount = (long) ((_width + MapChunk.SIZE - 1) >> MapChunk.SIZE_BITS) * ((_height + MapChunk.SIZE - 1) >> MapChunk.SIZE_BITS);
+
+		if (chunkCount <= chunkLimit) {
+			return new Rectangle(0, 0, _width, _height);
+		}
 
-		return new GameMap(map, spawnPoint, _settings);
+		// The area may overlap one more chunk than its size in chunks in each direction.
+		final int size = Math.max(0, (int) Math.sqrt(chunkLimit) - 1) << MapChunk.SIZE_BITS;
+		return new Rectangle(spawnPoint.getX() - size / 2, spawnPoint.getY() - size / 2, size, size);
 	}
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ package de.isibboi.agentsim.game.map;
  * @since 0.0.0
  */
 public class Material {
+	private final int _id;
 	private final String _name;
 	private final int _color;
 	private final boolean _solid;
@@ -15,13 +16,15 @@ public class Material {
 
 	/**
 	 * Creates a new Material.
+	 * @param id The index of the material in the palette of its factory.
 	 * @param name The name.
 	 * @param color The color.
 	 * @param solid True if the material should block entities.
 	 * @param durability The durability. The higher the longer it takes to mine the material.
 	 * @param generationParameters The parameters defining where the material should be generated.
 	 */
-	Material(final String name, final int color, final boolean solid, final int durability, final GenerationParameters generationParameters) {
+	Material(final int id, final String name, final int color, final boolean solid, final int durability, final GenerationParameters generationParameters) {
+		_id = id;
 		_name = name;
 		_color = color;
 		_solid = solid;
@@ -29,6 +32,14 @@ public class Material {
 		_generationParameters = generationParameters;
 	}
 
+	/**
+	 * Returns the id of the material. That is its index in the palette of the {@link MaterialFactory} that created it.
+	 * @return The id of the material.
+	 */
+	public int getId() {
+		return _id;
+	}
+
 	/**
 	 * Returns the name of the material.
 	 * @return The name of the material.
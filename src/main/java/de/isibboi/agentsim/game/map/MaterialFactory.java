@@ -1,17 +1,26 @@
 package de.isibboi.agentsim.game.map;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * The material factory manages all materials. Materials have to have a unique color.
+ * Every material gets an id, which is its index in the palette of this factory. Maps store these ids instead of the materials.
  * 
  * @author Sebastian Schmidt
  * @since 0.0.0
  */
 public class MaterialFactory {
+	/**
+	 * The maximum amount of materials, so that ids fit into a byte.
+	 */
+	public static final int MAX_MATERIAL_COUNT = 256;
+
 	private final Map<Integer, Material> _colorToMaterial = new HashMap<>();
+	private Material[] _palette = new Material[0];
 	
 	/**
 	 * Adds a new material.
@@ -27,9 +36,15 @@ public class MaterialFactory {
 		if (_colorToMaterial.containsKey(color)) {
 			throw new IllegalArgumentException("Map already contains a material with color: " + color);
 		}
+
+		if (_palette.length == MAX_MATERIAL_COUNT) {
+			throw new IllegalStateException("Cannot add more than " + MAX_MATERIAL_COUNT + " materials.");
+		}
 		
-		Material added = new Material(name, color, solid, durability, generationParameters);
+		Material added = new Material(_palette.length, name, color, solid, durability, generationParameters);
 		_colorToMaterial.put(color, added);
+		_palette = Arrays.copyOf(_palette, _palette.length + 1);
+		_palette[added.getId()] = added;
 		return added;
 	}
 	
@@ -51,10 +66,19 @@ public class MaterialFactory {
 	}
 	
 	/**
-	 * Returns a {@code Collection} of all materials.
+	 * Returns the material with the given id.
+	 * @param id The id, as returned by {@link Material#getId()}.
+	 * @return The material with the given id.
+	 */
+	public Material getMaterialById(final int id) {
+		return _palette[id];
+	}
+
+	/**
+	 * Returns a {@code Collection} of all materials, ordered by their ids.
 	 * @return All materials.
 	 */
 	public Collection<Material> getAllMaterials() {
-		return _colorToMaterial.values();
+		return Collections.unmodifiableList(Arrays.asList(_palette));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package de.isibboi.agentsim.game.map;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Maps density samples to the ids of the materials whose generation range contains them.
+ * The limits of all ranges split the samples into intervals, and each interval is assigned the first material whose range contains it,
+ * so a sample is looked up with a binary search instead of testing every material.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public final class MaterialRangeTable {
+	/**
+	 * Returned for samples that no material range contains.
+	 */
+	public static final int NO_MATERIAL = -1;
+
+	/**
+	 * The lower limits of the intervals, in ascending order. Each interval ends at the next limit.
+	 */
+	private final double[] _limits;
+
+	/**
+	 * The material ids of the intervals, or {@link #NO_MATERIAL}.
+	 */
+	private final int[] _materialIds;
+
+	/**
+	 * Creates the table for the given materials.
+	 * @param materials The materials, in the order in which their ranges are checked.
+	 */
+	public MaterialRangeTable(final Collection<Material> materials) {
+		final TreeSet<Double> limits = new TreeSet<>();
+
+		for (Material material : materials) {
+			limits.add(material.getGenerationParameters().getMin());
+			limits.add(material.getGenerationParameters().getMax());
+		}
+
+		_limits = new double[limits.size()];
+		_materialIds = new int[limits.size()];
+		int i = 0;
+
+		for (double limit : limits) {
+			_limits[i] = limit;
+			_materialIds[i] = NO_MATERIAL;
+
+			// Every limit is an interval border, so the interval lies in a range if its lower limit does.
+			for (Material material : materials) {
+				if (material.inRange(limit)) {
+					_materialIds[i] = material.getId();
+					break;
+				}
+			}
+
+			i++;
+		}
+	}
+
+	/**
+	 * Returns the id of the material whose range contains the sample.
+	 * @param sample The sample.
+	 * @return The id of the first given material whose range contains the sample, or {@link #NO_MATERIAL}.
+	 */
+	public int getMaterialId(final double sample) {
+		int index = Arrays.binarySearch(_limits, sample);
+
+		if (index < 0) {
+			// The insertion point is the first limit that is larger than the sample.
+			index = -index - 2;
+		}
+
+		if (index < 0) {
+			return NO_MATERIAL;
+		}
+
+		return _materialIds[index];
+	}
+}
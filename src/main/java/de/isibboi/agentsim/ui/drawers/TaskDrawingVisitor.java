@@ -2,16 +2,14 @@ package de.isibboi.agentsim.ui.drawers;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
-import java.util.Queue;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import de.isibboi.agentsim.algorithm.PackedPath;
 import de.isibboi.agentsim.game.entities.MapEntity;
-import de.isibboi.agentsim.game.entities.Movement;
 import de.isibboi.agentsim.game.entities.ai.tasks.MoveToTask;
 import de.isibboi.agentsim.game.entities.ai.tasks.Task;
-import de.isibboi.agentsim.game.map.Point;
 
 /**
  * A visitor that draws tasks.
@@ -37,16 +35,22 @@ public class TaskDrawingVisitor implements Visitor<Task> {
 	public void visit(final MoveToTask moveToTask) {
 		LOG.trace("Drawing the path of " + moveToTask);
 
-		Queue<Movement> movementQueue = moveToTask.getMovementQueue();
+		PackedPath path = moveToTask.getMovementQueue();
 		MapEntity entity = moveToTask.getEntity();
 
-		Point current = entity.getLocation();
-		Color color = new Color(200, 250, 50, 127);
+		if (path == null) {
+			return;
+		}
+
+		int x = entity.getLocation().getX();
+		int y = entity.getLocation().getY();
+		_g.setColor(new Color(200, 250, 50, 127));
 
-		for (Movement movement : movementQueue) {
-			current = movement.move(current);
-			_g.setColor(color);
-			_g.fillRect(current.getX(), current.getY(), 1, 1);
+		for (int i = 0; i < path.size(); i++) {
+			final int direction = path.getDirection(i);
+			x += PackedPath.getDirectionX(direction);
+			y += PackedPath.getDirectionY(direction);
+			_g.fillRect(x, y, 1, 1);
 		}
 	}
 
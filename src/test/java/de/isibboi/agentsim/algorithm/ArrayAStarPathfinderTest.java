@@ -0,0 +1,72 @@
+package de.isibboi.agentsim.algorithm;
+
+import static de.isibboi.agentsim.algorithm.PathAssert.assertPathLeadsTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Queue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the array based A* pathfinder.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class ArrayAStarPathfinderTest {
+	private ArrayAStarPathfinder _pathfinder;
+	private BlockadeMap _map;
+
+	/**
+	 * Creates the path finder.
+	 */
+	@Before
+	public void setUp() {
+		_pathfinder = new ArrayAStarPathfinder(5, 5);
+		_map = new BooleanBlockadeMap(new boolean[][] {
+				{ false, true, false, false, false },
+				{ false, false, false, true, false },
+				{ true, true, false, true, false },
+				{ false, true, false, true, false },
+				{ false, true, false, false, false } });
+	}
+
+	/**
+	 * Tests if null is returned if there is not path from start to target.
+	 */
+	@Test
+	public void testUnreachable() {
+		Queue<Movement> path = _pathfinder.findPath(new Point(3, 0), new Point(4, 4), _map);
+		assertNull("Path is not null.", path);
+	}
+
+	/**
+	 * Checks if the algorithm finds the shortest path.
+	 */
+	@Test
+	public void testShortestPath() {
+		Queue<Movement> path = _pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		assertNotNull("Path is null.", path);
+		assertEquals("Path is not the shortest one.", 8, path.size());
+		assertPathLeadsTo(new Point(0, 0), new Point(4, 4), path);
+	}
+
+	/**
+	 * Checks if the reused arrays do not leak state from one search into the next.
+	 */
+	@Test
+	public void testRepeatedSearches() {
+		for (int i = 0; i < 3; i++) {
+			assertNull("Path is not null.", _pathfinder.findPath(new Point(3, 0), new Point(4, 4), _map));
+			assertEquals("Path is not the shortest one.", 8, _pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map).size());
+			assertEquals("Path is not the shortest one.", 6, _pathfinder.findPath(new Point(4, 4), new Point(1, 1), _map).size());
+			assertEquals("Path to start is not empty.", 0, _pathfinder.findPath(new Point(2, 2), new Point(2, 2), _map).size());
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package de.isibboi.agentsim.algorithm;
+
+import static de.isibboi.agentsim.algorithm.PathAssert.assertPathLeadsTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Queue;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the bidirectional A* pathfinder.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class BidirectionalAStarPathfinderTest {
+	private BidirectionalAStarPathfinder _pathfinder;
+	private BlockadeMap _map;
+
+	/**
+	 * Creates the path finder.
+	 */
+	@Before
+	public void setUp() {
+		_pathfinder = new BidirectionalAStarPathfinder(5, 5);
+		_map = new BooleanBlockadeMap(new boolean[][] {
+				{ false, true, false, false, false },
+				{ false, false, false, true, false },
+				{ true, true, false, true, false },
+				{ false, true, false, true, false },
+				{ false, true, false, false, false } });
+	}
+
+	/**
+	 * Tests if null is returned if there is not path from start to target.
+	 */
+	@Test
+	public void testUnreachable() {
+		Queue<Movement> path = _pathfinder.findPath(new Point(3, 0), new Point(4, 4), _map);
+		assertNull("Path is not null.", path);
+	}
+
+	/**
+	 * Checks if the algorithm finds the shortest path.
+	 */
+	@Test
+	public void testShortestPath() {
+		Queue<Movement> path = _pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		assertNotNull("Path is null.", path);
+		assertEquals("Path is not the shortest one.", 8, path.size());
+		assertPathLeadsTo(new Point(0, 0), new Point(4, 4), path);
+	}
+
+	/**
+	 * Compares the path lengths with plain A* on random maps.
+	 */
+	@Test
+	public void testRandomMaps() {
+		final int size = 40;
+		final Random random = new Random(42);
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(size, size);
+		final BidirectionalAStarPathfinder pathfinder = new BidirectionalAStarPathfinder(size, size);
+
+		for (int i = 0; i < 20; i++) {
+			final boolean[][] blocked = new boolean[size][size];
+
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					blocked[x][y] = random.nextInt(10) < 3;
+				}
+			}
+
+			final BlockadeMap map = new BooleanBlockadeMap(blocked);
+
+			for (int j = 0; j < 50; j++) {
+				final Point start = new Point(random.nextInt(size), random.nextInt(size));
+				final Point target = new Point(random.nextInt(size), random.nextInt(size));
+				final Queue<Movement> expected = reference.findPath(start, target, map);
+				final Queue<Movement> path = pathfinder.findPath(start, target, map);
+
+				if (expected == null) {
+					assertNull("Path is not null.", path);
+				} else {
+					assertNotNull("Path is null.", path);
+					assertEquals("Path is not the shortest one.", expected.size(), path.size());
+					assertPathLeadsTo(start, target, path);
+				}
+			}
+		}
+	}
+}
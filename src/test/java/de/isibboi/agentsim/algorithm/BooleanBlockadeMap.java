@@ -11,6 +11,7 @@ import de.isibboi.agentsim.game.map.Point;
  */
 public class BooleanBlockadeMap implements BlockadeMap {
 	private final boolean[][] _map;
+	private long _version = 0;
 
 	/**
 	 * Creates a new pathfinding map with the given boolean map.
@@ -22,12 +23,29 @@ public class BooleanBlockadeMap implements BlockadeMap {
 
 	@Override
 	public boolean isBlocked(final Point location) {
-		if (location.getX() >= 0 && location.getY() >= 0 && location.getX() < _map.length) {
-			if (location.getY() < _map[location.getX()].length) {
-				return _map[location.getX()][location.getY()];
+		return isBlocked(location.getX(), location.getY());
+	}
+
+	@Override
+	public boolean isBlocked(final int x, final int y) {
+		if (x >= 0 && y >= 0 && x < _map.length) {
+			if (y < _map[x].length) {
+				return _map[x][y];
 			}
 		}
 
 		return true;
 	}
-}
\ No newline at end of file
+
+	@Override
+	public long getVersion() {
+		return _version;
+	}
+
+	/**
+	 * Increments the version. Needs to be called after changing the array.
+	 */
+	public void incrementVersion() {
+		_version++;
+	}
+}
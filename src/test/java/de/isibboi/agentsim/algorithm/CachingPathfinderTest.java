@@ -0,0 +1,148 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the caching pathfinder.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class CachingPathfinderTest {
+	private CachingPathfinder _pathfinder;
+	private boolean[][] _blocked;
+	private BooleanBlockadeMap _map;
+
+	/**
+	 * Creates the path finder.
+	 */
+	@Before
+	public void setUp() {
+		_pathfinder = new CachingPathfinder(new ArrayAStarPathfinder(5, 5), 2);
+		_blocked = new boolean[][] {
+				{ false, true, false, false, false },
+				{ false, false, false, true, false },
+				{ true, true, false, true, false },
+				{ false, true, false, true, false },
+				{ false, true, false, false, false } };
+		_map = new BooleanBlockadeMap(_blocked);
+	}
+
+	/**
+	 * Checks that repeated searches are answered from the cache, and that every caller gets its own path.
+	 */
+	@Test
+	public void testHit() {
+		Queue<Movement> path = _pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		assertEquals("Path is not the shortest one.", 8, path.size());
+		path.clear();
+
+		path = _pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		assertEquals("Cached path was modified.", 8, path.size());
+		assertNull("Path is not null.", _pathfinder.findPath(new Point(3, 0), new Point(4, 4), _map));
+		assertNull("Path is not null.", _pathfinder.findPath(new Point(3, 0), new Point(4, 4), _map));
+
+		assertEquals("Wrong hit count.", 2, _pathfinder.getHitCount());
+		assertEquals("Wrong miss count.", 2, _pathfinder.getMissCount());
+	}
+
+	/**
+	 * Checks that a new version of the blockade map is not answered from the cache.
+	 */
+	@Test
+	public void testVersionChange() {
+		assertNull("Path is not null.", _pathfinder.findPath(new Point(3, 0), new Point(4, 4), _map));
+
+		_blocked[3][1] = false;
+		_map.incrementVersion();
+
+		assertEquals("Path is not the shortest one.", 5, _pathfinder.findPath(new Point(3, 0), new Point(4, 4), _map).size());
+		assertEquals("Wrong hit count.", 0, _pathfinder.getHitCount());
+		assertEquals("Wrong miss count.", 2, _pathfinder.getMissCount());
+	}
+
+	/**
+	 * Checks that a new version of the structure map is not answered from the cache, even if the blockade map did not change.
+	 */
+	@Test
+	public void testStructureVersionChange() {
+		final BooleanBlockadeMap structure = new BooleanBlockadeMap(new boolean[5][5]);
+		final CachingPathfinder pathfinder = new CachingPathfinder(new ArrayAStarPathfinder(5, 5), 2, structure);
+
+		pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		structure.incrementVersion();
+		pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+
+		assertEquals("Wrong hit count.", 1, pathfinder.getHitCount());
+		assertEquals("Wrong miss count.", 2, pathfinder.getMissCount());
+	}
+
+	/**
+	 * Checks that the least recently used result is evicted.
+	 */
+	@Test
+	public void testEviction() {
+		_pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		_pathfinder.findPath(new Point(4, 4), new Point(1, 1), _map);
+		_pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		_pathfinder.findPath(new Point(2, 2), new Point(2, 2), _map);
+		assertEquals("Wrong cache size.", 2, _pathfinder.size());
+
+		_pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		_pathfinder.findPath(new Point(4, 4), new Point(1, 1), _map);
+
+		assertEquals("Wrong hit count.", 2, _pathfinder.getHitCount());
+		assertEquals("Wrong miss count.", 4, _pathfinder.getMissCount());
+	}
+
+	/**
+	 * Checks that the workers of two path planning threads share the cache.
+	 * A path searched by the first thread is answered from the cache for requests on both threads, so the second thread never searches.
+	 */
+	@Test
+	public void testWorkersShareCache() {
+		final ArrayAStarPathfinder firstEngine = new ArrayAStarPathfinder(5, 5);
+		final ArrayAStarPathfinder secondEngine = new ArrayAStarPathfinder(5, 5);
+		final CachingPathfinder cache = new CachingPathfinder(firstEngine, 16);
+		final PathPlanningService service = new PathPlanningService(new PathfindingAlgorithm[] { cache.createWorker(firstEngine),
+				cache.createWorker(secondEngine) });
+
+		try {
+			// A single request is solved on the calling thread with the first worker.
+			service.submit(new Point(0, 0), new Point(4, 4), _map);
+			service.solve();
+			assertEquals("Wrong miss count.", 1, cache.getMissCount());
+
+			// A larger batch is split between both threads.
+			final List<PathRequest> requests = new ArrayList<>();
+
+			for (int i = 0; i < 8; i++) {
+				requests.add(service.submit(new Point(0, 0), new Point(4, 4), _map));
+			}
+
+			service.solve();
+
+			for (PathRequest request : requests) {
+				assertEquals("Path is not the shortest one.", 8, request.getPath().size());
+			}
+
+			assertEquals("Wrong hit count.", 8, cache.getHitCount());
+			assertEquals("Wrong miss count.", 1, cache.getMissCount());
+			assertEquals("The second thread searched.", 0, secondEngine.getExpandedVertexCount());
+		} finally {
+			service.shutdown();
+		}
+	}
+}
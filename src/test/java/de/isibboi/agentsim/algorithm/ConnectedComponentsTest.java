@@ -0,0 +1,105 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.entities.ai.HashKnowledgeMap;
+import de.isibboi.agentsim.game.entities.ai.KnowledgeMap;
+import de.isibboi.agentsim.game.map.Material;
+import de.isibboi.agentsim.game.map.MaterialFactory;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the connected component reachability index.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class ConnectedComponentsTest {
+	private Material _air;
+	private Material _rock;
+
+	/**
+	 * Creates the materials.
+	 */
+	@Before
+	public void setUp() {
+		MaterialFactory materialFactory = new MaterialFactory();
+		_air = materialFactory.addMaterial("Air", 0xffffff, false, 0, null);
+		_rock = materialFactory.addMaterial("Rock", 0x808080, true, 10, null);
+	}
+
+	/**
+	 * Tests if mining a wall merges two components, and if blocking a location splits them again.
+	 */
+	@Test
+	public void testMergeAndSplit() {
+		final KnowledgeMap<Material> knowledge = new HashKnowledgeMap<>();
+		final ConnectedComponents components = new ConnectedComponents(knowledge, 5, 1);
+		knowledge.addKnowledgeChangeListener(components);
+
+		knowledge.updateLocation(new Point(0, 0), _air, 1);
+		knowledge.updateLocation(new Point(1, 0), _air, 1);
+		knowledge.updateLocation(new Point(2, 0), _rock, 1);
+		knowledge.updateLocation(new Point(3, 0), _air, 1);
+
+		assertTrue("Neighbour is not reachable.", components.isReachable(new Point(0, 0), new Point(1, 0)));
+		assertTrue("Blocked target next to the component is not reachable.", components.isReachable(new Point(0, 0), new Point(2, 0)));
+		assertFalse("Location behind a wall is reachable.", components.isReachable(new Point(0, 0), new Point(3, 0)));
+		assertFalse("Unknown location is reachable.", components.isReachable(new Point(0, 0), new Point(4, 0)));
+		assertFalse("Blocked start can reach something.", components.isReachable(new Point(2, 0), new Point(1, 0)));
+
+		knowledge.updateLocation(new Point(2, 0), _air, 2);
+		assertTrue("Location is not reachable after mining the wall.", components.isReachable(new Point(0, 0), new Point(3, 0)));
+		assertTrue("Unknown location next to the component is not reachable.", components.isReachable(new Point(0, 0), new Point(4, 0)));
+
+		knowledge.updateLocation(new Point(1, 0), _rock, 3);
+		assertFalse("Location is reachable after blocking the only path.", components.isReachable(new Point(0, 0), new Point(3, 0)));
+	}
+
+	/**
+	 * Compares the index with plain A* while random locations are opened.
+	 * The maps span several chunks of the index and do not end at a chunk border.
+	 */
+	@Test
+	public void testRandomMaps() {
+		final int size = 70;
+		final Random random = new Random(42);
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(size, size);
+
+		for (int i = 0; i < 10; i++) {
+			final KnowledgeMap<Material> knowledge = new HashKnowledgeMap<>();
+			final ConnectedComponents components = new ConnectedComponents(knowledge, size, size);
+			knowledge.addKnowledgeChangeListener(components);
+			final BlockadeMap map = new KnowledgeBasedBlockadeMap(knowledge, components);
+
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					if (random.nextInt(10) < 7) {
+						knowledge.updateLocation(new Point(x, y), random.nextInt(10) < 4 ? _rock : _air, 1);
+					}
+				}
+			}
+
+			for (int tick = 2; tick < 12; tick++) {
+				for (int j = 0; j < 50; j++) {
+					final Point start = new Point(random.nextInt(size), random.nextInt(size));
+					final Point target = new Point(random.nextInt(size), random.nextInt(size));
+					final boolean expected = reference.findPath(start, target, map) != null;
+
+					assertEquals("Index differs from A* for " + start + " -> " + target + ".", expected, components.isReachable(start, target));
+				}
+
+				for (int j = 0; j < 20; j++) {
+					knowledge.updateLocation(new Point(random.nextInt(size), random.nextInt(size)), _air, tick);
+				}
+			}
+		}
+	}
+}
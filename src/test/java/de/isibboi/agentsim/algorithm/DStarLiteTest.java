@@ -0,0 +1,129 @@
+package de.isibboi.agentsim.algorithm;
+
+import static de.isibboi.agentsim.algorithm.PathAssert.assertPathLeadsTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Queue;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the incremental D* Lite planner.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class DStarLiteTest {
+	private boolean[][] _blocked;
+	private BlockadeMap _map;
+
+	/**
+	 * Creates the map.
+	 */
+	@Before
+	public void setUp() {
+		_blocked = new boolean[][] {
+				{ false, true, false, false, false },
+				{ false, false, false, true, false },
+				{ true, true, false, true, false },
+				{ false, true, false, true, false },
+				{ false, true, false, false, false } };
+		_map = new BooleanBlockadeMap(_blocked);
+	}
+
+	/**
+	 * Tests if null is returned if there is not path from start to target.
+	 */
+	@Test
+	public void testUnreachable() {
+		final DStarLite planner = new DStarLite(new Point(4, 4), _map, 5, 5);
+		assertNull("Path is not null.", planner.findPath(new Point(3, 0)));
+	}
+
+	/**
+	 * Checks if the planner finds the shortest path, and repairs it when the map changes.
+	 */
+	@Test
+	public void testRepairPath() {
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(5, 5);
+		final DStarLite planner = new DStarLite(new Point(4, 4), _map, 5, 5);
+		Queue<Movement> path = planner.findPath(new Point(0, 0));
+		assertNotNull("Path is null.", path);
+		assertEquals("Path is not the shortest one.", 8, path.size());
+		assertPathLeadsTo(new Point(0, 0), new Point(4, 4), path);
+
+		_blocked[2][2] = true;
+		path = planner.findPath(new Point(0, 0));
+		assertNotNull("Path is null after a detour became necessary.", path);
+		assertEquals("Path is not the shortest one.", reference.findPath(new Point(0, 0), new Point(4, 4), _map).size(), path.size());
+		assertPathLeadsTo(new Point(0, 0), new Point(4, 4), path);
+
+		_blocked[2][2] = false;
+		planner.locationChanged(new Point(2, 2));
+		path = planner.findPath(new Point(1, 1));
+		assertNotNull("Path is null after the path was opened again.", path);
+		assertEquals("Path is not the shortest one.", 6, path.size());
+		assertPathLeadsTo(new Point(1, 1), new Point(4, 4), path);
+	}
+
+	/**
+	 * Blocks locations on the current path of a moving start, and compares the repaired paths with plain A*.
+	 */
+	@Test
+	public void testRandomMaps() {
+		final int size = 40;
+		final Random random = new Random(42);
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(size, size);
+
+		for (int i = 0; i < 20; i++) {
+			final boolean[][] blocked = new boolean[size][size];
+
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					blocked[x][y] = random.nextInt(10) < 2;
+				}
+			}
+
+			final BlockadeMap map = new BooleanBlockadeMap(blocked);
+			final Point target = new Point(random.nextInt(size), random.nextInt(size));
+			Point start = new Point(random.nextInt(size), random.nextInt(size));
+			blocked[start.getX()][start.getY()] = false;
+			final DStarLite planner = new DStarLite(target, map, size, size);
+
+			for (int j = 0; j < 10; j++) {
+				final Queue<Movement> expected = reference.findPath(start, target, map);
+				final Queue<Movement> path = planner.findPath(start);
+
+				if (expected == null) {
+					assertNull("Path is not null.", path);
+					break;
+				}
+
+				assertNotNull("Path is null.", path);
+				assertEquals("Path is not the shortest one.", expected.size(), path.size());
+				assertPathLeadsTo(start, target, path);
+
+				if (path.size() < 3) {
+					break;
+				}
+
+				// Take a step, then block a location further down the path without reporting it.
+				start = path.poll().move(start);
+				Point location = start;
+
+				for (int k = random.nextInt(path.size() - 1); k >= 0; k--) {
+					location = path.poll().move(location);
+				}
+
+				blocked[location.getX()][location.getY()] = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.Environment;
+import de.isibboi.agentsim.Settings;
+import de.isibboi.agentsim.game.map.ChunkSource;
+import de.isibboi.agentsim.game.map.GameMap;
+import de.isibboi.agentsim.game.map.MapChunk;
+import de.isibboi.agentsim.game.map.Material;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the flow field.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class FlowFieldTest {
+	private static final int WIDTH = 100;
+	private static final int HEIGHT = 70;
+
+	/**
+	 * Opens and blocks random locations, and compares the field with a field that is computed from scratch after every batch of changes.
+	 * Small batches are read from the change journal, and the last batch is larger than the journal.
+	 */
+	@Test
+	public void testChanges() {
+		final Random random = new Random(42);
+		final Settings settings = new Settings("nonexistent.settings");
+		settings.set(Settings.GAME_MAP_CHANGE_JOURNAL_SIZE, 64);
+		final GameMap map = createMap(settings);
+		final Point root = new Point(WIDTH / 2, HEIGHT / 2);
+		map.setMaterial(root, Environment.MATERIAL_AIR);
+		final FlowField field = new FlowField(map, root);
+
+		for (int i = 0; i < 40; i++) {
+			final int changes = i == 39 ? 100 : random.nextInt(5) + 1;
+			final Material material = i % 4 == 3 ? Environment.MATERIAL_STONE : Environment.MATERIAL_AIR;
+
+			for (int j = 0; j < changes; j++) {
+				final Point location = new Point(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+
+				if (!location.equals(root)) {
+					map.setMaterial(location, material);
+				}
+			}
+
+			final FlowField reference = new FlowField(map, root);
+
+			for (int x = 0; x < WIDTH; x++) {
+				for (int y = 0; y < HEIGHT; y++) {
+					final Point location = new Point(x, y);
+					assertEquals("Wrong distance at " + location + ".", reference.getDistance(location), field.getDistance(location));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that a limited field stores the distances up to its maximum distance, also while locations are opened.
+	 */
+	@Test
+	public void testMaxDistance() {
+		final Random random = new Random(42);
+		final GameMap map = createMap(new Settings("nonexistent.settings"));
+		final Point root = new Point(WIDTH / 2, HEIGHT / 2);
+		map.setMaterial(root, Environment.MATERIAL_AIR);
+		final FlowField field = new FlowField(map, root, 20);
+
+		for (int i = 0; i < 10; i++) {
+			for (int j = 0; j < 5; j++) {
+				map.setMaterial(new Point(random.nextInt(WIDTH), random.nextInt(HEIGHT)), Environment.MATERIAL_AIR);
+			}
+
+			final FlowField reference = new FlowField(map, root);
+
+			for (int x = 0; x < WIDTH; x++) {
+				for (int y = 0; y < HEIGHT; y++) {
+					final Point location = new Point(x, y);
+					final int distance = reference.getDistance(location);
+					assertEquals("Wrong distance at " + location + ".", distance > 20 ? FlowField.UNREACHABLE : distance, field.getDistance(location));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a map where every fifth location is stone.
+	 * @param settings The settings.
+	 * @return The map.
+	 */
+	private GameMap createMap(final Settings settings) {
+		return new GameMap(WIDTH, HEIGHT, new ChunkSource() {
+			@Override
+			public void generateChunk(final int minX, final int minY, final int chunkWidth, final int chunkHeight, final byte[] materialIds) {
+				for (int y = 0; y < chunkHeight; y++) {
+					for (int x = 0; x < chunkWidth; x++) {
+						final Material material = ((minX + x) * 7 + (minY + y) * 3) % 5 == 0 ? Environment.MATERIAL_STONE : Environment.MATERIAL_AIR;
+						materialIds[y * MapChunk.SIZE + x] = (byte) material.getId();
+					}
+				}
+			}
+		}, new Point(0, 0), settings);
+	}
+}
@@ -0,0 +1,151 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.Environment;
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the hierarchical pathfinder.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class HierarchicalPathfinderTest {
+	/**
+	 * Compares the paths with plain A* on random maps.
+	 */
+	@Test
+	public void testRandomMaps() {
+		final int size = 48;
+		final Random random = new Random(42);
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(size, size);
+
+		for (int i = 0; i < 10; i++) {
+			final boolean[][] blocked = new boolean[size][size];
+
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					blocked[x][y] = random.nextInt(10) < 3;
+				}
+			}
+
+			final BlockadeMap map = new BooleanBlockadeMap(blocked);
+			final HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(map, size, size, 8);
+
+			for (int j = 0; j < 100; j++) {
+				final Point start = new Point(random.nextInt(size), random.nextInt(size));
+				final Point target = new Point(random.nextInt(size), random.nextInt(size));
+				final Queue<Movement> expected = reference.findPath(start, target, map);
+				final Queue<Movement> path = pathfinder.findPath(start, target, map);
+
+				if (expected == null) {
+					assertNull("Path is not null.", path);
+				} else {
+					assertNotNull("Path is null.", path);
+					assertTrue("Path is shorter than the shortest one.", path.size() >= expected.size());
+					assertPathValid(start, target, path, map);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if changes of the structure are picked up.
+	 */
+	@Test
+	public void testMaterialChanged() {
+		final int size = 32;
+		final boolean[][] blocked = new boolean[size][size];
+
+		// A wall between the left and the right half, with a single gap at the bottom.
+		for (int y = 0; y < size - 1; y++) {
+			blocked[size / 2][y] = true;
+		}
+
+		final BlockadeMap map = new BooleanBlockadeMap(blocked);
+		final HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(map, size, size, 8);
+		final Point start = new Point(0, 0);
+		final Point target = new Point(size - 1, 0);
+
+		Queue<Movement> path = pathfinder.findPath(start, target, map);
+		assertNotNull("Path is null.", path);
+		assertTrue("Path does not go around the wall.", path.size() >= 2 * size);
+		assertPathValid(start, target, path, map);
+
+		blocked[size / 2][0] = false;
+		pathfinder.materialChanged(new Point(size / 2, 0), Environment.MATERIAL_AIR);
+
+		path = pathfinder.findPath(start, target, map);
+		assertNotNull("Path is null.", path);
+		assertEquals("Path does not use the new gap.", size - 1, path.size());
+		assertPathValid(start, target, path, map);
+
+		blocked[size / 2][size - 1] = true;
+		blocked[size / 2][0] = true;
+		pathfinder.materialChanged(new Point(size / 2, size - 1), Environment.MATERIAL_DIRT);
+		pathfinder.materialChanged(new Point(size / 2, 0), Environment.MATERIAL_DIRT);
+
+		assertNull("Path is not null.", pathfinder.findPath(start, target, map));
+	}
+
+	/**
+	 * Checks that queries on another blockade map than the structure map do not use the abstract graph.
+	 */
+	@Test
+	public void testOtherMap() {
+		final int size = 32;
+		final boolean[][] known = new boolean[size][size];
+
+		// Only a corridor along the top and the right border is known to be open.
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				known[x][y] = y > 0 && x < size - 1;
+			}
+		}
+
+		final BlockadeMap structure = new BooleanBlockadeMap(new boolean[size][size]);
+		final BlockadeMap map = new BooleanBlockadeMap(known);
+		final HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(structure, size, size, 8);
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(size, size);
+		final Point start = new Point(0, 0);
+		final Point target = new Point(size - 1, size - 1);
+
+		final Queue<Movement> path = pathfinder.findPath(start, target, map);
+		assertEquals("Path is not the one of plain A*.", new ArrayList<>(reference.findPath(start, target, map)), new ArrayList<>(path));
+		assertEquals("The abstract graph was searched.", 0, pathfinder.getExpandedVertexCount());
+		assertPathValid(start, target, path, map);
+	}
+
+	/**
+	 * Asserts that following the given path from start ends at target, and that it only visits open locations.
+	 * @param start The start.
+	 * @param target The target.
+	 * @param path The path.
+	 * @param map The blockade map.
+	 */
+	private void assertPathValid(final Point start, final Point target, final Queue<Movement> path, final BlockadeMap map) {
+		Point current = start;
+
+		for (Movement movement : path) {
+			current = movement.move(current);
+
+			if (!current.equals(target)) {
+				assertFalse("Path leads through a blocked location.", map.isBlocked(current));
+			}
+		}
+
+		assertEquals("Path does not lead to the target.", target, current);
+	}
+}
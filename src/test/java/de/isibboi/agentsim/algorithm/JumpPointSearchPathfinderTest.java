@@ -0,0 +1,151 @@
+package de.isibboi.agentsim.algorithm;
+
+import static de.isibboi.agentsim.algorithm.PathAssert.assertPathLeadsTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Queue;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.Environment;
+import de.isibboi.agentsim.Settings;
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.ChunkSource;
+import de.isibboi.agentsim.game.map.GameMap;
+import de.isibboi.agentsim.game.map.MapChunk;
+import de.isibboi.agentsim.game.map.Material;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the jump point search pathfinder.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class JumpPointSearchPathfinderTest {
+	private JumpPointSearchPathfinder _pathfinder;
+	private BlockadeMap _map;
+
+	/**
+	 * Creates the path finder.
+	 */
+	@Before
+	public void setUp() {
+		_pathfinder = new JumpPointSearchPathfinder(5, 5);
+		_map = new BooleanBlockadeMap(new boolean[][] {
+				{ false, true, false, false, false },
+				{ false, false, false, true, false },
+				{ true, true, false, true, false },
+				{ false, true, false, true, false },
+				{ false, true, false, false, false } });
+	}
+
+	/**
+	 * Tests if null is returned if there is not path from start to target.
+	 */
+	@Test
+	public void testUnreachable() {
+		Queue<Movement> path = _pathfinder.findPath(new Point(3, 0), new Point(4, 4), _map);
+		assertNull("Path is not null.", path);
+	}
+
+	/**
+	 * Checks if the algorithm finds the shortest path.
+	 */
+	@Test
+	public void testShortestPath() {
+		Queue<Movement> path = _pathfinder.findPath(new Point(0, 0), new Point(4, 4), _map);
+		assertNotNull("Path is null.", path);
+		assertEquals("Path is not the shortest one.", 8, path.size());
+		assertPathLeadsTo(new Point(0, 0), new Point(4, 4), path);
+	}
+
+	/**
+	 * Compares the path lengths with plain A* on random maps.
+	 */
+	@Test
+	public void testRandomMaps() {
+		final int size = 40;
+		final Random random = new Random(42);
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(size, size);
+		final JumpPointSearchPathfinder pathfinder = new JumpPointSearchPathfinder(size, size);
+
+		for (int i = 0; i < 20; i++) {
+			final boolean[][] blocked = new boolean[size][size];
+
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					blocked[x][y] = random.nextInt(10) < 3;
+				}
+			}
+
+			final BlockadeMap map = new BooleanBlockadeMap(blocked);
+
+			for (int j = 0; j < 50; j++) {
+				final Point start = new Point(random.nextInt(size), random.nextInt(size));
+				final Point target = new Point(random.nextInt(size), random.nextInt(size));
+				final Queue<Movement> expected = reference.findPath(start, target, map);
+				final Queue<Movement> path = pathfinder.findPath(start, target, map);
+
+				if (expected == null) {
+					assertNull("Path is not null.", path);
+				} else {
+					assertNotNull("Path is null.", path);
+					assertEquals("Path is not the shortest one.", expected.size(), path.size());
+					assertPathLeadsTo(start, target, path);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compares the path lengths with plain A* on random game maps, whose rows are scanned word by word.
+	 * The width is no multiple of the chunk size, so that the jumps cross chunk borders and the end of the rows.
+	 */
+	@Test
+	public void testRandomGameMaps() {
+		final int width = 150;
+		final int height = 40;
+		final Random random = new Random(42);
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(width, height);
+		final JumpPointSearchPathfinder pathfinder = new JumpPointSearchPathfinder(width, height);
+		final Settings settings = new Settings("nonexistent.settings");
+
+		for (int i = 0; i < 20; i++) {
+			final long seed = random.nextLong();
+			final GameMap map = new GameMap(width, height, new ChunkSource() {
+				@Override
+				public void generateChunk(final int minX, final int minY, final int chunkWidth, final int chunkHeight, final byte[] materialIds) {
+					// Chunks may be generated again after they were evicted, so they only depend on the seed and their location.
+					final Random chunkRandom = new Random(seed + minX * 31L + minY);
+
+					for (int y = 0; y < chunkHeight; y++) {
+						for (int x = 0; x < chunkWidth; x++) {
+							final Material material = chunkRandom.nextInt(10) < 2 ? Environment.MATERIAL_STONE : Environment.MATERIAL_AIR;
+							materialIds[y * MapChunk.SIZE + x] = (byte) material.getId();
+						}
+					}
+				}
+			}, new Point(0, 0), settings);
+
+			for (int j = 0; j < 50; j++) {
+				final Point start = new Point(random.nextInt(width), random.nextInt(height));
+				final Point target = new Point(random.nextInt(width), random.nextInt(height));
+				final Queue<Movement> expected = reference.findPath(start, target, map);
+				final Queue<Movement> path = pathfinder.findPath(start, target, map);
+
+				if (expected == null) {
+					assertNull("Path is not null.", path);
+				} else {
+					assertNotNull("Path is null.", path);
+					assertEquals("Path is not the shortest one.", expected.size(), path.size());
+					assertPathLeadsTo(start, target, path);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the {@link LocationIntMap}.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class LocationIntMapTest {
+	/**
+	 * Compares the map with a hash map of points while it grows, including locations with negative coordinates.
+	 */
+	@Test
+	public void testLookup() {
+		final Random random = new Random(42);
+		final LocationIntMap map = new LocationIntMap(-1);
+		final Map<Point, Integer> reference = new HashMap<>();
+
+		for (int i = 0; i < 5000; i++) {
+			final Point location = new Point(random.nextInt(200) - 20, random.nextInt(200) - 20);
+			map.put(location.getX(), location.getY(), i);
+			reference.put(location, i);
+		}
+
+		assertEquals("Wrong amount of locations.", reference.size(), map.size());
+
+		for (int x = -21; x < 181; x++) {
+			for (int y = -21; y < 181; y++) {
+				final Integer expected = reference.get(new Point(x, y));
+				assertEquals("Wrong value at " + x + ", " + y + ".", expected == null ? -1 : expected.intValue(), map.get(x, y));
+			}
+		}
+
+		map.clear();
+		assertEquals("Map is not empty.", 0, map.size());
+		assertEquals("Location is still mapped.", -1, map.get(0, 0));
+	}
+
+	/**
+	 * Removes random locations from a crowded map, and compares it with a hash map of points.
+	 */
+	@Test
+	public void testRemove() {
+		final Random random = new Random(42);
+		final LocationIntMap map = new LocationIntMap(-1);
+		final Map<Point, Integer> reference = new HashMap<>();
+
+		for (int i = 0; i < 20000; i++) {
+			final Point location = new Point(random.nextInt(60), random.nextInt(60));
+
+			if (random.nextBoolean()) {
+				map.put(location.getX(), location.getY(), i);
+				reference.put(location, i);
+			} else {
+				map.remove(location.getX(), location.getY());
+				reference.remove(location);
+			}
+		}
+
+		assertEquals("Wrong amount of locations.", reference.size(), map.size());
+
+		for (int x = 0; x < 60; x++) {
+			for (int y = 0; y < 60; y++) {
+				final Integer expected = reference.get(new Point(x, y));
+				assertEquals("Wrong value at " + x + ", " + y + ".", expected == null ? -1 : expected.intValue(), map.get(x, y));
+			}
+		}
+	}
+}
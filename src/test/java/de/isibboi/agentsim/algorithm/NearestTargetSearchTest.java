@@ -0,0 +1,113 @@
+package de.isibboi.agentsim.algorithm;
+
+import static de.isibboi.agentsim.algorithm.PathAssert.assertPathLeadsTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the nearest target search.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class NearestTargetSearchTest {
+	private NearestTargetSearch _search;
+	private BlockadeMap _map;
+
+	/**
+	 * Creates the search.
+	 */
+	@Before
+	public void setUp() {
+		_search = new NearestTargetSearch(5, 5);
+		_map = new BooleanBlockadeMap(new boolean[][] {
+				{ false, true, false, false, false },
+				{ false, false, false, true, false },
+				{ true, true, false, true, false },
+				{ false, true, false, true, false },
+				{ false, true, false, false, false } });
+	}
+
+	/**
+	 * Tests if null is returned if no target can be reached.
+	 */
+	@Test
+	public void testUnreachable() {
+		assertNull("Result is not null.", _search.findNearestAccessPath(new Point(0, 0), _map, targets(new Point(4, 0))));
+	}
+
+	/**
+	 * Tests if the target with the shortest path is selected, even if another target is nearer by Manhattan distance.
+	 */
+	@Test
+	public void testNearestByPath() {
+		final AccessPath result = _search.findNearestAccessPath(new Point(2, 2), _map, targets(new Point(2, 0), new Point(4, 3)));
+		assertNotNull("Result is null.", result);
+		assertEquals("Wrong target.", new Point(4, 3), result.getTarget());
+		assertEquals("Wrong access point.", new Point(4, 2), result.getAccessPoint());
+		assertEquals("Path is not the shortest one.", 2, result.getPath().size());
+		assertPathLeadsTo(new Point(2, 2), result.getAccessPoint(), result.getPath());
+	}
+
+	/**
+	 * Tests if a target next to the start is found with an empty path.
+	 */
+	@Test
+	public void testTargetNextToStart() {
+		final AccessPath result = _search.findNearestAccessPath(new Point(0, 0), _map, targets(new Point(1, 0), new Point(0, 1)));
+		assertNotNull("Result is null.", result);
+		assertEquals("Wrong access point.", new Point(0, 0), result.getAccessPoint());
+		assertEquals("Path is not empty.", 0, result.getPath().size());
+	}
+
+	/**
+	 * Tests if every location is tested against the predicate only once per search.
+	 */
+	@Test
+	public void testEachLocationTestedOnce() {
+		final List<Point> tested = new ArrayList<>();
+		final TargetPredicate predicate = new TargetPredicate() {
+			@Override
+			public boolean isTarget(final int x, final int y) {
+				tested.add(new Point(x, y));
+				return false;
+			}
+		};
+
+		for (int i = 0; i < 2; i++) {
+			tested.clear();
+			assertNull("Result is not null.", _search.findNearestAccessPath(new Point(2, 2), _map, predicate));
+			assertEquals("A location was tested twice.", new HashSet<>(tested).size(), tested.size());
+			assertTrue("Too few locations were tested.", tested.size() > 10);
+		}
+	}
+
+	/**
+	 * Creates a predicate that accepts the given locations.
+	 * @param locations The targets.
+	 * @return The predicate.
+	 */
+	private TargetPredicate targets(final Point... locations) {
+		final Collection<Point> targets = new HashSet<>(Arrays.asList(locations));
+
+		return new TargetPredicate() {
+			@Override
+			public boolean isTarget(final int x, final int y) {
+				return targets.contains(new Point(x, y));
+			}
+		};
+	}
+}
@@ -0,0 +1,80 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.entities.Movement;
+
+/**
+ * Test case for the packed path.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class PackedPathTest {
+	private static final Movement[] MOVEMENTS = { Movement.UP, Movement.DOWN, Movement.LEFT, Movement.RIGHT };
+
+	/**
+	 * Stores more movements than fit into a single word and checks if they are iterated and polled in order.
+	 */
+	@Test
+	public void testOfferPoll() {
+		final Random random = new Random(42);
+		final List<Movement> expected = new ArrayList<>();
+		final PackedPath path = new PackedPath(1);
+
+		for (int i = 0; i < 100; i++) {
+			final Movement movement = MOVEMENTS[random.nextInt(MOVEMENTS.length)];
+			expected.add(movement);
+			path.offer(movement);
+		}
+
+		assertEquals("Wrong size.", expected.size(), path.size());
+		assertEquals("Iteration differs.", expected, new ArrayList<>(path));
+
+		for (Movement movement : expected) {
+			assertEquals("Peek differs.", movement, path.peek());
+			assertEquals("Poll differs.", movement, path.poll());
+		}
+
+		assertNull("Empty path returned a movement.", path.poll());
+		assertEquals("Path is not empty.", 0, path.size());
+	}
+
+	/**
+	 * Tests if a copy only contains the remaining movements and is independent of the original.
+	 */
+	@Test
+	public void testCopy() {
+		final PackedPath path = new PackedPath();
+
+		for (int i = 0; i < 40; i++) {
+			path.offer(MOVEMENTS[i % MOVEMENTS.length]);
+		}
+
+		for (int i = 0; i < 35; i++) {
+			path.poll();
+		}
+
+		final PackedPath copy = new PackedPath(path);
+		assertEquals("Copy differs.", new ArrayList<>(path), new ArrayList<>(copy));
+
+		copy.poll();
+		assertEquals("Copy is not independent.", 5, path.size());
+		assertEquals("Direction index is not relative to the cursor.", PackedPath.getDirection(Movement.RIGHT), path.getDirection(0));
+	}
+
+	/**
+	 * Tests if movements that are not steps are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoMovement() {
+		new PackedPath().offer(Movement.NONE);
+	}
+}
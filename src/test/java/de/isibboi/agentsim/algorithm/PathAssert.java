@@ -0,0 +1,36 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Assertions about paths, shared by the pathfinding tests.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public final class PathAssert {
+	/**
+	 * Unused.
+	 */
+	private PathAssert() {
+	}
+
+	/**
+	 * Asserts that following the given path from start ends at target.
+	 * @param start The start.
+	 * @param target The target.
+	 * @param path The path.
+	 */
+	public static void assertPathLeadsTo(final Point start, final Point target, final Iterable<Movement> path) {
+		Point current = start;
+
+		for (Movement movement : path) {
+			current = movement.move(current);
+		}
+
+		assertEquals("Path does not lead to the target.", target, current);
+	}
+}
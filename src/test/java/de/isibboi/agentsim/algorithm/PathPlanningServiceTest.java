@@ -0,0 +1,89 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the batched path planning service.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class PathPlanningServiceTest {
+	/**
+	 * Solves a batch on several threads and compares the paths with a single threaded search.
+	 */
+	@Test
+	public void testParallelBatch() {
+		final int size = 40;
+		final Random random = new Random(42);
+		final boolean[][] blocked = new boolean[size][size];
+
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				blocked[x][y] = random.nextInt(10) < 3;
+			}
+		}
+
+		final BlockadeMap map = new BooleanBlockadeMap(blocked);
+		final PathfindingAlgorithm[] pathfinders = new PathfindingAlgorithm[4];
+
+		for (int i = 0; i < pathfinders.length; i++) {
+			pathfinders[i] = new ArrayAStarPathfinder(size, size);
+		}
+
+		final PathPlanningService service = new PathPlanningService(pathfinders);
+		final List<PathRequest> requests = new ArrayList<>();
+
+		for (int i = 0; i < 200; i++) {
+			requests.add(service.submit(new Point(random.nextInt(size), random.nextInt(size)), new Point(random.nextInt(size), random.nextInt(size)), map));
+		}
+
+		assertEquals("Requests were not queued.", 200, service.getPendingRequestCount());
+		service.solve();
+		assertEquals("Requests are still pending.", 0, service.getPendingRequestCount());
+
+		final ArrayAStarPathfinder reference = new ArrayAStarPathfinder(size, size);
+
+		try {
+			for (PathRequest request : requests) {
+				assertTrue("Request was not solved.", request.isSolved());
+
+				final Queue<Movement> expected = reference.findPath(request.getStart(), request.getTarget(), map);
+
+				if (expected == null) {
+					assertNull("Path is not null.", request.getPath());
+				} else {
+					assertEquals("Path differs from single threaded search.", new ArrayList<>(expected), new ArrayList<>(request.getPath()));
+				}
+			}
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	/**
+	 * Tests if a pending request is solved when its path is needed.
+	 */
+	@Test
+	public void testSolveOnDemand() {
+		final PathPlanningService service = new PathPlanningService(new PathfindingAlgorithm[] { new ArrayAStarPathfinder(2, 2) });
+		final PathRequest request = service.submit(new Point(0, 0), new Point(1, 1), new BooleanBlockadeMap(new boolean[2][2]));
+
+		assertFalse("Request was solved before it was needed.", request.isSolved());
+		assertEquals("Path is not the shortest one.", 2, request.getPath().size());
+		assertTrue("Request is not solved.", request.isSolved());
+	}
+}
@@ -0,0 +1,202 @@
+package de.isibboi.agentsim.algorithm;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Queue;
+import java.util.Random;
+
+import de.isibboi.agentsim.Settings;
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.map.MapGenerator;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Compares all pathfinding algorithms on reproducible cave maps.
+ * For every map size, a map is generated by the {@link MapGenerator} with a fixed seed, and a fixed set of start and target pairs is drawn from its open locations.
+ * Every algorithm answers all queries after a warm up, and the following values are reported per query:
+ * the expanded vertices, the time, the allocated bytes, and how many paths are as short as the ones of {@link ArrayAStarPathfinder}.
+ * Unreachable targets are part of the query set, and a path that is found or missed wrongly is reported as error.
+ *
+ * This is not run as part of the tests. Run it after {@code mvn test-compile} with
+ * {@code java -Xmx3g -cp target/classes:target/test-classes:<dependencies> de.isibboi.agentsim.algorithm.PathfindingBenchmark [sizes] [queries] [seed]},
+ * for example with the arguments {@code 256,1024,4096 2000 42}, which are the defaults.
+ * The bytes allocated are only available on JVMs that support measuring them per thread, otherwise -1 is reported.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public final class PathfindingBenchmark {
+	/**
+	 * The algorithms that are compared.
+	 */
+	private enum Algorithm {
+		ASTAR, ARRAY_ASTAR, BIDIRECTIONAL_ASTAR, JUMP_POINT_SEARCH, HIERARCHICAL
+	}
+
+	private static final int CLUSTER_SIZE = 16;
+	private static final int WARM_UP_QUERIES = 200;
+
+	/**
+	 * Stops measuring an algorithm on a map once it exceeds this time, so that slow algorithms do not stall the benchmark on large maps.
+	 */
+	private static final long TIME_BUDGET_NANOS = 60_000_000_000L;
+
+	private final int _size;
+	private final BlockadeMap _map;
+	private final Point[] _starts;
+	private final Point[] _targets;
+
+	/**
+	 * The path lengths found by {@link ArrayAStarPathfinder}, or -1 if the target is unreachable.
+	 */
+	private final int[] _referenceLengths;
+
+	/**
+	 * Generates the map and the queries, and solves the queries with the reference algorithm.
+	 * @param size The width and height of the map.
+	 * @param queries The amount of queries.
+	 * @param seed The seed of the map and the queries.
+	 */
+	private PathfindingBenchmark(final int size, final int queries, final long seed) {
+		_size = size;
+		_map = generateMap(size, seed);
+		_starts = new Point[queries];
+		_targets = new Point[queries];
+		_referenceLengths = new int[queries];
+
+		final Random random = new Random(seed);
+
+		for (int i = 0; i < queries; i++) {
+			_starts[i] = randomOpenLocation(random);
+			_targets[i] = randomOpenLocation(random);
+		}
+
+		final PathfindingAlgorithm reference = new ArrayAStarPathfinder(size, size);
+
+		for (int i = 0; i < queries; i++) {
+			final Queue<Movement> path = reference.findPath(_starts[i], _targets[i], _map);
+			_referenceLengths[i] = path == null ? -1 : path.size();
+		}
+	}
+
+	/**
+	 * Runs the benchmark.
+	 * @param args The map sizes separated by commas, the amount of queries per map and the seed. All are optional.
+	 */
+	public static void main(final String[] args) {
+		final String sizes = args.length > 0 ? args[0] : "256,1024,4096";
+		final int queries = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		final long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+		System.out.printf("%6s %-20s %8s %12s %12s %12s %9s %7s%n", "size", "algorithm", "queries", "expanded", "ns", "bytes", "optimal", "errors");
+
+		for (String size : sizes.split(",")) {
+			final PathfindingBenchmark benchmark = new PathfindingBenchmark(Integer.parseInt(size.trim()), queries, seed);
+
+			for (Algorithm algorithm : Algorithm.values()) {
+				benchmark.run(algorithm);
+			}
+		}
+	}
+
+	/**
+	 * Generates the map with the given size and seed.
+	 * @param size The width and height of the map.
+	 * @param seed The seed.
+	 * @return The map.
+	 */
+	private static BlockadeMap generateMap(final int size, final long seed) {
+		return new MapGenerator(size, size, seed, new Settings("benchmark.settings")).generateMap();
+	}
+
+	/**
+	 * Draws a random location that is not blocked.
+	 * @param random The random number generator.
+	 * @return The location.
+	 */
+	private Point randomOpenLocation(final Random random) {
+		while (true) {
+			final Point location = new Point(random.nextInt(_size), random.nextInt(_size));
+
+			if (!_map.isBlocked(location)) {
+				return location;
+			}
+		}
+	}
+
+	/**
+	 * Creates the given algorithm for the map.
+	 * @param algorithm The algorithm.
+	 * @return The pathfinding algorithm.
+	 */
+	private PathfindingAlgorithm create(final Algorithm algorithm) {
+		switch (algorithm) {
+		case ASTAR:
+			return new AStarPathfinder();
+		case ARRAY_ASTAR:
+			return new ArrayAStarPathfinder(_size, _size);
+		case BIDIRECTIONAL_ASTAR:
+			return new BidirectionalAStarPathfinder(_size, _size);
+		case JUMP_POINT_SEARCH:
+			return new JumpPointSearchPathfinder(_size, _size);
+		case HIERARCHICAL:
+			return new HierarchicalPathfinder(_map, _size, _size, CLUSTER_SIZE);
+		default:
+			throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+		}
+	}
+
+	/**
+	 * Measures the given algorithm and prints the results.
+	 * @param algorithm The algorithm.
+	 */
+	private void run(final Algorithm algorithm) {
+		final PathfindingAlgorithm pathfinder = create(algorithm);
+
+		for (int i = 0; i < Math.min(WARM_UP_QUERIES, _starts.length); i++) {
+			pathfinder.findPath(_starts[i], _targets[i], _map);
+		}
+
+		final long expandedBefore = pathfinder.getExpandedVertexCount();
+		final long bytesBefore = getAllocatedBytes();
+		long nanos = 0;
+		int queries = 0;
+		int optimal = 0;
+		int errors = 0;
+
+		while (queries < _starts.length && nanos < TIME_BUDGET_NANOS) {
+			final long begin = System.nanoTime();
+			final Queue<Movement> path = pathfinder.findPath(_starts[queries], _targets[queries], _map);
+			nanos += System.nanoTime() - begin;
+
+			final int length = path == null ? -1 : path.size();
+
+			if (length == _referenceLengths[queries]) {
+				optimal++;
+			} else if (length == -1 || _referenceLengths[queries] == -1) {
+				errors++;
+			}
+
+			queries++;
+		}
+
+		final long bytes = bytesBefore < 0 ? -1 : (getAllocatedBytes() - bytesBefore) / queries;
+
+		System.out.printf("%6d %-20s %8d %12d %12d %12d %8.2f%% %7d%n", _size, algorithm, queries, (pathfinder.getExpandedVertexCount() - expandedBefore) / queries,
+				nanos / queries, bytes, 100.0 * optimal / queries, errors);
+	}
+
+	/**
+	 * Returns the amount of bytes allocated by the current thread so far.
+	 * @return The allocated bytes, or -1 if the JVM cannot measure them.
+	 */
+	private static long getAllocatedBytes() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+
+		return -1;
+	}
+}
@@ -0,0 +1,63 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.algorithm.randomized.RandomStream;
+import de.isibboi.agentsim.algorithm.randomized.RandomStreams;
+
+/**
+ * Tests if the {@link RandomStreams} generate reproducible and independent streams.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class RandomStreamsTest {
+	/**
+	 * Tests that the numbers of a tick only depend on the root seed, the stream and the tick.
+	 */
+	@Test
+	public void testReproducible() {
+		final RandomStream a = new RandomStreams(42).createStream(3, 0);
+		final RandomStream b = new RandomStreams(42).createStream(3, 0);
+
+		// Draw from a in an earlier tick, which must not change the numbers of the later tick.
+		a.startTick(1);
+		a.nextInt();
+		a.nextInt(10);
+
+		a.startTick(2);
+		b.startTick(2);
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(b.nextInt(1000), a.nextInt(1000));
+			assertEquals(b.nextLong(), a.nextLong());
+		}
+	}
+
+	/**
+	 * Tests that different seeds, ids, channels and ticks give different numbers.
+	 */
+	@Test
+	public void testIndependent() {
+		final long reference = firstLong(new RandomStreams(42).createStream(3, 0), 5);
+
+		assertNotEquals(reference, firstLong(new RandomStreams(43).createStream(3, 0), 5));
+		assertNotEquals(reference, firstLong(new RandomStreams(42).createStream(4, 0), 5));
+		assertNotEquals(reference, firstLong(new RandomStreams(42).createStream(3, 1), 5));
+		assertNotEquals(reference, firstLong(new RandomStreams(42).createStream(3, 0), 6));
+	}
+
+	/**
+	 * Returns the first number of the given stream in the given tick.
+	 * @param stream The stream.
+	 * @param tick The tick.
+	 * @return The first number.
+	 */
+	private long firstLong(final RandomStream stream, final int tick) {
+		stream.startTick(tick);
+		return stream.nextLong();
+	}
+}
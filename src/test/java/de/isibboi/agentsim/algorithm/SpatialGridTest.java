@@ -0,0 +1,132 @@
+package de.isibboi.agentsim.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Tests if the {@link SpatialGrid} keeps the locations and the lists of the cells consistent.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class SpatialGridTest {
+	private SpatialGrid<String> _grid;
+
+	/**
+	 * Creates an empty grid.
+	 */
+	@Before
+	public void setUp() {
+		_grid = new SpatialGrid<>(10, 5);
+	}
+
+	/**
+	 * Tests adding, moving and removing values.
+	 */
+	@Test
+	public void testMoves() {
+		final int a = _grid.add("a");
+		final int b = _grid.add("b");
+		final int c = _grid.add("c");
+		assertNull(_grid.getLocation(a));
+
+		_grid.setLocation(a, new Point(1, 1));
+		_grid.setLocation(b, new Point(1, 1));
+		_grid.setLocation(c, new Point(9, 4));
+
+		assertEquals(new Point(1, 1), _grid.getLocation(a));
+		assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(_grid.get(new Point(1, 1))));
+		assertEquals(Arrays.asList("c"), _grid.get(new Point(9, 4)));
+
+		_grid.setLocation(a, new Point(9, 4));
+		assertEquals(Arrays.asList("b"), _grid.get(new Point(1, 1)));
+		assertEquals(2, _grid.get(new Point(9, 4)).size());
+
+		_grid.remove(b);
+		assertTrue(_grid.get(new Point(1, 1)).isEmpty());
+		assertEquals(SpatialGrid.NONE, _grid.getFirst(1, 1));
+		assertNull(_grid.get(b));
+		assertEquals(2, _grid.size());
+
+		// The id of the removed value is reused.
+		assertEquals(b, _grid.add("d"));
+	}
+
+	/**
+	 * Tests that checking for the first value of each list finds every occupied location once.
+	 */
+	@Test
+	public void testOccupiedLocations() {
+		for (int i = 0; i < 20; i++) {
+			_grid.setLocation(_grid.add("v" + i), new Point(i % 3, 2));
+		}
+
+		int occupied = 0;
+		int values = 0;
+
+		for (int id = 0; id < _grid.getIdBound(); id++) {
+			if (_grid.isFirst(id)) {
+				occupied++;
+
+				for (int other = id; other != SpatialGrid.NONE; other = _grid.getNext(other)) {
+					values++;
+				}
+			}
+		}
+
+		assertEquals(3, occupied);
+		assertEquals(20, values);
+		assertFalse(_grid.isFirst(_grid.getIdBound()));
+	}
+
+	/**
+	 * Tests that only the cells that values arrive at or leave are dirty.
+	 */
+	@Test
+	public void testDirtyCells() {
+		final int a = _grid.add("a");
+		final int b = _grid.add("b");
+		_grid.setLocation(a, new Point(1, 1));
+		_grid.setLocation(b, new Point(2, 1));
+		assertEquals(2, _grid.getDirtyCellCount());
+
+		_grid.clearDirtyCells();
+		assertEquals(0, _grid.getDirtyCellCount());
+		assertFalse(_grid.isDirty(_grid.getCell(a)));
+
+		// Staying at the same location does not change the cell.
+		_grid.setLocation(a, new Point(1, 1));
+		assertEquals(0, _grid.getDirtyCellCount());
+
+		_grid.setLocation(a, new Point(2, 1));
+		_grid.setLocation(b, new Point(1, 1));
+		assertEquals(2, _grid.getDirtyCellCount());
+		assertEquals(_grid.getCell(b), _grid.getDirtyCell(0));
+		assertEquals(_grid.getCell(a), _grid.getDirtyCell(1));
+
+		_grid.clearDirtyCells();
+		final int cell = _grid.getCell(a);
+		_grid.remove(a);
+		assertEquals(1, _grid.getDirtyCellCount());
+		assertTrue(_grid.isDirty(cell));
+		assertEquals(SpatialGrid.NONE, _grid.getFirstInCell(_grid.getDirtyCell(0)));
+	}
+
+	/**
+	 * Tests that locations outside of the grid are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutside() {
+		_grid.setLocation(_grid.add("a"), new Point(10, 0));
+	}
+}
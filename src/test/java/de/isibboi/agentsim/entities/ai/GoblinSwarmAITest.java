@@ -0,0 +1,251 @@
+package de.isibboi.agentsim.entities.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.Environment;
+import de.isibboi.agentsim.Settings;
+import de.isibboi.agentsim.algorithm.PackedPath;
+import de.isibboi.agentsim.algorithm.PathPlanningService;
+import de.isibboi.agentsim.game.EntityLocationManager;
+import de.isibboi.agentsim.game.GameUpdateException;
+import de.isibboi.agentsim.game.entities.Entities;
+import de.isibboi.agentsim.game.entities.Goblin;
+import de.isibboi.agentsim.game.entities.Movement;
+import de.isibboi.agentsim.game.entities.ai.tasks.LockLocationTask;
+import de.isibboi.agentsim.game.entities.ai.tasks.MiningTask;
+import de.isibboi.agentsim.game.entities.ai.tasks.MoveToTask;
+import de.isibboi.agentsim.game.entities.ai.tasks.Task;
+import de.isibboi.agentsim.game.entities.ai.tasks.UnlockLocationTask;
+import de.isibboi.agentsim.game.map.ChunkSource;
+import de.isibboi.agentsim.game.map.GameMap;
+import de.isibboi.agentsim.game.map.MapChunk;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Tests how goblins of the {@link de.isibboi.agentsim.game.entities.ai.GoblinSwarmAI} plan and keep their paths.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class GoblinSwarmAITest {
+	private static final int SIZE = 40;
+
+	private Entities _entities;
+	private EntityLocationManager _entityLocationManager;
+
+	/**
+	 * Creates an open map. The goblins do not starve, but always want to return to the spawn point.
+	 */
+	@Before
+	public void setUp() {
+		final Settings settings = new Settings("nonexistent.settings");
+		settings.set(Settings.GAME_SPAWN_RADIUS, 1);
+		settings.set(Settings.GAME_ENTITIES_GOBLIN_INITIAL_SATURATION, 1000000);
+		settings.set(Settings.GAME_AI_SATURATION_BUFFER_MINIMUM, 1000000);
+		settings.set(Settings.CORE_AI_KNOWLEDGE_REPRESENTATION, Settings.CORE_AI_KNOWLEDGE_REPRESENTATION_HASHMAP);
+
+		final GameMap map = new GameMap(SIZE, SIZE, new ChunkSource() {
+			@Override
+			public void generateChunk(final int minX, final int minY, final int width, final int height, final byte[] materialIds) {
+				for (int y = 0; y < height; y++) {
+					for (int x = 0; x < width; x++) {
+						materialIds[y * MapChunk.SIZE + x] = (byte) Environment.MATERIAL_AIR.getId();
+					}
+				}
+			}
+		}, new Point(2, 2), settings);
+
+		_entities = new Entities(settings);
+		_entityLocationManager = new EntityLocationManager(map, _entities, settings, 1);
+	}
+
+	/**
+	 * Stops the threads of the entities and the entity location manager.
+	 */
+	@After
+	public void tearDown() {
+		_entities.shutdown();
+		_entityLocationManager.shutdown();
+	}
+
+	/**
+	 * Tests that a goblin walking back to spawn along the flow field keeps its path when it meets another goblin.
+	 * The other goblin wrongly believes that a location of the path is solid and tells the goblin, which makes it check the path.
+	 * The flow field knows the map, where the location is open. If the path was checked against the knowledge of the goblin instead,
+	 * it would be repaired with a planner that sees the unknown locations of the path as blocked, and discarded.
+	 * 
+	 * @throws GameUpdateException If updating the goblin fails.
+	 */
+	@Test
+	public void testFlowFieldPathSurvivesCollision() throws GameUpdateException {
+		final Goblin goblin = new Goblin(_entityLocationManager);
+		final Goblin other = new Goblin(_entityLocationManager);
+		goblin.setLocation(new Point(30, 30));
+		other.setLocation(new Point(30, 30));
+
+		final Random random = new Random(42);
+		goblin.update(random, 1);
+		goblin.updateLocation();
+		goblin.observe();
+
+		final Task task = goblin.getAI().getCurrentTask();
+		assertTrue("The goblin does not walk back to spawn.", task instanceof MoveToTask);
+		final PackedPath path = ((MoveToTask) task).getMovementQueue();
+
+		// Follow the path for a few steps, to a location the goblin does not know yet.
+		Point pathLocation = goblin.getLocation();
+
+		for (int i = 0; i < 5; i++) {
+			pathLocation = new Point(pathLocation.getX() + PackedPath.getDirectionX(path.getDirection(i)),
+					pathLocation.getY() + PackedPath.getDirectionY(path.getDirection(i)));
+		}
+
+		other.getAI().getMapKnowledge().updateLocation(pathLocation, Environment.MATERIAL_STONE, 1);
+		final int remainingMovements = path.size();
+
+		goblin.collideWith(other, 1);
+
+		assertSame("The path was replaced.", task, goblin.getAI().getCurrentTask());
+		assertFalse("The path was discarded.", task.isFinished());
+		assertSame("The path was repaired.", path, ((MoveToTask) task).getMovementQueue());
+		assertEquals("Movements were lost.", remainingMovements, path.size());
+	}
+
+	/**
+	 * Tests that a requested path is solved with the batch of the path planning service, and not when the task is planned or started.
+	 * 
+	 * @throws GameUpdateException If updating the task fails.
+	 */
+	@Test
+	public void testRequestedPathIsSolvedWithBatch() throws GameUpdateException {
+		final Goblin goblin = new Goblin(_entityLocationManager);
+		goblin.setLocation(new Point(30, 30));
+		final PathPlanningService service = _entityLocationManager.getPathPlanningService();
+
+		final MoveToTask task = new MoveToTask(goblin.getLocation(), new Point(10, 20), goblin, _entityLocationManager.getMap());
+		assertEquals("The path was not requested.", 1, service.getPendingRequestCount());
+
+		assertEquals("The duration is not estimated.", 30, task.guessDuration());
+		assertTrue("The task has no path.", task.mayHavePath());
+		assertEquals("The progress is not estimated.", 1, task.getProgress(), 0);
+		task.update(new Random(42), 1);
+		assertEquals("The path was solved before the batch.", 1, service.getPendingRequestCount());
+
+		service.solve();
+		task.eventPathsSolved();
+		assertNotEquals("The task does not move.", Movement.NONE, task.getMovement());
+		assertEquals("The duration is wrong.", 29, task.guessDuration());
+	}
+
+	/**
+	 * Tests that two goblins locking the same location in the same tick are resolved by their ids, and not by the order of the entities.
+	 * The goblin with the lower id takes the lock and mines the block. The lock of the other one is rejected, and it gives up mining.
+	 * 
+	 * @throws GameUpdateException If updating the entities fails.
+	 */
+	@Test
+	public void testConflictingLocksCommittedInIdOrder() throws GameUpdateException {
+		final GameMap map = _entityLocationManager.getMap();
+		final Point miningLocation = new Point(20, 20);
+		map.setMaterial(miningLocation, Environment.MATERIAL_STONE);
+
+		final Goblin first = new Goblin(_entityLocationManager);
+		final Goblin second = new Goblin(_entityLocationManager);
+		first.setLocation(new Point(19, 20));
+		second.setLocation(new Point(21, 20));
+		final MiningTask firstMining = enqueueMining(first, miningLocation);
+		final MiningTask secondMining = enqueueMining(second, miningLocation);
+
+		_entities.add(second);
+		_entities.add(first);
+
+		final Random random = new Random(42);
+		_entities.update(random, 1);
+		_entities.commit(1);
+
+		assertTrue("The location was not locked.", map.isLocationLocked(miningLocation));
+		assertFalse("The second goblin took the lock.", map.tryLockLocation(miningLocation, second));
+
+		_entities.update(random, 2);
+		_entities.commit(2);
+
+		assertSame("The first goblin stopped mining.", firstMining, first.getAI().getCurrentTask());
+		assertNotSame("The second goblin kept mining.", secondMining, second.getAI().getCurrentTask());
+
+		// Once at spawn, the second goblin would keep planning to walk back to spawn.
+		_entityLocationManager.removeEntity(second);
+
+		for (int tick = 3; tick < 200 && map.getMaterialAt(miningLocation) != Environment.MATERIAL_AIR; tick++) {
+			_entities.update(random, tick);
+			_entities.commit(tick);
+		}
+
+		assertEquals("The block was not mined.", Environment.MATERIAL_AIR, map.getMaterialAt(miningLocation));
+
+		_entities.update(random, 200);
+		_entities.commit(200);
+		assertFalse("The location was not unlocked.", map.isLocationLocked(miningLocation));
+	}
+
+	/**
+	 * Tests that a mined location is passed on to a goblin that knows the block before it was mined.
+	 * The block is mined in the tick that equals the age of the knowledge of the other goblin, so the ages would tie if the mined location
+	 * was stamped with the tick instead of the age of the map.
+	 * 
+	 * @throws GameUpdateException If updating the mining task fails.
+	 */
+	@Test
+	public void testMinedLocationIsExchanged() throws GameUpdateException {
+		final GameMap map = _entityLocationManager.getMap();
+		final Point miningLocation = new Point(20, 20);
+		map.setMaterial(miningLocation, Environment.MATERIAL_STONE);
+
+		final Goblin miner = new Goblin(_entityLocationManager);
+		final Goblin other = new Goblin(_entityLocationManager);
+		miner.setLocation(new Point(19, 20));
+		other.setLocation(new Point(21, 20));
+		other.getAI().getMapKnowledge().updateLocation(miningLocation, Environment.MATERIAL_STONE, map.getAge(miningLocation));
+
+		final int tick = (int) map.getAge(miningLocation);
+		final MiningTask mining = new MiningTask(miningLocation, miner, _entityLocationManager);
+		final Random random = new Random(42);
+
+		while (!mining.isFinished()) {
+			mining.update(random, tick);
+		}
+
+		miner.commit(tick);
+		assertEquals("The block was not mined.", Environment.MATERIAL_AIR, map.getMaterialAt(miningLocation));
+
+		other.getAI().exchangeInformation(miner.getAI());
+		assertEquals("The mined location was not exchanged.", Environment.MATERIAL_AIR, other.getAI().getMapKnowledge().getLocationKnowledge(miningLocation));
+	}
+
+	/**
+	 * Lets the given goblin lock, mine and unlock the given location, like a mining intend does.
+	 * @param goblin The goblin.
+	 * @param miningLocation The location to mine.
+	 * @return The mining task.
+	 */
+	private MiningTask enqueueMining(final Goblin goblin, final Point miningLocation) {
+		final LockLocationTask lock = new LockLocationTask(_entityLocationManager.getMap(), miningLocation, goblin);
+		final MiningTask mining = new MiningTask(miningLocation, goblin, _entityLocationManager);
+
+		goblin.getAI().enqueueTask(lock);
+		goblin.getAI().enqueueTask(mining);
+		goblin.getAI().enqueueTask(new UnlockLocationTask(lock));
+
+		return mining;
+	}
+}
@@ -0,0 +1,81 @@
+package de.isibboi.agentsim.entities.ai;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.game.entities.ai.HashKnowledgeMap;
+import de.isibboi.agentsim.game.map.Point;
+
+/**
+ * Test case for the {@link HashKnowledgeMap}.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class HashKnowledgeMapTest {
+	/**
+	 * Compares the map with a hash map of points while it grows, including locations with negative coordinates.
+	 */
+	@Test
+	public void testLookup() {
+		final Random random = new Random(42);
+		final HashKnowledgeMap<Integer> map = new HashKnowledgeMap<>();
+		final Map<Point, Integer> reference = new HashMap<>();
+
+		for (int i = 0; i < 5000; i++) {
+			final Point location = new Point(random.nextInt(200) - 20, random.nextInt(200) - 20);
+			map.updateLocation(location, i, i + 1);
+			reference.put(location, i);
+		}
+
+		assertEquals("Wrong amount of locations.", reference.size(), map.getKnownLocationSet().size());
+		assertEquals("Wrong known locations.", reference.keySet(), new HashSet<>(map.getKnownLocationSet()));
+
+		for (int x = -21; x < 181; x++) {
+			for (int y = -21; y < 181; y++) {
+				final Point location = new Point(x, y);
+				assertEquals("Wrong knowledge at " + location + ".", reference.get(location), map.getLocationKnowledge(x, y));
+				assertEquals("Wrong knowledge at " + location + ".", reference.get(location), map.getLocationKnowledge(location));
+				assertEquals("Wrong known location " + location + ".", reference.containsKey(location), map.getKnownLocationSet().contains(location));
+			}
+		}
+	}
+
+	/**
+	 * Tests that both maps contain the newer knowledge after an exchange.
+	 */
+	@Test
+	public void testExchange() {
+		final HashKnowledgeMap<String> map = new HashKnowledgeMap<>();
+		final HashKnowledgeMap<String> other = new HashKnowledgeMap<>();
+		final Point older = new Point(1, 2);
+		final Point newer = new Point(3, 4);
+		final Point unknown = new Point(5, 6);
+
+		map.updateLocation(older, "old", 1);
+		other.updateLocation(older, "new", 2);
+		map.updateLocation(newer, "new", 3);
+		other.updateLocation(newer, "old", 2);
+		other.updateLocation(unknown, "new", 1);
+
+		map.exchangeInformation(other);
+
+		for (HashKnowledgeMap<String> knowledge : Arrays.asList(map, other)) {
+			assertEquals("new", knowledge.getLocationKnowledge(older));
+			assertEquals("new", knowledge.getLocationKnowledge(newer));
+		}
+
+		assertEquals("new", map.getLocationKnowledge(unknown));
+		assertTrue(map.getKnownLocationSet().contains(unknown));
+		assertNull(map.getLocationKnowledge(7, 8));
+	}
+}
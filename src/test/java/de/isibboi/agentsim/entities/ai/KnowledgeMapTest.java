@@ -66,8 +66,14 @@ public class KnowledgeMapTest {
 		_knowledgeMapB.updateLocation(new Point(6, 2), 21, 1);
 		_knowledgeMapB.updateLocation(new Point(1, 2), 22, 6);
 
+		final long versionA = _knowledgeMapA.getVersion();
+		_knowledgeMapA.updateLocation(new Point(2, 2), 4, 3);
+		assertEquals("Version changed without new knowledge.", versionA, _knowledgeMapA.getVersion());
+
 		_knowledgeMapA.exchangeInformation(_knowledgeMapB);
 
+		assertEquals("Versions differ after exchange.", _knowledgeMapA.getVersion(), _knowledgeMapB.getVersion());
+
 		assertEquals(23, _knowledgeMapA.getLocationKnowledge(new Point(2, 2)).intValue());
 		assertEquals(24, _knowledgeMapA.getLocationKnowledge(new Point(2, 3)).intValue());
 		assertEquals(6, _knowledgeMapA.getLocationKnowledge(new Point(2, 4)).intValue());
@@ -0,0 +1,89 @@
+package de.isibboi.agentsim.game;
+
+import de.isibboi.agentsim.Settings;
+
+/**
+ * Compares the throughput of the {@link SimpleEntityCollider} and the {@link MultiThreadedEntityCollider}.
+ * Both colliders evaluate the same ticks of blocks of colliding entities, and the time per tick is reported.
+ *
+ * This is not run as part of the tests. Run it after {@code mvn test-compile} with
+ * {@code java -cp target/classes:target/test-classes:<dependencies> de.isibboi.agentsim.game.CollisionBenchmark [blocks] [work] [threads]},
+ * for example with the arguments {@code 2000 200 4}. The thread count defaults to the amount of processors.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public final class CollisionBenchmark {
+	private static final int BLOCK_SIZE = 3;
+	private static final int WARM_UP_TICKS = 50;
+	private static final int TICKS = 200;
+
+	/**
+	 * Unused.
+	 */
+	private CollisionBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark.
+	 * @param args The amount of blocks, the work per collision and the amount of threads.
+	 */
+	public static void main(final String[] args) {
+		final int blockCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		final int work = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		final int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+		final Settings settings = new Settings("benchmark.settings");
+		settings.set(Settings.CORE_UPDATE_COLLISION_THREAD_COUNT, threads);
+
+		final RecordingEntity[][] blocks = new RecordingEntity[blockCount][BLOCK_SIZE];
+
+		for (int block = 0; block < blockCount; block++) {
+			for (int i = 0; i < BLOCK_SIZE; i++) {
+				blocks[block][i] = new RecordingEntity(block * BLOCK_SIZE + i, work);
+			}
+		}
+
+		System.out.printf("%-14s %8s %8s %12s%n", "collider", "blocks", "threads", "ns/tick");
+		run("simple", new SimpleEntityCollider(settings), blocks, 1);
+		run("multithreaded", new MultiThreadedEntityCollider(settings), blocks, threads);
+	}
+
+	/**
+	 * Measures the given collider.
+	 * @param name The name of the collider.
+	 * @param collider The collider.
+	 * @param blocks The blocks of entities.
+	 * @param threads The amount of threads of the collider.
+	 */
+	private static void run(final String name, final EntityCollider collider, final RecordingEntity[][] blocks, final int threads) {
+		for (int tick = 0; tick < WARM_UP_TICKS; tick++) {
+			MultiThreadedEntityColliderTest.collide(collider, blocks, tick);
+			clearCollisions(blocks);
+		}
+
+		long time = 0;
+
+		for (int tick = 0; tick < TICKS; tick++) {
+			final long start = System.nanoTime();
+			MultiThreadedEntityColliderTest.collide(collider, blocks, tick);
+			time += System.nanoTime() - start;
+			clearCollisions(blocks);
+		}
+
+		collider.shutdown();
+		System.out.printf("%-14s %8d %8d %12d%n", name, blocks.length, threads, time / TICKS);
+	}
+
+	/**
+	 * Forgets the recorded collisions, so that the records do not grow over the ticks.
+	 * @param blocks The blocks of entities.
+	 */
+	private static void clearCollisions(final RecordingEntity[][] blocks) {
+		for (RecordingEntity[] block : blocks) {
+			for (RecordingEntity entity : block) {
+				entity.getCollisions().clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package de.isibboi.agentsim.game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.Settings;
+import de.isibboi.agentsim.game.entities.Entity;
+import de.isibboi.agentsim.game.entities.MapEntity;
+import de.isibboi.agentsim.ui.GameStatusMessageListener;
+
+/**
+ * Tests the whole {@link Game}.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class GameTest {
+	private static final int LARGE_MAP_SIZE = 50000;
+	private static final int TICKS = 100;
+
+	/**
+	 * Builds and runs a game on a map with more locations than an {@code int} can count.
+	 * None of the per location data may be allocated for the whole map.
+	 *
+	 * @throws GameUpdateException If the game cannot be updated.
+	 */
+	@Test
+	public void testLargeMap() throws GameUpdateException {
+		final Settings settings = new Settings("nonexistent.settings");
+		settings.set(Settings.UI_WIDTH, LARGE_MAP_SIZE);
+		settings.set(Settings.UI_HEIGHT, LARGE_MAP_SIZE);
+		settings.set(Settings.GAME_SCALE, 1);
+
+		// The spawn point of this seed is open.
+		settings.set(Settings.GAME_SEED, 2);
+
+		final Game game = new Game(new DefaultGameInitializer(), settings, new GameStatusMessageListener() {
+			@Override
+			public void receiveGameOverMessage(final String message) {
+			}
+
+			@Override
+			public void receiveRestartGameMessage() {
+			}
+		});
+
+		game.start();
+
+		try {
+			assertTrue("Map is too small.", (long) game.getMap().getWidth() * game.getMap().getHeight() > Integer.MAX_VALUE);
+
+			final Random random = new Random(42);
+
+			for (int tick = 0; tick < TICKS; tick++) {
+				game.update(random, tick);
+			}
+
+			assertFalse("Game is over.", game.isPaused());
+			assertEquals("Wrong amount of entities.", settings.getInt(Settings.GAME_INITIAL_GOBLIN_COUNT) + 1, game.getEntities().size());
+
+			for (Entity entity : game.getEntities()) {
+				if (entity instanceof MapEntity) {
+					final MapEntity mapEntity = (MapEntity) entity;
+					assertEquals("Entity is not where the location manager has it.", mapEntity.getLocation(),
+							game.getEntityLocationManager().getLocation(mapEntity));
+				}
+			}
+		} finally {
+			game.stop();
+		}
+	}
+}
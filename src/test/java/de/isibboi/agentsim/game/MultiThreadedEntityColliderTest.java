@@ -0,0 +1,92 @@
+package de.isibboi.agentsim.game;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.Settings;
+
+/**
+ * Tests if the {@link MultiThreadedEntityCollider} evaluates the same collisions as the {@link SimpleEntityCollider}.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class MultiThreadedEntityColliderTest {
+	private static final int BLOCK_COUNT = 500;
+	private static final int TICKS = 5;
+
+	/**
+	 * Collides random blocks of entities with both colliders and compares the recorded collisions and states.
+	 */
+	@Test
+	public void testSameCollisions() {
+		final Settings settings = new Settings("nonexistent.settings");
+		settings.set(Settings.CORE_UPDATE_COLLISION_THREAD_COUNT, 4);
+
+		final RecordingEntity[][] expected = createBlocks();
+		final RecordingEntity[][] actual = createBlocks();
+		final EntityCollider simpleCollider = new SimpleEntityCollider(settings);
+		final EntityCollider multiThreadedCollider = new MultiThreadedEntityCollider(settings);
+
+		try {
+			for (int tick = 0; tick < TICKS; tick++) {
+				collide(simpleCollider, expected, tick);
+				collide(multiThreadedCollider, actual, tick);
+			}
+		} finally {
+			multiThreadedCollider.shutdown();
+		}
+
+		for (int block = 0; block < BLOCK_COUNT; block++) {
+			for (int i = 0; i < expected[block].length; i++) {
+				assertEquals(expected[block][i].getCollisions(), actual[block][i].getCollisions());
+				assertEquals(expected[block][i].getState(), actual[block][i].getState());
+			}
+		}
+	}
+
+	/**
+	 * Creates the same blocks of two to five entities on every call.
+	 * @return The blocks.
+	 */
+	private RecordingEntity[][] createBlocks() {
+		final Random random = new Random(42);
+		final RecordingEntity[][] blocks = new RecordingEntity[BLOCK_COUNT][];
+		int id = 0;
+
+		for (int block = 0; block < BLOCK_COUNT; block++) {
+			blocks[block] = new RecordingEntity[2 + random.nextInt(4)];
+
+			for (int i = 0; i < blocks[block].length; i++) {
+				blocks[block][i] = new RecordingEntity(id++, 100);
+			}
+		}
+
+		return blocks;
+	}
+
+	/**
+	 * Lets all entities of each block collide, like the {@link EntityLocationManager} does.
+	 * @param collider The collider.
+	 * @param blocks The blocks.
+	 * @param tick The tick.
+	 */
+	static void collide(final EntityCollider collider, final RecordingEntity[][] blocks, final int tick) {
+		collider.startCollision(tick);
+
+		for (RecordingEntity[] block : blocks) {
+			for (int i = 0; i < block.length; i++) {
+				for (int j = i + 1; j < block.length; j++) {
+					collider.collide(block[i], block[j]);
+				}
+			}
+
+			collider.finishBlock();
+		}
+
+		collider.finishCollision();
+	}
+}
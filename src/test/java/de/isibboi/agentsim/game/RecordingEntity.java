@@ -0,0 +1,93 @@
+package de.isibboi.agentsim.game;
+
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import de.isibboi.agentsim.game.entities.Entity;
+
+/**
+ * An entity without a location that records the entities it collides with.
+ * Each collision costs a configurable amount of work, to simulate the collisions of real entities.
+ * It is not thread safe, so concurrent collisions of the same entity show up as lost or broken records.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+class RecordingEntity implements Entity {
+	private final int _id;
+	private final int _work;
+	private final List<Integer> _collisions = new ArrayList<>();
+	private long _state;
+
+	/**
+	 * Creates a new entity.
+	 * @param id The id that is recorded by the entities this one collides with.
+	 * @param work The amount of work per collision.
+	 */
+	RecordingEntity(final int id, final int work) {
+		_id = id;
+		_work = work;
+		_state = id;
+	}
+
+	@Override
+	public void collideWith(final Entity entity, final int tick) {
+		final RecordingEntity other = (RecordingEntity) entity;
+
+		for (int i = 0; i < _work; i++) {
+			_state = _state * 6364136223846793005L + other._state;
+			other._state ^= _state >>> 17;
+		}
+
+		_collisions.add(other._id);
+		other._collisions.add(_id);
+	}
+
+	/**
+	 * Returns the ids of the entities this entity collided with, in order.
+	 * @return The ids.
+	 */
+	public List<Integer> getCollisions() {
+		return _collisions;
+	}
+
+	/**
+	 * Returns the state that results from the work of the collisions.
+	 * @return The state.
+	 */
+	public long getState() {
+		return _state;
+	}
+
+	@Override
+	public boolean blocksBuildings() {
+		return false;
+	}
+
+	@Override
+	public void draw(final Graphics2D g, final double transition) {
+		// Do nothing.
+	}
+
+	@Override
+	public int getDrawPriority() {
+		return 0;
+	}
+
+	@Override
+	public void update(final Random random, final int tick) {
+		// Do nothing.
+	}
+
+	@Override
+	public void setSelected(final boolean isSelected) {
+		// Do nothing.
+	}
+
+	@Override
+	public boolean isSelected() {
+		return false;
+	}
+}
@@ -0,0 +1,117 @@
+package de.isibboi.agentsim.game.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.isibboi.agentsim.Environment;
+import de.isibboi.agentsim.Settings;
+
+/**
+ * Tests the chunk loading and eviction of the {@link GameMap}.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class GameMapTest {
+	private static final int SIZE = 200;
+	private static final int LOADED_CHUNK_LIMIT = 4;
+
+	private GameMap _map;
+	private int _generatedChunks;
+
+	/**
+	 * Creates a map whose diagonal is stone and all other locations are air.
+	 */
+	@Before
+	public void setUp() {
+		final Settings settings = new Settings("nonexistent.settings");
+		settings.set(Settings.GAME_MAP_LOADED_CHUNK_LIMIT, LOADED_CHUNK_LIMIT);
+		_generatedChunks = 0;
+
+		_map = new GameMap(SIZE, SIZE, new ChunkSource() {
+			@Override
+			public void generateChunk(final int minX, final int minY, final int width, final int height, final byte[] materialIds) {
+				_generatedChunks++;
+
+				for (int y = 0; y < height; y++) {
+					for (int x = 0; x < width; x++) {
+						final Material material = minX + x == minY + y ? Environment.MATERIAL_STONE : Environment.MATERIAL_AIR;
+						materialIds[y * MapChunk.SIZE + x] = (byte) material.getId();
+					}
+				}
+			}
+		}, new Point(0, 1), settings);
+	}
+
+	/**
+	 * Tests that chunks are generated lazily and that the amount of loaded chunks stays within the limit.
+	 */
+	@Test
+	public void testEviction() {
+		assertEquals(0, _map.getLoadedChunkCount());
+
+		for (int y = 0; y < SIZE; y++) {
+			for (int x = 0; x < SIZE; x++) {
+				assertEquals(x == y, _map.isBlocked(x, y));
+				assertTrue(_map.getLoadedChunkCount() <= LOADED_CHUNK_LIMIT);
+			}
+		}
+
+		assertTrue(_generatedChunks > 16);
+	}
+
+	/**
+	 * Tests that modified chunks are not evicted.
+	 */
+	@Test
+	public void testModifiedChunksStayLoaded() {
+		_map.setMaterial(new Point(10, 10), Environment.MATERIAL_AIR);
+		_map.setMaterial(new Point(20, 30), Environment.MATERIAL_STONE);
+
+		for (int y = 0; y < SIZE; y++) {
+			for (int x = 0; x < SIZE; x++) {
+				_map.isBlocked(x, y);
+			}
+		}
+
+		assertFalse(_map.isBlocked(10, 10));
+		assertTrue(_map.isBlocked(20, 30));
+	}
+
+	/**
+	 * Tests that the knowledge age of a location only changes if its chunk is modified.
+	 */
+	@Test
+	public void testRegionAges() {
+		final Point modified = new Point(10, 10);
+		final Point sameChunk = new Point(63, 0);
+		final Point otherChunk = new Point(64, 0);
+
+		assertEquals(1, _map.getAge(otherChunk));
+		_map.setMaterial(modified, Environment.MATERIAL_AIR);
+
+		assertEquals(_map.getAge(), _map.getAge(modified));
+		assertEquals(_map.getAge(), _map.getAge(sameChunk));
+		assertEquals(1, _map.getAge(otherChunk));
+	}
+
+	/**
+	 * Tests that the rows of solid bits are combined correctly across chunk borders and the map border.
+	 */
+	@Test
+	public void testRowBits() {
+		for (int y = -1; y <= SIZE; y++) {
+			for (int x = -70; x < SIZE + 5; x += 7) {
+				final long bits = _map.getRowBits(x, y);
+
+				for (int i = 0; i < 64; i++) {
+					assertEquals(_map.isBlocked(x + i, y), (bits & 1L << i) != 0);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package de.isibboi.agentsim.game.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.Environment;
+
+/**
+ * Tests the {@link MapChangeJournal}.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class MapChangeJournalTest {
+	/**
+	 * Tests that cursors read the changes recorded after their creation in order, independent of each other.
+	 */
+	@Test
+	public void testCursors() {
+		final MapChangeJournal journal = new MapChangeJournal(8, Environment.MATERIAL_FACTORY);
+		journal.record(0, 0, Environment.MATERIAL_AIR, Environment.MATERIAL_STONE, 2);
+
+		final MapChangeJournal.Cursor first = journal.createCursor();
+		journal.record(1, 2, Environment.MATERIAL_STONE, Environment.MATERIAL_AIR, 3);
+		final MapChangeJournal.Cursor second = journal.createCursor();
+		journal.record(3, 4, Environment.MATERIAL_DIRT, Environment.MATERIAL_AIR, 4);
+
+		assertEquals(2, first.getUnreadCount());
+		assertTrue(first.next());
+		assertEquals(1, first.getX());
+		assertEquals(2, first.getY());
+		assertEquals(Environment.MATERIAL_STONE, first.getOldMaterial());
+		assertEquals(Environment.MATERIAL_AIR, first.getNewMaterial());
+		assertEquals(3, first.getAge());
+		assertTrue(first.next());
+		assertEquals(3, first.getX());
+		assertFalse(first.next());
+
+		assertTrue(second.next());
+		assertEquals(Environment.MATERIAL_DIRT, second.getOldMaterial());
+		assertEquals(4, second.getAge());
+		assertFalse(second.next());
+	}
+
+	/**
+	 * Tests that a cursor that falls behind by more than the capacity reports it, and can continue after skipping to the end.
+	 */
+	@Test
+	public void testMissedChanges() {
+		final MapChangeJournal journal = new MapChangeJournal(3, Environment.MATERIAL_FACTORY);
+		final MapChangeJournal.Cursor cursor = journal.createCursor();
+		assertEquals(4, journal.getCapacity());
+
+		for (int i = 0; i < 4; i++) {
+			journal.record(i, 0, Environment.MATERIAL_AIR, Environment.MATERIAL_STONE, i);
+		}
+
+		assertFalse(cursor.hasMissedChanges());
+		journal.record(4, 0, Environment.MATERIAL_AIR, Environment.MATERIAL_STONE, 4);
+		assertTrue(cursor.hasMissedChanges());
+
+		cursor.skipToEnd();
+		assertFalse(cursor.hasMissedChanges());
+		journal.record(5, 0, Environment.MATERIAL_AIR, Environment.MATERIAL_STONE, 5);
+		assertTrue(cursor.next());
+		assertEquals(5, cursor.getX());
+	}
+
+	/**
+	 * Tests that reading a journal that has overwritten unread changes fails.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testReadingMissedChangesFails() {
+		final MapChangeJournal journal = new MapChangeJournal(1, Environment.MATERIAL_FACTORY);
+		final MapChangeJournal.Cursor cursor = journal.createCursor();
+		journal.record(0, 0, Environment.MATERIAL_AIR, Environment.MATERIAL_STONE, 1);
+		journal.record(1, 0, Environment.MATERIAL_AIR, Environment.MATERIAL_STONE, 2);
+		cursor.next();
+	}
+}
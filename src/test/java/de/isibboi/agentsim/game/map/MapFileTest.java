@@ -0,0 +1,73 @@
+package de.isibboi.agentsim.game.map;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.isibboi.agentsim.Environment;
+import de.isibboi.agentsim.Settings;
+
+/**
+ * Tests saving and loading maps with {@link MapFile}.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class MapFileTest {
+	private static final int WIDTH = 150;
+	private static final int HEIGHT = 70;
+
+	/**
+	 * The folder the map files are written to.
+	 */
+	@Rule
+	public TemporaryFolder _folder = new TemporaryFolder();
+
+	/**
+	 * Tests that a saved map is loaded with the same size, spawn point and materials, including modifications.
+	 * @throws IOException If the map file cannot be written or read.
+	 */
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		final Settings settings = new Settings("nonexistent.settings");
+		final GameMap map = new MapGenerator(WIDTH, HEIGHT, 42, settings).generateMap();
+		map.setMaterial(new Point(3, 4), Environment.MATERIAL_DIRT);
+		map.setMaterial(new Point(WIDTH - 1, HEIGHT - 1), Environment.MATERIAL_AIR);
+
+		final File file = _folder.newFile("test.map");
+		MapFile.save(map, file);
+		final GameMap loaded = MapFile.load(file, settings);
+
+		assertEquals(WIDTH, loaded.getWidth());
+		assertEquals(HEIGHT, loaded.getHeight());
+		assertEquals(map.getSpawnPoint(), loaded.getSpawnPoint());
+
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				assertEquals(map.getMaterialAt(x, y), loaded.getMaterialAt(x, y));
+			}
+		}
+
+		// Saving over the file the map was loaded from.
+		loaded.setMaterial(new Point(5, 5), Environment.MATERIAL_STONE);
+		MapFile.save(loaded, file);
+		assertEquals(Environment.MATERIAL_STONE, MapFile.load(file, settings).getMaterialAt(5, 5));
+	}
+
+	/**
+	 * Tests that files that are no map files are rejected.
+	 * @throws IOException If the file cannot be written, or as expected if the file cannot be loaded.
+	 */
+	@Test(expected = IOException.class)
+	public void testInvalidFile() throws IOException {
+		final File file = _folder.newFile("invalid.map");
+		Files.write(file.toPath(), "This is not a map".getBytes("UTF-8"));
+		MapFile.load(file, new Settings("nonexistent.settings"));
+	}
+}
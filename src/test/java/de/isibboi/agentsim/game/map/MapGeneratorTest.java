@@ -0,0 +1,81 @@
+package de.isibboi.agentsim.game.map;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.Settings;
+import de.isibboi.agentsim.game.map.GenerationParameters.GenerationType;
+
+/**
+ * Tests that the map generation is deterministic and that the material lookup matches the material ranges.
+ *
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class MapGeneratorTest {
+	private static final int WIDTH = 300;
+	private static final int HEIGHT = 200;
+	private static final long SEED = 42;
+
+	/**
+	 * Tests that the map does not depend on the amount of threads that generate it.
+	 */
+	@Test
+	public void testParallelGenerationIsDeterministic() {
+		final GameMap sequential = generateMap(1);
+		final GameMap parallel = generateMap(4);
+
+		assertEquals(sequential.getSpawnPoint(), parallel.getSpawnPoint());
+
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				assertEquals(sequential.getMaterialAt(x, y), parallel.getMaterialAt(x, y));
+			}
+		}
+	}
+
+	/**
+	 * Tests that the range table finds the first material whose range contains a sample, like checking all materials in order.
+	 */
+	@Test
+	public void testMaterialRangeTable() {
+		final MaterialFactory factory = new MaterialFactory();
+		final List<Material> materials = new ArrayList<>();
+		materials.add(factory.addMaterial("Air", 0, false, 0, new GenerationParameters(GenerationType.DENSITY_MAP, -1e100, 255)));
+		materials.add(factory.addMaterial("Dirt", 1, true, 0, new GenerationParameters(GenerationType.DENSITY_MAP, 255, 300)));
+		materials.add(factory.addMaterial("Stone", 2, true, 0, new GenerationParameters(GenerationType.DENSITY_MAP, 300, 1e100)));
+		materials.add(factory.addMaterial("Gap", 3, false, 0, new GenerationParameters(GenerationType.DENSITY_MAP, 400, 500)));
+		materials.add(factory.addMaterial("Overlap", 4, false, 0, new GenerationParameters(GenerationType.DENSITY_MAP, 250, 1e200)));
+
+		final MaterialRangeTable table = new MaterialRangeTable(materials);
+		final double[] samples = { -1e300, -1e100, 0, 254.9, 255, 299.999, 300, 450, 500, 1e100, 1e150, 1e200, 1e300, Double.NaN };
+
+		for (double sample : samples) {
+			int expected = MaterialRangeTable.NO_MATERIAL;
+
+			for (Material material : materials) {
+				if (material.inRange(sample)) {
+					expected = material.getId();
+					break;
+				}
+			}
+
+			assertEquals("Sample " + sample, expected, table.getMaterialId(sample));
+		}
+	}
+
+	/**
+	 * Generates the test map.
+	 * @param threadCount The amount of threads.
+	 * @return The map.
+	 */
+	private GameMap generateMap(final int threadCount) {
+		final Settings settings = new Settings("nonexistent.settings");
+		settings.set(Settings.CORE_MAP_GENERATION_THREAD_COUNT, threadCount);
+		return new MapGenerator(WIDTH, HEIGHT, SEED, settings).generateMap();
+	}
+}
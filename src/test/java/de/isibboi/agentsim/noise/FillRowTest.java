@@ -0,0 +1,68 @@
+package de.isibboi.agentsim.noise;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import de.isibboi.agentsim.algorithm.noise.BorderFunction;
+import de.isibboi.agentsim.algorithm.noise.CombinedNoise;
+import de.isibboi.agentsim.algorithm.noise.Noise;
+import de.isibboi.agentsim.algorithm.noise.ScaledNoise;
+import de.isibboi.agentsim.algorithm.noise.SimplexNoise;
+
+/**
+ * Checks if the noise functions sample rows like they sample single locations.
+ * @author Sebastian Schmidt
+ * @since 0.3.0
+ */
+public class FillRowTest {
+	private static final int ROW_LENGTH = 100;
+
+	/**
+	 * Tests if the simplex noise samples rows exactly like single locations.
+	 */
+	@Test
+	public void testSimplexNoise() {
+		assertRowsEqual(new SimplexNoise(49805643105274513L), 0.37, 0);
+	}
+
+	/**
+	 * Tests if the border function samples rows exactly like single locations.
+	 */
+	@Test
+	public void testBorderFunction() {
+		assertRowsEqual(new BorderFunction(300, 200, -150, 3), 1, 0);
+	}
+
+	/**
+	 * Tests if the combination of scaled noise functions samples rows like single locations, up to rounding errors.
+	 */
+	@Test
+	public void testCombinedNoise() {
+		final Noise noise = new CombinedNoise(new Noise[] {
+				new ScaledNoise(new SimplexNoise(1), 31, 18, 20, 256),
+				new ScaledNoise(new SimplexNoise(2), 17, 10, 110, 190),
+				new BorderFunction(300, 200, -187, 3) });
+
+		assertRowsEqual(noise, 1, 1e-9);
+	}
+
+	/**
+	 * Asserts that each row sample equals the sample of its single location.
+	 * @param noise The noise function.
+	 * @param step The distance between two locations of a row.
+	 * @param delta The allowed difference.
+	 */
+	private void assertRowsEqual(final Noise noise, final double step, final double delta) {
+		final double[] row = new double[ROW_LENGTH];
+
+		for (int y = -50; y < 250; y += 7) {
+			final double x = y * 0.61 - 40;
+			noise.fillRow(x, y, step, ROW_LENGTH, row);
+
+			for (int i = 0; i < ROW_LENGTH; i++) {
+				assertEquals(noise.noise(x + i * step, y), row[i], delta);
+			}
+		}
+	}
+}